@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.svarm.common.crypt.AesGcmSivManager;
+import org.svarm.common.crypt.CryptUtils;
+
+/**
+ * Encrypting and decrypting column data with AES/GCM/SIV, by payload size in bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AesGcmSivManagerBenchmark {
+
+  @Param({"64", "1024", "16384"})
+  private int size;
+
+  private AesGcmSivManager manager;
+  private byte[] key;
+  private byte[] nonce;
+  private byte[] payload;
+  private byte[] encrypted;
+
+  /**
+   * Builds the key, nonce and payload.
+   */
+  @Setup
+  public void setup() {
+    final CryptUtils cryptUtils = new CryptUtils(new SecureRandom());
+    manager = new AesGcmSivManager(cryptUtils);
+    key = cryptUtils.randomKey(AesGcmSivManager.KEY_LENGTH);
+    nonce = cryptUtils.randomKey(AesGcmSivManager.NONCE_LENGTH);
+    payload = Payloads.bytes(size);
+    encrypted = manager.encrypt(payload, key, nonce);
+  }
+
+  /**
+   * Encrypt.
+   *
+   * @return the cipher text.
+   */
+  @Benchmark
+  public byte[] encrypt() {
+    return manager.encrypt(payload, key, nonce);
+  }
+
+  /**
+   * Decrypt.
+   *
+   * @return the plain text.
+   */
+  @Benchmark
+  public byte[] decrypt() {
+    return manager.decrypt(encrypted, key, nonce);
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.svarm.common.engine.HashingEngine;
+
+/**
+ * The hashes used for placement (murmur3) and for key names (sha256).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashingEngineBenchmark {
+
+  @Param({"16", "256", "4096"})
+  private int size;
+
+  private HashingEngine hashingEngine;
+  private String value;
+
+  /**
+   * Builds the value to hash.
+   */
+  @Setup
+  public void setup() {
+    hashingEngine = new HashingEngine();
+    value = Payloads.string(size);
+  }
+
+  /**
+   * Murmur3 over the chars.
+   *
+   * @return the hash.
+   */
+  @Benchmark
+  public int murmur3() {
+    return hashingEngine.murmur3(value);
+  }
+
+  /**
+   * Sha256 to hex.
+   *
+   * @return the hash.
+   */
+  @Benchmark
+  public String sha256() {
+    return hashingEngine.sha256(value);
+  }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks;
+
+import com.codeheadsystems.metrics.MetricFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.svarm.common.config.api.ImmutableNodeRange;
+import org.svarm.common.config.api.ImmutableTenantResource;
+import org.svarm.common.config.api.ImmutableTenantResourceRange;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.common.engine.HashingEngine;
+import org.svarm.common.engine.RingEngine;
+import org.svarm.proxy.ProxyConfiguration;
+import org.svarm.proxy.engine.CachingTenantResourceRangeEngine;
+import org.svarm.proxy.engine.NodeRangeResolverEngine;
+import org.svarm.proxy.model.RoutingTable;
+import org.svarm.server.engine.ExecutorEngine;
+
+/**
+ * Routing one key to its replicas: the old allocating way, the map nodeRangeToHash() hands the table entry manager,
+ * and the primitive resolve(). The gc profiler reports the allocation per operation, which should be zero for
+ * resolve().
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeRangeResolverEngineBenchmark {
+
+  private static final int REPLICATION_FACTOR = 3;
+
+  @Param({"10", "100", "1000"})
+  private int ranges;
+
+  private final int[] locations = new int[REPLICATION_FACTOR];
+  private final NodeRange[] nodeRanges = new NodeRange[REPLICATION_FACTOR];
+  private final TenantResource tenantResource = ImmutableTenantResource.builder()
+      .tenant("tenant").resource("resource").build();
+  private RingEngine ringEngine;
+  private RoutingTable routingTable;
+  private NodeRangeResolverEngine engine;
+  private String[] keys;
+  private int index;
+
+  /**
+   * Builds the routing table and a set of keys.
+   */
+  @Setup
+  public void setup() {
+    final Map<Integer, NodeRange> hashToNodeRange = new HashMap<>();
+    final long step = (1L << 32) / ranges;
+    for (int i = 0; i < ranges; i++) {
+      final int low = (int) (Integer.MIN_VALUE + step * i);
+      hashToNodeRange.put(low, ImmutableNodeRange.builder()
+          .uuid("node-" + i).uri("http://node-" + i).hash(low).build());
+    }
+    routingTable = RoutingTable.of(ImmutableTenantResourceRange.builder()
+        .tenant("tenant").resource("resource").hashToNodeRange(hashToNodeRange).build());
+    ringEngine = new RingEngine(new HashingEngine());
+    // Stands in for etcd: every tenant resource has the same routing table.
+    final CachingTenantResourceRangeEngine cachingEngine =
+        new CachingTenantResourceRangeEngine(null, MetricFactory.builder().build(),
+            new ExecutorEngine(new ProxyConfiguration())) {
+          @Override
+          public Optional<RoutingTable> readRoutingTable(final TenantResource tenantResource) {
+            return Optional.of(routingTable);
+          }
+        };
+    engine = new NodeRangeResolverEngine(ringEngine, MetricFactory.builder().build(), cachingEngine);
+    keys = new String[1024];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = UUID.randomUUID().toString();
+    }
+  }
+
+  private String nextKey() {
+    index = (index + 1) & 1023;
+    return keys[index];
+  }
+
+  /**
+   * The ring entry, boxed location set, and a map of the owners.
+   *
+   * @param blackhole to consume the result.
+   */
+  @Benchmark
+  public void ringEntry(final Blackhole blackhole) {
+    final Map<NodeRange, Integer> result = new HashMap<>();
+    for (Integer hash : ringEngine.ringEntry(nextKey(), REPLICATION_FACTOR).locationStores()) {
+      result.putIfAbsent(routingTable.nodeRangeForHash(hash), hash);
+    }
+    blackhole.consume(result);
+  }
+
+  /**
+   * What the table entry manager calls, including the metrics timer.
+   *
+   * @return the owners.
+   */
+  @Benchmark
+  public Map<NodeRange, Integer> nodeRangeToHash() {
+    return engine.nodeRangeToHash(tenantResource, nextKey());
+  }
+
+  /**
+   * The primitive path, writing into reused arrays.
+   *
+   * @param blackhole to consume the result.
+   */
+  @Benchmark
+  public void resolve(final Blackhole blackhole) {
+    engine.resolve(routingTable, nextKey(), locations, nodeRanges);
+    blackhole.consume(nodeRanges);
+  }
+
+}
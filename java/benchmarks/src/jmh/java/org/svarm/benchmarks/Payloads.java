@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Random;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.node.api.ImmutableEntryInfo;
+
+/**
+ * Builds repeatable payloads for the benchmarks. Seeded, so every run hashes and encrypts the same bytes.
+ */
+final class Payloads {
+
+  private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+  private Payloads() {
+  }
+
+  /**
+   * A string of the given length.
+   *
+   * @param length of the string.
+   * @return the string.
+   */
+  static String string(final int length) {
+    final Random random = new Random(length);
+    final StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Random bytes of the given length.
+   *
+   * @param length of the array.
+   * @return the bytes.
+   */
+  static byte[] bytes(final int length) {
+    final byte[] bytes = new byte[length];
+    new Random(length).nextBytes(bytes);
+    return bytes;
+  }
+
+  /**
+   * An entry with the given number of columns, alternating string and integer values.
+   *
+   * @param columns in the entry.
+   * @return the entry.
+   */
+  static EntryInfo entryInfo(final int columns) {
+    final ObjectNode data = JsonNodeFactory.instance.objectNode();
+    for (int i = 0; i < columns; i++) {
+      if (i % 2 == 0) {
+        data.put("column" + i, string(32));
+      } else {
+        data.put("column" + i, i);
+      }
+    }
+    return ImmutableEntryInfo.builder()
+        .id("entry")
+        .locationHash(42)
+        .timestamp(System.currentTimeMillis())
+        .data(data)
+        .build();
+  }
+
+}
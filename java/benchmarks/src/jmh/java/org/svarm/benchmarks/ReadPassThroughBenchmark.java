@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.svarm.common.factory.ObjectMapperFactory;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.proxy.engine.RawEntryEngine;
+import org.svarm.proxy.model.RawEntry;
+
+/**
+ * The proxy's work for one read, from the node's response body to the bytes for the client: parsing the entry
+ * and writing its data back out, against scanning it and passing the data through. Run with the gc profiler
+ * (the default) for the allocation per read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadPassThroughBenchmark {
+
+  @Param({"1", "10", "100"})
+  private int columns;
+
+  private ObjectMapper objectMapper;
+  private RawEntryEngine rawEntryEngine;
+  private byte[] body;
+
+  /**
+   * Builds the node response body.
+   *
+   * @throws IOException if the encoding fails.
+   */
+  @Setup
+  public void setup() throws IOException {
+    objectMapper = new ObjectMapperFactory().generate();
+    rawEntryEngine = new RawEntryEngine(objectMapper);
+    body = objectMapper.writeValueAsBytes(Payloads.entryInfo(columns));
+  }
+
+  /**
+   * Parse the entry, write out the data.
+   *
+   * @return the client body.
+   * @throws IOException if the json is bad.
+   */
+  @Benchmark
+  public byte[] parse() throws IOException {
+    final EntryInfo entryInfo = objectMapper.readValue(body, EntryInfo.class);
+    return objectMapper.writeValueAsBytes(entryInfo.data());
+  }
+
+  /**
+   * Scan the entry, pass the data through.
+   *
+   * @return the raw entry.
+   * @throws IOException if the stream fails.
+   */
+  @Benchmark
+  public RawEntry passThrough() throws IOException {
+    final RawEntry rawEntry = rawEntryEngine.parse(body);
+    rawEntry.writeData(OutputStream.nullOutputStream());
+    return rawEntry;
+  }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.svarm.common.engine.HashingEngine;
+import org.svarm.common.engine.RingEngine;
+import org.svarm.common.model.RingEntry;
+
+/**
+ * Placing a key on the ring, through the ring entry and through the primitive location hashes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingEngineBenchmark {
+
+  @Param({"1", "3", "5"})
+  private int replicationFactor;
+
+  private RingEngine ringEngine;
+  private String[] keys;
+  private int[] locations;
+  private int index;
+
+  /**
+   * Builds the keys.
+   */
+  @Setup
+  public void setup() {
+    ringEngine = new RingEngine(new HashingEngine());
+    locations = new int[replicationFactor];
+    keys = new String[1024];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = UUID.randomUUID().toString();
+    }
+  }
+
+  private String nextKey() {
+    index = (index + 1) & 1023;
+    return keys[index];
+  }
+
+  /**
+   * The ring entry.
+   *
+   * @return the entry.
+   */
+  @Benchmark
+  public RingEntry ringEntry() {
+    return ringEngine.ringEntry(nextKey(), replicationFactor);
+  }
+
+  /**
+   * The location hashes, into a reused array.
+   *
+   * @return the locations.
+   */
+  @Benchmark
+  public int[] locationHashes() {
+    ringEngine.locationHashes(nextKey(), replicationFactor, locations);
+    return locations;
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.svarm.common.config.api.ImmutableNodeRange;
+import org.svarm.common.config.api.ImmutableTenantResourceRange;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.common.config.api.TenantResourceRange;
+import org.svarm.proxy.model.RoutingTable;
+
+/**
+ * Compares resolving a hash through the compiled routing table with the old scan of the range map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingTableBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int ranges;
+
+  private TenantResourceRange tenantResourceRange;
+  private RoutingTable routingTable;
+  private int[] hashes;
+  private int index;
+
+  /**
+   * Splits the ring evenly into the requested number of ranges.
+   */
+  @Setup
+  public void setup() {
+    final Map<Integer, NodeRange> hashToNodeRange = new HashMap<>();
+    final long step = (1L << 32) / ranges;
+    for (int i = 0; i < ranges; i++) {
+      final int low = (int) (Integer.MIN_VALUE + step * i);
+      hashToNodeRange.put(low, ImmutableNodeRange.builder()
+          .uuid("node-" + i).uri("http://node-" + i).hash(low).build());
+    }
+    tenantResourceRange = ImmutableTenantResourceRange.builder()
+        .tenant("tenant").resource("resource").hashToNodeRange(hashToNodeRange).build();
+    routingTable = RoutingTable.of(tenantResourceRange);
+    hashes = ThreadLocalRandom.current().ints(1024).toArray();
+  }
+
+  private int nextHash() {
+    index = (index + 1) & 1023;
+    return hashes[index];
+  }
+
+  /**
+   * Binary search over the compiled table.
+   *
+   * @return the node range.
+   */
+  @Benchmark
+  public NodeRange routingTable() {
+    return routingTable.nodeRangeForHash(nextHash());
+  }
+
+  /**
+   * The original stream, filter and max over the map.
+   *
+   * @return the node range.
+   */
+  @Benchmark
+  public NodeRange streamScan() {
+    final Integer hash = nextHash();
+    return tenantResourceRange.hashToNodeRange().entrySet().stream()
+        .filter(e -> (e.getKey() <= hash))
+        .max(Map.Entry.comparingByKey())
+        .map(Map.Entry::getValue)
+        .orElseThrow();
+  }
+
+}
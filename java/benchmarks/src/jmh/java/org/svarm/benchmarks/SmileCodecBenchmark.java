@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.svarm.common.factory.ObjectMapperFactory;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.node.codec.SmileCodec;
+
+/**
+ * JSON against the smile codec for the proxy to node body, by number of columns. The CPU cost is the score; the
+ * bytes on the wire for each codec are logged once during setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmileCodecBenchmark {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SmileCodecBenchmark.class);
+
+  @Param({"1", "10", "100"})
+  private int columns;
+
+  private ObjectWriter jsonWriter;
+  private ObjectReader jsonReader;
+  private ObjectWriter smileWriter;
+  private ObjectReader smileReader;
+  private EntryInfo entryInfo;
+  private byte[] json;
+  private byte[] smile;
+
+  /**
+   * Builds the entry and both encodings of it.
+   *
+   * @throws IOException if the encoding fails.
+   */
+  @Setup
+  public void setup() throws IOException {
+    final ObjectMapper objectMapper = new ObjectMapperFactory().generate();
+    final SmileCodec smileCodec = new SmileCodec();
+    jsonWriter = objectMapper.writerFor(EntryInfo.class);
+    jsonReader = objectMapper.readerFor(EntryInfo.class);
+    smileWriter = smileCodec.writer(EntryInfo.class);
+    smileReader = smileCodec.reader(EntryInfo.class);
+    entryInfo = Payloads.entryInfo(columns);
+    json = jsonWriter.writeValueAsBytes(entryInfo);
+    smile = smileWriter.writeValueAsBytes(entryInfo);
+    LOGGER.info("columns={} json={} bytes smile={} bytes", columns, json.length, smile.length);
+  }
+
+  /**
+   * Entry to json.
+   *
+   * @return the bytes.
+   * @throws IOException if the encoding fails.
+   */
+  @Benchmark
+  public byte[] jsonWrite() throws IOException {
+    return jsonWriter.writeValueAsBytes(entryInfo);
+  }
+
+  /**
+   * Json to entry.
+   *
+   * @return the entry.
+   * @throws IOException if the decoding fails.
+   */
+  @Benchmark
+  public EntryInfo jsonRead() throws IOException {
+    return jsonReader.readValue(json);
+  }
+
+  /**
+   * Entry to smile.
+   *
+   * @return the bytes.
+   * @throws IOException if the encoding fails.
+   */
+  @Benchmark
+  public byte[] smileWrite() throws IOException {
+    return smileWriter.writeValueAsBytes(entryInfo);
+  }
+
+  /**
+   * Smile to entry.
+   *
+   * @return the entry.
+   * @throws IOException if the decoding fails.
+   */
+  @Benchmark
+  public EntryInfo smileRead() throws IOException {
+    return smileReader.readValue(smile);
+  }
+
+}
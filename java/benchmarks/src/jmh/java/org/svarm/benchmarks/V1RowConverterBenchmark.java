@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.svarm.common.engine.JsonEngine;
+import org.svarm.common.factory.ObjectMapperFactory;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.node.engine.impl.v1singleentry.V1Row;
+import org.svarm.node.engine.impl.v1singleentry.V1RowConverter;
+
+/**
+ * Converting entries to and from the rows the v1 storage engine writes, by number of columns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class V1RowConverterBenchmark {
+
+  @Param({"1", "10", "100"})
+  private int columns;
+
+  private V1RowConverter converter;
+  private EntryInfo entryInfo;
+  private List<V1Row> rows;
+
+  /**
+   * Builds the entry and its rows.
+   */
+  @Setup
+  public void setup() {
+    converter = new V1RowConverter(new JsonEngine(new ObjectMapperFactory().generate()));
+    entryInfo = Payloads.entryInfo(columns);
+    rows = converter.toV1Rows(entryInfo);
+  }
+
+  /**
+   * Entry to rows.
+   *
+   * @return the rows.
+   */
+  @Benchmark
+  public List<V1Row> toV1Rows() {
+    return converter.toV1Rows(entryInfo);
+  }
+
+  /**
+   * Rows to entry.
+   *
+   * @return the entry.
+   */
+  @Benchmark
+  public EntryInfo toEntryInfo() {
+    return converter.toEntryInfo(rows);
+  }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks.storage;
+
+/**
+ * The operations a storage workload is made of.
+ */
+public enum Operation {
+  /**
+   * Read an existing entry.
+   */
+  READ,
+  /**
+   * Rewrite an existing entry.
+   */
+  UPDATE,
+  /**
+   * Write a new entry.
+   */
+  INSERT,
+  /**
+   * Delete an existing entry.
+   */
+  DELETE
+}
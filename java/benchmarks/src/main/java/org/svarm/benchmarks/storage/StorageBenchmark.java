@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks.storage;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codeheadsystems.metrics.MetricFactory;
+import com.codeheadsystems.metrics.Metrics;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.svarm.common.crypt.AesGcmSivManager;
+import org.svarm.common.crypt.CryptUtils;
+import org.svarm.common.engine.HashingEngine;
+import org.svarm.common.engine.JsonEngine;
+import org.svarm.common.factory.ObjectMapperFactory;
+import org.svarm.datastore.common.TableDefinition;
+import org.svarm.node.NodeConfiguration;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.node.api.ImmutableEntryInfo;
+import org.svarm.node.engine.DatabaseEngine;
+import org.svarm.node.engine.DatabaseInitializationEngine;
+import org.svarm.node.engine.MerkleTreeEngine;
+import org.svarm.node.engine.TableDefinitionEngine;
+import org.svarm.node.engine.impl.HsqlDatabaseEngine;
+import org.svarm.node.engine.impl.v1singleentry.V1RowConverter;
+import org.svarm.node.engine.impl.v1singleentry.V1SingleEntryEngine;
+import org.svarm.node.factory.JdbiFactory;
+import org.svarm.node.manager.FakeControlPlaneManager;
+import org.svarm.node.manager.TenantTableJdbiManager;
+import org.svarm.node.model.ImmutableNodeInternalConfiguration;
+import org.svarm.node.model.ImmutableTenantTable;
+import org.svarm.node.model.ImmutableTenantTableIdentifier;
+import org.svarm.node.model.ImmutableTombstoneConfiguration;
+import org.svarm.node.model.NodeInternalConfiguration;
+import org.svarm.node.model.TenantTable;
+
+/**
+ * Drives a table definition engine against encrypted HSQLDB, in memory and on disk, through the same
+ * TenantTableJdbiManager the node uses. For each thread count in the sweep it warms up, then records the latency of
+ * every operation in an HdrHistogram per operation type, and reports throughput and p50/p99/p999 latency. Used to
+ * size nodes, and to compare a new engine against the existing ones.
+ *
+ * <p>Options are key=value arguments, described in the benchmarks section of docs/Design.md.
+ */
+public class StorageBenchmark {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StorageBenchmark.class);
+  private static final int DOCUMENTS = 64;
+
+  private final TableDefinition tableDefinition;
+  private final Workload workload;
+  private final List<Integer> threadSweep;
+  private final Path directory;
+  private final CryptUtils cryptUtils;
+  private final Metrics metrics;
+  private final List<ObjectNode> documents;
+
+  /**
+   * Constructor.
+   *
+   * @param tableDefinition the engine to drive.
+   * @param workload        what to run.
+   * @param threadSweep     the thread counts to run, in order.
+   * @param directory       where file backed databases go.
+   */
+  public StorageBenchmark(final TableDefinition tableDefinition,
+                          final Workload workload,
+                          final List<Integer> threadSweep,
+                          final Path directory) {
+    LOGGER.info("StorageBenchmark({},{},{},{})", tableDefinition, workload, threadSweep, directory);
+    this.tableDefinition = tableDefinition;
+    this.workload = workload;
+    this.threadSweep = threadSweep;
+    this.directory = directory;
+    this.cryptUtils = new CryptUtils(new SecureRandom());
+    this.metrics = MetricFactory.builder().build();
+    this.documents = documents(workload);
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args key=value options.
+   * @throws Exception if the run fails.
+   */
+  public static void main(final String[] args) throws Exception {
+    final Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      final int equals = arg.indexOf('=');
+      if (equals < 1) {
+        throw new IllegalArgumentException("Options are key=value, found: " + arg);
+      }
+      options.put(arg.substring(0, equals), arg.substring(equals + 1));
+    }
+    final Workload workload = ImmutableWorkload.builder()
+        .reads(Double.parseDouble(options.getOrDefault("reads", "0.5")))
+        .updates(Double.parseDouble(options.getOrDefault("updates", "0.5")))
+        .inserts(Double.parseDouble(options.getOrDefault("inserts", "0")))
+        .deletes(Double.parseDouble(options.getOrDefault("deletes", "0")))
+        .columns(Integer.parseInt(options.getOrDefault("columns", "10")))
+        .columnSize(Integer.parseInt(options.getOrDefault("columnSize", "100")))
+        .tableSize(Integer.parseInt(options.getOrDefault("tableSize", "10000")))
+        .zipfian(Double.parseDouble(options.getOrDefault("zipfian", "0.99")))
+        .warmupSeconds(Integer.parseInt(options.getOrDefault("warmupSeconds", "5")))
+        .durationSeconds(Integer.parseInt(options.getOrDefault("durationSeconds", "30")))
+        .build();
+    final TableDefinition tableDefinition = TableDefinition.valueOf(
+        options.getOrDefault("engine", TableDefinition.V1SingleEntryEngine.name()));
+    final List<Integer> threadSweep = Arrays.stream(options.getOrDefault("threads", "1,2,4,8,16").split(","))
+        .map(String::trim).map(Integer::valueOf).toList();
+    final Path directory = options.containsKey("directory")
+        ? Path.of(options.get("directory"))
+        : Files.createTempDirectory("svarm-storage-benchmark");
+    final StorageBenchmark benchmark = new StorageBenchmark(tableDefinition, workload, threadSweep, directory);
+
+    final List<StorageResult> results = new ArrayList<>();
+    for (String storage : options.getOrDefault("storage", "memory,file").split(",")) {
+      results.addAll(benchmark.run(storage.trim()));
+    }
+    if (options.containsKey("results")) {
+      benchmark.write(new File(options.get("results")), results);
+    }
+  }
+
+  private static List<ObjectNode> documents(final Workload workload) {
+    final Random random = new Random(workload.columns() * 31L + workload.columnSize());
+    final List<ObjectNode> list = new ArrayList<>();
+    for (int d = 0; d < DOCUMENTS; d++) {
+      final ObjectNode node = JsonNodeFactory.instance.objectNode();
+      for (int c = 0; c < workload.columns(); c++) {
+        final char[] chars = new char[workload.columnSize()];
+        for (int i = 0; i < chars.length; i++) {
+          chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        node.put("column" + c, new String(chars));
+      }
+      list.add(node);
+    }
+    return list;
+  }
+
+  /**
+   * Loads a fresh table in the given storage and runs the thread sweep against it.
+   *
+   * @param storage memory or file.
+   * @return the results, one per thread count and operation.
+   * @throws Exception if the run fails.
+   */
+  public List<StorageResult> run(final String storage) throws Exception {
+    if (!"memory".equals(storage) && !"file".equals(storage)) {
+      throw new IllegalArgumentException("Storage is memory or file, found: " + storage);
+    }
+    final TenantTableJdbiManager tenantTableJdbiManager = tenantTableJdbiManager("memory".equals(storage));
+    final TableDefinitionEngine engine = engine(tenantTableJdbiManager);
+    final AesGcmSivManager aesGcmSivManager = new AesGcmSivManager(cryptUtils);
+    final TenantTable tenantTable = ImmutableTenantTable.builder()
+        .identifier(ImmutableTenantTableIdentifier.builder()
+            .tenantId("benchmark").tableName(tableDefinition.name() + "-" + storage).build())
+        .tableVersion(tableDefinition.name())
+        .enabled(true)
+        .estimatedQuantity(workload.tableSize())
+        .key(aesGcmSivManager.randomKeyBase64Encoded())
+        .nonce(aesGcmSivManager.randomNonceBase64Encoded())
+        .build();
+    try {
+      LOGGER.info("Loading {} entries into {}", workload.tableSize(), storage);
+      for (int i = 0; i < workload.tableSize(); i++) {
+        engine.write(tenantTable, entry(key(i), ThreadLocalRandom.current()));
+      }
+      final ZipfianGenerator zipfian = new ZipfianGenerator(workload.tableSize(), workload.zipfian());
+      final AtomicLong nextInsert = new AtomicLong(workload.tableSize());
+      final List<StorageResult> results = new ArrayList<>();
+      for (int threads : threadSweep) {
+        results.addAll(sweep(storage, threads, engine, tenantTable, zipfian, nextInsert));
+      }
+      return results;
+    } finally {
+      tenantTableJdbiManager.deleteEverything(tenantTable);
+    }
+  }
+
+  private TenantTableJdbiManager tenantTableJdbiManager(final boolean inMemory) {
+    final NodeConfiguration nodeConfiguration = new NodeConfiguration();
+    nodeConfiguration.setRunDatabaseInMemory(inMemory);
+    nodeConfiguration.setDatabaseDirectory(directory.toString());
+    final NodeInternalConfiguration nodeInternalConfiguration = ImmutableNodeInternalConfiguration.builder()
+        .uuid(UUID.randomUUID().toString())
+        .key(cryptUtils.toBase64(cryptUtils.randomKey(AesGcmSivManager.KEY_LENGTH)))
+        .nonce(cryptUtils.toBase64(cryptUtils.randomKey(AesGcmSivManager.NONCE_LENGTH)))
+        .build();
+    final DatabaseEngine databaseEngine = new HsqlDatabaseEngine(
+        new FakeControlPlaneManager(nodeInternalConfiguration, cryptUtils),
+        nodeInternalConfiguration, nodeConfiguration, cryptUtils, new HashingEngine());
+    return new TenantTableJdbiManager(databaseEngine, new DatabaseInitializationEngine(), metrics,
+        new JdbiFactory(new MetricRegistry()));
+  }
+
+  // New engines get added here. The switch has no default, so a new table definition fails the build until it is.
+  private TableDefinitionEngine engine(final TenantTableJdbiManager tenantTableJdbiManager) {
+    return switch (tableDefinition) {
+      case V1SingleEntryEngine -> new V1SingleEntryEngine(metrics, tenantTableJdbiManager,
+          new V1RowConverter(new JsonEngine(new ObjectMapperFactory().generate())),
+          new MerkleTreeEngine(new HashingEngine()), ImmutableTombstoneConfiguration.builder().build());
+    };
+  }
+
+  private List<StorageResult> sweep(final String storage,
+                                    final int threads,
+                                    final TableDefinitionEngine engine,
+                                    final TenantTable tenantTable,
+                                    final ZipfianGenerator zipfian,
+                                    final AtomicLong nextInsert) throws InterruptedException, ExecutionException {
+    LOGGER.info("Running {} {} with {} threads", tableDefinition, storage, threads);
+    final long recordFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(workload.warmupSeconds());
+    final long end = recordFrom + TimeUnit.SECONDS.toNanos(workload.durationSeconds());
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    final Map<Operation, Histogram> totals = histograms();
+    try {
+      final List<Future<Map<Operation, Histogram>>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> work(engine, tenantTable, zipfian, nextInsert, recordFrom, end)));
+      }
+      for (Future<Map<Operation, Histogram>> future : futures) {
+        future.get().forEach((operation, histogram) -> totals.get(operation).add(histogram));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    final List<StorageResult> results = new ArrayList<>();
+    totals.forEach((operation, histogram) -> {
+      if (histogram.getTotalCount() == 0) {
+        return;
+      }
+      final StorageResult result = ImmutableStorageResult.builder()
+          .engine(tableDefinition.name())
+          .storage(storage)
+          .threads(threads)
+          .operation(operation)
+          .count(histogram.getTotalCount())
+          .throughput((double) histogram.getTotalCount() / workload.durationSeconds())
+          .p50Micros(histogram.getValueAtPercentile(50.0) / 1000.0)
+          .p99Micros(histogram.getValueAtPercentile(99.0) / 1000.0)
+          .p999Micros(histogram.getValueAtPercentile(99.9) / 1000.0)
+          .maxMicros(histogram.getMaxValue() / 1000.0)
+          .build();
+      LOGGER.info("{} {} threads={} {}: {} ops/s p50={}us p99={}us p999={}us max={}us",
+          tableDefinition, storage, threads, operation, String.format("%.1f", result.throughput()),
+          result.p50Micros(), result.p99Micros(), result.p999Micros(), result.maxMicros());
+      results.add(result);
+    });
+    return results;
+  }
+
+  private Map<Operation, Histogram> work(final TableDefinitionEngine engine,
+                                         final TenantTable tenantTable,
+                                         final ZipfianGenerator zipfian,
+                                         final AtomicLong nextInsert,
+                                         final long recordFrom,
+                                         final long end) {
+    final Map<Operation, Histogram> histograms = histograms();
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    long start;
+    while ((start = System.nanoTime()) < end) {
+      final Operation operation = workload.operation(random.nextDouble());
+      switch (operation) {
+        case READ -> engine.read(tenantTable, key(zipfian.next(random.nextDouble())));
+        case UPDATE -> engine.write(tenantTable, entry(key(zipfian.next(random.nextDouble())), random));
+        case INSERT -> engine.write(tenantTable, entry(key(nextInsert.getAndIncrement()), random));
+        case DELETE -> engine.delete(tenantTable, key(zipfian.next(random.nextDouble())), System.currentTimeMillis());
+        default -> throw new IllegalStateException("Unknown operation: " + operation);
+      }
+      final long finished = System.nanoTime();
+      if (start >= recordFrom) {
+        histograms.get(operation).recordValue(finished - start);
+      }
+    }
+    return histograms;
+  }
+
+  private Map<Operation, Histogram> histograms() {
+    final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values()) {
+      histograms.put(operation, new Histogram(3)); // auto resizing, three significant digits.
+    }
+    return histograms;
+  }
+
+  private String key(final long index) {
+    return "entry-" + index;
+  }
+
+  private EntryInfo entry(final String id, final Random random) {
+    return ImmutableEntryInfo.builder()
+        .id(id)
+        .locationHash(id.hashCode())
+        .timestamp(System.currentTimeMillis())
+        .data(documents.get(random.nextInt(DOCUMENTS)))
+        .build();
+  }
+
+  private void write(final File file, final List<StorageResult> results) throws IOException {
+    final File parent = file.getParentFile();
+    if (parent != null) {
+      Files.createDirectories(parent.toPath());
+    }
+    final Map<String, Object> output = new LinkedHashMap<>();
+    output.put("workload", workload);
+    output.put("results", results);
+    new ObjectMapperFactory().generate().writerWithDefaultPrettyPrinter().writeValue(file, output);
+    LOGGER.info("Results written to {}", file);
+  }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks.storage;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+/**
+ * The measurements for one operation, at one thread count, on one engine and storage.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableStorageResult.class)
+@JsonDeserialize(builder = ImmutableStorageResult.Builder.class)
+public interface StorageResult {
+
+  /**
+   * The table definition engine.
+   *
+   * @return value. string
+   */
+  @JsonProperty("engine")
+  String engine();
+
+  /**
+   * Memory or file.
+   *
+   * @return value. string
+   */
+  @JsonProperty("storage")
+  String storage();
+
+  /**
+   * Concurrent threads.
+   *
+   * @return value. int
+   */
+  @JsonProperty("threads")
+  int threads();
+
+  /**
+   * The operation measured.
+   *
+   * @return value. operation
+   */
+  @JsonProperty("operation")
+  Operation operation();
+
+  /**
+   * Operations completed while recording.
+   *
+   * @return value. long
+   */
+  @JsonProperty("count")
+  long count();
+
+  /**
+   * Operations per second.
+   *
+   * @return value. double
+   */
+  @JsonProperty("throughput")
+  double throughput();
+
+  /**
+   * Median latency in microseconds.
+   *
+   * @return value. double
+   */
+  @JsonProperty("p50Micros")
+  double p50Micros();
+
+  /**
+   * 99th percentile latency in microseconds.
+   *
+   * @return value. double
+   */
+  @JsonProperty("p99Micros")
+  double p99Micros();
+
+  /**
+   * 99.9th percentile latency in microseconds.
+   *
+   * @return value. double
+   */
+  @JsonProperty("p999Micros")
+  double p999Micros();
+
+  /**
+   * Slowest operation in microseconds.
+   *
+   * @return value. double
+   */
+  @JsonProperty("maxMicros")
+  double maxMicros();
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks.storage;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+/**
+ * What a storage benchmark run does. The proportions are relative to each other, they do not need to add to one.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableWorkload.class)
+@JsonDeserialize(builder = ImmutableWorkload.Builder.class)
+public interface Workload {
+
+  /**
+   * Share of reads.
+   *
+   * @return value. double
+   */
+  @JsonProperty("reads")
+  @Value.Default
+  default double reads() {
+    return 0.5;
+  }
+
+  /**
+   * Share of updates to existing entries.
+   *
+   * @return value. double
+   */
+  @JsonProperty("updates")
+  @Value.Default
+  default double updates() {
+    return 0.5;
+  }
+
+  /**
+   * Share of inserts of new entries.
+   *
+   * @return value. double
+   */
+  @JsonProperty("inserts")
+  @Value.Default
+  default double inserts() {
+    return 0.0;
+  }
+
+  /**
+   * Share of deletes.
+   *
+   * @return value. double
+   */
+  @JsonProperty("deletes")
+  @Value.Default
+  default double deletes() {
+    return 0.0;
+  }
+
+  /**
+   * Number of columns in each document.
+   *
+   * @return value. int
+   */
+  @JsonProperty("columns")
+  @Value.Default
+  default int columns() {
+    return 10;
+  }
+
+  /**
+   * Number of chars in each column value.
+   *
+   * @return value. int
+   */
+  @JsonProperty("columnSize")
+  @Value.Default
+  default int columnSize() {
+    return 100;
+  }
+
+  /**
+   * Entries loaded into the table before the run.
+   *
+   * @return value. int
+   */
+  @JsonProperty("tableSize")
+  @Value.Default
+  default int tableSize() {
+    return 10_000;
+  }
+
+  /**
+   * Zipfian constant for picking existing keys. 0 is uniform.
+   *
+   * @return value. double
+   */
+  @JsonProperty("zipfian")
+  @Value.Default
+  default double zipfian() {
+    return 0.99;
+  }
+
+  /**
+   * Seconds to run before recording, for each thread count.
+   *
+   * @return value. int
+   */
+  @JsonProperty("warmupSeconds")
+  @Value.Default
+  default int warmupSeconds() {
+    return 5;
+  }
+
+  /**
+   * Seconds to record, for each thread count.
+   *
+   * @return value. int
+   */
+  @JsonProperty("durationSeconds")
+  @Value.Default
+  default int durationSeconds() {
+    return 30;
+  }
+
+  /**
+   * Picks the operation for a uniformly distributed value.
+   *
+   * @param uniform a value in [0, 1).
+   * @return the operation.
+   */
+  default Operation operation(final double uniform) {
+    final double point = uniform * (reads() + updates() + inserts() + deletes());
+    if (point < reads()) {
+      return Operation.READ;
+    }
+    if (point < reads() + updates()) {
+      return Operation.UPDATE;
+    }
+    if (point < reads() + updates() + inserts()) {
+      return Operation.INSERT;
+    }
+    return Operation.DELETE;
+  }
+
+  /**
+   * Validates the proportions.
+   */
+  @Value.Check
+  default void check() {
+    if (reads() < 0 || updates() < 0 || inserts() < 0 || deletes() < 0
+        || reads() + updates() + inserts() + deletes() <= 0) {
+      throw new IllegalArgumentException("Proportions must be non-negative with at least one above zero");
+    }
+  }
+
+}
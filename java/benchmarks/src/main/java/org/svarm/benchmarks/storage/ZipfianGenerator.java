@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.benchmarks.storage;
+
+/**
+ * Picks item indexes following a zipfian distribution, so a few keys are hot and most are cold. Index 0 is the
+ * hottest. This is the generator from "Quickly Generating Billion-Record Synthetic Databases" (Gray et al), as used
+ * by YCSB. A constant of 0 gives a uniform distribution; YCSB uses 0.99.
+ */
+public class ZipfianGenerator {
+
+  private final long items;
+  private final double theta;
+  private final double zetan;
+  private final double alpha;
+  private final double eta;
+  private final double halfPowTheta;
+
+  /**
+   * Constructor. Computing zeta is linear in the number of items, so build one per run, not per operation.
+   *
+   * @param items the number of items to pick from.
+   * @param theta the zipfian constant, from 0 (uniform) up to but not including 1.
+   */
+  public ZipfianGenerator(final long items, final double theta) {
+    if (items < 1) {
+      throw new IllegalArgumentException("Need at least one item: " + items);
+    }
+    if (theta < 0 || theta >= 1) {
+      throw new IllegalArgumentException("Zipfian constant must be in [0, 1): " + theta);
+    }
+    this.items = items;
+    this.theta = theta;
+    this.zetan = zeta(items, theta);
+    this.alpha = 1.0 / (1.0 - theta);
+    this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetan);
+    this.halfPowTheta = 1.0 + Math.pow(0.5, theta);
+  }
+
+  private static double zeta(final long n, final double theta) {
+    double sum = 0;
+    for (long i = 0; i < n; i++) {
+      sum += 1 / Math.pow(i + 1, theta);
+    }
+    return sum;
+  }
+
+  /**
+   * The next index.
+   *
+   * @param uniform a uniformly distributed value in [0, 1).
+   * @return an index in [0, items).
+   */
+  public long next(final double uniform) {
+    if (theta == 0) {
+      return (long) (uniform * items);
+    }
+    final double uz = uniform * zetan;
+    if (uz < 1.0) {
+      return 0;
+    }
+    if (uz < halfPowTheta) {
+      return Math.min(1, items - 1);
+    }
+    return Math.min(items - 1, (long) (items * Math.pow(eta * uniform - eta + 1, alpha)));
+  }
+
+}
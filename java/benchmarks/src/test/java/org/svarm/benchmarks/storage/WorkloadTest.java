@@ -0,0 +1,35 @@
+package org.svarm.benchmarks.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import org.junit.jupiter.api.Test;
+
+class WorkloadTest {
+
+  @Test
+  void operation() {
+    final Workload workload = ImmutableWorkload.builder().reads(2).updates(1).inserts(1).deletes(0).build();
+
+    assertThat(workload.operation(0.0)).isEqualTo(Operation.READ);
+    assertThat(workload.operation(0.49)).isEqualTo(Operation.READ);
+    assertThat(workload.operation(0.5)).isEqualTo(Operation.UPDATE);
+    assertThat(workload.operation(0.74)).isEqualTo(Operation.UPDATE);
+    assertThat(workload.operation(0.75)).isEqualTo(Operation.INSERT);
+    assertThat(workload.operation(0.99)).isEqualTo(Operation.INSERT);
+  }
+
+  @Test
+  void operation_deletes() {
+    final Workload workload = ImmutableWorkload.builder().reads(0).updates(0).deletes(1).build();
+
+    assertThat(workload.operation(0.5)).isEqualTo(Operation.DELETE);
+  }
+
+  @Test
+  void check() {
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> ImmutableWorkload.builder().reads(0).updates(0).build());
+  }
+
+}
@@ -0,0 +1,46 @@
+package org.svarm.benchmarks.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ZipfianGeneratorTest {
+
+  private static final int ITEMS = 1000;
+  private static final int SAMPLES = 100_000;
+
+  @Test
+  void skewed() {
+    final int[] counts = sample(new ZipfianGenerator(ITEMS, 0.99));
+
+    assertThat(counts[0]).isGreaterThan(counts[1]);
+    assertThat(counts[0]).isGreaterThan(SAMPLES / 20); // the hottest key gets well over its uniform share.
+  }
+
+  @Test
+  void uniform() {
+    final int[] counts = sample(new ZipfianGenerator(ITEMS, 0));
+
+    assertThat(counts[0]).isLessThan(SAMPLES / 100);
+  }
+
+  @Test
+  void badConstant() {
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> new ZipfianGenerator(ITEMS, 1.0));
+  }
+
+  private int[] sample(final ZipfianGenerator generator) {
+    final Random random = new Random(1);
+    final int[] counts = new int[ITEMS];
+    for (int i = 0; i < SAMPLES; i++) {
+      final long index = generator.next(random.nextDouble());
+      assertThat(index).isBetween(0L, (long) ITEMS - 1);
+      counts[(int) index]++;
+    }
+    return counts;
+  }
+
+}
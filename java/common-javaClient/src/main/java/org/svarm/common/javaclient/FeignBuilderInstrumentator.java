@@ -3,8 +3,12 @@ package org.svarm.common.javaclient;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.AsyncClient;
+import feign.AsyncFeign;
 import feign.Client;
 import feign.Feign;
+import feign.Request;
+import feign.Retryer;
 import feign.jackson.JacksonDecoder;
 import feign.jackson.JacksonEncoder;
 import feign.jaxrs.JAXRSContract;
@@ -32,6 +36,8 @@ public class FeignBuilderInstrumentator {
   private final JacksonDecoder jacksonDecoder;
   private final JacksonEncoder jacksonEncoder;
   private final Client client;
+  private final AsyncClient<Object> asyncClient;
+  private final Request.Options options;
 
   /**
    * Constructor.
@@ -40,13 +46,19 @@ public class FeignBuilderInstrumentator {
    * @param meterRegistry    for metrics.
    * @param objectMapper     for json.
    * @param client           the ok http client
+   * @param asyncClient      the client for async calls.
+   * @param options          the timeouts.
    */
   @Inject
   public FeignBuilderInstrumentator(final TraceInterceptor traceInterceptor,
                                     final MeterRegistry meterRegistry,
                                     final ObjectMapper objectMapper,
-                                    final Client client) {
+                                    final Client client,
+                                    final AsyncClient<Object> asyncClient,
+                                    final Request.Options options) {
     this.client = client;
+    this.asyncClient = asyncClient;
+    this.options = options;
     this.slf4jLogger = new Slf4jLogger();
     this.micrometerCapability = new MicrometerCapability(meterRegistry);
     this.jakartaContract = new JAXRSContract();
@@ -66,6 +78,7 @@ public class FeignBuilderInstrumentator {
     LOGGER.trace("instrument({})", builder);
     return builder
         .client(this.client)
+        .options(options)
         .requestInterceptor(traceInterceptor)
         .logger(slf4jLogger)
         .contract(jakartaContract)
@@ -85,4 +98,24 @@ public class FeignBuilderInstrumentator {
     instrument(builder);
     return builder;
   }
+
+  /**
+   * Generates a builder for clients that return futures instead of blocking. The calls are not retried, since
+   * a retry would have to wait somewhere; the caller decides what to do with a failure.
+   *
+   * @return the builder.
+   */
+  public AsyncFeign.AsyncBuilder<Object> generateAsync() {
+    LOGGER.trace("generateAsync()");
+    return AsyncFeign.<Object>builder()
+        .client(asyncClient)
+        .options(options)
+        .retryer(Retryer.NEVER_RETRY)
+        .requestInterceptor(traceInterceptor)
+        .logger(slf4jLogger)
+        .contract(jakartaContract)
+        .addCapability(micrometerCapability)
+        .decoder(jacksonDecoder)
+        .encoder(jacksonEncoder);
+  }
 }
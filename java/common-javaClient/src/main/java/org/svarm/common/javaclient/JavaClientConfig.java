@@ -39,4 +39,74 @@ public interface JavaClientConfig {
     return false;
   }
 
+  /**
+   * How long to wait to connect to a server.
+   *
+   * @return the milliseconds.
+   */
+  @Value.Default
+  default long connectTimeoutMillis() {
+    return 10_000;
+  }
+
+  /**
+   * How long to wait for a server to answer once connected.
+   *
+   * @return the milliseconds.
+   */
+  @Value.Default
+  default long readTimeoutMillis() {
+    return 60_000;
+  }
+
+  /**
+   * Failure rate, as a percentage, at which the circuit breaker for a node opens.
+   *
+   * @return the percentage.
+   */
+  @Value.Default
+  default float circuitBreakerFailureRateThreshold() {
+    return 50.0f;
+  }
+
+  /**
+   * How many of the recent calls to a node the circuit breaker looks at.
+   *
+   * @return the window size.
+   */
+  @Value.Default
+  default int circuitBreakerWindowSize() {
+    return 20;
+  }
+
+  /**
+   * How long the circuit breaker for a node stays open before letting calls through again.
+   *
+   * @return the seconds.
+   */
+  @Value.Default
+  default int circuitBreakerOpenSeconds() {
+    return 10;
+  }
+
+  /**
+   * The most concurrent calls we make to a single node.
+   *
+   * @return the calls.
+   */
+  @Value.Default
+  default int bulkheadMaxConcurrentCalls() {
+    return 64;
+  }
+
+  /**
+   * The most retries we make to a node, as a percentage of the calls made to it.
+   *
+   * @return the percentage.
+   */
+  @Value.Default
+  default int retryBudgetPercent() {
+    return 10;
+  }
+
 }
@@ -19,8 +19,11 @@ package org.svarm.common.javaclient;
 import dagger.BindsOptionalOf;
 import dagger.Module;
 import dagger.Provides;
+import feign.AsyncClient;
 import feign.Client;
 import feign.FeignException;
+import feign.Request;
+import feign.http2client.Http2Client;
 import feign.okhttp.OkHttpClient;
 import io.github.resilience4j.core.IntervalFunction;
 import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
@@ -28,7 +31,10 @@ import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
 import io.github.resilience4j.retry.RetryRegistry;
 import io.micrometer.core.instrument.MeterRegistry;
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.net.ssl.SSLContext;
@@ -91,11 +97,50 @@ public class JavaClientModule {
     }
   }
 
+  /**
+   * The client for async calls, set up from the same config as the blocking one. The java http client cannot skip
+   * host name verification per client; with ssl verification disabled it trusts any certificate, and host names
+   * are only skipped if the jdk.internal.httpclient.disableHostnameVerification property is set.
+   *
+   * @param config the config
+   * @return the async client.
+   */
+  @Provides
+  @Singleton
+  public AsyncClient<Object> asyncClient(final Optional<JavaClientConfig> config) {
+    final JavaClientConfig clientConfig = config.orElseGet(JavaClientConfig::defaultConfig);
+    final HttpClient.Builder builder = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .followRedirects(HttpClient.Redirect.ALWAYS)
+        .connectTimeout(Duration.ofMillis(clientConfig.connectTimeoutMillis()));
+    if (clientConfig.disableSslVerification()) {
+      builder.sslContext(getSslContext());
+    }
+    return new Http2Client(builder.build());
+  }
+
+  /**
+   * The timeouts for every call, blocking or async.
+   *
+   * @param config the config
+   * @return the options.
+   */
+  @Provides
+  @Singleton
+  public Request.Options options(final Optional<JavaClientConfig> config) {
+    final JavaClientConfig clientConfig = config.orElseGet(JavaClientConfig::defaultConfig);
+    return new Request.Options(clientConfig.connectTimeoutMillis(), TimeUnit.MILLISECONDS,
+        clientConfig.readTimeoutMillis(), TimeUnit.MILLISECONDS, true);
+  }
+
   private SSLSocketFactory getSslSocketFactory() {
+    return getSslContext().getSocketFactory();
+  }
+
+  private SSLContext getSslContext() {
     try {
       final TrustStrategy acceptingTrustStrategy = (chain, authType) -> true;
-      final SSLContext sslContext = SSLContexts.custom().loadTrustMaterial(null, acceptingTrustStrategy).build();
-      return sslContext.getSocketFactory();
+      return SSLContexts.custom().loadTrustMaterial(null, acceptingTrustStrategy).build();
     } catch (Exception exception) {
       throw new RuntimeException(exception);
     }
@@ -16,6 +16,8 @@
 
 package org.svarm.common.crypt;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.bouncycastle.crypto.CipherParameters;
@@ -27,7 +29,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Uses bouncy castle directly for AES/GCM/SIV encryption.
+ * Uses bouncy castle directly for AES/GCM/SIV encryption. Ciphers are reused through a small pool rather than a
+ * thread local, so short-lived (virtual) threads do not each build and then drop their own.
  */
 @Singleton
 public class AesGcmSivManager {
@@ -41,7 +44,8 @@ public class AesGcmSivManager {
    */
   public static final int NONCE_LENGTH = 12;
   private static final Logger LOGGER = LoggerFactory.getLogger(AesGcmSivManager.class);
-  private final ThreadLocal<GCMSIVBlockCipher> cipherThreadLocal;
+  private static final int POOL_SIZE = 64;
+  private final BlockingQueue<GCMSIVBlockCipher> ciphers;
   private final CryptUtils cryptUtils;
 
   /**
@@ -52,7 +56,7 @@ public class AesGcmSivManager {
   @Inject
   public AesGcmSivManager(final CryptUtils cryptUtils) {
     LOGGER.info("AesGcmSivManager({})", cryptUtils);
-    cipherThreadLocal = ThreadLocal.withInitial(GCMSIVBlockCipher::new);
+    ciphers = new ArrayBlockingQueue<>(POOL_SIZE);
     this.cryptUtils = cryptUtils;
   }
 
@@ -78,7 +82,11 @@ public class AesGcmSivManager {
                         final byte[] nonce) {
     validate(key, nonce);
     final GCMSIVBlockCipher cipher = setupCrypto(key, nonce, true);
-    return executeCrypto(payload, cipher);
+    try {
+      return executeCrypto(payload, cipher);
+    } finally {
+      ciphers.offer(cipher); // if the pool is full, we let this one go.
+    }
   }
 
   /**
@@ -94,7 +102,11 @@ public class AesGcmSivManager {
                         final byte[] nonce) {
     validate(key, nonce);
     final GCMSIVBlockCipher cipher = setupCrypto(key, nonce, false);
-    return executeCrypto(payload, cipher);
+    try {
+      return executeCrypto(payload, cipher);
+    } finally {
+      ciphers.offer(cipher); // if the pool is full, we let this one go.
+    }
   }
 
   /**
@@ -133,7 +145,8 @@ public class AesGcmSivManager {
   private GCMSIVBlockCipher setupCrypto(final byte[] key, final byte[] nonce, final boolean encrypt) {
     final KeyParameter keyParameter = new KeyParameter(key);
     final CipherParameters parameters = new ParametersWithIV(keyParameter, nonce);
-    final GCMSIVBlockCipher cipher = cipherThreadLocal.get();
+    final GCMSIVBlockCipher polled = ciphers.poll();
+    final GCMSIVBlockCipher cipher = polled == null ? new GCMSIVBlockCipher() : polled;
     cipher.reset();
     cipher.init(encrypt, parameters);
     return cipher;
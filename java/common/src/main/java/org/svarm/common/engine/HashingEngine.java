@@ -18,7 +18,13 @@ package org.svarm.common.engine;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.codec.digest.MurmurHash3;
 import javax.inject.Inject;
@@ -32,7 +38,8 @@ import org.slf4j.Logger;
 public class HashingEngine {
 
   private static final Logger LOGGER = getLogger(HashingEngine.class);
-
+  private static final int C1 = 0xcc9e2d51;
+  private static final int C2 = 0x1b873593;
 
   /**
    * Constructor.
@@ -49,8 +56,132 @@ public class HashingEngine {
    * @return the value.
    */
   public int murmur3(final String value) {
+    return murmur3((CharSequence) value);
+  }
+
+  /**
+   * The 32-bit x86 murmur3 of the UTF-8 encoding of the value, the same as MurmurHash3.hash32x86() over
+   * value.getBytes(UTF_8). The chars are encoded as they are hashed, so nothing is allocated. Works with any
+   * char sequence, so a reusable StringBuilder can be hashed too.
+   *
+   * @param value to be hashed.
+   * @return the value.
+   */
+  public int murmur3(final CharSequence value) {
+    final int length = value.length();
+    int h1 = 0;
+    int block = 0; // the bytes of the current 4 byte block, little endian.
+    int shift = 0;
+    int total = 0;
+    for (int i = 0; i < length; i++) {
+      final char c = value.charAt(i);
+      int bytes;
+      int count;
+      if (c < 0x80) {
+        bytes = c;
+        count = 1;
+      } else if (c < 0x800) {
+        bytes = (0xC0 | (c >> 6)) | ((0x80 | (c & 0x3F)) << 8);
+        count = 2;
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+          final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+          bytes = (0xF0 | (codePoint >> 18))
+              | ((0x80 | ((codePoint >> 12) & 0x3F)) << 8)
+              | ((0x80 | ((codePoint >> 6) & 0x3F)) << 16)
+              | ((0x80 | (codePoint & 0x3F)) << 24);
+          count = 4;
+        } else {
+          bytes = '?'; // what getBytes(UTF_8) writes for an unpaired surrogate.
+          count = 1;
+        }
+      } else {
+        bytes = (0xE0 | (c >> 12)) | ((0x80 | ((c >> 6) & 0x3F)) << 8) | ((0x80 | (c & 0x3F)) << 16);
+        count = 3;
+      }
+      total += count;
+      for (; count > 0; count--) {
+        block |= (bytes & 0xFF) << shift;
+        bytes >>>= 8;
+        shift += 8;
+        if (shift == 32) {
+          h1 ^= Integer.rotateLeft(block * C1, 15) * C2;
+          h1 = Integer.rotateLeft(h1, 13) * 5 + 0xe6546b64;
+          block = 0;
+          shift = 0;
+        }
+      }
+    }
+    if (shift > 0) {
+      h1 ^= Integer.rotateLeft(block * C1, 15) * C2;
+    }
+    h1 ^= total;
+    h1 ^= h1 >>> 16;
+    h1 *= 0x85ebca6b;
+    h1 ^= h1 >>> 13;
+    h1 *= 0xc2b2ae35;
+    h1 ^= h1 >>> 16;
+    return h1;
+  }
+
+  /**
+   * A 64-bit murmur3 hash, used when 32 bits leaves too much room for collisions.
+   *
+   * @param value to be hashed.
+   * @return the value.
+   */
+  public long murmur3x64(final String value) {
     byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
-    return MurmurHash3.hash32x86(bytes);
+    return MurmurHash3.hash128x64(bytes)[0];
+  }
+
+  /**
+   * Combines two 64-bit hashes into one. Order matters.
+   *
+   * @param left  the first hash.
+   * @param right the second hash.
+   * @return the value.
+   */
+  public long murmur3x64(final long left, final long right) {
+    final byte[] bytes = ByteBuffer.allocate(Long.BYTES * 2).putLong(left).putLong(right).array();
+    return MurmurHash3.hash128x64(bytes)[0];
+  }
+
+  /**
+   * A 64-bit digest of the json. Object fields are hashed in sorted order, so two documents with the same content
+   * have the same digest regardless of how their fields were ordered.
+   *
+   * @param node to digest.
+   * @return the value.
+   */
+  public long digest(final JsonNode node) {
+    final StringBuilder builder = new StringBuilder();
+    canonical(node, builder);
+    return murmur3x64(builder.toString());
+  }
+
+  private void canonical(final JsonNode node, final StringBuilder builder) {
+    if (node.isObject()) {
+      final List<String> names = new ArrayList<>();
+      node.fieldNames().forEachRemaining(names::add);
+      Collections.sort(names);
+      builder.append('{');
+      for (String name : names) {
+        builder.append(TextNode.valueOf(name)).append(':');
+        canonical(node.get(name), builder);
+        builder.append(',');
+      }
+      builder.append('}');
+    } else if (node.isArray()) {
+      builder.append('[');
+      for (JsonNode element : node) {
+        canonical(element, builder);
+        builder.append(',');
+      }
+      builder.append(']');
+    } else {
+      builder.append(node);
+    }
   }
 
   /**
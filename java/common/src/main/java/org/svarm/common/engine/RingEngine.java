@@ -30,17 +30,18 @@ import org.svarm.common.model.ImmutableRingEntry;
 import org.svarm.common.model.RingEntry;
 
 /**
- * Provides for a ring structure. Useful for the figuring out where things belong.
- * TODO: Simplify by just creating, say, six static groups of replication bases. From 1 to 6. No reason
- * to support unlimited replication bases here... and it'll go faster then.
+ * Provides for a ring structure. Useful for the figuring out where things belong. The bases for replication
+ * factors up to MAX_PRECOMPUTED_FACTOR are computed up front so locationHashes() never allocates.
  */
 @Singleton
 public class RingEngine {
 
   private static final Logger LOGGER = getLogger(RingEngine.class);
+  private static final int MAX_PRECOMPUTED_FACTOR = 6;
 
   private final HashingEngine hashingEngine;
   private final LoadingCache<Integer, Set<Long>> replicationBaseCache;
+  private final long[][] precomputedBases;
 
   /**
    * Constructor.
@@ -52,6 +53,10 @@ public class RingEngine {
     this.hashingEngine = hashingEngine;
     replicationBaseCache = Caffeine.newBuilder().maximumSize(100)
         .build(this::getReplicationBases);
+    precomputedBases = new long[MAX_PRECOMPUTED_FACTOR + 1][];
+    for (int factor = 1; factor <= MAX_PRECOMPUTED_FACTOR; factor++) {
+      precomputedBases[factor] = computeBases(factor);
+    }
     LOGGER.info("RingEngine({})", hashingEngine);
   }
 
@@ -74,6 +79,58 @@ public class RingEngine {
     return ImmutableRingEntry.builder().id(id).hash(hash).locationStores(otherHashes).build();
   }
 
+  /**
+   * Writes where the replicas of the id live into the locations array, and returns the hash of the id itself.
+   * This is ringEntry() without the allocation: the id is hashed over its chars, and for replication factors up to
+   * MAX_PRECOMPUTED_FACTOR the bases come from a primitive array. Location i comes from base i, in the order
+   * computeBases() builds them.
+   *
+   * @param id                the id.
+   * @param replicationFactor how many entries should be in the ring.
+   * @param locations         filled with the replicationFactor location hashes. Must be at least that long.
+   * @return the hash of the id.
+   */
+  public int locationHashes(final CharSequence id, final int replicationFactor, final int[] locations) {
+    if (replicationFactor < 1) {
+      throw new IllegalStateException("Cannot initialize with a replication factor < 1. Found " + replicationFactor);
+    }
+    if (locations.length < replicationFactor) {
+      throw new IllegalArgumentException("Locations array too small for replication factor " + replicationFactor);
+    }
+    final int hash = hashingEngine.murmur3(id);
+    final long[] bases = replicationFactor <= MAX_PRECOMPUTED_FACTOR
+        ? precomputedBases[replicationFactor]
+        : computeBases(replicationFactor);
+    for (int i = 0; i < replicationFactor; i++) {
+      locations[i] = addNumbersWithIntegerWrap(hash, bases[i]);
+    }
+    return hash;
+  }
+
+  /**
+   * The base values added to the hash of an id to find its replicas. See ringEntry().
+   *
+   * @param replicationFactor how many entries should be in the ring.
+   * @return the set of values.
+   */
+  public Set<Long> replicationBases(final int replicationFactor) {
+    if (replicationFactor < 1) {
+      throw new IllegalStateException("Cannot initialize with a replication factor < 1. Found " + replicationFactor);
+    }
+    return replicationBaseCache.get(replicationFactor);
+  }
+
+  /**
+   * The location of a replica, given the hash of the id and one of the replication bases.
+   *
+   * @param hash            the hash of the id.
+   * @param replicationBase one of the replication bases.
+   * @return the location hash.
+   */
+  public int locationHash(final int hash, final long replicationBase) {
+    return addNumbersWithIntegerWrap(hash, replicationBase);
+  }
+
   /**
    * This method will return a set of base hash values to add to the real hash value.
    * The result is numbers you can add to see where the replication hashes are.
@@ -83,19 +140,26 @@ public class RingEngine {
    */
   private Set<Long> getReplicationBases(final int replicationFactor) {
     LOGGER.trace("getReplicationBases({})", replicationFactor);
-    long currentHash = 0;
-    final long replicationAddition = (((long) Integer.MAX_VALUE * 2L) - 1L) / (long) replicationFactor;
     final HashSet<Long> builder = new HashSet<>();
-    builder.add(currentHash);
-    for (int i = 1; i < replicationFactor; i++) {
-      currentHash = addNumbersWithIntegerWrap(Math.toIntExact(currentHash), replicationAddition);
-      builder.add(currentHash);
+    for (long base : computeBases(replicationFactor)) {
+      builder.add(base);
     }
     final Set<Long> set = Set.copyOf(builder);
     LOGGER.trace("getReplicationBases({})->{}", replicationFactor, set);
     return set;
   }
 
+  private long[] computeBases(final int replicationFactor) {
+    long currentHash = 0;
+    final long replicationAddition = (((long) Integer.MAX_VALUE * 2L) - 1L) / (long) replicationFactor;
+    final long[] bases = new long[replicationFactor];
+    for (int i = 1; i < replicationFactor; i++) {
+      currentHash = addNumbersWithIntegerWrap(Math.toIntExact(currentHash), replicationAddition);
+      bases[i] = currentHash;
+    }
+    return bases;
+  }
+
   /**
    * This method will add the replication addition to the current hash.
    * If the result is bigger than MAX_INT it will wrap around to the lower value.
@@ -109,6 +173,9 @@ public class RingEngine {
     if (replicationHash > Integer.MAX_VALUE) {
       replicationHash -= Integer.MAX_VALUE; // remove the max value
       replicationHash += Integer.MIN_VALUE; // add what's left to the min value.
+    } else if (replicationHash < Integer.MIN_VALUE) { // bases can be negative, so wrap the other way too.
+      replicationHash -= Integer.MIN_VALUE;
+      replicationHash += Integer.MAX_VALUE;
     }
     return Math.toIntExact(replicationHash);
   }
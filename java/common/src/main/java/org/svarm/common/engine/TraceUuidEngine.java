@@ -16,6 +16,9 @@
 
 package org.svarm.common.engine;
 
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
@@ -24,7 +27,8 @@ import org.slf4j.MDC;
 
 /**
  * Provide a common trace platform. This just connects client requests to server requests. This minor piece of code
- * is here to unify the variables so it can be used in multiple ways.
+ * is here to unify the variables so it can be used in multiple ways. Work handed to another thread, like a future's
+ * callback, can be wrapped so it runs with the trace id of the thread that handed it off.
  */
 @Singleton
 public class TraceUuidEngine {
@@ -57,11 +61,12 @@ public class TraceUuidEngine {
   }
 
   /**
-   * Clears the trace id.
+   * Clears the trace id. The thread local entry is removed, not just nulled, so a thread that will not be reused
+   * does not keep it around.
    */
   public void clear() {
     MDC.remove(MDC_ID);
-    traceThreadLocal.set(null);
+    traceThreadLocal.remove();
   }
 
   /**
@@ -73,4 +78,88 @@ public class TraceUuidEngine {
     traceThreadLocal.set(uuid);
     MDC.put(MDC_ID, uuid);
   }
+
+  /**
+   * Wraps the runnable so it runs with the trace id we have now, whatever thread runs it.
+   *
+   * @param runnable to wrap.
+   * @return the wrapped runnable.
+   */
+  public Runnable wrap(final Runnable runnable) {
+    final String uuid = get();
+    return () -> {
+      final String previous = swap(uuid);
+      try {
+        runnable.run();
+      } finally {
+        swap(previous);
+      }
+    };
+  }
+
+  /**
+   * Wraps the consumer so it runs with the trace id we have now, whatever thread runs it.
+   *
+   * @param consumer to wrap.
+   * @param <T>      the type consumed.
+   * @return the wrapped consumer.
+   */
+  public <T> Consumer<T> wrapConsumer(final Consumer<T> consumer) {
+    final Function<T, Void> function = wrapFunction(value -> {
+      consumer.accept(value);
+      return null;
+    });
+    return function::apply;
+  }
+
+  /**
+   * Wraps the function so it runs with the trace id we have now, whatever thread runs it.
+   *
+   * @param function to wrap.
+   * @param <T>      the argument type.
+   * @param <R>      the result type.
+   * @return the wrapped function.
+   */
+  public <T, R> Function<T, R> wrapFunction(final Function<T, R> function) {
+    final String uuid = get();
+    return value -> {
+      final String previous = swap(uuid);
+      try {
+        return function.apply(value);
+      } finally {
+        swap(previous);
+      }
+    };
+  }
+
+  /**
+   * Wraps the function so it runs with the trace id we have now, whatever thread runs it.
+   *
+   * @param function to wrap.
+   * @param <T>      the first argument type.
+   * @param <U>      the second argument type.
+   * @param <R>      the result type.
+   * @return the wrapped function.
+   */
+  public <T, U, R> BiFunction<T, U, R> wrapBiFunction(final BiFunction<T, U, R> function) {
+    final String uuid = get();
+    return (first, second) -> {
+      final String previous = swap(uuid);
+      try {
+        return function.apply(first, second);
+      } finally {
+        swap(previous);
+      }
+    };
+  }
+
+  private String swap(final String uuid) {
+    final String previous = get();
+    if (uuid == null) {
+      clear();
+    } else {
+      set(uuid);
+    }
+    return previous;
+  }
 }
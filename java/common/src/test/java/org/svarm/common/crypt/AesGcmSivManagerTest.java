@@ -19,8 +19,14 @@ package org.svarm.common.crypt;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -91,6 +97,23 @@ class AesGcmSivManagerTest {
         .isThrownBy(() -> manager.encrypt(payload, key, nonce));
   }
 
+  @Test
+  public void roundTrip_virtualThreads() throws Exception {
+    final byte[] key = bytes(AesGcmSivManager.KEY_LENGTH);
+    final byte[] nonce = bytes(AesGcmSivManager.NONCE_LENGTH);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      final List<Future<Boolean>> results = IntStream.range(0, 500)
+          .mapToObj(i -> executor.submit(() -> {
+            final byte[] payload = bytes(128);
+            return Arrays.equals(payload, manager.decrypt(manager.encrypt(payload, key, nonce), key, nonce));
+          }))
+          .toList();
+      for (Future<Boolean> result : results) {
+        assertThat(result.get()).isTrue();
+      }
+    }
+  }
+
   private byte[] bytes(int length) {
     final byte[] bytes = new byte[length];
     random.nextBytes(bytes);
@@ -18,8 +18,14 @@ package org.svarm.common.engine;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.codec.digest.MurmurHash3;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class HashingEngineTest {
 
@@ -35,5 +41,50 @@ class HashingEngineTest {
     assertThat(hashingEngine.murmur3("fred")).isNotZero();
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = {"", "a", "ab", "abc", "abcd", "abcde", "h\u00e9llo", "\u65e5\u672c\u8a9e",
+      "\uD83D\uDE00x", "\uD800", "a\uDC00b", "\uD800\uD800", "c3a1e7c4-5f9f-4d8e-9a7b-2f0c1d3e4b5a"})
+  void murmur3_matchesUtf8Bytes(final String value) {
+    assertThat(hashingEngine.murmur3(value))
+        .isEqualTo(MurmurHash3.hash32x86(value.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  void murmur3_charSequence() {
+    final StringBuilder builder = new StringBuilder("fred");
+    assertThat(hashingEngine.murmur3(builder)).isEqualTo(hashingEngine.murmur3("fred"));
+  }
+
+  @Test
+  void murmur3x64() {
+    assertThat(hashingEngine.murmur3x64("fred"))
+        .isNotZero()
+        .isEqualTo(hashingEngine.murmur3x64("fred"))
+        .isNotEqualTo(hashingEngine.murmur3x64("barney"));
+  }
+
+  @Test
+  void murmur3x64_combine() {
+    assertThat(hashingEngine.murmur3x64(1L, 2L))
+        .isEqualTo(hashingEngine.murmur3x64(1L, 2L))
+        .isNotEqualTo(hashingEngine.murmur3x64(2L, 1L));
+  }
+
+  @Test
+  void digest() {
+    final ObjectMapper mapper = new ObjectMapper();
+    final ObjectNode first = mapper.createObjectNode().put("a", "b").put("c", 1);
+    first.putArray("d").add("e").add(2);
+    final ObjectNode second = mapper.createObjectNode();
+    second.putArray("d").add("e").add(2);
+    second.put("c", 1).put("a", "b");
+    final ObjectNode different = mapper.createObjectNode().put("a", "b").put("c", "1");
+    different.putArray("d").add("e").add(2);
+
+    assertThat(hashingEngine.digest(first))
+        .isEqualTo(hashingEngine.digest(second))
+        .isNotEqualTo(hashingEngine.digest(different));
+  }
+
 
 }
\ No newline at end of file
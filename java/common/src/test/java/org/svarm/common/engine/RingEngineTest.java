@@ -17,10 +17,13 @@
 package org.svarm.common.engine;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Set;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -62,6 +65,7 @@ class RingEngineTest {
         Arguments.of(2, -2, Set.of(-2, 2147483644)),
         Arguments.of(3, -2, Set.of(-2, 1431655762, -1431655769)),
         Arguments.of(4, -2, Set.of(-2, 1073741821, 2147483644, -1073741828)),
+        Arguments.of(3, Integer.MIN_VALUE, Set.of(Integer.MIN_VALUE, -715827884, 715827880)),
         Arguments.of(20, 200, Set.of(200, 214748564, 429496928, 644245292, 858993656, 1073742020, 1288490384,
             1503238748, 1717987112, 1932735476, -2147483455, -1932735091, -1717986727, -1503238363, -1288489999,
             -1073741635, -858993271, -644244907, -429496543, -214748179))
@@ -81,4 +85,34 @@ class RingEngineTest {
         .hasFieldOrPropertyWithValue("locationStores", expected);
   }
 
-}
\ No newline at end of file
+  @ParameterizedTest
+  @MethodSource("testValues")
+  void locationHash(final Integer repFactor, final Integer hashedValue, final Set<Integer> expected) {
+    final RingEngine ringEngine = new RingEngine(hashingEngine);
+    assertThat(ringEngine.replicationBases(repFactor))
+        .hasSize(repFactor)
+        .extracting(base -> ringEngine.locationHash(hashedValue, base))
+        .containsExactlyInAnyOrderElementsOf(expected);
+  }
+
+  @ParameterizedTest
+  @MethodSource("testValues")
+  void locationHashes(final Integer repFactor, final Integer hashedValue, final Set<Integer> expected) {
+    final RingEngine ringEngine = new RingEngine(hashingEngine);
+    when(hashingEngine.murmur3((CharSequence) ID)).thenReturn(hashedValue);
+    final int[] locations = new int[repFactor + 1];
+    Arrays.fill(locations, 42);
+
+    assertThat(ringEngine.locationHashes(ID, repFactor, locations)).isEqualTo(hashedValue);
+    assertThat(Arrays.copyOf(locations, repFactor)).containsExactlyInAnyOrderElementsOf(expected);
+    assertThat(locations[repFactor]).isEqualTo(42);
+  }
+
+  @Test
+  void locationHashes_arrayTooSmall() {
+    final RingEngine ringEngine = new RingEngine(hashingEngine);
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> ringEngine.locationHashes(ID, 3, new int[2]));
+  }
+
+}
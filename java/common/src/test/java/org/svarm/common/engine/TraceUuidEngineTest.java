@@ -19,6 +19,8 @@ package org.svarm.common.engine;
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -51,4 +53,23 @@ class TraceUuidEngineTest {
     assertThat(engine.get()).isNull();
   }
 
-}
\ No newline at end of file
+  @Test
+  void wrap_runsWithTheWrappingTrace() throws InterruptedException {
+    engine.set(UUID);
+    final AtomicReference<String> seen = new AtomicReference<>();
+    final Runnable runnable = engine.wrap(() -> seen.set(engine.get()));
+    final Thread thread = new Thread(runnable);
+    thread.start();
+    thread.join();
+    assertThat(seen.get()).isEqualTo(UUID);
+  }
+
+  @Test
+  void wrapFunction_restoresThePreviousTrace() {
+    final Function<String, String> function = engine.wrapFunction(value -> value + engine.get());
+    engine.set(UUID);
+    assertThat(function.apply("trace:")).isEqualTo("trace:null");
+    assertThat(engine.get()).isEqualTo(UUID);
+  }
+
+}
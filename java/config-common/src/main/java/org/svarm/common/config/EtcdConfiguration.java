@@ -47,4 +47,26 @@ public interface EtcdConfiguration {
    */
   Optional<String> target();
 
+  /**
+   * How long a node's liveness lease lasts without a keep alive. This is how long it takes to notice a node died
+   * without shutting down.
+   *
+   * @return the seconds.
+   */
+  @Value.Default
+  default long leaseTtlSeconds() {
+    return 10;
+  }
+
+  /**
+   * The most operations to put in a single transaction. Etcd rejects anything over its --max-txn-ops setting,
+   * which defaults to 128, so bulk writes are split into transactions of this size.
+   *
+   * @return the operations per transaction.
+   */
+  @Value.Default
+  default int maxTxnOps() {
+    return 128;
+  }
+
 }
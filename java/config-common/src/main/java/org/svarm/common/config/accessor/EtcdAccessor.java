@@ -1,6 +1,10 @@
 package org.svarm.common.config.accessor;
 
 import io.etcd.jetcd.Watch;
+import io.etcd.jetcd.lease.LeaseKeepAliveResponse;
+import io.etcd.jetcd.support.CloseableClient;
+import io.grpc.stub.StreamObserver;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 
@@ -18,7 +22,41 @@ public interface EtcdAccessor {
   void put(String namespace, String key, String value);
 
   /**
-   * Put all.
+   * Put, with the key removed when the lease ends.
+   *
+   * @param namespace the namespace
+   * @param key       the key
+   * @param value     the value
+   * @param leaseId   the lease
+   */
+  void put(String namespace, String key, String value, long leaseId);
+
+  /**
+   * Grant a lease.
+   *
+   * @param ttlSeconds how long the lease lasts without a keep alive
+   * @return the lease id
+   */
+  long grantLease(long ttlSeconds);
+
+  /**
+   * Keep the lease alive until the returned client is closed.
+   *
+   * @param leaseId  the lease
+   * @param observer told of each keep alive, and when the lease is lost
+   * @return the client, to stop the keep alive
+   */
+  CloseableClient keepAlive(long leaseId, StreamObserver<LeaseKeepAliveResponse> observer);
+
+  /**
+   * Revoke the lease, removing its keys.
+   *
+   * @param leaseId the lease
+   */
+  void revokeLease(long leaseId);
+
+  /**
+   * Put all. Large maps are split into several transactions, so the write as a whole is not atomic.
    *
    * @param namespace the namespace
    * @param map       the map
@@ -33,6 +71,14 @@ public interface EtcdAccessor {
    */
   void delete(String namespace, String key);
 
+  /**
+   * Delete all the keys. Like putAll, large collections are split into several transactions.
+   *
+   * @param namespace the namespace
+   * @param keys      the keys
+   */
+  void deleteAll(String namespace, Collection<String> keys);
+
   /**
    * Watch watch . watcher.
    *
@@ -45,6 +91,21 @@ public interface EtcdAccessor {
                       String key,
                       Watch.Listener listener);
 
+  /**
+   * Watch everything under the key, starting at the revision given. Used with a revisioned read so nothing that
+   * changed after the read is missed.
+   *
+   * @param namespace the namespace
+   * @param key       the key
+   * @param revision  the first revision to get events for
+   * @param listener  the listener
+   * @return the watch . watcher
+   */
+  Watch.Watcher watch(String namespace,
+                      String key,
+                      long revision,
+                      Watch.Listener listener);
+
   /**
    * Get optional.
    *
@@ -62,4 +123,13 @@ public interface EtcdAccessor {
    * @return the all
    */
   Map<String, String> getAll(String namespace, String key);
+
+  /**
+   * Gets all, along with the revision they were read at. Unlike getAll, a timeout is an error.
+   *
+   * @param namespace the namespace
+   * @param key       the key
+   * @return the values and revision
+   */
+  Revisioned<Map<String, String>> getAllRevisioned(String namespace, String key);
 }
@@ -24,14 +24,20 @@ import io.etcd.jetcd.ByteSequence;
 import io.etcd.jetcd.Client;
 import io.etcd.jetcd.KV;
 import io.etcd.jetcd.KeyValue;
-import io.etcd.jetcd.Txn;
 import io.etcd.jetcd.Watch;
 import io.etcd.jetcd.kv.GetResponse;
+import io.etcd.jetcd.kv.TxnResponse;
+import io.etcd.jetcd.lease.LeaseKeepAliveResponse;
 import io.etcd.jetcd.op.Op;
+import io.etcd.jetcd.options.DeleteOption;
 import io.etcd.jetcd.options.GetOption;
 import io.etcd.jetcd.options.PutOption;
 import io.etcd.jetcd.options.WatchOption;
+import io.etcd.jetcd.support.CloseableClient;
+import io.grpc.stub.StreamObserver;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -39,11 +45,13 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.svarm.common.config.EtcdConfiguration;
 
 /**
  * The ETCD accessor.
@@ -52,26 +60,31 @@ import org.slf4j.LoggerFactory;
 public class EtcdAccessorImpl implements EtcdAccessor {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(EtcdAccessorImpl.class);
+  private static final long REVISIONED_READ_TIMEOUT_SECONDS = 10;
 
   private final Client client;
   private final String namespaceKeyFormat;
   private final Metrics metrics;
+  private final int maxTxnOps;
 
   /**
    * Constructor.
    *
-   * @param client   for etcd.
-   * @param preamble for us to use.
-   * @param metrics  the metrics
+   * @param client            for etcd.
+   * @param preamble          for us to use.
+   * @param metrics           the metrics
+   * @param etcdConfiguration for the transaction size.
    */
   @Inject
   public EtcdAccessorImpl(final Client client,
                           @Named(INTERNAL_ETCD_ACCESSOR_PREAMBLE) final String preamble,
-                          final Metrics metrics) {
+                          final Metrics metrics,
+                          final EtcdConfiguration etcdConfiguration) {
     this.client = client;
     this.namespaceKeyFormat = preamble + "_%s/%s";
     this.metrics = metrics;
-    LOGGER.info("EtcdAccessor({},{},{})", namespaceKeyFormat, client, metrics);
+    this.maxTxnOps = Math.max(1, etcdConfiguration.maxTxnOps());
+    LOGGER.info("EtcdAccessor({},{},{},{})", namespaceKeyFormat, client, metrics, maxTxnOps);
   }
 
   private String getNamespaceKey(final String namespace, final String key) {
@@ -104,32 +117,142 @@ public class EtcdAccessorImpl implements EtcdAccessor {
   }
 
   /**
-   * Puts the value to the etcd instance.
+   * Puts the value to the etcd instance, attached to the lease. The key goes away when the lease does.
    *
    * @param namespace Type of value.
-   * @param map       the key/value.
+   * @param key       the key.
+   * @param value     the value.
+   * @param leaseId   the lease.
    */
   @Override
-  public void putAll(final String namespace, final Map<String, String> map) {
-    LOGGER.trace("putAll({},{}", namespace, map);
-    final KV kv = client.getKVClient();
-    final Txn txn = kv.txn();
-    metrics.time("etcd.putAll", Tags.of("namespace", namespace), () -> {
+  public void put(final String namespace, final String key, final String value, final long leaseId) {
+    final String namespaceKey = getNamespaceKey(namespace, key);
+    LOGGER.trace("put({},{},{})", namespaceKey, value, leaseId);
+    metrics.time("etcd.put", Tags.of("namespace", namespace, "key", key), () -> {
+      try {
+        client.getKVClient().put(
+                ByteSequence.from(namespaceKey.getBytes(StandardCharsets.UTF_8)),
+                ByteSequence.from(value.getBytes(StandardCharsets.UTF_8)),
+                PutOption.builder().withLeaseId(leaseId).build())
+            .get();
+      } catch (InterruptedException | ExecutionException e) {
+        LOGGER.error("Unable to put to etcd {}", namespaceKey, e);
+        throw new IllegalArgumentException(e);
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Grants a lease.
+   *
+   * @param ttlSeconds how long the lease lasts without a keep alive.
+   * @return the lease id.
+   */
+  @Override
+  public long grantLease(final long ttlSeconds) {
+    LOGGER.trace("grantLease({})", ttlSeconds);
+    return metrics.time("etcd.grantLease", () -> {
+      try {
+        return client.getLeaseClient().grant(ttlSeconds).get().getID();
+      } catch (InterruptedException | ExecutionException e) {
+        LOGGER.error("Unable to grant a lease from etcd", e);
+        throw new IllegalArgumentException(e);
+      }
+    });
+  }
+
+  /**
+   * Keeps the lease alive in the background, until the client returned is closed.
+   *
+   * @param leaseId  the lease.
+   * @param observer told of each keep alive, and when the lease is lost.
+   * @return the client.
+   */
+  @Override
+  public CloseableClient keepAlive(final long leaseId, final StreamObserver<LeaseKeepAliveResponse> observer) {
+    LOGGER.trace("keepAlive({})", leaseId);
+    return client.getLeaseClient().keepAlive(leaseId, observer);
+  }
+
+  /**
+   * Revokes the lease, which removes its keys right away.
+   *
+   * @param leaseId the lease.
+   */
+  @Override
+  public void revokeLease(final long leaseId) {
+    LOGGER.trace("revokeLease({})", leaseId);
+    metrics.time("etcd.revokeLease", () -> {
       try {
-        map.entrySet().stream()
-            .map(e -> Map.entry(getNamespaceKey(namespace, e.getKey()), e.getValue()))
-            .map(e -> Map.entry(ByteSequence.from(e.getKey().getBytes()), ByteSequence.from(e.getValue().getBytes())))
-            .forEach(e ->
-                txn.Then(Op.put(e.getKey(), e.getValue(), PutOption.DEFAULT)));
-        txn.commit().get();
+        client.getLeaseClient().revoke(leaseId).get();
       } catch (InterruptedException | ExecutionException e) {
-        LOGGER.error("Unable to get from etcd {}", namespace, e);
+        LOGGER.error("Unable to revoke lease {}", leaseId, e);
         throw new IllegalArgumentException(e);
       }
       return null;
     });
   }
 
+  /**
+   * Puts the values to the etcd instance. The puts are split into transactions of at most maxTxnOps operations,
+   * which are all sent before waiting on any of them.
+   *
+   * @param namespace Type of value.
+   * @param map       the key/value.
+   */
+  @Override
+  public void putAll(final String namespace, final Map<String, String> map) {
+    LOGGER.trace("putAll({},{}", namespace, map);
+    final List<Op> ops = map.entrySet().stream()
+        .map(e -> (Op) Op.put(bytes(getNamespaceKey(namespace, e.getKey())), bytes(e.getValue()), PutOption.DEFAULT))
+        .toList();
+    metrics.time("etcd.putAll", Tags.of("namespace", namespace), () -> {
+      commit(namespace, ops);
+      return null;
+    });
+  }
+
+  /**
+   * Deletes the keys from the etcd instance, split into transactions the same way as putAll.
+   *
+   * @param namespace of the keys.
+   * @param keys      the keys.
+   */
+  @Override
+  public void deleteAll(final String namespace, final Collection<String> keys) {
+    LOGGER.trace("deleteAll({},{})", namespace, keys);
+    final List<Op> ops = keys.stream()
+        .map(key -> (Op) Op.delete(bytes(getNamespaceKey(namespace, key)), DeleteOption.DEFAULT))
+        .toList();
+    metrics.time("etcd.deleteAll", Tags.of("namespace", namespace), () -> {
+      commit(namespace, ops);
+      return null;
+    });
+  }
+
+  private ByteSequence bytes(final String value) {
+    return ByteSequence.from(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void commit(final String namespace, final List<Op> ops) {
+    if (ops.isEmpty()) {
+      return;
+    }
+    final KV kv = client.getKVClient();
+    final List<CompletableFuture<TxnResponse>> futures = IntStream.range(0, (ops.size() + maxTxnOps - 1) / maxTxnOps)
+        .mapToObj(i -> ops.subList(i * maxTxnOps, Math.min(ops.size(), (i + 1) * maxTxnOps)))
+        .map(chunk -> kv.txn().Then(chunk.toArray(Op[]::new)).commit())
+        .toList();
+    try {
+      for (CompletableFuture<TxnResponse> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException | ExecutionException e) {
+      LOGGER.error("Unable to commit to etcd {}", namespace, e);
+      throw new IllegalArgumentException(e);
+    }
+  }
 
   /**
    * Delete the key from the etcd instance.
@@ -176,6 +299,30 @@ public class EtcdAccessorImpl implements EtcdAccessor {
     });
   }
 
+  /**
+   * Returns a watcher for everything under the key, starting at the revision.
+   *
+   * @param namespace you are watching.
+   * @param key       you want to watch. (Can be empty string)
+   * @param revision  the first revision to send events for.
+   * @param listener  who gets the events.
+   * @return watcher so you can cancel it.
+   */
+  @Override
+  public Watch.Watcher watch(final String namespace,
+                             final String key,
+                             final long revision,
+                             final Watch.Listener listener) {
+    final String namespaceKey = getNamespaceKey(namespace, key);
+    LOGGER.trace("watch({},{})", namespaceKey, revision);
+    return metrics.time("etcd.watch", Tags.of("namespace", namespace, "key", key), () -> {
+      final ByteSequence namespaceKeyBytes = ByteSequence.from(namespaceKey.getBytes(StandardCharsets.UTF_8));
+      final WatchOption watchOption = WatchOption.builder().isPrefix(true).withRevision(revision).build();
+      final Watch watch = client.getWatchClient();
+      return watch.watch(namespaceKeyBytes, watchOption, listener);
+    });
+  }
+
   /**
    * Gets the key from the etcd instance. Waits forever.
    * TODO: This should be a timeout option.
@@ -242,4 +389,38 @@ public class EtcdAccessorImpl implements EtcdAccessor {
       }
     });
   }
-}
\ No newline at end of file
+
+  /**
+   * Gets the values from the etcd instance as a prefix, with the revision of the store they were read at. Callers
+   * rely on this being complete, so a timeout is an error and not an empty result.
+   *
+   * @param namespace of the key.
+   * @param key       the key.
+   * @return the values and revision.
+   */
+  @Override
+  public Revisioned<Map<String, String>> getAllRevisioned(final String namespace, final String key) {
+    final String namespaceKey = getNamespaceKey(namespace, key);
+    LOGGER.trace("getAllRevisioned({})", namespaceKey);
+    final Tags customTags = Tags.of("namespace", namespace, "key", key);
+    return metrics.time("etcd.getAllRevisioned", customTags, () -> {
+      final ByteSequence byteSequenceKey = ByteSequence.from(namespaceKey.getBytes(StandardCharsets.UTF_8));
+      final GetOption getOption = GetOption.builder().isPrefix(true).build();
+      try {
+        final GetResponse response = client.getKVClient().get(byteSequenceKey, getOption)
+            .get(REVISIONED_READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return ImmutableRevisioned.<Map<String, String>>builder()
+            .value(response.getKvs().stream()
+                .collect(Collectors.toMap(
+                    kv -> kv.getKey().toString(),
+                    kv -> kv.getValue().toString()
+                )))
+            .revision(response.getHeader().getRevision())
+            .build();
+      } catch (InterruptedException | ExecutionException | TimeoutException e) {
+        LOGGER.error("Unable to get from etcd {}", namespaceKey, e);
+        throw new IllegalArgumentException(e);
+      }
+    });
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.common.config.accessor;
+
+import org.immutables.value.Value;
+
+/**
+ * A value read from etcd, along with the revision of the store it was read at. Watching from the next revision
+ * picks up exactly where the read left off.
+ *
+ * @param <T> the type of the value.
+ */
+@Value.Immutable
+public interface Revisioned<T> {
+
+  /**
+   * The value.
+   *
+   * @return the value.
+   */
+  T value();
+
+  /**
+   * The store revision the value was read at.
+   *
+   * @return the revision.
+   */
+  long revision();
+
+}
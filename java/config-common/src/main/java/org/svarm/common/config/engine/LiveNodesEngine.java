@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.common.config.engine;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.svarm.common.config.engine.NodeLivenessEngine.LIVENESS_NAMESPACE;
+
+import com.codeheadsystems.metrics.Metrics;
+import com.google.common.annotations.VisibleForTesting;
+import io.dropwizard.lifecycle.Managed;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.common.config.accessor.EtcdAccessor;
+import org.svarm.common.config.factory.WatchEngineFactory;
+
+/**
+ * Watches the liveness keys the nodes publish, so we know the moment a node goes away instead of waiting on calls
+ * to it to time out. Once started, a node is live only while its key is there, so a node that was already down
+ * when we started counts as down. Before that, we only know about the nodes we saw go, so every other node counts as
+ * live.
+ *
+ * @see NodeLivenessEngine
+ */
+@Singleton
+public class LiveNodesEngine implements Managed {
+
+  private static final Logger LOGGER = getLogger(LiveNodesEngine.class);
+
+  private final EtcdAccessor accessor;
+  private final WatchEngineFactory watchEngineFactory;
+  private final Metrics metrics;
+  private final Set<String> live = ConcurrentHashMap.newKeySet();
+  private final Set<String> down = ConcurrentHashMap.newKeySet();
+  private final CopyOnWriteArrayList<Consumer<String>> downListeners = new CopyOnWriteArrayList<>();
+  private volatile WatchEngine engine;
+  private volatile boolean loaded;
+
+  /**
+   * Constructor.
+   *
+   * @param accessor           to read the current live nodes.
+   * @param watchEngineFactory to watch for changes.
+   * @param metrics            for metrics.
+   */
+  @Inject
+  public LiveNodesEngine(final EtcdAccessor accessor,
+                         final WatchEngineFactory watchEngineFactory,
+                         final Metrics metrics) {
+    this.accessor = accessor;
+    this.watchEngineFactory = watchEngineFactory;
+    this.metrics = metrics;
+    LOGGER.info("LiveNodesEngine()");
+  }
+
+  /**
+   * If the node is live, as far as we know.
+   *
+   * @param uuid of the node.
+   * @return false if it has no liveness key, or before we started, if we saw it go and it has not come back.
+   */
+  public boolean isLive(final String uuid) {
+    return loaded ? live.contains(uuid) : !down.contains(uuid);
+  }
+
+  /**
+   * The nodes that have published that they are live.
+   *
+   * @return the uuids.
+   */
+  public Set<String> liveNodes() {
+    return Set.copyOf(live);
+  }
+
+  /**
+   * Adds a listener told the uuid of each node as it goes down.
+   *
+   * @param listener to tell.
+   */
+  public void onDown(final Consumer<String> listener) {
+    downListeners.add(listener);
+  }
+
+  /**
+   * Handles a change to a liveness key.
+   *
+   * @param event the event.
+   */
+  @VisibleForTesting
+  void handle(final Event event) {
+    final String uuid = event.key().substring(event.key().lastIndexOf('/') + 1);
+    LOGGER.trace("handle({},{})", event.type(), uuid);
+    switch (event.type()) {
+      case PUT -> {
+        live.add(uuid);
+        if (down.remove(uuid)) {
+          LOGGER.info("Node {} is live again", uuid);
+          metrics.increment("LiveNodesEngine.up");
+        }
+      }
+      case DELETE -> {
+        live.remove(uuid);
+        if (down.add(uuid)) {
+          LOGGER.warn("Node {} is down", uuid);
+          metrics.increment("LiveNodesEngine.down");
+          downListeners.forEach(listener -> listener.accept(uuid));
+        }
+      }
+      default -> LOGGER.error("Unknown event: {}", event);
+    }
+  }
+
+  @Override
+  public synchronized void start() {
+    if (engine != null) {
+      LOGGER.warn("start(): already watching");
+      return;
+    }
+    LOGGER.info("start()");
+    // watch first, so nothing that happens while we read is missed.
+    engine = watchEngineFactory.watchEngine(LIVENESS_NAMESPACE, "", this::handle);
+    accessor.getAll(LIVENESS_NAMESPACE, "").keySet().stream()
+        .map(key -> key.substring(key.lastIndexOf('/') + 1))
+        .filter(uuid -> !down.contains(uuid))
+        .forEach(live::add);
+    loaded = true;
+    LOGGER.info("start(): {} live nodes", live.size());
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (engine != null) {
+      LOGGER.info("stop()");
+      engine.close();
+      engine = null;
+      loaded = false;
+    }
+  }
+
+}
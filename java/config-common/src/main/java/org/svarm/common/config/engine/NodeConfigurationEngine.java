@@ -17,6 +17,7 @@
 package org.svarm.common.config.engine;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import io.etcd.jetcd.Watch;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -26,6 +27,9 @@ import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.svarm.common.config.accessor.EtcdAccessor;
+import org.svarm.common.config.accessor.ImmutableRevisioned;
+import org.svarm.common.config.accessor.Revisioned;
+import org.svarm.common.config.api.ImmutableTenantResource;
 import org.svarm.common.config.api.ImmutableTenantResourceRange;
 import org.svarm.common.config.api.NodeRange;
 import org.svarm.common.config.api.NodeTenantResource;
@@ -117,6 +121,19 @@ public class NodeConfigurationEngine {
     accessor.put(TENANT_NAMESPACE, key, value);
   }
 
+  /**
+   * Writes to configuration store the tenant resources, in as few transactions as the store allows.
+   *
+   * @param resourceRanges resource ranges.
+   */
+  public void writeTenantResourceRanges(final List<TenantResourceRange> resourceRanges) {
+    LOGGER.trace("writeTenantResourceRanges({})", resourceRanges);
+    final Map<String, String> resourceMap = resourceRanges.stream().collect(Collectors.toMap(
+        resourceRange -> String.format("%s/%s", resourceRange.tenant(), resourceRange.resource()),
+        resourceRange -> jsonEngine.writeValue(resourceRange.hashToNodeRange())));
+    accessor.putAll(TENANT_NAMESPACE, resourceMap);
+  }
+
   /**
    * Delete the resource.
    *
@@ -140,6 +157,16 @@ public class NodeConfigurationEngine {
     accessor.delete(TENANT_NAMESPACE, key);
   }
 
+  /**
+   * Delete the tenant resources. Ones that are not in the store are ignored.
+   *
+   * @param tenantResources to delete.
+   */
+  public void deleteTenantResources(final List<TenantResource> tenantResources) {
+    LOGGER.trace("deleteTenantResources({})", tenantResources);
+    accessor.deleteAll(TENANT_NAMESPACE, tenantResources.stream().map(this::getTenantResourceKey).toList());
+  }
+
   /**
    * Delete of the node tenant resource for the node itself.
    *
@@ -168,6 +195,23 @@ public class NodeConfigurationEngine {
     return nodeTenantResourceRangeConverter.from(map);
   }
 
+  /**
+   * Reads all node resources from etcd, with the revision they were read at. Watching the node from the next
+   * revision picks up every change made after this read, and none before it.
+   *
+   * @param uuid of the node.
+   * @return the list of resource ranges.
+   */
+  public Revisioned<List<NodeTenantResourceRange>> readNodeResourcesRevisioned(final String uuid) {
+    LOGGER.trace("readNodeResourcesRevisioned({})", uuid);
+    final String key = String.format("%s/id/", uuid);
+    final Revisioned<Map<String, String>> all = accessor.getAllRevisioned(NODE_NAMESPACE, key);
+    return ImmutableRevisioned.<List<NodeTenantResourceRange>>builder()
+        .value(nodeTenantResourceRangeConverter.from(all.value()))
+        .revision(all.revision())
+        .build();
+  }
+
   /**
    * Reads all the configuration for the tenant resource.
    *
@@ -185,6 +229,78 @@ public class NodeConfigurationEngine {
             .build());
   }
 
+  /**
+   * Reads every tenant resource range, with the revision they were read at. Entries that cannot be read are left
+   * out.
+   *
+   * @return the tenant resource ranges.
+   */
+  public Revisioned<List<TenantResourceRange>> readTenantResourceRanges() {
+    LOGGER.trace("readTenantResourceRanges()");
+    final Revisioned<Map<String, String>> all = accessor.getAllRevisioned(TENANT_NAMESPACE, "");
+    final List<TenantResourceRange> ranges = all.value().entrySet().stream()
+        .map(entry -> toTenantResourceRange(entry.getKey(), entry.getValue()))
+        .flatMap(Optional::stream)
+        .toList();
+    return ImmutableRevisioned.<List<TenantResourceRange>>builder()
+        .value(ranges)
+        .revision(all.revision())
+        .build();
+  }
+
+  /**
+   * Watches every tenant resource range, starting at the revision.
+   *
+   * @param revision the first revision to get events for.
+   * @param listener for the events.
+   * @return the watcher, to close.
+   */
+  public Watch.Watcher watchTenantResourceRanges(final long revision, final Watch.Listener listener) {
+    LOGGER.trace("watchTenantResourceRanges({})", revision);
+    return accessor.watch(TENANT_NAMESPACE, "", revision, listener);
+  }
+
+  /**
+   * Finds the tenant resource from the full key in the tenant namespace, which ends in {tenant}/{resource}.
+   *
+   * @param key the full key.
+   * @return the tenant resource, if the key is one.
+   */
+  public Optional<TenantResource> toTenantResource(final String key) {
+    final int resourceIndex = key.lastIndexOf('/');
+    final int tenantIndex = resourceIndex > 0 ? key.lastIndexOf('/', resourceIndex - 1) : -1;
+    if (tenantIndex < 0 || resourceIndex == key.length() - 1 || tenantIndex + 1 == resourceIndex) {
+      LOGGER.warn("Not a tenant resource key: {}", key);
+      return Optional.empty();
+    }
+    return Optional.of(ImmutableTenantResource.builder()
+        .tenant(key.substring(tenantIndex + 1, resourceIndex))
+        .resource(key.substring(resourceIndex + 1))
+        .build());
+  }
+
+  /**
+   * Reads the tenant resource range from the full key and value in the tenant namespace.
+   *
+   * @param key  the full key.
+   * @param json the value.
+   * @return the range, if it could be read.
+   */
+  public Optional<TenantResourceRange> toTenantResourceRange(final String key, final String json) {
+    return toTenantResource(key).flatMap(tenantResource -> {
+      try {
+        return Optional.of(ImmutableTenantResourceRange.builder()
+            .tenant(tenantResource.tenant())
+            .resource(tenantResource.resource())
+            .hashToNodeRange(jsonEngine.readValue(json, MAP_TYPE_REFERENCE))
+            .build());
+      } catch (IllegalArgumentException e) {
+        LOGGER.warn("Unable to read the range for {}", tenantResource, e);
+        return Optional.empty();
+      }
+    });
+  }
+
   /**
    * Accessor to the tenant resource key.
    *
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.common.config.engine;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.svarm.common.config.module.EtcdModule.INTERNAL_LIVENESS_SCHEDULER;
+
+import com.codeheadsystems.metrics.Metrics;
+import io.etcd.jetcd.lease.LeaseKeepAliveResponse;
+import io.etcd.jetcd.support.CloseableClient;
+import io.grpc.stub.StreamObserver;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.common.config.EtcdConfiguration;
+import org.svarm.common.config.accessor.EtcdAccessor;
+
+/**
+ * Publishes that a node is alive. The node holds an etcd lease, kept alive in the background, and a key under its
+ * uuid attached to the lease: live/{uuid}. If the node dies the lease runs out and etcd removes the key; if it shuts
+ * down the lease is revoked and the key goes right away. Anyone watching the keys sees the node go. If the lease is
+ * lost while we run, we keep trying to publish again, backing off, until we hold a lease or are revoked.
+ *
+ * @see LiveNodesEngine
+ */
+@Singleton
+public class NodeLivenessEngine {
+
+  /**
+   * The liveness namespace.
+   */
+  public static final String LIVENESS_NAMESPACE = "live";
+  private static final Logger LOGGER = getLogger(NodeLivenessEngine.class);
+  private static final long INITIAL_RETRY_MILLIS = 500;
+
+  private final EtcdAccessor accessor;
+  private final Metrics metrics;
+  private final ScheduledExecutorService scheduler;
+  private final long ttlSeconds;
+  private final long maxRetryMillis;
+  private String uuid;
+  private String value;
+  private long leaseId;
+  private CloseableClient keepAlive;
+  private boolean published;
+  private ScheduledFuture<?> retry;
+
+  /**
+   * Constructor.
+   *
+   * @param accessor          for etcd.
+   * @param etcdConfiguration for the lease ttl.
+   * @param metrics           for metrics.
+   * @param scheduler         to publish again with.
+   */
+  @Inject
+  public NodeLivenessEngine(final EtcdAccessor accessor,
+                            final EtcdConfiguration etcdConfiguration,
+                            final Metrics metrics,
+                            @Named(INTERNAL_LIVENESS_SCHEDULER) final ScheduledExecutorService scheduler) {
+    this.accessor = accessor;
+    this.metrics = metrics;
+    this.scheduler = scheduler;
+    this.ttlSeconds = etcdConfiguration.leaseTtlSeconds();
+    // no point waiting longer than a lease lasts between tries.
+    this.maxRetryMillis = Math.max(INITIAL_RETRY_MILLIS, TimeUnit.SECONDS.toMillis(ttlSeconds));
+    LOGGER.info("NodeLivenessEngine({})", ttlSeconds);
+  }
+
+  /**
+   * Publishes the node as alive until revoke() is called.
+   *
+   * @param uuid  of the node.
+   * @param value to publish with it.
+   */
+  public synchronized void publish(final String uuid, final String value) {
+    LOGGER.info("publish({},{})", uuid, value);
+    this.uuid = uuid;
+    this.value = value;
+    this.published = true;
+    lease();
+  }
+
+  /**
+   * Removes the node from the live nodes.
+   */
+  public synchronized void revoke() {
+    LOGGER.info("revoke({})", uuid);
+    published = false;
+    if (retry != null) {
+      retry.cancel(false);
+      retry = null;
+    }
+    if (keepAlive == null) {
+      return;
+    }
+    keepAlive.close();
+    keepAlive = null;
+    accessor.revokeLease(leaseId);
+  }
+
+  private void lease() {
+    this.leaseId = accessor.grantLease(ttlSeconds);
+    accessor.put(LIVENESS_NAMESPACE, uuid, value, leaseId);
+    this.keepAlive = accessor.keepAlive(leaseId, new KeepAliveObserver(leaseId));
+  }
+
+  /**
+   * If the lease we hold is lost, say etcd was out of reach for longer than the ttl, we publish again with a new
+   * one.
+   *
+   * @param lostLeaseId the lease that was lost.
+   */
+  private synchronized void lost(final long lostLeaseId) {
+    if (keepAlive == null || lostLeaseId != leaseId) {
+      return; // revoked, already replaced, or already retrying.
+    }
+    LOGGER.warn("Lost the liveness lease {} for {}, publishing again", lostLeaseId, uuid);
+    metrics.increment("NodeLivenessEngine.lost");
+    keepAlive.close();
+    keepAlive = null;
+    republish(INITIAL_RETRY_MILLIS);
+  }
+
+  /**
+   * Tries for a new lease, and if etcd is still out of reach, tries again later waiting twice as long each time.
+   *
+   * @param delayMillis how long to wait before the next try if this one fails.
+   */
+  private synchronized void republish(final long delayMillis) {
+    retry = null;
+    if (!published) {
+      return; // revoked while we waited.
+    }
+    try {
+      lease();
+      LOGGER.info("Published liveness again for {} with lease {}", uuid, leaseId);
+    } catch (RuntimeException e) {
+      LOGGER.warn("Unable to publish liveness for {}, trying again in {}ms", uuid, delayMillis, e);
+      metrics.increment("NodeLivenessEngine.republish.failure");
+      final long nextDelayMillis = Math.min(maxRetryMillis, delayMillis * 2);
+      retry = scheduler.schedule(() -> republish(nextDelayMillis), delayMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Watches the keep alive responses for the lease.
+   */
+  private class KeepAliveObserver implements StreamObserver<LeaseKeepAliveResponse> {
+
+    private final long observedLeaseId;
+
+    private KeepAliveObserver(final long observedLeaseId) {
+      this.observedLeaseId = observedLeaseId;
+    }
+
+    @Override
+    public void onNext(final LeaseKeepAliveResponse response) {
+      LOGGER.trace("keepAlive({}): {}", observedLeaseId, response.getTTL());
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+      LOGGER.warn("keepAlive({}) failed", observedLeaseId, throwable);
+      lost(observedLeaseId);
+    }
+
+    @Override
+    public void onCompleted() {
+      lost(observedLeaseId);
+    }
+  }
+
+}
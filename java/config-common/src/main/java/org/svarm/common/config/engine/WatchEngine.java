@@ -26,8 +26,12 @@ import dagger.assisted.AssistedInject;
 import io.etcd.jetcd.Watch;
 import io.etcd.jetcd.watch.WatchEvent;
 import io.etcd.jetcd.watch.WatchResponse;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import javax.inject.Named;
@@ -36,7 +40,10 @@ import org.svarm.common.config.accessor.EtcdAccessor;
 import org.svarm.common.config.factory.WatchEngineFactory;
 
 /**
- * A watch engine so we are notified of what's going on.
+ * A watch engine so we are notified of what's going on. Events for one key are handled one at a time in the order
+ * etcd sent them, while different keys are handled in parallel. If more events for a key arrive while one is
+ * waiting to be handled, only the latest is kept: handlers react to the current state of the key, so the ones in
+ * between would be redone right away.
  */
 public class WatchEngine {
 
@@ -48,6 +55,8 @@ public class WatchEngine {
   private final String tag;
   private final ExecutorService executorService;
   private final AtomicBoolean closed;
+  private final Map<String, Event> pending = new ConcurrentHashMap<>();
+  private final Set<String> dispatching = ConcurrentHashMap.newKeySet();
 
   /**
    * Constructor.
@@ -57,6 +66,7 @@ public class WatchEngine {
    * @param executorService for thread execution.
    * @param namespace       the namespace.
    * @param key             the key.
+   * @param revision        the first revision to get events for, or 0 for from now.
    * @param eventConsumer   who will get the events.
    */
   @AssistedInject
@@ -65,17 +75,18 @@ public class WatchEngine {
                      @Named(INTERNAL_WATCH_ENGINE_EXECUTOR) final ExecutorService executorService,
                      @Assisted(WatchEngineFactory.NAMESPACE) final String namespace,
                      @Assisted(WatchEngineFactory.KEY) final String key,
+                     @Assisted(WatchEngineFactory.REVISION) final long revision,
                      @Assisted final Consumer<Event> eventConsumer) {
     this.metrics = metrics;
     this.tag = namespace + "/" + key;
     this.eventConsumer = eventConsumer;
-    LOGGER.info("WatchEngine({},{},{})", namespace, key, eventConsumer);
+    LOGGER.info("WatchEngine({},{},{},{})", namespace, key, revision, eventConsumer);
     this.executorService = executorService;
     closed = new AtomicBoolean(false);
-    watcher = accessor.watch(
-        namespace,
-        key,
-        Watch.listener(this::watchResponse, this::error, this::complete));
+    final Watch.Listener listener = Watch.listener(this::watchResponse, this::error, this::complete);
+    watcher = revision > 0
+        ? accessor.watch(namespace, key, revision, listener)
+        : accessor.watch(namespace, key, listener);
   }
 
   private void handleEvent(final Event event) {
@@ -87,17 +98,78 @@ public class WatchEngine {
   }
 
   /**
-   * Closes the watcher and releases all resources.
+   * Keeps the event as the latest for its key, and makes sure someone is handling that key.
+   *
+   * @param event to handle.
+   */
+  private void dispatch(final Event event) {
+    if (closed.get()) {
+      metrics.increment("WatchEngine.dropped", "tag", tag);
+      return;
+    }
+    if (pending.put(event.key(), event) != null) {
+      LOGGER.trace("{}: coalesced an event for {}", tag, event.key());
+      metrics.increment("WatchEngine.coalesced", "tag", tag);
+    }
+    schedule(event.key());
+  }
+
+  private void schedule(final String key) {
+    if (!dispatching.add(key)) {
+      return; // already being handled, it will pick up the pending event.
+    }
+    try {
+      executorService.execute(() -> drain(key));
+    } catch (RejectedExecutionException e) {
+      LOGGER.warn("{}: executor is not taking work, dropping the event for {}", tag, key);
+      dispatching.remove(key);
+      if (pending.remove(key) != null) {
+        metrics.increment("WatchEngine.dropped", "tag", tag);
+      }
+    }
+  }
+
+  /**
+   * Handles the pending events for the key until there are none. Only one of these runs per key at a time.
+   *
+   * @param key to handle.
+   */
+  private void drain(final String key) {
+    while (true) {
+      final Event event = pending.remove(key);
+      if (event == null) {
+        dispatching.remove(key);
+        // an event may have come in after we looked but before we let go of the key.
+        if (!pending.containsKey(key) || !dispatching.add(key)) {
+          return;
+        }
+        continue;
+      }
+      if (closed.get()) {
+        metrics.increment("WatchEngine.dropped", "tag", tag);
+        continue;
+      }
+      try {
+        handleEvent(event);
+      } catch (RuntimeException e) {
+        LOGGER.error("{}: unable to handle {}", tag, event, e);
+        metrics.increment("WatchEngine.handleEvent.failure", "tag", tag);
+      }
+    }
+  }
+
+  /**
+   * Closes the watcher. Events not yet handled are dropped. The executor is shared with the other watch engines, so
+   * it is left running.
    */
   public void close() {
     LOGGER.trace("{}:close()", tag);
-    if (closed.get()) {
+    if (!closed.compareAndSet(false, true)) {
       LOGGER.trace("Already closed");
       return;
     }
     metrics.time("WatchEngine.close", () -> {
       watcher.close();
-      executorService.shutdown();
       LOGGER.info("{}: Shutdown started", tag);
       return null;
     });
@@ -127,13 +199,14 @@ public class WatchEngine {
         final Optional<Event.Type> eventType = getEventType(e);
         eventType.ifPresentOrElse(type -> {
           LOGGER.info("Scheduling event: {}", e);
-          executorService.execute(() -> handleEvent(ImmutableEvent.builder()
+          dispatch(ImmutableEvent.builder()
               .key(e.getKeyValue().getKey().toString())
               .value(e.getKeyValue().getValue().toString())
               .type(type)
-              .build()));
+              .build());
         }, () -> {
           LOGGER.error("Unknown type of event: {}", e);
+          metrics.increment("WatchEngine.dropped", "tag", tag);
         });
       });
       return null;
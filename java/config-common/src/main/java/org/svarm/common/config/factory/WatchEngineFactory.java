@@ -41,15 +41,36 @@ public interface WatchEngineFactory {
   String KEY = "WatchEngineFactory.KEY";
 
   /**
-   * Factory to generate a watch engine.
+   * Qualifier for the revision.
+   */
+  String REVISION = "WatchEngineFactory.REVISION";
+
+  /**
+   * Factory to generate a watch engine, watching from now.
+   *
+   * @param namespace     to watch.
+   * @param key           to watch.
+   * @param eventConsumer to consume the events.
+   * @return the engine.
+   */
+  default WatchEngine watchEngine(final String namespace,
+                                  final String key,
+                                  final Consumer<Event> eventConsumer) {
+    return watchEngine(namespace, key, 0L, eventConsumer);
+  }
+
+  /**
+   * Factory to generate a watch engine, watching from the revision.
    *
    * @param namespace     to watch.
    * @param key           to watch.
+   * @param revision      the first revision to get events for, or 0 for from now.
    * @param eventConsumer to consume the events.
    * @return the engine.
    */
   WatchEngine watchEngine(@Assisted(NAMESPACE) final String namespace,
                           @Assisted(KEY) final String key,
+                          @Assisted(REVISION) final long revision,
                           @Assisted final Consumer<Event> eventConsumer);
 
 }
@@ -27,6 +27,7 @@ import java.net.URI;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import org.svarm.common.config.EtcdConfiguration;
@@ -60,6 +61,16 @@ public class EtcdModule {
    */
   public static final String INTERNAL_WATCH_ENGINE_EXECUTOR = "INTERNAL_WATCH_ENGINE_EXECUTOR";
 
+  /**
+   * Provide a scheduler named here if you want to customize it.
+   */
+  public static final String LIVENESS_SCHEDULER = "LIVENESS_SCHEDULER";
+
+  /**
+   * Internal named scheduler for the node liveness engine.
+   */
+  public static final String INTERNAL_LIVENESS_SCHEDULER = "INTERNAL_LIVENESS_SCHEDULER";
+
   /**
    * Instantiates a new Etcd module.
    */
@@ -104,6 +115,20 @@ public class EtcdModule {
     return executorService.orElseGet(Executors::newSingleThreadExecutor);
   }
 
+  /**
+   * Provides the scheduler for the liveness engine to publish again with.
+   *
+   * @param scheduler if one is preconfigured.
+   * @return the one to use.
+   */
+  @Provides
+  @Singleton
+  @Named(INTERNAL_LIVENESS_SCHEDULER)
+  public ScheduledExecutorService livenessScheduler(
+      @Named(LIVENESS_SCHEDULER) final Optional<ScheduledExecutorService> scheduler) {
+    return scheduler.orElseGet(Executors::newSingleThreadScheduledExecutor);
+  }
+
   /**
    * Provides the client.
    *
@@ -153,6 +178,15 @@ public class EtcdModule {
     @BindsOptionalOf
     @Named(WATCH_ENGINE_EXECUTOR)
     ExecutorService executorService();
+
+    /**
+     * Optional scheduler for the liveness engine.
+     *
+     * @return scheduler.
+     */
+    @BindsOptionalOf
+    @Named(LIVENESS_SCHEDULER)
+    ScheduledExecutorService livenessScheduler();
   }
 
 }
@@ -21,6 +21,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.codeheadsystems.metrics.test.BaseMetricTest;
 import io.etcd.jetcd.Client;
 import io.etcd.jetcd.test.EtcdClusterExtension;
+import org.svarm.common.config.ImmutableEtcdConfiguration;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -42,7 +45,8 @@ class EtcdAccessorIntegTest extends BaseMetricTest {
   @BeforeEach
   void setupClient() {
     client = Client.builder().endpoints(cluster.clientEndpoints()).build();
-    accessor = new EtcdAccessorImpl(client, "test", metricsFactory);
+    accessor = new EtcdAccessorImpl(client, "test", metricsFactory,
+        ImmutableEtcdConfiguration.builder().maxTxnOps(2).build());
   }
 
   @AfterEach
@@ -65,6 +69,27 @@ class EtcdAccessorIntegTest extends BaseMetricTest {
         .isNotPresent();
   }
 
+  @Test
+  void lease_revoke() {
+    final long leaseId = accessor.grantLease(30);
+    accessor.put(NAMESPACE, KEY, VALUE, leaseId);
+    assertThat(accessor.get(NAMESPACE, KEY))
+        .isPresent()
+        .contains(VALUE);
+
+    accessor.revokeLease(leaseId);
+    assertThat(accessor.get(NAMESPACE, KEY))
+        .isNotPresent();
+  }
+
+  @Test
+  void lease_expires() {
+    final long leaseId = accessor.grantLease(1);
+    accessor.put(NAMESPACE, KEY, VALUE, leaseId);
+
+    retry(20, () -> assertThat(accessor.get(NAMESPACE, KEY)).isNotPresent());
+  }
+
   private void retry(final int times, final Runnable runnable) {
     AssertionError error = null;
     for (int attempt = 0; attempt < times; attempt++) {
@@ -88,4 +113,15 @@ class EtcdAccessorIntegTest extends BaseMetricTest {
     }
   }
 
-}
\ No newline at end of file
+  @Test
+  void putAllAndDeleteAll_overSeveralTransactions() {
+    accessor.putAll(NAMESPACE, Map.of("a", "1", "b", "2", "c", "3", "d", "4", "e", "5"));
+    assertThat(accessor.get(NAMESPACE, "a")).contains("1");
+    assertThat(accessor.get(NAMESPACE, "e")).contains("5");
+
+    accessor.deleteAll(NAMESPACE, List.of("a", "b", "c", "d", "e"));
+    assertThat(accessor.get(NAMESPACE, "a")).isNotPresent();
+    assertThat(accessor.get(NAMESPACE, "e")).isNotPresent();
+  }
+
+}
@@ -21,7 +21,9 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.codeheadsystems.metrics.test.BaseMetricTest;
@@ -29,6 +31,7 @@ import io.etcd.jetcd.ByteSequence;
 import io.etcd.jetcd.Client;
 import io.etcd.jetcd.KV;
 import io.etcd.jetcd.KeyValue;
+import io.etcd.jetcd.Response;
 import io.etcd.jetcd.Txn;
 import io.etcd.jetcd.Watch;
 import io.etcd.jetcd.kv.DeleteResponse;
@@ -54,6 +57,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.ImmutableEtcdConfiguration;
 
 @ExtendWith(MockitoExtension.class)
 class EtcdAccessorTest extends BaseMetricTest {
@@ -71,6 +75,7 @@ class EtcdAccessorTest extends BaseMetricTest {
   @Mock private Txn txn;
   @Mock private KeyValue keyValue;
   @Mock private GetResponse getResponse;
+  @Mock private Response.Header responseHeader;
   @Mock private CompletableFuture<PutResponse> putResponseCompletableFuture;
   @Mock private CompletableFuture<DeleteResponse> deleteResponseCompletableFuture;
   @Mock private CompletableFuture<GetResponse> getResponseCompletableFuture;
@@ -92,7 +97,8 @@ class EtcdAccessorTest extends BaseMetricTest {
 
   @BeforeEach
   void setUp() {
-    accessor = new EtcdAccessorImpl(client, PREAMBLE, metricsFactory);
+    accessor = new EtcdAccessorImpl(client, PREAMBLE, metricsFactory,
+        ImmutableEtcdConfiguration.builder().maxTxnOps(2).build());
   }
 
   @Test
@@ -153,6 +159,46 @@ class EtcdAccessorTest extends BaseMetricTest {
     assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> accessor.putAll(NAMESPACE, Map.of(KEY, VALUE)));
   }
 
+  @Test
+  void putAll_splitsIntoTransactions() throws ExecutionException, InterruptedException {
+    when(client.getKVClient()).thenReturn(kv);
+    when(kv.txn()).thenReturn(txn);
+    when(txn.Then(any(Op[].class))).thenReturn(txn);
+    when(txn.commit()).thenReturn(txnResponseCompletableFuture);
+    accessor.putAll(NAMESPACE, Map.of("a", "1", "b", "2", "c", "3", "d", "4", "e", "5"));
+    verify(kv, times(3)).txn();
+    verify(txnResponseCompletableFuture, times(3)).get();
+  }
+
+  @Test
+  void putAll_empty() {
+    accessor.putAll(NAMESPACE, Map.of());
+    verifyNoInteractions(client);
+  }
+
+  @Test
+  void deleteAll() throws ExecutionException, InterruptedException {
+    when(client.getKVClient()).thenReturn(kv);
+    when(kv.txn()).thenReturn(txn);
+    when(txn.Then(opArgumentCaptor.capture())).thenReturn(txn);
+    when(txn.commit()).thenReturn(txnResponseCompletableFuture);
+    accessor.deleteAll(NAMESPACE, List.of(KEY));
+    verify(txnResponseCompletableFuture).get();
+    assertThat(opArgumentCaptor.getValue())
+        .isInstanceOf(Op.DeleteOp.class);
+  }
+
+  @Test
+  void deleteAll_execution() throws ExecutionException, InterruptedException {
+    when(client.getKVClient()).thenReturn(kv);
+    when(kv.txn()).thenReturn(txn);
+    when(txn.Then(opArgumentCaptor.capture())).thenReturn(txn);
+    when(txn.commit()).thenReturn(txnResponseCompletableFuture);
+    when(txnResponseCompletableFuture.get()).thenThrow(new ExecutionException(new NullPointerException()));
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> accessor.deleteAll(NAMESPACE, List.of(KEY)));
+  }
+
   @Test
   void delete() throws ExecutionException, InterruptedException {
     when(client.getKVClient()).thenReturn(kv);
@@ -189,6 +235,17 @@ class EtcdAccessorTest extends BaseMetricTest {
         .hasFieldOrPropertyWithValue("prefix", true);
   }
 
+  @Test
+  void watch_revision() {
+    when(client.getWatchClient()).thenReturn(watch);
+    when(watch.watch(eq(getNamespaceKeyBytes()), watchOptionArgumentCaptor.capture(), eq(listener))).thenReturn(watcher);
+
+    assertThat(accessor.watch(NAMESPACE, KEY, 42L, listener)).isEqualTo(watcher);
+    assertThat(watchOptionArgumentCaptor.getValue())
+        .hasFieldOrPropertyWithValue("prefix", true)
+        .hasFieldOrPropertyWithValue("revision", 42L);
+  }
+
   @Test
   void get() throws ExecutionException, InterruptedException, TimeoutException {
     when(client.getKVClient()).thenReturn(kv);
@@ -266,4 +323,35 @@ class EtcdAccessorTest extends BaseMetricTest {
         .hasFieldOrPropertyWithValue("prefix", true);
   }
 
-}
\ No newline at end of file
+  @Test
+  void getAllRevisioned() throws ExecutionException, InterruptedException, TimeoutException {
+    final ByteSequence namespaceKeyBytes = getNamespaceKeyBytes();
+    when(client.getKVClient()).thenReturn(kv);
+    when(kv.get(eq(namespaceKeyBytes), getOptionArgumentCaptor.capture()))
+        .thenReturn(getResponseCompletableFuture);
+    when(getResponseCompletableFuture.get(anyLong(), any())).thenReturn(getResponse);
+    when(getResponse.getKvs()).thenReturn(List.of(keyValue));
+    when(getResponse.getHeader()).thenReturn(responseHeader);
+    when(responseHeader.getRevision()).thenReturn(42L);
+    when(keyValue.getKey()).thenReturn(namespaceKeyBytes);
+    when(keyValue.getValue()).thenReturn(ByteSequence.from(VALUE.getBytes()));
+
+    final Revisioned<Map<String, String>> result = accessor.getAllRevisioned(NAMESPACE, KEY);
+
+    assertThat(result.value()).contains(Map.entry(namespaceKeyBytes.toString(), VALUE));
+    assertThat(result.revision()).isEqualTo(42L);
+    assertThat(getOptionArgumentCaptor.getValue())
+        .hasFieldOrPropertyWithValue("prefix", true);
+  }
+
+  @Test
+  void getAllRevisioned_timeout() throws ExecutionException, InterruptedException, TimeoutException {
+    when(client.getKVClient()).thenReturn(kv);
+    when(kv.get(eq(getNamespaceKeyBytes()), getOptionArgumentCaptor.capture()))
+        .thenReturn(getResponseCompletableFuture);
+    when(getResponseCompletableFuture.get(anyLong(), any())).thenThrow(new TimeoutException());
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> accessor.getAllRevisioned(NAMESPACE, KEY));
+  }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.common.config.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codeheadsystems.metrics.test.BaseMetricTest;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.accessor.EtcdAccessor;
+import org.svarm.common.config.factory.WatchEngineFactory;
+
+@ExtendWith(MockitoExtension.class)
+class LiveNodesEngineTest extends BaseMetricTest {
+
+  private static final String UUID = "uuid";
+  private static final String KEY = "svarm_live/" + UUID;
+
+  @Mock private EtcdAccessor accessor;
+  @Mock private WatchEngineFactory watchEngineFactory;
+  @Mock private WatchEngine watchEngine;
+  @Mock private Consumer<String> listener;
+
+  private LiveNodesEngine engine;
+
+  @BeforeEach
+  void setup() {
+    engine = new LiveNodesEngine(accessor, watchEngineFactory, metricsFactory);
+  }
+
+  private static Event event(final Event.Type type) {
+    return ImmutableEvent.builder().key(KEY).type(type).build();
+  }
+
+  @Test
+  void isLive_unknown() {
+    assertThat(engine.isLive(UUID)).isTrue();
+    assertThat(engine.liveNodes()).isEmpty();
+  }
+
+  @Test
+  void handle_put() {
+    engine.handle(event(Event.Type.PUT));
+
+    assertThat(engine.isLive(UUID)).isTrue();
+    assertThat(engine.liveNodes()).containsExactly(UUID);
+  }
+
+  @Test
+  void handle_delete() {
+    engine.onDown(listener);
+    engine.handle(event(Event.Type.PUT));
+    engine.handle(event(Event.Type.DELETE));
+
+    assertThat(engine.isLive(UUID)).isFalse();
+    assertThat(engine.liveNodes()).isEmpty();
+    verify(listener).accept(UUID);
+  }
+
+  @Test
+  void handle_deleteTwice_notifiesOnce() {
+    engine.onDown(listener);
+    engine.handle(event(Event.Type.DELETE));
+    engine.handle(event(Event.Type.DELETE));
+
+    verify(listener).accept(UUID);
+  }
+
+  @Test
+  void handle_backUp() {
+    engine.handle(event(Event.Type.DELETE));
+    engine.handle(event(Event.Type.PUT));
+
+    assertThat(engine.isLive(UUID)).isTrue();
+    assertThat(engine.liveNodes()).containsExactly(UUID);
+  }
+
+  @Test
+  void start() {
+    when(watchEngineFactory.watchEngine(any(), any(), any())).thenReturn(watchEngine);
+    when(accessor.getAll(NodeLivenessEngine.LIVENESS_NAMESPACE, "")).thenReturn(Map.of(KEY, "now"));
+
+    engine.start();
+    engine.start(); // only watches once.
+
+    assertThat(engine.isLive(UUID)).isTrue();
+    assertThat(engine.isLive("other")).isFalse(); // no key, so it was down before we started.
+    engine.stop();
+
+    assertThat(engine.liveNodes()).containsExactly(UUID);
+    verify(watchEngineFactory).watchEngine(any(), any(), any());
+    verify(watchEngine).close();
+  }
+
+  @Test
+  void start_thenDownAndBack() {
+    when(watchEngineFactory.watchEngine(any(), any(), any())).thenReturn(watchEngine);
+    when(accessor.getAll(NodeLivenessEngine.LIVENESS_NAMESPACE, "")).thenReturn(Map.of());
+    engine.start();
+    assertThat(engine.isLive(UUID)).isFalse();
+
+    engine.handle(event(Event.Type.PUT));
+    assertThat(engine.isLive(UUID)).isTrue();
+
+    engine.handle(event(Event.Type.DELETE));
+    assertThat(engine.isLive(UUID)).isFalse();
+  }
+
+  @Test
+  void stop_notStarted() {
+    engine.stop();
+
+    verify(watchEngine, never()).close();
+  }
+
+}
@@ -39,6 +39,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.svarm.common.config.EtcdConfiguration;
 import org.svarm.common.config.ImmutableEtcdConfiguration;
+import org.svarm.common.config.accessor.Revisioned;
 import org.svarm.common.config.api.ImmutableMetaData;
 import org.svarm.common.config.api.ImmutableNodeRange;
 import org.svarm.common.config.api.ImmutableNodeTenantResource;
@@ -119,6 +120,47 @@ class NodeConfigurationEngineTest extends BaseMetricTest {
         .isEmpty();
   }
 
+  @Test
+  void testReadTenantResourceRanges() {
+    final TenantResourceRange trr1 = randomTenantResourceRange(3);
+    final TenantResourceRange trr2 = randomTenantResourceRange(2);
+    engine.write(trr1);
+    engine.write(trr2);
+
+    final Revisioned<List<TenantResourceRange>> result = engine.readTenantResourceRanges();
+    Assertions.assertThat(result.value()).contains(trr1, trr2);
+    Assertions.assertThat(result.revision()).isPositive();
+
+    engine.delete(trr1);
+    final Revisioned<List<TenantResourceRange>> result2 = engine.readTenantResourceRanges();
+    Assertions.assertThat(result2.value()).contains(trr2).doesNotContain(trr1);
+    Assertions.assertThat(result2.revision()).isGreaterThan(result.revision());
+  }
+
+  @Test
+  void testTenantResourceRanges_bulk() {
+    final List<TenantResourceRange> ranges = IntStream.range(0, 300)
+        .mapToObj(i -> randomTenantResourceRange(2))
+        .toList();
+    engine.writeTenantResourceRanges(ranges);
+    Assertions.assertThat(engine.readTenantResourceRanges().value()).containsAll(ranges);
+
+    final List<TenantResource> tenantResources = ranges.stream()
+        .map(trr -> (TenantResource) ImmutableTenantResource.builder()
+            .tenant(trr.tenant()).resource(trr.resource()).build())
+        .toList();
+    engine.deleteTenantResources(tenantResources);
+    Assertions.assertThat(engine.readTenantResourceRanges().value()).doesNotContainAnyElementsOf(ranges);
+  }
+
+  @Test
+  void testToTenantResource() {
+    Assertions.assertThat(engine.toTenantResource("svarm_tenant/tenant/resource"))
+        .contains(ImmutableTenantResource.builder().tenant("tenant").resource("resource").build());
+    Assertions.assertThat(engine.toTenantResource("svarm_tenant/tenant/")).isEmpty();
+    Assertions.assertThat(engine.toTenantResource("tenant")).isEmpty();
+  }
+
   @Test
   void testRoundTrip() {
     final String uuid = uuid();
@@ -144,6 +186,21 @@ class NodeConfigurationEngineTest extends BaseMetricTest {
         .contains(resource2, resource3);
   }
 
+  @Test
+  void testReadNodeResourcesRevisioned() {
+    final String uuid = uuid();
+    final NodeTenantResourceRange resource1 = randomeNodeTenantResourceRange(uuid);
+    engine.write(resource1);
+    final Revisioned<List<NodeTenantResourceRange>> result = engine.readNodeResourcesRevisioned(uuid);
+    Assertions.assertThat(result.value()).containsExactly(resource1);
+
+    final NodeTenantResourceRange resource2 = randomeNodeTenantResourceRange(uuid);
+    engine.write(resource2);
+    final Revisioned<List<NodeTenantResourceRange>> result2 = engine.readNodeResourcesRevisioned(uuid);
+    Assertions.assertThat(result2.value()).containsExactlyInAnyOrder(resource1, resource2);
+    Assertions.assertThat(result2.revision()).isGreaterThan(result.revision());
+  }
+
   @Component(modules = {EtcdModule.class, EtcdConfigurationModule.class, CommonModule.class, TestModule.class})
   @Singleton
   public interface EngineComponent {
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.common.config.engine;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.svarm.common.config.engine.NodeLivenessEngine.LIVENESS_NAMESPACE;
+
+import com.codeheadsystems.metrics.test.BaseMetricTest;
+import io.etcd.jetcd.lease.LeaseKeepAliveResponse;
+import io.etcd.jetcd.support.CloseableClient;
+import io.grpc.stub.StreamObserver;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.ImmutableEtcdConfiguration;
+import org.svarm.common.config.accessor.EtcdAccessor;
+
+@ExtendWith(MockitoExtension.class)
+class NodeLivenessEngineTest extends BaseMetricTest {
+
+  private static final String UUID = "uuid";
+  private static final String VALUE = "value";
+
+  @Mock private EtcdAccessor accessor;
+  @Mock private ScheduledExecutorService scheduler;
+  @Mock private ScheduledFuture<?> retry;
+  @Mock private CloseableClient keepAlive;
+  @Captor private ArgumentCaptor<StreamObserver<LeaseKeepAliveResponse>> observerCaptor;
+  @Captor private ArgumentCaptor<Runnable> runnableCaptor;
+
+  private NodeLivenessEngine engine;
+
+  @BeforeEach
+  void setup() {
+    engine = new NodeLivenessEngine(accessor, ImmutableEtcdConfiguration.builder().leaseTtlSeconds(1).build(),
+        metrics, scheduler);
+  }
+
+  /**
+   * Publishes with lease 1, then loses it.
+   */
+  private void publishAndLose() {
+    when(accessor.keepAlive(eq(1L), observerCaptor.capture())).thenReturn(keepAlive);
+    engine.publish(UUID, VALUE);
+    observerCaptor.getValue().onCompleted();
+  }
+
+  @Test
+  void lost_publishesAgain() {
+    when(accessor.grantLease(1)).thenReturn(1L, 2L);
+    when(accessor.keepAlive(eq(2L), any())).thenReturn(keepAlive);
+
+    publishAndLose();
+
+    verify(keepAlive).close();
+    verify(accessor).put(LIVENESS_NAMESPACE, UUID, VALUE, 2L);
+    verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+  }
+
+  @Test
+  void lost_republishFails_retriesWithBackoff() {
+    when(accessor.grantLease(1))
+        .thenReturn(1L)
+        .thenThrow(new IllegalStateException("etcd is down"))
+        .thenThrow(new IllegalStateException("etcd is down"))
+        .thenReturn(2L);
+    when(accessor.keepAlive(eq(2L), any())).thenReturn(keepAlive);
+    doReturn(retry).when(scheduler).schedule(runnableCaptor.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+    publishAndLose();
+    verify(scheduler).schedule(any(Runnable.class), eq(500L), eq(TimeUnit.MILLISECONDS));
+
+    runnableCaptor.getValue().run(); // fails again, waits longer.
+    verify(scheduler).schedule(any(Runnable.class), eq(1000L), eq(TimeUnit.MILLISECONDS));
+
+    runnableCaptor.getValue().run();
+    verify(accessor).put(LIVENESS_NAMESPACE, UUID, VALUE, 2L);
+    verify(scheduler, times(2)).schedule(any(Runnable.class), anyLong(), any());
+
+    engine.revoke();
+    verify(accessor).revokeLease(2L);
+  }
+
+  @Test
+  void lost_revokedWhileRetrying() {
+    when(accessor.grantLease(1))
+        .thenReturn(1L)
+        .thenThrow(new IllegalStateException("etcd is down"));
+    doReturn(retry).when(scheduler).schedule(runnableCaptor.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+    publishAndLose();
+    engine.revoke();
+    runnableCaptor.getValue().run();
+
+    verify(retry).cancel(false);
+    verify(accessor, times(2)).grantLease(1);
+    verify(accessor, never()).revokeLease(anyLong());
+  }
+
+}
@@ -17,7 +17,12 @@
 package org.svarm.common.config.engine;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -29,8 +34,13 @@ import io.etcd.jetcd.Watch;
 import io.etcd.jetcd.watch.WatchEvent;
 import io.etcd.jetcd.watch.WatchResponse;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -58,6 +68,7 @@ class WatchEngineTest extends BaseMetricTest {
   @Mock private WatchEvent watchEvent;
   @Mock private KeyValue keyValue;
   @Mock private Watch.Watcher watcher;
+  @Mock private Watch.Watcher revisionWatcher;
   @Captor private ArgumentCaptor<Event> eventArgumentCaptor;
   @Captor private ArgumentCaptor<Watch.Listener> listenerArgumentCaptor;
 
@@ -67,13 +78,39 @@ class WatchEngineTest extends BaseMetricTest {
   @BeforeEach
   void setupEngine() {
     when(accessor.watch(eq(NAMESPACE), eq(KEY), listenerArgumentCaptor.capture())).thenReturn(watcher);
-    watchEngine = new WatchEngine(accessor, metricsFactory, executorService, NAMESPACE, KEY, eventConsumer);
+    watchEngine = new WatchEngine(accessor, metricsFactory, executorService, NAMESPACE, KEY, 0L, eventConsumer);
   }
 
   @AfterEach
   void shutdown() {
     watchEngine.close();
     verify(watcher).close();
+    executorService.shutdownNow();
+  }
+
+  private static WatchEvent watchEvent(final String key, final String value) {
+    final KeyValue kv = mock(KeyValue.class);
+    when(kv.getKey()).thenReturn(ByteSequence.from(key.getBytes()));
+    when(kv.getValue()).thenReturn(ByteSequence.from(value.getBytes()));
+    final WatchEvent event = mock(WatchEvent.class);
+    when(event.getKeyValue()).thenReturn(kv);
+    when(event.getEventType()).thenReturn(WatchEvent.EventType.PUT);
+    return event;
+  }
+
+  private static WatchResponse watchResponse(final WatchEvent... events) {
+    final WatchResponse response = mock(WatchResponse.class);
+    when(response.getEvents()).thenReturn(List.of(events));
+    return response;
+  }
+
+  @Test
+  void watchFromRevision() {
+    when(accessor.watch(eq(NAMESPACE), eq(KEY), eq(10L), any())).thenReturn(revisionWatcher);
+
+    new WatchEngine(accessor, metricsFactory, executorService, NAMESPACE, KEY, 10L, eventConsumer).close();
+
+    verify(revisionWatcher).close();
   }
 
   @Test
@@ -128,4 +165,71 @@ class WatchEngineTest extends BaseMetricTest {
     verifyNoInteractions(eventConsumer);
   }
 
-}
\ No newline at end of file
+  @Test
+  void watchResponse_coalescesPendingEvents() throws InterruptedException {
+    final CountDownLatch handling = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<String> values = new CopyOnWriteArrayList<>();
+    doAnswer(invocation -> {
+      final Event event = invocation.getArgument(0);
+      values.add(event.value().orElseThrow());
+      handling.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return null;
+    }).when(eventConsumer).accept(any());
+
+    watchEngine.watchResponse(watchResponse(watchEvent(KEY, "1")));
+    assertThat(handling.await(5, TimeUnit.SECONDS)).isTrue();
+    watchEngine.watchResponse(watchResponse(watchEvent(KEY, "2"), watchEvent(KEY, "3")));
+    watchEngine.watchResponse(watchResponse(watchEvent(KEY, "4")));
+    release.countDown();
+
+    verify(eventConsumer, timeout(5000).times(2)).accept(any());
+    assertThat(values).containsExactly("1", "4");
+  }
+
+  @Test
+  void watchResponse_orderedPerKey() throws InterruptedException {
+    final ExecutorService pool = Executors.newFixedThreadPool(4);
+    when(accessor.watch(eq("pool"), eq(KEY), any())).thenReturn(revisionWatcher);
+    final Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+    final CountDownLatch last = new CountDownLatch(2);
+    final WatchEngine poolEngine = new WatchEngine(accessor, metricsFactory, pool, "pool", KEY, 0L, event -> {
+      final int value = Integer.parseInt(event.value().orElseThrow());
+      seen.computeIfAbsent(event.key(), k -> new CopyOnWriteArrayList<>()).add(value);
+      if (value == 199) {
+        last.countDown();
+      }
+    });
+    try {
+      for (int i = 0; i < 200; i++) {
+        poolEngine.watchResponse(watchResponse(watchEvent("a", String.valueOf(i)), watchEvent("b", String.valueOf(i))));
+      }
+      assertThat(last.await(5, TimeUnit.SECONDS)).isTrue(); // the latest is never coalesced away.
+      assertThat(seen).containsOnlyKeys("a", "b");
+      seen.values().forEach(list -> assertThat(list).isSorted().doesNotHaveDuplicates());
+    } finally {
+      poolEngine.close();
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void watchResponse_afterClose_dropped() {
+    watchEngine.close();
+    watchEngine.watchResponse(watchResponse(watchEvent(KEY, VALUE)));
+    verifyNoInteractions(eventConsumer);
+  }
+
+  @Test
+  void handleEvent_failureDoesNotStopTheKey() {
+    doThrow(new IllegalStateException("boom")).doNothing().when(eventConsumer).accept(any());
+
+    watchEngine.watchResponse(watchResponse(watchEvent(KEY, "1")));
+    verify(eventConsumer, timeout(5000)).accept(any());
+    watchEngine.watchResponse(watchResponse(watchEvent(KEY, "2")));
+
+    verify(eventConsumer, timeout(5000).times(2)).accept(any());
+  }
+
+}
@@ -83,6 +83,18 @@ public interface ControlNodeService {
   @Produces(MediaType.APPLICATION_JSON)
   NodeInfo disable(@PathParam("node") final String nodeUuid);
 
+  /**
+   * Bans a given node from the swarm. It can never be enabled again.
+   *
+   * @param nodeUuid to ban.
+   * @return a node info object.
+   */
+  @PUT
+  @Path("ban")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  NodeInfo ban(@PathParam("node") final String nodeUuid);
+
   /**
    * Disable a given node resource.
    *
@@ -127,6 +139,19 @@ public interface ControlNodeService {
   @Produces(MediaType.APPLICATION_JSON)
   NodeInfo status(@PathParam("node") final String nodeUuid);
 
+  /**
+   * Reports the node's current load. Cheap for the control plane, nothing is stored in the database. Not found if
+   * the node is unknown or not enabled.
+   *
+   * @param nodeUuid  who is reporting.
+   * @param heartbeat the load.
+   */
+  @PUT
+  @Path("heartbeat")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  void heartbeat(@PathParam("node") final String nodeUuid, final NodeHeartbeat heartbeat);
+
   /**
    * Gets the key for the node in the control plane. This is the part of the
    * key the control plane controls.
@@ -19,6 +19,7 @@ package org.svarm.control.common.api;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
@@ -73,6 +74,20 @@ public interface ControlTenantResourceService {
                                     @PathParam("resource") final String resource,
                                     final ResourceMetaData resourceMetaData);
 
+  /**
+   * Create and delete many resources at once. Use this when onboarding a tenant with many tables.
+   *
+   * @param tenantId      that owns the resources.
+   * @param resourceBatch what to create and delete.
+   * @return response. the tenant resource info of the created resources
+   */
+  @POST
+  @Path("/")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Consumes(MediaType.APPLICATION_JSON)
+  List<TenantResourceInfo> batchResources(@PathParam("tenant") final String tenantId,
+                                          final ResourceBatch resourceBatch);
+
   /**
    * Delete the tenant table.
    *
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.control.common.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.util.List;
+import org.immutables.value.Value;
+
+/**
+ * The load a node reports to the control plane every heartbeat. One of these covers everything the node has open,
+ * so the control plane gets one call per node per interval.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableNodeHeartbeat.class)
+@JsonDeserialize(builder = ImmutableNodeHeartbeat.Builder.class)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public interface NodeHeartbeat {
+
+  /**
+   * Bytes the node's databases take on disk.
+   *
+   * @return the bytes.
+   */
+  long bytesOnDisk();
+
+  /**
+   * Requests per second, over the last minute.
+   *
+   * @return the rate.
+   */
+  double qps();
+
+  /**
+   * The 99th percentile request latency.
+   *
+   * @return milliseconds.
+   */
+  double p99Millis();
+
+  /**
+   * How many tenant databases the node has open.
+   *
+   * @return the count.
+   */
+  int openDatabases();
+
+  /**
+   * Row estimates for the open tenant resources.
+   *
+   * @return the list.
+   */
+  List<ResourceLoad> resources();
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.control.common.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.util.List;
+import java.util.Map;
+import org.immutables.value.Value;
+
+/**
+ * Many resources of a tenant to create or delete in one call. A resource cannot be in both.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableResourceBatch.class)
+@JsonDeserialize(builder = ImmutableResourceBatch.Builder.class)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public interface ResourceBatch {
+
+  /**
+   * The resources to create, with what is being created.
+   *
+   * @return value. map
+   */
+  @JsonProperty("create")
+  Map<String, ResourceMetaData> create();
+
+  /**
+   * The resources to delete.
+   *
+   * @return value. list
+   */
+  @JsonProperty("delete")
+  List<String> delete();
+
+}
@@ -30,6 +30,11 @@ public class ControlConfiguration extends ServerConfiguration {
   @NotNull
   private DataSourceFactory database = new DataSourceFactory();
   private Boolean runLiquibase;
+  private long heartbeatWindowSeconds = 60;
+  private long publishDelayMillis = 500;
+  @Valid
+  @NotNull
+  private PlacementConfiguration placementConfiguration = ImmutablePlacementConfiguration.builder().build();
 
   /**
    * Instantiates a new Control configuration.
@@ -76,4 +81,58 @@ public class ControlConfiguration extends ServerConfiguration {
     this.database = factory;
   }
 
+  /**
+   * Getter for how long node heartbeats are kept for the load view.
+   *
+   * @return value. heartbeat window seconds
+   */
+  public long getHeartbeatWindowSeconds() {
+    return heartbeatWindowSeconds;
+  }
+
+  /**
+   * Setter for how long node heartbeats are kept for the load view.
+   *
+   * @param heartbeatWindowSeconds to set.
+   */
+  public void setHeartbeatWindowSeconds(final long heartbeatWindowSeconds) {
+    this.heartbeatWindowSeconds = heartbeatWindowSeconds;
+  }
+
+  /**
+   * Getter for how long ready resources wait before being published to the proxies, so many of them go out together.
+   *
+   * @return value. publish delay millis
+   */
+  public long getPublishDelayMillis() {
+    return publishDelayMillis;
+  }
+
+  /**
+   * Setter for how long ready resources wait before being published to the proxies.
+   *
+   * @param publishDelayMillis to set.
+   */
+  public void setPublishDelayMillis(final long publishDelayMillis) {
+    this.publishDelayMillis = publishDelayMillis;
+  }
+
+  /**
+   * Getter for the placement configuration.
+   *
+   * @return value. placement configuration
+   */
+  public PlacementConfiguration getPlacementConfiguration() {
+    return placementConfiguration;
+  }
+
+  /**
+   * Setter for the placement configuration.
+   *
+   * @param placementConfiguration to set.
+   */
+  public void setPlacementConfiguration(final PlacementConfiguration placementConfiguration) {
+    this.placementConfiguration = placementConfiguration;
+  }
+
 }
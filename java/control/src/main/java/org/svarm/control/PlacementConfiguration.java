@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.control;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.util.Map;
+import org.immutables.value.Value;
+
+/**
+ * How the control plane places new tenant resources onto nodes. Each candidate node gets a score from its ranges,
+ * storage and QPS, each relative to the cluster average, divided by its capacity weight. Lower scores get the work.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutablePlacementConfiguration.class)
+@JsonDeserialize(builder = ImmutablePlacementConfiguration.Builder.class)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public interface PlacementConfiguration {
+
+  /**
+   * How many nodes a new tenant resource is split across.
+   *
+   * @return the size.
+   */
+  @Value.Default
+  default int initialClusterSize() {
+    return 2;
+  }
+
+  /**
+   * How many random candidates are compared for each slot. Two is power-of-two-choices, one is purely random, and
+   * anything at or above the number of candidates is strictly least-loaded.
+   *
+   * @return the choices.
+   */
+  @Value.Default
+  default int choices() {
+    return 2;
+  }
+
+  /**
+   * Weight of the number of ranges already assigned to the node.
+   *
+   * @return the weight.
+   */
+  @Value.Default
+  default double rangeWeight() {
+    return 1.0;
+  }
+
+  /**
+   * Weight of the bytes the node reports on disk.
+   *
+   * @return the weight.
+   */
+  @Value.Default
+  default double storageWeight() {
+    return 1.0;
+  }
+
+  /**
+   * Weight of the requests per second the node reports.
+   *
+   * @return the weight.
+   */
+  @Value.Default
+  default double qpsWeight() {
+    return 1.0;
+  }
+
+  /**
+   * Relative capacity by node uuid. Nodes not listed are 1.0, a node at 2.0 takes twice the load, and a node at
+   * 0 gets no new ranges.
+   *
+   * @return the map.
+   */
+  Map<String, Double> capacityWeights();
+
+  /**
+   * How often the range counts are reloaded from the database.
+   *
+   * @return the seconds.
+   */
+  @Value.Default
+  default long refreshSeconds() {
+    return 30;
+  }
+
+}
@@ -17,8 +17,12 @@
 package org.svarm.control.dao;
 
 import java.util.List;
+import java.util.Map;
+import org.jdbi.v3.sqlobject.config.KeyColumn;
+import org.jdbi.v3.sqlobject.config.ValueColumn;
 import org.jdbi.v3.sqlobject.customizer.Bind;
 import org.jdbi.v3.sqlobject.customizer.BindPojo;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
 import org.jdbi.v3.sqlobject.transaction.Transaction;
@@ -42,6 +46,17 @@ public interface NodeRangeDao extends Transactional<NodeRangeDao> {
       + "(:nodeUuid, :tenant, :resource, :createDate, :updateDate, :tableVersion, :ready, :status, :hash)")
   void insert(@BindPojo final NodeRange instance);
 
+  /**
+   * Inserts the node ranges as a single batch.
+   *
+   * @param instances to use.
+   */
+  @SqlBatch("insert into NODE_RANGE "
+      + "(node_uuid,tenant,resource, create_date, update_date, table_version, ready, status, hash) "
+      + "values "
+      + "(:nodeUuid, :tenant, :resource, :createDate, :updateDate, :tableVersion, :ready, :status, :hash)")
+  void insert(@BindPojo final List<NodeRange> instances);
+
   /**
    * Updates a Node range by the values.
    *
@@ -55,6 +70,19 @@ public interface NodeRangeDao extends Transactional<NodeRangeDao> {
       + "where node_uuid = :nodeUuid and tenant = :tenant and resource = :resource")
   void update(@BindPojo final NodeRange instance);
 
+  /**
+   * Updates the node ranges as a single batch.
+   *
+   * @param instances to use.
+   */
+  @SqlBatch("update NODE_RANGE set "
+      + "update_date = :updateDate, "
+      + "ready = :ready, "
+      + "status = :status, "
+      + "hash = :hash "
+      + "where node_uuid = :nodeUuid and tenant = :tenant and resource = :resource")
+  void update(@BindPojo final List<NodeRange> instances);
+
   /**
    * Get the entry from the datastore.
    *
@@ -76,6 +104,15 @@ public interface NodeRangeDao extends Transactional<NodeRangeDao> {
   @SqlQuery("select * from NODE_RANGE where tenant = :tenant and resource = :resource")
   List<NodeRange> nodeRanges(@Bind("tenant") String tenant, @Bind("resource") String resource);
 
+  /**
+   * List all node ranges for the tenant, across all of its resources.
+   *
+   * @param tenant to use.
+   * @return the list of node ranges.
+   */
+  @SqlQuery("select * from NODE_RANGE where tenant = :tenant")
+  List<NodeRange> tenantNodeRanges(@Bind("tenant") String tenant);
+
   /**
    * List all node ranges for a node.
    *
@@ -85,6 +122,16 @@ public interface NodeRangeDao extends Transactional<NodeRangeDao> {
   @SqlQuery("select * from NODE_RANGE where node_uuid = :nodeUuid")
   List<NodeRange> nodeRanges(@Bind("nodeUuid") String uuid);
 
+  /**
+   * Count the ranges assigned to each node. Nodes without ranges are not included.
+   *
+   * @return map of node uuid to the number of ranges.
+   */
+  @SqlQuery("select node_uuid, count(*) as ranges from NODE_RANGE group by node_uuid")
+  @KeyColumn("node_uuid")
+  @ValueColumn("ranges")
+  Map<String, Integer> rangeCounts();
+
   /**
    * Get the node ranges from the datastore for the tenant/resource, but using the API version of node ranges.
    *
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.control.engine;
+
+import com.codeheadsystems.metrics.Metrics;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.svarm.common.config.api.ImmutableTenantResource;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.control.ControlConfiguration;
+import org.svarm.control.common.api.NodeHeartbeat;
+import org.svarm.control.common.api.ResourceLoad;
+import org.svarm.control.model.ClusterStats;
+import org.svarm.control.model.ImmutableClusterStats;
+import org.svarm.control.model.ImmutableNodeStats;
+import org.svarm.control.model.NodeStats;
+
+/**
+ * Keeps the heartbeats from the nodes in memory for a short window and summarizes them. Nothing here touches the
+ * database, so a heartbeat costs a map update. Nodes that stop reporting age out of the window. Each heartbeat also
+ * feeds the placement engine with the node's storage and QPS.
+ */
+@Singleton
+public class HeartbeatEngine {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(HeartbeatEngine.class);
+  private static final int MAX_SAMPLES = 32;
+
+  private final Clock clock;
+  private final Metrics metrics;
+  private final PlacementEngine placementEngine;
+  private final Duration window;
+  private final Map<String, List<Sample>> samples;
+
+  /**
+   * Constructor.
+   *
+   * @param configuration   for the window.
+   * @param clock           for the window.
+   * @param metrics         metrics.
+   * @param placementEngine to tell about the load.
+   */
+  @Inject
+  public HeartbeatEngine(final ControlConfiguration configuration,
+                         final Clock clock,
+                         final Metrics metrics,
+                         final PlacementEngine placementEngine) {
+    this.clock = clock;
+    this.metrics = metrics;
+    this.placementEngine = placementEngine;
+    this.window = Duration.ofSeconds(configuration.getHeartbeatWindowSeconds());
+    this.samples = new ConcurrentHashMap<>();
+    LOGGER.info("HeartbeatEngine({},{},{})", window, metrics, placementEngine);
+  }
+
+  /**
+   * Takes in a heartbeat from a node.
+   *
+   * @param nodeUuid  the node.
+   * @param heartbeat what it reported.
+   */
+  public void ingest(final String nodeUuid, final NodeHeartbeat heartbeat) {
+    LOGGER.trace("ingest({},{})", nodeUuid, heartbeat);
+    final Instant now = clock.instant();
+    final Sample sample = new Sample(now, heartbeat);
+    final List<Sample> current = samples.compute(nodeUuid, (uuid, list) -> {
+      final List<Sample> kept = new ArrayList<>(list == null ? List.of() : inWindow(list, now));
+      kept.add(sample);
+      return List.copyOf(kept.subList(Math.max(0, kept.size() - MAX_SAMPLES), kept.size()));
+    });
+    final NodeStats stats = summarize(nodeUuid, current);
+    placementEngine.report(nodeUuid, stats.bytesOnDisk(), stats.qps());
+    metrics.increment("HeartbeatEngine.ingest");
+  }
+
+  /**
+   * The load of a node over the window.
+   *
+   * @param nodeUuid the node.
+   * @return the stats, if we heard from it in the window.
+   */
+  public Optional<NodeStats> stats(final String nodeUuid) {
+    return current(nodeUuid).map(list -> summarize(nodeUuid, list));
+  }
+
+  /**
+   * The load of every node we heard from in the window.
+   *
+   * @return the stats.
+   */
+  public List<NodeStats> stats() {
+    return List.copyOf(samples.keySet()).stream()
+        .map(this::stats)
+        .flatMap(Optional::stream)
+        .toList();
+  }
+
+  /**
+   * The load across the cluster over the window.
+   *
+   * @return the stats.
+   */
+  public ClusterStats cluster() {
+    final List<NodeStats> nodes = stats();
+    final Map<TenantResource, Long> rows = new HashMap<>();
+    nodes.forEach(node -> node.rowEstimates().forEach((resource, count) -> rows.merge(resource, count, Long::sum)));
+    return ImmutableClusterStats.builder()
+        .nodes(nodes.size())
+        .bytesOnDisk(nodes.stream().mapToLong(NodeStats::bytesOnDisk).sum())
+        .qps(nodes.stream().mapToDouble(NodeStats::qps).sum())
+        .p99Millis(nodes.stream().mapToDouble(NodeStats::p99Millis).max().orElse(0))
+        .openDatabases(nodes.stream().mapToInt(NodeStats::openDatabases).sum())
+        .rowEstimates(rows)
+        .build();
+  }
+
+  private Optional<List<Sample>> current(final String nodeUuid) {
+    final List<Sample> list = samples.get(nodeUuid);
+    if (list == null) {
+      return Optional.empty();
+    }
+    final List<Sample> current = inWindow(list, clock.instant());
+    if (current.isEmpty()) {
+      LOGGER.debug("No heartbeat in the window, dropping {}", nodeUuid);
+      samples.remove(nodeUuid, list); // only if nothing new arrived.
+      return Optional.empty();
+    }
+    return Optional.of(current);
+  }
+
+  private List<Sample> inWindow(final List<Sample> list, final Instant now) {
+    final Instant oldest = now.minus(window);
+    return list.stream().filter(sample -> sample.received().isAfter(oldest)).toList();
+  }
+
+  private NodeStats summarize(final String nodeUuid, final List<Sample> list) {
+    final Sample latest = list.get(list.size() - 1);
+    final Map<TenantResource, Long> rows = new HashMap<>();
+    for (ResourceLoad load : latest.heartbeat().resources()) {
+      rows.merge(ImmutableTenantResource.builder().tenant(load.tenant()).resource(load.resource()).build(),
+          load.rowEstimate(), Long::sum);
+    }
+    return ImmutableNodeStats.builder()
+        .nodeUuid(nodeUuid)
+        .lastSeen(latest.received())
+        .samples(list.size())
+        .bytesOnDisk(latest.heartbeat().bytesOnDisk())
+        .qps(list.stream().mapToDouble(sample -> sample.heartbeat().qps()).average().orElse(0))
+        .p99Millis(list.stream().mapToDouble(sample -> sample.heartbeat().p99Millis()).max().orElse(0))
+        .openDatabases(latest.heartbeat().openDatabases())
+        .rowEstimates(rows)
+        .build();
+  }
+
+  private record Sample(Instant received, NodeHeartbeat heartbeat) {
+  }
+
+}
@@ -19,17 +19,19 @@ package org.svarm.control.engine;
 import com.codeheadsystems.metrics.Metrics;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.stream.IntStream;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.svarm.common.config.engine.LiveNodesEngine;
 import org.svarm.control.dao.NodeDao;
 import org.svarm.control.dao.NodeRangeDao;
 import org.svarm.control.exception.NotEnoughNodesException;
 
 /**
- * This engine job is to retrieve nodes that are available for work, based on least used process.
+ * This engine job is to retrieve nodes that are available for work, based on least used process. Nodes whose
+ * liveness lease has expired are left out, even if they are still enabled. The placement engine picks among the rest.
  */
 @Singleton
 public class NodeAvailabilityEngine {
@@ -39,20 +41,31 @@ public class NodeAvailabilityEngine {
   private final NodeDao nodeDao;
   private final NodeRangeDao nodeRangeDao;
   private final Metrics metrics;
+  private final LiveNodesEngine liveNodesEngine;
+  private final PlacementEngine placementEngine;
 
   /**
    * Constructor.
    *
-   * @param nodeDao      dao.
-   * @param nodeRangeDao dao.
-   * @param metrics      metrics.
+   * @param nodeDao         dao.
+   * @param nodeRangeDao    dao.
+   * @param metrics         metrics.
+   * @param liveNodesEngine to skip the nodes we know are down.
+   * @param placementEngine to choose among the available nodes.
    */
   @Inject
-  public NodeAvailabilityEngine(final NodeDao nodeDao, final NodeRangeDao nodeRangeDao, final Metrics metrics) {
-    LOGGER.info("NodeAvailabilityEngine({},{},{})", nodeDao, nodeRangeDao, metrics);
+  public NodeAvailabilityEngine(final NodeDao nodeDao,
+                                final NodeRangeDao nodeRangeDao,
+                                final Metrics metrics,
+                                final LiveNodesEngine liveNodesEngine,
+                                final PlacementEngine placementEngine) {
+    LOGGER.info("NodeAvailabilityEngine({},{},{},{},{})",
+        nodeDao, nodeRangeDao, metrics, liveNodesEngine, placementEngine);
     this.nodeDao = nodeDao;
     this.nodeRangeDao = nodeRangeDao;
     this.metrics = metrics;
+    this.liveNodesEngine = liveNodesEngine;
+    this.placementEngine = placementEngine;
   }
 
   /**
@@ -66,17 +79,38 @@ public class NodeAvailabilityEngine {
     if (count < 1) {
       throw new IllegalArgumentException("Count is invalid: " + count);
     }
-    return metrics.time("NodeAvailabilityEngine.getAvailableNodes", () -> {
-      final List<String> allNodes = new ArrayList<>(nodeDao.allEnabledNodes()); // make sure it's mutable.
-      final Random random = new Random();
-      if (allNodes.size() < count) {
-        throw new NotEnoughNodesException("Not enough nodes. Available: " + allNodes.size());
-      }
-      while (allNodes.size() > count) {
-        allNodes.remove(random.nextInt(allNodes.size()));
-      }
-      return allNodes;
+    return metrics.time("NodeAvailabilityEngine.getAvailableNodes",
+        () -> placementEngine.choose(liveNodes(count), count));
+  }
+
+  /**
+   * Provides a number of node sets, each with count nodes, reading the available nodes once. Used when creating
+   * many resources at a time. Will throw an exception if it cannot get the number wanted.
+   *
+   * @param count to look for in each set.
+   * @param sets  how many sets are needed.
+   * @return the list of sets.
+   */
+  public List<List<String>> getAvailableNodes(final int count, final int sets) {
+    LOGGER.trace("getAvailableNodes({},{})", count, sets);
+    if (count < 1) {
+      throw new IllegalArgumentException("Count is invalid: " + count);
+    }
+    return metrics.time("NodeAvailabilityEngine.getAvailableNodeSets", () -> {
+      final List<String> allNodes = liveNodes(count);
+      return IntStream.range(0, sets)
+          .mapToObj(i -> placementEngine.choose(allNodes, count))
+          .toList();
     });
   }
 
+  private List<String> liveNodes(final int count) {
+    final List<String> allNodes = new ArrayList<>(nodeDao.allEnabledNodes()); // make sure it's mutable.
+    allNodes.removeIf(uuid -> !liveNodesEngine.isLive(uuid));
+    if (allNodes.size() < count) {
+      throw new NotEnoughNodesException("Not enough nodes. Available: " + allNodes.size());
+    }
+    return allNodes;
+  }
+
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.control.engine;
+
+import com.codeheadsystems.metrics.Metrics;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToDoubleFunction;
+import java.util.function.UnaryOperator;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.svarm.control.PlacementConfiguration;
+import org.svarm.control.dao.NodeRangeDao;
+import org.svarm.control.exception.NotEnoughNodesException;
+import org.svarm.control.model.ImmutableNodeLoad;
+import org.svarm.control.model.NodeLoad;
+
+/**
+ * Chooses which nodes get new ranges. Keeps an in-memory index of each node's load: the ranges assigned from the
+ * database, and the storage and QPS the nodes report. Range counts are reloaded from the database every so often,
+ * and bumped locally as soon as a node is chosen so placements between reloads don't pile onto the same node.
+ */
+@Singleton
+public class PlacementEngine {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PlacementEngine.class);
+
+  private final NodeRangeDao nodeRangeDao;
+  private final PlacementConfiguration configuration;
+  private final Clock clock;
+  private final Metrics metrics;
+  private final Map<String, NodeLoad> index;
+  private Instant nextRefresh;
+
+  /**
+   * Constructor.
+   *
+   * @param nodeRangeDao  for the range counts.
+   * @param configuration for the weights.
+   * @param clock         for refreshing.
+   * @param metrics       metrics.
+   */
+  @Inject
+  public PlacementEngine(final NodeRangeDao nodeRangeDao,
+                         final PlacementConfiguration configuration,
+                         final Clock clock,
+                         final Metrics metrics) {
+    LOGGER.info("PlacementEngine({},{},{},{})", nodeRangeDao, configuration, clock, metrics);
+    this.nodeRangeDao = nodeRangeDao;
+    this.configuration = configuration;
+    this.clock = clock;
+    this.metrics = metrics;
+    this.index = new ConcurrentHashMap<>();
+    this.nextRefresh = Instant.MIN;
+  }
+
+  /**
+   * Records the storage and QPS a node reports. Ranges come from the database, not the node.
+   *
+   * @param nodeUuid the node.
+   * @param bytes    on disk.
+   * @param qps      requests per second.
+   */
+  public void report(final String nodeUuid, final long bytes, final double qps) {
+    LOGGER.trace("report({},{},{})", nodeUuid, bytes, qps);
+    update(nodeUuid, load -> load.withBytes(bytes).withQps(qps));
+  }
+
+  /**
+   * The load we know of for the node.
+   *
+   * @param nodeUuid the node.
+   * @return the load, if we have seen the node.
+   */
+  public Optional<NodeLoad> load(final String nodeUuid) {
+    return Optional.ofNullable(index.get(nodeUuid));
+  }
+
+  /**
+   * Chooses the nodes for a new tenant resource from the candidates, one slot at a time. For each slot a number of
+   * remaining candidates are sampled and the lowest scoring one wins.
+   *
+   * @param candidates nodes that are enabled and live.
+   * @param count      how many to choose.
+   * @return the chosen nodes.
+   */
+  public synchronized List<String> choose(final List<String> candidates, final int count) {
+    LOGGER.trace("choose({},{})", candidates, count);
+    return metrics.time("PlacementEngine.choose", () -> {
+      refreshIfStale();
+      final List<String> remaining = new ArrayList<>(candidates);
+      remaining.removeIf(uuid -> capacity(uuid) <= 0);
+      if (remaining.size() < count) {
+        throw new NotEnoughNodesException("Not enough nodes with capacity. Available: " + remaining.size());
+      }
+      Collections.shuffle(remaining, ThreadLocalRandom.current()); // ties go to a random node.
+      final Map<String, Double> scores = scores(remaining);
+      final List<String> chosen = new ArrayList<>();
+      while (chosen.size() < count) {
+        final String node = pick(remaining, scores);
+        remaining.remove(node);
+        chosen.add(node);
+      }
+      chosen.forEach(uuid -> update(uuid, load -> load.withRanges(load.ranges() + 1)));
+      LOGGER.debug("chose {} from {}", chosen, scores);
+      return chosen;
+    });
+  }
+
+  /**
+   * Scores the nodes. Each load dimension is taken relative to the average of the candidates so they can be mixed,
+   * then weighted, and the sum divided by the node's capacity.
+   *
+   * @param nodes to score.
+   * @return the scores.
+   */
+  Map<String, Double> scores(final List<String> nodes) {
+    final List<NodeLoad> loads = nodes.stream().map(uuid -> orEmpty(uuid, index.get(uuid))).toList();
+    final double meanRanges = mean(loads, NodeLoad::ranges);
+    final double meanBytes = mean(loads, NodeLoad::bytes);
+    final double meanQps = mean(loads, NodeLoad::qps);
+    final Map<String, Double> scores = new HashMap<>();
+    for (NodeLoad load : loads) {
+      final double score = configuration.rangeWeight() * relative(load.ranges(), meanRanges)
+          + configuration.storageWeight() * relative(load.bytes(), meanBytes)
+          + configuration.qpsWeight() * relative(load.qps(), meanQps);
+      scores.put(load.nodeUuid(), score / capacity(load.nodeUuid()));
+    }
+    return scores;
+  }
+
+  private String pick(final List<String> remaining, final Map<String, Double> scores) {
+    final int choices = Math.max(1, configuration.choices());
+    final List<String> sample;
+    if (choices >= remaining.size()) {
+      sample = remaining;
+    } else {
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      final List<String> shuffled = new ArrayList<>(remaining);
+      for (int i = 0; i < choices; i++) {
+        Collections.swap(shuffled, i, i + random.nextInt(shuffled.size() - i));
+      }
+      sample = shuffled.subList(0, choices);
+    }
+    return sample.stream().min(Comparator.comparing(scores::get)).orElseThrow();
+  }
+
+  private void refreshIfStale() {
+    final Instant now = clock.instant();
+    if (now.isBefore(nextRefresh)) {
+      return;
+    }
+    final Map<String, Integer> counts = nodeRangeDao.rangeCounts();
+    index.replaceAll((uuid, load) -> ImmutableNodeLoad.copyOf(load).withRanges(0));
+    counts.forEach((uuid, ranges) -> update(uuid, load -> load.withRanges(ranges)));
+    metrics.increment("PlacementEngine.refresh");
+    nextRefresh = now.plusSeconds(configuration.refreshSeconds());
+  }
+
+  private void update(final String nodeUuid, final UnaryOperator<ImmutableNodeLoad> updater) {
+    index.compute(nodeUuid, (uuid, load) -> updater.apply(ImmutableNodeLoad.copyOf(orEmpty(uuid, load))));
+  }
+
+  private double capacity(final String nodeUuid) {
+    return configuration.capacityWeights().getOrDefault(nodeUuid, 1.0);
+  }
+
+  private NodeLoad orEmpty(final String nodeUuid, final NodeLoad load) {
+    return load == null ? ImmutableNodeLoad.builder().nodeUuid(nodeUuid).build() : load;
+  }
+
+  private double mean(final List<NodeLoad> loads, final ToDoubleFunction<NodeLoad> function) {
+    return loads.stream().mapToDouble(function).average().orElse(0);
+  }
+
+  private double relative(final double value, final double mean) {
+    return mean > 0 ? value / mean : 0;
+  }
+
+}
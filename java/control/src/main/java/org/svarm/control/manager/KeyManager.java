@@ -16,7 +16,11 @@
 
 package org.svarm.control.manager;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import java.time.Clock;
+import java.time.Duration;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
@@ -27,16 +31,20 @@ import org.svarm.control.model.ImmutableKey;
 import org.svarm.control.model.Key;
 
 /**
- * Manages the keys in the application.
+ * Manages the keys in the application. Keys never change once created, so reads go through a cache and only the
+ * first request for a key touches the database.
  */
 @Singleton
 public class KeyManager {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(KeyManager.class);
+  private static final int MAX_CACHED_KEYS = 10_000;
+  private static final Duration CACHE_EXPIRY = Duration.ofHours(1);
 
   private final KeyDao keyDao;
   private final AesGcmSivManager aesGcmSivManager;
   private final Clock clock;
+  private final LoadingCache<String, Key> keyCache;
 
   /**
    * Constructor.
@@ -51,6 +59,10 @@ public class KeyManager {
     this.keyDao = keyDao;
     this.aesGcmSivManager = aesGcmSivManager;
     this.clock = clock;
+    this.keyCache = CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_KEYS)
+        .expireAfterAccess(CACHE_EXPIRY)
+        .build(CacheLoader.from(this::getKeyByIdentifier));
   }
 
   /**
@@ -62,7 +74,7 @@ public class KeyManager {
   public Key getNodeKey(final String nodeUuid) {
     LOGGER.trace("getNodeKey({})", nodeUuid);
     final String id = String.format("node:%s", nodeUuid);
-    return getKeyByIdentifier(id);
+    return keyCache.getUnchecked(id);
   }
 
   /**
@@ -75,7 +87,18 @@ public class KeyManager {
   public Key getNodeKey(final String nodeUuid, final String reference) {
     LOGGER.trace("getNodeKey({},{})", nodeUuid, reference);
     final String id = String.format("node:%s:%s", nodeUuid, reference);
-    return getKeyByIdentifier(id);
+    return keyCache.getUnchecked(id);
+  }
+
+  /**
+   * Drops every cached key of the node, so they are not held in memory once the node is not enabled.
+   *
+   * @param nodeUuid the node.
+   */
+  public void evictNode(final String nodeUuid) {
+    LOGGER.trace("evictNode({})", nodeUuid);
+    final String nodeId = String.format("node:%s", nodeUuid);
+    keyCache.asMap().keySet().removeIf(id -> id.equals(nodeId) || id.startsWith(nodeId + ":"));
   }
 
   /**
@@ -187,6 +187,7 @@ public class NodeManager {
         final Node newNode = ImmutableNode.copyOf(currentNode).withStatus(NodeInfo.Status.DISABLED.name())
             .withUpdateDate(clock.instant());
         nodeDao.update(newNode);
+        keyManager.evictNode(uuid);
         LOGGER.debug("disable({}): results: {}", uuid, newNode);
         return newNode;
       } else {
@@ -196,6 +197,36 @@ public class NodeManager {
     });
   }
 
+  /**
+   * Bans the node. A banned node can never be enabled again, and is treated as not found. Its keys are evicted
+   * either way, so it cannot keep using them.
+   *
+   * @param uuid the node.
+   * @return the resulting node.
+   */
+  public Node ban(final String uuid) {
+    LOGGER.trace("ban({})", uuid);
+    return metrics.time("NodeManager.ban", () -> {
+      final Node currentNode = nodeDao.read(uuid);
+      if (currentNode == null) {
+        LOGGER.warn("ban({}): Node not found", uuid);
+        throw new NotFoundException("No such node");
+      }
+      final Node result;
+      if (!NodeInfo.Status.BANNED.name().equals(currentNode.status())) {
+        LOGGER.warn("ban({}): Banning: {}", uuid, currentNode);
+        result = ImmutableNode.copyOf(currentNode).withStatus(NodeInfo.Status.BANNED.name())
+            .withUpdateDate(clock.instant());
+        nodeDao.update(result);
+      } else {
+        LOGGER.debug("ban({}): Already banned: {}", uuid, currentNode);
+        result = currentNode;
+      }
+      keyManager.evictNode(uuid);
+      return result;
+    });
+  }
+
   private boolean enabled(final String status) {
     return NodeInfo.Status.ENABLED.name().equals(status);
   }
@@ -18,9 +18,11 @@ package org.svarm.control.manager;
 
 import com.codeheadsystems.metrics.Metrics;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -29,11 +31,11 @@ import org.slf4j.LoggerFactory;
 import org.svarm.common.config.api.ImmutableMetaData;
 import org.svarm.common.config.api.ImmutableNodeTenantResourceRange;
 import org.svarm.common.config.api.ImmutableTenantResource;
-import org.svarm.common.config.api.ImmutableTenantResourceRange;
 import org.svarm.common.config.api.MetaData;
 import org.svarm.common.config.api.NodeTenantResourceRange;
-import org.svarm.common.config.api.TenantResourceRange;
+import org.svarm.common.config.api.TenantResource;
 import org.svarm.common.config.engine.NodeConfigurationEngine;
+import org.svarm.control.PlacementConfiguration;
 import org.svarm.control.converter.NodeRangeConverter;
 import org.svarm.control.dao.NodeRangeDao;
 import org.svarm.control.engine.NodeAvailabilityEngine;
@@ -50,7 +52,6 @@ import org.svarm.server.exception.NotFoundException;
 public class NodeRangeManager {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(NodeRangeManager.class);
-  private static final int DEFAULT_CLUSTER_SIZE = 2;
 
   private final NodeRangeDao nodeRangeDao;
   private final Clock clock;
@@ -59,17 +60,21 @@ public class NodeRangeManager {
   private final NodeConfigurationEngine nodeConfigurationEngine;
   private final RingHashSplitEngine ringHashSplitEngine;
   private final NodeRangeConverter nodeRangeConverter;
+  private final PlacementConfiguration placementConfiguration;
+  private final TenantResourcePublishManager tenantResourcePublishManager;
 
   /**
    * Constructor.
    *
-   * @param nodeRangeDao            the node range dao.
-   * @param clock                   for creation.
-   * @param metrics                 for timing.
-   * @param nodeAvailabilityEngine  for finding nodes.
-   * @param nodeConfigurationEngine for updating the configuration engine.
-   * @param ringHashSplitEngine     for getting hash values.
-   * @param nodeRangeConverter      for conversion.
+   * @param nodeRangeDao                 the node range dao.
+   * @param clock                        for creation.
+   * @param metrics                      for timing.
+   * @param nodeAvailabilityEngine       for finding nodes.
+   * @param nodeConfigurationEngine      for updating the configuration engine.
+   * @param ringHashSplitEngine          for getting hash values.
+   * @param nodeRangeConverter           for conversion.
+   * @param placementConfiguration       for the initial cluster size.
+   * @param tenantResourcePublishManager to publish resources once they are ready.
    */
   @Inject
   public NodeRangeManager(final NodeRangeDao nodeRangeDao,
@@ -78,7 +83,9 @@ public class NodeRangeManager {
                           final NodeAvailabilityEngine nodeAvailabilityEngine,
                           final NodeConfigurationEngine nodeConfigurationEngine,
                           final RingHashSplitEngine ringHashSplitEngine,
-                          final NodeRangeConverter nodeRangeConverter) {
+                          final NodeRangeConverter nodeRangeConverter,
+                          final PlacementConfiguration placementConfiguration,
+                          final TenantResourcePublishManager tenantResourcePublishManager) {
     this.clock = clock;
     this.metrics = metrics;
     this.nodeRangeDao = nodeRangeDao;
@@ -86,6 +93,8 @@ public class NodeRangeManager {
     this.nodeConfigurationEngine = nodeConfigurationEngine;
     this.ringHashSplitEngine = ringHashSplitEngine;
     this.nodeRangeConverter = nodeRangeConverter;
+    this.placementConfiguration = placementConfiguration;
+    this.tenantResourcePublishManager = tenantResourcePublishManager;
     LOGGER.info("NodeRangeManager({},{},{},{},{})",
         nodeRangeDao, clock, metrics, nodeAvailabilityEngine, nodeConfigurationEngine);
   }
@@ -103,8 +112,8 @@ public class NodeRangeManager {
   }
 
   /**
-   * Sets the ready boolean for the node that is part of the cluster. If all nodes are ready, will make the cluster
-   * ready.
+   * Sets the ready boolean for the node that is part of the cluster. If all nodes are ready, the cluster is made ready
+   * on the next publish, along with every other resource that became ready in the meantime.
    *
    * @param nodeUuid to set.
    * @param tenant   to set.
@@ -129,9 +138,8 @@ public class NodeRangeManager {
         transDao.update(updated);
         transDao.commit();
       });
-      final boolean allReady = getNodeRange(tenant, resource).stream().allMatch(NodeRange::ready);
-      if (allReady) {
-        updateTenantResourceConfiguration(tenant, resource);
+      if (ready) {
+        tenantResourcePublishManager.publishWhenReady(tenant, resource);
       }
       return updated;
     });
@@ -207,13 +215,7 @@ public class NodeRangeManager {
                                                 final String resource) {
     LOGGER.info("updateConfiguration({},{})", tenant, resource);
     metrics.time("NodeRangeManager.updateConfiguration", () -> {
-      final List<org.svarm.common.config.api.NodeRange> nodeRanges =
-          nodeRangeDao.apiNodeRanges(tenant, resource);
-      final Map<Integer, org.svarm.common.config.api.NodeRange> map = nodeRanges.stream()
-          .collect(Collectors.toMap(org.svarm.common.config.api.NodeRange::hash, nr -> nr));
-      final TenantResourceRange tenantResourceRange = ImmutableTenantResourceRange.builder()
-          .tenant(tenant).resource(resource).hashToNodeRange(map).build();
-      nodeConfigurationEngine.write(tenantResourceRange);
+      tenantResourcePublishManager.publish(tenant, resource);
       return null;
     });
   }
@@ -250,19 +252,72 @@ public class NodeRangeManager {
       LOGGER.info("Create called on existing resource, using what we have: {},{},{}", tenant, resource, currentList);
       return currentList;
     }
-    final List<Integer> hashes = ringHashSplitEngine.evenSplitHashes(DEFAULT_CLUSTER_SIZE);
-    final List<NodeRange> nodeRange = nodeAvailabilityEngine.getAvailableNodes(DEFAULT_CLUSTER_SIZE)
-        .stream().map(nodeUuid -> ImmutableNodeRange.builder()
+    final int clusterSize = placementConfiguration.initialClusterSize();
+    final List<NodeRange> nodeRange = newNodeRanges(tenant, resource, tableDefinition,
+        nodeAvailabilityEngine.getAvailableNodes(clusterSize));
+    nodeRangeDao.useTransaction(transDao -> {
+      transDao.insert(nodeRange);
+      transDao.commit();
+    });
+    return nodeRange;
+  }
+
+  private List<NodeRange> newNodeRanges(final String tenant,
+                                        final String resource,
+                                        final TableDefinition tableDefinition,
+                                        final List<String> nodeUuids) {
+    final List<Integer> hashes = ringHashSplitEngine.evenSplitHashes(nodeUuids.size());
+    return nodeUuids.stream().map(nodeUuid -> (NodeRange) ImmutableNodeRange.builder()
             .nodeUuid(nodeUuid).tenant(tenant).resource(resource).tableVersion(tableDefinition.name())
             .createDate(clock.instant()).status(NodeRange.STATUS_INIT).ready(false)
             .hash(hashes.remove(0))
             .build())
         .collect(Collectors.toList());
-    nodeRangeDao.useTransaction(transDao -> {
-      nodeRange.forEach(transDao::insert);
-      transDao.commit();
+  }
+
+  /**
+   * Creates many tenant resources at once, like createTenantResource for each of them. The nodes are read once,
+   * the new node ranges are inserted in a single batch, and the etcd entries for the nodes are written together.
+   * Resources that already exist keep what they have.
+   *
+   * @param tenant    the tenant.
+   * @param resources the resources to their table definitions.
+   * @return the node ranges for each resource.
+   */
+  public Map<String, List<NodeRange>> createTenantResources(final String tenant,
+                                                            final Map<String, TableDefinition> resources) {
+    LOGGER.info("createTenantResources({},{})", tenant, resources.size());
+    return metrics.time("NodeRangeManager.createTenantResources", () -> {
+      final Map<String, List<NodeRange>> result = nodeRangeDao.tenantNodeRanges(tenant).stream()
+          .filter(nr -> resources.containsKey(nr.resource()))
+          .collect(Collectors.groupingBy(NodeRange::resource));
+      final List<String> missing = resources.keySet().stream()
+          .filter(resource -> !result.containsKey(resource))
+          .sorted()
+          .toList();
+      if (!missing.isEmpty()) {
+        final List<List<String>> nodeSets = nodeAvailabilityEngine
+            .getAvailableNodes(placementConfiguration.initialClusterSize(), missing.size());
+        final List<NodeRange> created = new ArrayList<>();
+        for (int i = 0; i < missing.size(); i++) {
+          final String resource = missing.get(i);
+          final List<NodeRange> nodeRange = newNodeRanges(tenant, resource, resources.get(resource), nodeSets.get(i));
+          result.put(resource, nodeRange);
+          created.addAll(nodeRange);
+        }
+        nodeRangeDao.useTransaction(transDao -> {
+          transDao.insert(created);
+          transDao.commit();
+        });
+      }
+      final List<NodeTenantResourceRange> nodeTenantResourceRanges = result.entrySet().stream()
+          .flatMap(entry -> nodeRangeConverter.toNodeTenantResourceRanges(tenant, entry.getKey(), entry.getValue())
+              .stream())
+          .toList();
+      nodeConfigurationEngine.write(nodeTenantResourceRanges);
+      LOGGER.info("Created {} of {} resources for {}", missing.size(), resources.size(), tenant);
+      return result;
     });
-    return nodeRange;
   }
 
   /**
@@ -280,14 +335,54 @@ public class NodeRangeManager {
           transDao.update(ImmutableNodeRange.copyOf(nr).withStatus(NodeRange.STATUS_DELETING)));
       transDao.commit();
     });
-    final List<NodeTenantResourceRange> nodeTenantResourceRanges = nodeRangeConverter
-        .toNodeTenantResourceRanges(tenantId, resource, nodeRange).stream().map(range -> {
-          final MetaData updatedMetaData = ImmutableMetaData.copyOf(range.metaData()).withAction(MetaData.ACTION_DELETE);
-          return ImmutableNodeTenantResourceRange.copyOf(range).withMetaData(updatedMetaData);
-        }).collect(Collectors.toList());
-    nodeConfigurationEngine.write(nodeTenantResourceRanges);
+    nodeConfigurationEngine.write(deleting(tenantId, resource, nodeRange));
     nodeConfigurationEngine
         .readTenantResourceRange(ImmutableTenantResource.builder().tenant(tenantId).resource(resource).build())
         .ifPresent(nodeConfigurationEngine::delete);
   }
+
+  /**
+   * Deletes many tenant resources at once, like deleteTenantResource for each of them. The node ranges are read
+   * and updated in single batches, and the etcd entries are written and removed together.
+   *
+   * @param tenantId  who owns the resources.
+   * @param resources the resources to delete.
+   */
+  public void deleteTenantResources(final String tenantId,
+                                    final List<String> resources) {
+    LOGGER.info("deleteTenantResources({},{})", tenantId, resources.size());
+    metrics.time("NodeRangeManager.deleteTenantResources", () -> {
+      final Set<String> wanted = Set.copyOf(resources);
+      final Map<String, List<NodeRange>> nodeRanges = nodeRangeDao.tenantNodeRanges(tenantId).stream()
+          .filter(nr -> wanted.contains(nr.resource()))
+          .collect(Collectors.groupingBy(NodeRange::resource));
+      final List<NodeRange> updates = nodeRanges.values().stream()
+          .flatMap(List::stream)
+          .map(nr -> (NodeRange) ImmutableNodeRange.copyOf(nr).withStatus(NodeRange.STATUS_DELETING))
+          .toList();
+      if (!updates.isEmpty()) {
+        nodeRangeDao.useTransaction(transDao -> {
+          transDao.update(updates);
+          transDao.commit();
+        });
+      }
+      nodeConfigurationEngine.write(nodeRanges.entrySet().stream()
+          .flatMap(entry -> deleting(tenantId, entry.getKey(), entry.getValue()).stream())
+          .toList());
+      nodeConfigurationEngine.deleteTenantResources(wanted.stream()
+          .map(resource -> (TenantResource) ImmutableTenantResource.builder().tenant(tenantId).resource(resource)
+              .build())
+          .toList());
+      return null;
+    });
+  }
+
+  private List<NodeTenantResourceRange> deleting(final String tenantId,
+                                                 final String resource,
+                                                 final List<NodeRange> nodeRange) {
+    return nodeRangeConverter.toNodeTenantResourceRanges(tenantId, resource, nodeRange).stream().map(range -> {
+      final MetaData updatedMetaData = ImmutableMetaData.copyOf(range.metaData()).withAction(MetaData.ACTION_DELETE);
+      return (NodeTenantResourceRange) ImmutableNodeTenantResourceRange.copyOf(range).withMetaData(updatedMetaData);
+    }).collect(Collectors.toList());
+  }
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.control.manager;
+
+import com.codeheadsystems.metrics.Metrics;
+import io.dropwizard.lifecycle.Managed;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.svarm.common.config.api.ImmutableTenantResource;
+import org.svarm.common.config.api.ImmutableTenantResourceRange;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.common.config.api.TenantResourceRange;
+import org.svarm.common.config.engine.NodeConfigurationEngine;
+import org.svarm.common.util.ShutdownUtility;
+import org.svarm.control.ControlConfiguration;
+import org.svarm.control.dao.NodeRangeDao;
+import org.svarm.control.model.NodeRange;
+import org.svarm.server.engine.ExecutorEngine;
+
+/**
+ * Publishes tenant resources to the proxies once all of their nodes are ready. Nodes report ready one at a time, so
+ * resources are collected and checked every publish delay, and everything that became ready goes out in one bulk
+ * write. A resource is published once no matter how many of its nodes reported in the meantime.
+ */
+@Singleton
+public class TenantResourcePublishManager implements Managed {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TenantResourcePublishManager.class);
+
+  private final NodeRangeDao nodeRangeDao;
+  private final NodeConfigurationEngine nodeConfigurationEngine;
+  private final ControlConfiguration controlConfiguration;
+  private final Metrics metrics;
+  private final ScheduledExecutorService scheduler;
+  private final Set<TenantResource> pending;
+
+  /**
+   * Constructor.
+   *
+   * @param nodeRangeDao            to check the nodes are ready.
+   * @param nodeConfigurationEngine to publish to.
+   * @param controlConfiguration    for the publish delay.
+   * @param metrics                 metrics.
+   * @param executorEngine          for the scheduler.
+   */
+  @Inject
+  public TenantResourcePublishManager(final NodeRangeDao nodeRangeDao,
+                                      final NodeConfigurationEngine nodeConfigurationEngine,
+                                      final ControlConfiguration controlConfiguration,
+                                      final Metrics metrics,
+                                      final ExecutorEngine executorEngine) {
+    this.nodeRangeDao = nodeRangeDao;
+    this.nodeConfigurationEngine = nodeConfigurationEngine;
+    this.controlConfiguration = controlConfiguration;
+    this.metrics = metrics;
+    this.scheduler = executorEngine.scheduler("publish");
+    this.pending = ConcurrentHashMap.newKeySet();
+    LOGGER.info("TenantResourcePublishManager({},{},{})", nodeRangeDao, nodeConfigurationEngine, metrics);
+  }
+
+  @Override
+  public void start() throws Exception {
+    LOGGER.info("start()");
+    final long millis = controlConfiguration.getPublishDelayMillis();
+    scheduler.scheduleWithFixedDelay(this::flush, millis, millis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() throws Exception {
+    LOGGER.info("stop()");
+    ShutdownUtility.shutdown(LOGGER, "Publish scheduler", scheduler);
+    flush();
+  }
+
+  /**
+   * Queue the tenant resource to be published on the next flush, if all its nodes are ready by then.
+   *
+   * @param tenant   to publish.
+   * @param resource to publish.
+   */
+  public void publishWhenReady(final String tenant, final String resource) {
+    LOGGER.trace("publishWhenReady({},{})", tenant, resource);
+    pending.add(ImmutableTenantResource.builder().tenant(tenant).resource(resource).build());
+  }
+
+  /**
+   * Publish the tenant resource right away, ready or not.
+   *
+   * @param tenant   to publish.
+   * @param resource to publish.
+   */
+  public void publish(final String tenant, final String resource) {
+    LOGGER.trace("publish({},{})", tenant, resource);
+    nodeConfigurationEngine.write(tenantResourceRange(tenant, resource));
+  }
+
+  /**
+   * Publish every queued tenant resource whose nodes are all ready. Ones that fail to publish are queued again.
+   */
+  public void flush() {
+    final List<TenantResource> batch = new ArrayList<>();
+    for (TenantResource tenantResource : pending) {
+      if (pending.remove(tenantResource)) {
+        batch.add(tenantResource);
+      }
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    LOGGER.trace("flush({})", batch.size());
+    try {
+      metrics.time("TenantResourcePublishManager.flush", () -> {
+        final List<TenantResourceRange> ready = batch.stream()
+            .filter(this::allReady)
+            .map(tr -> tenantResourceRange(tr.tenant(), tr.resource()))
+            .toList();
+        if (!ready.isEmpty()) {
+          nodeConfigurationEngine.writeTenantResourceRanges(ready);
+        }
+        LOGGER.info("Published {} of {} tenant resources", ready.size(), batch.size());
+        return null;
+      });
+    } catch (RuntimeException e) { // the scheduler stops for good if we throw.
+      LOGGER.warn("Unable to publish, will retry: {}", e.getMessage());
+      metrics.increment("TenantResourcePublishManager.failure");
+      pending.addAll(batch);
+    }
+  }
+
+  private boolean allReady(final TenantResource tenantResource) {
+    final List<NodeRange> nodeRanges = nodeRangeDao.nodeRanges(tenantResource.tenant(), tenantResource.resource());
+    return !nodeRanges.isEmpty() && nodeRanges.stream()
+        .allMatch(nr -> nr.ready() && !NodeRange.STATUS_DELETING.equals(nr.status()));
+  }
+
+  private TenantResourceRange tenantResourceRange(final String tenant, final String resource) {
+    final List<org.svarm.common.config.api.NodeRange> nodeRanges = nodeRangeDao.apiNodeRanges(tenant, resource);
+    final Map<Integer, org.svarm.common.config.api.NodeRange> map = nodeRanges.stream()
+        .collect(Collectors.toMap(org.svarm.common.config.api.NodeRange::hash, nr -> nr));
+    return ImmutableTenantResourceRange.builder()
+        .tenant(tenant).resource(resource).hashToNodeRange(map).build();
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.control.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.util.List;
+import java.util.Map;
+import org.immutables.value.Value;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.control.common.api.ImmutableResourceLoad;
+import org.svarm.control.common.api.ResourceLoad;
+
+/**
+ * The load across every node we have heard from in the heartbeat window.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableClusterStats.class)
+public interface ClusterStats {
+
+  /**
+   * Nodes reporting.
+   *
+   * @return value. int
+   */
+  @JsonProperty("nodes")
+  int nodes();
+
+  /**
+   * Total bytes on disk.
+   *
+   * @return value. long
+   */
+  @JsonProperty("bytesOnDisk")
+  long bytesOnDisk();
+
+  /**
+   * Total requests per second.
+   *
+   * @return value. double
+   */
+  @JsonProperty("qps")
+  double qps();
+
+  /**
+   * The worst p99 latency of any node.
+   *
+   * @return value. milliseconds
+   */
+  @JsonProperty("p99Millis")
+  double p99Millis();
+
+  /**
+   * Total open databases.
+   *
+   * @return value. int
+   */
+  @JsonProperty("openDatabases")
+  int openDatabases();
+
+  /**
+   * Row estimates by tenant resource, summed over the nodes holding it.
+   *
+   * @return value. map
+   */
+  @JsonIgnore
+  Map<TenantResource, Long> rowEstimates();
+
+  /**
+   * The summed row estimates as a list of loads, which is how they go out as json.
+   *
+   * @return value. list
+   */
+  @Value.Derived
+  @JsonProperty("resources")
+  default List<ResourceLoad> resources() {
+    return rowEstimates().entrySet().stream()
+        .<ResourceLoad>map(entry -> ImmutableResourceLoad.builder()
+            .tenant(entry.getKey().tenant())
+            .resource(entry.getKey().resource())
+            .rowEstimate(entry.getValue())
+            .build())
+        .toList();
+  }
+
+}
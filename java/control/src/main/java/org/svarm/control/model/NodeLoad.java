@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.control.model;
+
+import org.immutables.value.Value;
+
+/**
+ * What the control plane knows about the work a node is carrying.
+ */
+@Value.Immutable
+public interface NodeLoad {
+
+  /**
+   * The node.
+   *
+   * @return value. string
+   */
+  String nodeUuid();
+
+  /**
+   * Number of ranges assigned to the node.
+   *
+   * @return value. int
+   */
+  @Value.Default
+  default int ranges() {
+    return 0;
+  }
+
+  /**
+   * Bytes on disk, as last reported by the node.
+   *
+   * @return value. long
+   */
+  @Value.Default
+  default long bytes() {
+    return 0;
+  }
+
+  /**
+   * Requests per second, as last reported by the node.
+   *
+   * @return value. double
+   */
+  @Value.Default
+  default double qps() {
+    return 0;
+  }
+
+}
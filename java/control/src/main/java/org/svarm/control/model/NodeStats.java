@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.control.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.immutables.value.Value;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.control.common.api.ImmutableResourceLoad;
+import org.svarm.control.common.api.ResourceLoad;
+
+/**
+ * A node's load over the recent heartbeat window.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableNodeStats.class)
+public interface NodeStats {
+
+  /**
+   * The node.
+   *
+   * @return value. string
+   */
+  @JsonProperty("nodeUuid")
+  String nodeUuid();
+
+  /**
+   * When we last heard from the node.
+   *
+   * @return value. instant
+   */
+  @JsonProperty("lastSeen")
+  Instant lastSeen();
+
+  /**
+   * How many heartbeats are in the window.
+   *
+   * @return value. int
+   */
+  @JsonProperty("samples")
+  int samples();
+
+  /**
+   * Bytes on disk, from the latest heartbeat.
+   *
+   * @return value. long
+   */
+  @JsonProperty("bytesOnDisk")
+  long bytesOnDisk();
+
+  /**
+   * Requests per second, averaged over the window.
+   *
+   * @return value. double
+   */
+  @JsonProperty("qps")
+  double qps();
+
+  /**
+   * The worst p99 latency in the window.
+   *
+   * @return value. milliseconds
+   */
+  @JsonProperty("p99Millis")
+  double p99Millis();
+
+  /**
+   * Open databases, from the latest heartbeat.
+   *
+   * @return value. int
+   */
+  @JsonProperty("openDatabases")
+  int openDatabases();
+
+  /**
+   * Row estimates by tenant resource, from the latest heartbeat.
+   *
+   * @return value. map
+   */
+  @JsonIgnore
+  Map<TenantResource, Long> rowEstimates();
+
+  /**
+   * The row estimates as a list, for json, since the map keys are not strings.
+   *
+   * @return value. list
+   */
+  @Value.Derived
+  @JsonProperty("resources")
+  default List<ResourceLoad> resources() {
+    return rowEstimates().entrySet().stream()
+        .<ResourceLoad>map(entry -> ImmutableResourceLoad.builder()
+            .tenant(entry.getKey().tenant())
+            .resource(entry.getKey().resource())
+            .rowEstimate(entry.getValue())
+            .build())
+        .toList();
+  }
+
+}
@@ -20,6 +20,7 @@ import dagger.Module;
 import dagger.Provides;
 import javax.inject.Singleton;
 import org.svarm.control.ControlConfiguration;
+import org.svarm.control.PlacementConfiguration;
 import org.svarm.server.ServerConfiguration;
 
 /**
@@ -46,4 +47,16 @@ public class ControlConfigurationModule {
     return (ControlConfiguration) configuration;
   }
 
+  /**
+   * The placement configuration from the control configuration.
+   *
+   * @param configuration the control configuration.
+   * @return the placement configuration.
+   */
+  @Provides
+  @Singleton
+  public PlacementConfiguration placementConfiguration(final ControlConfiguration configuration) {
+    return configuration.getPlacementConfiguration();
+  }
+
 }
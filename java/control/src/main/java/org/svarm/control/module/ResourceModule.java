@@ -19,6 +19,10 @@ package org.svarm.control.module;
 import dagger.Binds;
 import dagger.Module;
 import dagger.multibindings.IntoSet;
+import io.dropwizard.lifecycle.Managed;
+import org.svarm.common.config.engine.LiveNodesEngine;
+import org.svarm.control.manager.TenantResourcePublishManager;
+import org.svarm.control.resource.LoadResource;
 import org.svarm.control.resource.NodeResource;
 import org.svarm.control.resource.NodeTenantTableResource;
 import org.svarm.control.resource.NotEnoughNodesExceptionMapper;
@@ -50,6 +54,16 @@ public interface ResourceModule {
   @IntoSet
   JerseyResource nodeTenantTableResource(final NodeTenantTableResource resource);
 
+  /**
+   * The admin view of the node load.
+   *
+   * @param resource to bind.
+   * @return a jersey resource.
+   */
+  @Binds
+  @IntoSet
+  JerseyResource loadResource(final LoadResource resource);
+
   /**
    * The mapper resource.
    *
@@ -60,4 +74,24 @@ public interface ResourceModule {
   @IntoSet
   JerseyResource notEnoughNodesMapper(final NotEnoughNodesExceptionMapper resource);
 
+  /**
+   * Managed resource: the watch on the node liveness keys.
+   *
+   * @param resource to bind.
+   * @return a managed object.
+   */
+  @Binds
+  @IntoSet
+  Managed liveNodesEngine(final LiveNodesEngine resource);
+
+  /**
+   * Managed resource: publishes ready tenant resources to the proxies.
+   *
+   * @param resource to bind.
+   * @return a managed object.
+   */
+  @Binds
+  @IntoSet
+  Managed tenantResourcePublishManager(final TenantResourcePublishManager resource);
+
 }
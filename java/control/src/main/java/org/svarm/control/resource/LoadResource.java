@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.control.resource;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.codahale.metrics.annotation.Timed;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import java.util.Comparator;
+import java.util.List;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.control.engine.HeartbeatEngine;
+import org.svarm.control.model.ClusterStats;
+import org.svarm.control.model.NodeStats;
+import org.svarm.server.exception.NotFoundException;
+import org.svarm.server.resource.JerseyResource;
+
+/**
+ * Admin view of the load the nodes reported in their heartbeats, so an operator can see where the storage and
+ * requests are before deciding what to split or move.
+ */
+@Singleton
+@Path("/v1/admin/load")
+public class LoadResource implements JerseyResource {
+
+  private static final Logger LOGGER = getLogger(LoadResource.class);
+
+  private final HeartbeatEngine heartbeatEngine;
+
+  /**
+   * Constructor.
+   *
+   * @param heartbeatEngine for the load.
+   */
+  @Inject
+  public LoadResource(final HeartbeatEngine heartbeatEngine) {
+    this.heartbeatEngine = heartbeatEngine;
+    LOGGER.info("LoadResource({})", heartbeatEngine);
+  }
+
+  /**
+   * The load across the cluster.
+   *
+   * @return the stats.
+   */
+  @GET
+  @Timed
+  @Produces(MediaType.APPLICATION_JSON)
+  public ClusterStats cluster() {
+    LOGGER.trace("cluster()");
+    return heartbeatEngine.cluster();
+  }
+
+  /**
+   * The load of every node we heard from, sorted by uuid.
+   *
+   * @return the list.
+   */
+  @GET
+  @Timed
+  @Path("/nodes")
+  @Produces(MediaType.APPLICATION_JSON)
+  public List<NodeStats> nodes() {
+    LOGGER.trace("nodes()");
+    return heartbeatEngine.stats().stream()
+        .sorted(Comparator.comparing(NodeStats::nodeUuid))
+        .toList();
+  }
+
+  /**
+   * The load of one node.
+   *
+   * @param nodeUuid the node.
+   * @return the stats.
+   */
+  @GET
+  @Timed
+  @Path("/nodes/{nodeUuid}")
+  @Produces(MediaType.APPLICATION_JSON)
+  public NodeStats node(@PathParam("nodeUuid") final String nodeUuid) {
+    LOGGER.trace("node({})", nodeUuid);
+    return heartbeatEngine.stats(nodeUuid)
+        .orElseThrow(() -> new NotFoundException("No heartbeat in the window from " + nodeUuid));
+  }
+
+}
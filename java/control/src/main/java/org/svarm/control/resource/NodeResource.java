@@ -26,9 +26,11 @@ import org.slf4j.LoggerFactory;
 import org.svarm.control.common.api.ControlNodeService;
 import org.svarm.control.common.api.KeyInfo;
 import org.svarm.control.common.api.NodeInfo;
+import org.svarm.control.common.api.NodeHeartbeat;
 import org.svarm.control.common.api.NodeMetaData;
 import org.svarm.control.converter.KeyInfoConverter;
 import org.svarm.control.converter.NodeInfoConverter;
+import org.svarm.control.engine.HeartbeatEngine;
 import org.svarm.control.manager.NodeManager;
 import org.svarm.control.manager.NodeRangeManager;
 import org.svarm.control.model.Node;
@@ -47,6 +49,7 @@ public class NodeResource implements JerseyResource, ControlNodeService {
   private final NodeRangeManager nodeRangeManager;
   private final NodeInfoConverter nodeInfoConverter;
   private final KeyInfoConverter keyInfoConverter;
+  private final HeartbeatEngine heartbeatEngine;
 
   /**
    * The constructor.
@@ -55,17 +58,20 @@ public class NodeResource implements JerseyResource, ControlNodeService {
    * @param nodeRangeManager  for node ranges.
    * @param nodeInfoConverter converter.
    * @param keyInfoConverter  converter.
+   * @param heartbeatEngine   for node load.
    */
   @Inject
   public NodeResource(final NodeManager nodeManager,
                       final NodeRangeManager nodeRangeManager,
                       final NodeInfoConverter nodeInfoConverter,
-                      final KeyInfoConverter keyInfoConverter) {
+                      final KeyInfoConverter keyInfoConverter,
+                      final HeartbeatEngine heartbeatEngine) {
     this.nodeRangeManager = nodeRangeManager;
     LOGGER.info("NodeResource({},{})", nodeManager, nodeInfoConverter);
     this.nodeManager = nodeManager;
     this.nodeInfoConverter = nodeInfoConverter;
     this.keyInfoConverter = keyInfoConverter;
+    this.heartbeatEngine = heartbeatEngine;
   }
 
   @Override
@@ -111,6 +117,16 @@ public class NodeResource implements JerseyResource, ControlNodeService {
     return nodeInfoConverter.from(node);
   }
 
+  @Override
+  @Timed
+  @ExceptionMetered
+  @ResponseMetered
+  public NodeInfo ban(final String nodeUuid) {
+    LOGGER.trace("ban({})", nodeUuid);
+    final Node node = nodeManager.ban(nodeUuid);
+    return nodeInfoConverter.from(node);
+  }
+
   @Override
   @Timed
   @ExceptionMetered
@@ -150,6 +166,19 @@ public class NodeResource implements JerseyResource, ControlNodeService {
     return nodeInfoConverter.from(node);
   }
 
+  @Override
+  @Timed
+  @ExceptionMetered
+  @ResponseMetered
+  public void heartbeat(final String nodeUuid, final NodeHeartbeat heartbeat) {
+    LOGGER.trace("heartbeat({},{})", nodeUuid, heartbeat);
+    // only enabled nodes take load, and a not found tells the node to drop its keys.
+    nodeManager.status(nodeUuid)
+        .filter(NodeInfo.Status.ENABLED.name()::equals)
+        .orElseThrow(() -> new NotFoundException("Heartbeat: Node not found or not enabled:" + nodeUuid));
+    heartbeatEngine.ingest(nodeUuid, heartbeat);
+  }
+
   @Override
   @Timed
   @ExceptionMetered
@@ -19,20 +19,25 @@ package org.svarm.control.resource;
 import com.codahale.metrics.annotation.ExceptionMetered;
 import com.codahale.metrics.annotation.ResponseMetered;
 import com.codahale.metrics.annotation.Timed;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.NotAcceptableException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.svarm.control.common.api.ControlTenantResourceService;
+import org.svarm.control.common.api.ResourceBatch;
 import org.svarm.control.common.api.ResourceMetaData;
 import org.svarm.control.common.api.TableMetaData;
 import org.svarm.control.common.api.TenantResourceInfo;
 import org.svarm.control.converter.TenantResourceInfoConverter;
 import org.svarm.control.manager.NodeRangeManager;
 import org.svarm.control.model.NodeRange;
+import org.svarm.datastore.common.TableDefinition;
 import org.svarm.server.resource.JerseyResource;
 
 /**
@@ -100,6 +105,34 @@ public class NodeTenantTableResource implements ControlTenantResourceService, Je
     return tenantResourceInfoConverter.from(nodeRanges);
   }
 
+  @Override
+  @Timed
+  @ExceptionMetered
+  @ResponseMetered
+  public List<TenantResourceInfo> batchResources(final String tenantId,
+                                                 final ResourceBatch resourceBatch) {
+    LOGGER.trace("batchResources({},{},{})", tenantId, resourceBatch.create().size(), resourceBatch.delete().size());
+    if (resourceBatch.delete().stream().anyMatch(resourceBatch.create()::containsKey)) {
+      throw new BadRequestException("Resources cannot be both created and deleted");
+    }
+    final Map<String, TableDefinition> tables = new HashMap<>();
+    resourceBatch.create().forEach((table, resourceMetaData) -> {
+      if (!(resourceMetaData instanceof final TableMetaData tableMetaData)) {
+        throw new NotAcceptableException("Only tables suppoerted");
+      }
+      tables.put(table, tableMetaData.tableDefinition());
+    });
+    if (!resourceBatch.delete().isEmpty()) {
+      nodeRangeManager.deleteTenantResources(tenantId, resourceBatch.delete());
+    }
+    if (tables.isEmpty()) {
+      return List.of();
+    }
+    return nodeRangeManager.createTenantResources(tenantId, tables).values().stream()
+        .map(tenantResourceInfoConverter::from)
+        .toList();
+  }
+
   @Override
   @Timed
   @ExceptionMetered
@@ -19,6 +19,7 @@ package org.svarm.control.dao;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.Instant;
+import java.util.List;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.svarm.control.model.ImmutableNodeRange;
@@ -65,6 +66,11 @@ class NodeRangeDaoTest extends JdbiDaoTest<NodeRangeDao> {
         .hasSize(2)
         .contains(nr1, nr2);
 
+    assertThat(dao.rangeCounts())
+        .hasSize(2)
+        .containsEntry(UUID1, 1)
+        .containsEntry(UUID2, 2);
+
     assertThat(dao.tenants())
         .hasSize(1)
         .contains(TENANT);
@@ -79,4 +85,23 @@ class NodeRangeDaoTest extends JdbiDaoTest<NodeRangeDao> {
         .hasSize(1)
         .contains(nr2);
   }
-}
\ No newline at end of file
+
+  @Test
+  void batch() {
+    final NodeRange nr1 = ImmutableNodeRange.builder().nodeUuid(UUID1).tenant(TENANT).resource(RESOURCE1)
+        .createDate(instant()).ready(false).status(STATUS).hash(10).tableVersion(TABLE_VERSION).build();
+    final NodeRange nr2 = ImmutableNodeRange.builder().nodeUuid(UUID2).tenant(TENANT).resource(RESOURCE2)
+        .createDate(instant()).ready(false).status(STATUS).hash(20).tableVersion(TABLE_VERSION).build();
+    dao.insert(List.of(nr1, nr2));
+    assertThat(dao.tenantNodeRanges(TENANT))
+        .hasSize(2)
+        .contains(nr1, nr2);
+
+    final NodeRange updated1 = ImmutableNodeRange.copyOf(nr1).withStatus(NodeRange.STATUS_DELETING);
+    final NodeRange updated2 = ImmutableNodeRange.copyOf(nr2).withStatus(NodeRange.STATUS_DELETING);
+    dao.update(List.of(updated1, updated2));
+    assertThat(dao.tenantNodeRanges(TENANT))
+        .hasSize(2)
+        .contains(updated1, updated2);
+  }
+}
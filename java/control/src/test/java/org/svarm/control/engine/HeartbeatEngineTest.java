@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.control.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codeheadsystems.metrics.test.BaseMetricTest;
+import java.time.Clock;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.api.ImmutableTenantResource;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.control.ControlConfiguration;
+import org.svarm.control.common.api.ImmutableNodeHeartbeat;
+import org.svarm.control.common.api.ImmutableResourceLoad;
+import org.svarm.control.common.api.NodeHeartbeat;
+import org.svarm.control.model.ClusterStats;
+import org.svarm.control.model.NodeStats;
+
+@ExtendWith(MockitoExtension.class)
+class HeartbeatEngineTest extends BaseMetricTest {
+
+  private static final String NODE_A = "a";
+  private static final String NODE_B = "b";
+  private static final String TENANT = "tenant";
+  private static final String RESOURCE = "resource";
+  private static final TenantResource TENANT_RESOURCE =
+      ImmutableTenantResource.builder().tenant(TENANT).resource(RESOURCE).build();
+  private static final Instant NOW = Instant.ofEpochSecond(1000);
+
+  @Mock private Clock clock;
+  @Mock private PlacementEngine placementEngine;
+
+  private HeartbeatEngine engine;
+
+  @BeforeEach
+  void setup() {
+    final ControlConfiguration configuration = new ControlConfiguration();
+    configuration.setHeartbeatWindowSeconds(60);
+    engine = new HeartbeatEngine(configuration, clock, metrics, placementEngine);
+  }
+
+  private NodeHeartbeat heartbeat(final long bytes, final double qps, final double p99, final long rows) {
+    return ImmutableNodeHeartbeat.builder()
+        .bytesOnDisk(bytes).qps(qps).p99Millis(p99).openDatabases(1)
+        .addResources(ImmutableResourceLoad.builder().tenant(TENANT).resource(RESOURCE).rowEstimate(rows).build())
+        .build();
+  }
+
+  @Test
+  void ingest_summarizesTheWindow() {
+    when(clock.instant()).thenReturn(NOW, NOW.plusSeconds(10), NOW.plusSeconds(10));
+    engine.ingest(NODE_A, heartbeat(100, 10, 5, 1));
+    engine.ingest(NODE_A, heartbeat(200, 30, 2, 3));
+
+    assertThat(engine.stats(NODE_A)).get()
+        .returns(2, NodeStats::samples)
+        .returns(200L, NodeStats::bytesOnDisk)
+        .returns(20.0, NodeStats::qps)
+        .returns(5.0, NodeStats::p99Millis)
+        .returns(NOW.plusSeconds(10), NodeStats::lastSeen);
+    assertThat(engine.stats(NODE_A).get().rowEstimates()).containsEntry(TENANT_RESOURCE, 3L);
+  }
+
+  @Test
+  void ingest_reportsToPlacement() {
+    when(clock.instant()).thenReturn(NOW);
+    engine.ingest(NODE_A, heartbeat(100, 10, 5, 1));
+    verify(placementEngine).report(NODE_A, 100, 10.0);
+  }
+
+  @Test
+  void ingest_oldSamplesLeaveTheWindow() {
+    when(clock.instant()).thenReturn(NOW, NOW.plusSeconds(61), NOW.plusSeconds(61));
+    engine.ingest(NODE_A, heartbeat(100, 100, 50, 1));
+    engine.ingest(NODE_A, heartbeat(100, 10, 5, 1));
+
+    assertThat(engine.stats(NODE_A)).get()
+        .returns(1, NodeStats::samples)
+        .returns(10.0, NodeStats::qps)
+        .returns(5.0, NodeStats::p99Millis);
+  }
+
+  @Test
+  void stats_silentNodesAgeOut() {
+    when(clock.instant()).thenReturn(NOW, NOW.plusSeconds(60));
+    engine.ingest(NODE_A, heartbeat(100, 10, 5, 1));
+
+    assertThat(engine.stats(NODE_A)).isEmpty();
+    assertThat(engine.stats()).isEmpty();
+  }
+
+  @Test
+  void cluster() {
+    when(clock.instant()).thenReturn(NOW);
+    engine.ingest(NODE_A, heartbeat(100, 10, 5, 1));
+    engine.ingest(NODE_B, heartbeat(200, 20, 7, 2));
+
+    final ClusterStats cluster = engine.cluster();
+    assertThat(cluster)
+        .returns(2, ClusterStats::nodes)
+        .returns(300L, ClusterStats::bytesOnDisk)
+        .returns(30.0, ClusterStats::qps)
+        .returns(7.0, ClusterStats::p99Millis)
+        .returns(2, ClusterStats::openDatabases);
+    assertThat(cluster.rowEstimates()).containsEntry(TENANT_RESOURCE, 3L);
+    assertThat(engine.stats()).extracting(NodeStats::nodeUuid).containsExactlyInAnyOrder(NODE_A, NODE_B);
+  }
+
+  @Test
+  void ingest_boundedSamples() {
+    when(clock.instant()).thenReturn(NOW);
+    for (int i = 0; i < 100; i++) {
+      engine.ingest(NODE_A, heartbeat(i, i, 1, 1));
+    }
+    assertThat(engine.stats(NODE_A)).get()
+        .returns(32, NodeStats::samples)
+        .returns(99L, NodeStats::bytesOnDisk)
+        .returns(83.5, NodeStats::qps);
+  }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.control.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codeheadsystems.metrics.test.BaseMetricTest;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.control.ImmutablePlacementConfiguration;
+import org.svarm.control.PlacementConfiguration;
+import org.svarm.control.dao.NodeRangeDao;
+import org.svarm.control.exception.NotEnoughNodesException;
+
+@ExtendWith(MockitoExtension.class)
+class PlacementEngineTest extends BaseMetricTest {
+
+  private static final String NODE_A = "a";
+  private static final String NODE_B = "b";
+  private static final String NODE_C = "c";
+  private static final Instant NOW = Instant.ofEpochSecond(1000);
+
+  @Mock private NodeRangeDao nodeRangeDao;
+  @Mock private Clock clock;
+
+  private PlacementEngine engine(final PlacementConfiguration configuration) {
+    when(clock.instant()).thenReturn(NOW);
+    return new PlacementEngine(nodeRangeDao, configuration, clock, metrics);
+  }
+
+  private PlacementEngine leastLoaded() {
+    return engine(ImmutablePlacementConfiguration.builder().choices(Integer.MAX_VALUE).build());
+  }
+
+  @Test
+  void choose_fewestRanges() {
+    when(nodeRangeDao.rangeCounts()).thenReturn(Map.of(NODE_A, 5, NODE_B, 1, NODE_C, 3));
+    assertThat(leastLoaded().choose(List.of(NODE_A, NODE_B, NODE_C), 2))
+        .containsExactly(NODE_B, NODE_C);
+  }
+
+  @Test
+  void choose_countsAssignmentsBetweenRefreshes() {
+    when(nodeRangeDao.rangeCounts()).thenReturn(Map.of(NODE_A, 1, NODE_B, 2));
+    final PlacementEngine engine = leastLoaded();
+    assertThat(engine.choose(List.of(NODE_A, NODE_B), 1)).containsExactly(NODE_A);
+    assertThat(engine.load(NODE_A)).get().hasFieldOrPropertyWithValue("ranges", 2);
+    engine.choose(List.of(NODE_A, NODE_B), 1);
+    assertThat(engine.load(NODE_A).get().ranges() + engine.load(NODE_B).get().ranges()).isEqualTo(5);
+    verify(nodeRangeDao, times(1)).rangeCounts();
+  }
+
+  @Test
+  void choose_refreshesWhenStale() {
+    when(nodeRangeDao.rangeCounts())
+        .thenReturn(Map.of(NODE_A, 1, NODE_B, 2))
+        .thenReturn(Map.of(NODE_B, 2));
+    final PlacementEngine engine = leastLoaded();
+    engine.choose(List.of(NODE_A, NODE_B), 1);
+    when(clock.instant()).thenReturn(NOW.plusSeconds(30));
+    engine.choose(List.of(NODE_A, NODE_B), 1);
+    verify(nodeRangeDao, times(2)).rangeCounts();
+    assertThat(engine.load(NODE_A)).get().hasFieldOrPropertyWithValue("ranges", 1);
+  }
+
+  @Test
+  void choose_reportedLoad() {
+    when(nodeRangeDao.rangeCounts()).thenReturn(Map.of(NODE_A, 2, NODE_B, 2, NODE_C, 2));
+    final PlacementEngine engine = leastLoaded();
+    engine.report(NODE_A, 100, 10.0);
+    engine.report(NODE_B, 10, 100.0);
+    engine.report(NODE_C, 10, 10.0);
+    assertThat(engine.choose(List.of(NODE_A, NODE_B, NODE_C), 1)).containsExactly(NODE_C);
+  }
+
+  @Test
+  void choose_capacityWeights() {
+    when(nodeRangeDao.rangeCounts()).thenReturn(Map.of(NODE_A, 4, NODE_B, 3));
+    final PlacementEngine engine = engine(ImmutablePlacementConfiguration.builder()
+        .choices(Integer.MAX_VALUE)
+        .putCapacityWeights(NODE_A, 2.0)
+        .build());
+    assertThat(engine.choose(List.of(NODE_A, NODE_B), 1)).containsExactly(NODE_A);
+  }
+
+  @Test
+  void choose_zeroCapacityIsSkipped() {
+    when(nodeRangeDao.rangeCounts()).thenReturn(Map.of(NODE_B, 10));
+    final PlacementEngine engine = engine(ImmutablePlacementConfiguration.builder()
+        .putCapacityWeights(NODE_A, 0.0)
+        .build());
+    assertThat(engine.choose(List.of(NODE_A, NODE_B), 1)).containsExactly(NODE_B);
+    assertThatExceptionOfType(NotEnoughNodesException.class)
+        .isThrownBy(() -> engine.choose(List.of(NODE_A, NODE_B), 2));
+  }
+
+  @Test
+  void choose_powerOfTwoChoices_neverPicksTheBusiest() {
+    when(nodeRangeDao.rangeCounts()).thenReturn(Map.of(NODE_A, 100, NODE_B, 1, NODE_C, 1));
+    final PlacementEngine engine = engine(ImmutablePlacementConfiguration.builder()
+        .refreshSeconds(0)
+        .build());
+    for (int i = 0; i < 50; i++) {
+      assertThat(engine.choose(List.of(NODE_A, NODE_B, NODE_C), 1)).doesNotContain(NODE_A);
+    }
+  }
+
+  @Test
+  void scores_relativeToTheAverage() {
+    final PlacementEngine engine = new PlacementEngine(nodeRangeDao, ImmutablePlacementConfiguration.builder().build(),
+        clock, metrics);
+    engine.report(NODE_A, 10, 0);
+    engine.report(NODE_B, 30, 0);
+    assertThat(engine.scores(List.of(NODE_A, NODE_B)))
+        .containsEntry(NODE_A, 0.5)
+        .containsEntry(NODE_B, 1.5);
+  }
+
+}
@@ -73,4 +73,19 @@ class KeyManagerTest extends JdbiDaoTest<KeyDao> {
         .isEqualTo(key);
   }
 
+  @Test
+  void testKeyCached() {
+    final Key result = manager.getNodeKey(NODE, TENANT);
+    dao.delete(result.id());
+    assertThat(manager.getNodeKey(NODE, TENANT)).isEqualTo(result);
+  }
+
+  @Test
+  void testEvictNode() {
+    final Key result = manager.getNodeKey(NODE, TENANT);
+    dao.delete(result.id());
+    manager.evictNode(NODE);
+    assertThat(manager.getNodeKey(NODE, TENANT)).isNotEqualTo(result);
+  }
+
 }
\ No newline at end of file
@@ -182,6 +182,7 @@ class NodeManagerTest extends BaseMetricTest {
     when(clock.instant()).thenReturn(Instant.ofEpochMilli(System.currentTimeMillis()));
     nodeManager.disable(UUID);
     verify(nodeDao).update(nodeArgumentCaptor.capture());
+    verify(keyManager).evictNode(UUID);
     assertThat(nodeArgumentCaptor.getValue())
         .isNotNull()
         .hasFieldOrPropertyWithValue("status", NodeInfo.Status.DISABLED.name())
@@ -209,6 +210,32 @@ class NodeManagerTest extends BaseMetricTest {
         .isThrownBy(() -> nodeManager.disable(UUID));
   }
 
+  @Test
+  public void ban_found_currentEnabled() {
+    when(nodeDao.read(UUID)).thenReturn(generate(NodeInfo.Status.ENABLED.name()));
+    when(clock.instant()).thenReturn(Instant.ofEpochMilli(System.currentTimeMillis()));
+    nodeManager.ban(UUID);
+    verify(nodeDao).update(nodeArgumentCaptor.capture());
+    verify(keyManager).evictNode(UUID);
+    assertThat(nodeArgumentCaptor.getValue())
+        .isNotNull()
+        .hasFieldOrPropertyWithValue("status", NodeInfo.Status.BANNED.name());
+  }
+
+  @Test
+  public void ban_found_currentBanned() {
+    when(nodeDao.read(UUID)).thenReturn(generate(NodeInfo.Status.BANNED.name()));
+    nodeManager.ban(UUID);
+    verify(nodeDao, times(0)).update(nodeArgumentCaptor.capture());
+    verify(keyManager).evictNode(UUID);
+  }
+
+  @Test
+  public void ban_notFound() {
+    assertThatExceptionOfType(NotFoundException.class)
+        .isThrownBy(() -> nodeManager.ban(UUID));
+  }
+
   private Node generate(final String status) {
     return ImmutableNode.builder().uuid(UUID)
         .createDate(Instant.ofEpochMilli(System.currentTimeMillis()))
@@ -18,6 +18,9 @@ package org.svarm.control.manager;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -25,7 +28,9 @@ import static org.mockito.Mockito.when;
 import com.codeheadsystems.metrics.test.BaseMetricTest;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.HandleCallback;
 import org.jdbi.v3.core.transaction.TransactionIsolationLevel;
@@ -37,12 +42,22 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.api.ImmutableMetaData;
+import org.svarm.common.config.api.ImmutableNodeTenantResource;
+import org.svarm.common.config.api.ImmutableNodeTenantResourceRange;
+import org.svarm.common.config.api.ImmutableTenantResource;
+import org.svarm.common.config.api.MetaData;
+import org.svarm.common.config.api.NodeTenantResourceRange;
+import org.svarm.common.config.api.TenantResource;
 import org.svarm.common.config.engine.NodeConfigurationEngine;
+import org.svarm.control.ImmutablePlacementConfiguration;
 import org.svarm.control.converter.NodeRangeConverter;
 import org.svarm.control.dao.NodeRangeDao;
 import org.svarm.control.engine.NodeAvailabilityEngine;
 import org.svarm.control.engine.RingHashSplitEngine;
+import org.svarm.control.model.ImmutableNodeRange;
 import org.svarm.control.model.NodeRange;
+import org.svarm.datastore.common.TableDefinition;
 import org.svarm.server.exception.NotFoundException;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +68,7 @@ class NodeRangeManagerTest extends BaseMetricTest {
   private static final String UUID = "uuid";
   private static final String STATUS = "status";
   private static final String VERSION = "version";
+  private static final TableDefinition TABLE_DEFINITION = TableDefinition.V1SingleEntryEngine;
   @Mock private NodeRangeDao nodeRangeDao;
   @Mock private Clock clock;
   @Mock private List<String> list;
@@ -61,6 +77,11 @@ class NodeRangeManagerTest extends BaseMetricTest {
   @Mock private NodeRange nodeRange;
   @Mock private RingHashSplitEngine ringHashSplitEngine;
   @Mock private NodeRangeConverter nodeRangeConverter;
+  @Mock private TenantResourcePublishManager tenantResourcePublishManager;
+  @Mock private NodeTenantResourceRange nodeTenantResourceRange;
+  @Captor private ArgumentCaptor<List<NodeRange>> nodeRangeListArgumentCaptor;
+  @Captor private ArgumentCaptor<List<NodeTenantResourceRange>> nodeTenantResourceRangeListArgumentCaptor;
+  @Captor private ArgumentCaptor<List<TenantResource>> tenantResourceListArgumentCaptor;
   @Captor private ArgumentCaptor<NodeRange> nodeRangeArgumentCaptor;
 
   private NodeRangeManager nodeRangeManager;
@@ -68,7 +89,8 @@ class NodeRangeManagerTest extends BaseMetricTest {
   @BeforeEach
   void setup() {
     nodeRangeManager = new NodeRangeManager(new FakeNodeRangeDao(nodeRangeDao), clock, metrics, nodeAvailabilityEngine,
-        nodeConfigurationEngine, ringHashSplitEngine, nodeRangeConverter);
+        nodeConfigurationEngine, ringHashSplitEngine, nodeRangeConverter, ImmutablePlacementConfiguration.builder().build(),
+        tenantResourcePublishManager);
   }
 
   @Test
@@ -110,26 +132,110 @@ class NodeRangeManagerTest extends BaseMetricTest {
   void setReady_found_ready_notAllReady() {
     mockIt(nodeRange, false);
     when(nodeRangeDao.read(UUID, TENANT, TABLE)).thenReturn(nodeRange);
-    when(nodeRangeDao.nodeRanges(TENANT, TABLE)).thenReturn(List.of(nodeRange)); // with the false set.
 
     nodeRangeManager.setReady(UUID, TENANT, TABLE, true);
 
     verify(nodeRangeDao).update(nodeRangeArgumentCaptor.capture());
     assertThat(nodeRangeArgumentCaptor.getValue())
         .hasFieldOrPropertyWithValue("ready", true);
+    verify(tenantResourcePublishManager).publishWhenReady(TENANT, TABLE);
   }
 
   @Test
   void setReady_found_notReady_notAllReady() {
-    mockIt(nodeRange, false);
+    mockIt(nodeRange, true);
     when(nodeRangeDao.read(UUID, TENANT, TABLE)).thenReturn(nodeRange);
-    when(nodeRangeDao.nodeRanges(TENANT, TABLE)).thenReturn(List.of(nodeRange)); // with the false set.
 
-    nodeRangeManager.setReady(UUID, TENANT, TABLE, true);
+    nodeRangeManager.setReady(UUID, TENANT, TABLE, false);
 
     verify(nodeRangeDao).update(nodeRangeArgumentCaptor.capture());
     assertThat(nodeRangeArgumentCaptor.getValue())
-        .hasFieldOrPropertyWithValue("ready", true);
+        .hasFieldOrPropertyWithValue("ready", false);
+    verify(tenantResourcePublishManager, never()).publishWhenReady(TENANT, TABLE);
+  }
+
+  @Test
+  void setReady_alreadySet() {
+    when(nodeRange.ready()).thenReturn(true);
+    when(nodeRangeDao.read(UUID, TENANT, TABLE)).thenReturn(nodeRange);
+
+    assertThat(nodeRangeManager.setReady(UUID, TENANT, TABLE, true)).isEqualTo(nodeRange);
+
+    verify(tenantResourcePublishManager, never()).publishWhenReady(TENANT, TABLE);
+  }
+
+  @Test
+  void updateTenantResourceConfiguration() {
+    nodeRangeManager.updateTenantResourceConfiguration(TENANT, TABLE);
+    verify(tenantResourcePublishManager).publish(TENANT, TABLE);
+  }
+
+  @Test
+  void createTenantResources() {
+    final NodeRange existing = range(UUID, TABLE);
+    when(nodeRangeDao.tenantNodeRanges(TENANT)).thenReturn(List.of(existing, range(UUID, "other")));
+    when(clock.instant()).thenReturn(Instant.now());
+    when(ringHashSplitEngine.evenSplitHashes(2)).thenAnswer(i -> new ArrayList<>(List.of(0, 100)));
+    when(nodeAvailabilityEngine.getAvailableNodes(2, 2))
+        .thenReturn(List.of(List.of("a", "b"), List.of("b", "c")));
+    when(nodeRangeConverter.toNodeTenantResourceRanges(eq(TENANT), anyString(), anyList()))
+        .thenReturn(List.of(nodeTenantResourceRange));
+
+    final Map<String, List<NodeRange>> result = nodeRangeManager.createTenantResources(TENANT,
+        Map.of(TABLE, TABLE_DEFINITION, "new1", TABLE_DEFINITION, "new2", TABLE_DEFINITION));
+
+    assertThat(result).containsOnlyKeys(TABLE, "new1", "new2");
+    assertThat(result.get(TABLE)).containsExactly(existing);
+    assertThat(result.get("new1")).extracting(NodeRange::nodeUuid).containsExactly("a", "b");
+    assertThat(result.get("new2")).extracting(NodeRange::nodeUuid).containsExactly("b", "c");
+    assertThat(result.get("new2")).extracting(NodeRange::hash).containsExactly(0, 100);
+    verify(nodeRangeDao).insert(nodeRangeListArgumentCaptor.capture());
+    assertThat(nodeRangeListArgumentCaptor.getValue()).hasSize(4);
+    verify(nodeConfigurationEngine).write(nodeTenantResourceRangeListArgumentCaptor.capture());
+    assertThat(nodeTenantResourceRangeListArgumentCaptor.getValue()).hasSize(3);
+  }
+
+  @Test
+  void createTenantResources_allExist() {
+    when(nodeRangeDao.tenantNodeRanges(TENANT)).thenReturn(List.of(range(UUID, TABLE)));
+
+    nodeRangeManager.createTenantResources(TENANT, Map.of(TABLE, TABLE_DEFINITION));
+
+    verify(nodeAvailabilityEngine, never()).getAvailableNodes(2, 1);
+    verify(nodeRangeDao, never()).insert(anyList());
+  }
+
+  @Test
+  void deleteTenantResources() {
+    final NodeRange one = range(UUID, TABLE);
+    final NodeRange two = range("uuid2", TABLE);
+    when(nodeRangeDao.tenantNodeRanges(TENANT)).thenReturn(List.of(one, two, range(UUID, "other")));
+    when(nodeRangeConverter.toNodeTenantResourceRanges(TENANT, TABLE, List.of(one, two)))
+        .thenReturn(List.of(ImmutableNodeTenantResourceRange.builder()
+            .nodeTenantResource(ImmutableNodeTenantResource.builder().uuid(UUID)
+                .tenantResource(ImmutableTenantResource.builder().tenant(TENANT).resource(TABLE).build()).build())
+            .metaData(ImmutableMetaData.builder().hash(0).build())
+            .build()));
+
+    nodeRangeManager.deleteTenantResources(TENANT, List.of(TABLE, "missing"));
+
+    verify(nodeRangeDao).update(nodeRangeListArgumentCaptor.capture());
+    assertThat(nodeRangeListArgumentCaptor.getValue())
+        .hasSize(2)
+        .allMatch(nr -> nr.status().equals(NodeRange.STATUS_DELETING));
+    verify(nodeConfigurationEngine).write(nodeTenantResourceRangeListArgumentCaptor.capture());
+    assertThat(nodeTenantResourceRangeListArgumentCaptor.getValue())
+        .singleElement()
+        .satisfies(range -> assertThat(range.metaData().action()).contains(MetaData.ACTION_DELETE));
+    verify(nodeConfigurationEngine).deleteTenantResources(tenantResourceListArgumentCaptor.capture());
+    assertThat(tenantResourceListArgumentCaptor.getValue())
+        .extracting(TenantResource::resource)
+        .containsExactlyInAnyOrder(TABLE, "missing");
+  }
+
+  private NodeRange range(final String uuid, final String resource) {
+    return ImmutableNodeRange.builder().nodeUuid(uuid).tenant(TENANT).resource(resource).tableVersion(VERSION)
+        .createDate(Instant.now()).status(NodeRange.STATUS_INIT).ready(false).hash(0).build();
   }
 
   private void mockIt(final NodeRange nodeRange, final boolean ready) {
@@ -161,11 +267,21 @@ class NodeRangeManagerTest extends BaseMetricTest {
       dao.insert(instance);
     }
 
+    @Override
+    public void insert(final List<NodeRange> instances) {
+      dao.insert(instances);
+    }
+
     @Override
     public void update(final NodeRange instance) {
       dao.update(instance);
     }
 
+    @Override
+    public void update(final List<NodeRange> instances) {
+      dao.update(instances);
+    }
+
     @Override
     public NodeRange read(final String nodeUuid, final String tenant, final String resource) {
       return dao.read(nodeUuid, tenant, resource);
@@ -176,11 +292,21 @@ class NodeRangeManagerTest extends BaseMetricTest {
       return dao.nodeRanges(tenant, resource);
     }
 
+    @Override
+    public List<NodeRange> tenantNodeRanges(final String tenant) {
+      return dao.tenantNodeRanges(tenant);
+    }
+
     @Override
     public List<NodeRange> nodeRanges(final String uuid) {
       return dao.nodeRanges(uuid);
     }
 
+    @Override
+    public Map<String, Integer> rangeCounts() {
+      return dao.rangeCounts();
+    }
+
     @Override
     public List<org.svarm.common.config.api.NodeRange> apiNodeRanges(final String tenant, final String resource) {
       return dao.apiNodeRanges(tenant, resource);
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.control.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codeheadsystems.metrics.test.BaseMetricTest;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.api.ImmutableNodeRange;
+import org.svarm.common.config.api.TenantResourceRange;
+import org.svarm.common.config.engine.NodeConfigurationEngine;
+import org.svarm.control.ControlConfiguration;
+import org.svarm.control.dao.NodeRangeDao;
+import org.svarm.control.model.NodeRange;
+import org.svarm.server.engine.ExecutorEngine;
+
+@ExtendWith(MockitoExtension.class)
+class TenantResourcePublishManagerTest extends BaseMetricTest {
+
+  private static final String TENANT = "tenant";
+  private static final String RESOURCE = "resource";
+  private static final String OTHER = "other";
+
+  @Mock private NodeRangeDao nodeRangeDao;
+  @Mock private NodeConfigurationEngine nodeConfigurationEngine;
+  @Mock private ExecutorEngine executorEngine;
+  @Mock private ScheduledExecutorService scheduler;
+  @Captor private ArgumentCaptor<List<TenantResourceRange>> listArgumentCaptor;
+  @Captor private ArgumentCaptor<TenantResourceRange> tenantResourceRangeArgumentCaptor;
+
+  private TenantResourcePublishManager manager;
+
+  private static NodeRange range(final String uuid, final String resource, final boolean ready, final String status) {
+    return org.svarm.control.model.ImmutableNodeRange.builder().nodeUuid(uuid).tenant(TENANT).resource(resource)
+        .tableVersion("version").createDate(Instant.now()).status(status).ready(ready).hash(0).build();
+  }
+
+  @BeforeEach
+  void setup() {
+    when(executorEngine.scheduler("publish")).thenReturn(scheduler);
+    manager = new TenantResourcePublishManager(nodeRangeDao, nodeConfigurationEngine, new ControlConfiguration(),
+        metrics, executorEngine);
+  }
+
+  @Test
+  void start() throws Exception {
+    manager.start();
+    verify(scheduler).scheduleWithFixedDelay(
+        any(Runnable.class), eq(500L), eq(500L), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void flush_publishesOnceWhenAllReady() {
+    when(nodeRangeDao.nodeRanges(TENANT, RESOURCE)).thenReturn(List.of(
+        range("a", RESOURCE, true, NodeRange.STATUS_INIT), range("b", RESOURCE, true, NodeRange.STATUS_INIT)));
+    when(nodeRangeDao.apiNodeRanges(TENANT, RESOURCE)).thenReturn(List.of(
+        ImmutableNodeRange.builder().uuid("a").uri("uri").hash(0).build()));
+
+    manager.publishWhenReady(TENANT, RESOURCE);
+    manager.publishWhenReady(TENANT, RESOURCE);
+    manager.flush();
+    manager.flush();
+
+    verify(nodeConfigurationEngine, times(1)).writeTenantResourceRanges(listArgumentCaptor.capture());
+    assertThat(listArgumentCaptor.getValue())
+        .singleElement()
+        .satisfies(trr -> {
+          assertThat(trr.tenant()).isEqualTo(TENANT);
+          assertThat(trr.resource()).isEqualTo(RESOURCE);
+          assertThat(trr.hashToNodeRange()).containsOnlyKeys(0);
+        });
+  }
+
+  @Test
+  void flush_skipsNotReady() {
+    when(nodeRangeDao.nodeRanges(TENANT, RESOURCE)).thenReturn(List.of(
+        range("a", RESOURCE, true, NodeRange.STATUS_INIT), range("b", RESOURCE, false, NodeRange.STATUS_INIT)));
+    when(nodeRangeDao.nodeRanges(TENANT, OTHER)).thenReturn(List.of(
+        range("a", OTHER, true, NodeRange.STATUS_DELETING)));
+
+    manager.publishWhenReady(TENANT, RESOURCE);
+    manager.publishWhenReady(TENANT, OTHER);
+    manager.flush();
+
+    verify(nodeConfigurationEngine, never()).writeTenantResourceRanges(anyList());
+  }
+
+  @Test
+  void flush_failureRetries() {
+    when(nodeRangeDao.nodeRanges(TENANT, RESOURCE)).thenReturn(List.of(
+        range("a", RESOURCE, true, NodeRange.STATUS_INIT)));
+    when(nodeRangeDao.apiNodeRanges(TENANT, RESOURCE)).thenReturn(List.of());
+    doThrow(new IllegalArgumentException("etcd")).doNothing()
+        .when(nodeConfigurationEngine).writeTenantResourceRanges(anyList());
+
+    manager.publishWhenReady(TENANT, RESOURCE);
+    manager.flush();
+    manager.flush();
+
+    verify(nodeConfigurationEngine, times(2)).writeTenantResourceRanges(anyList());
+  }
+
+  @Test
+  void publish() {
+    when(nodeRangeDao.apiNodeRanges(TENANT, RESOURCE)).thenReturn(List.of());
+
+    manager.publish(TENANT, RESOURCE);
+
+    verify(nodeConfigurationEngine).write(tenantResourceRangeArgumentCaptor.capture());
+    assertThat(tenantResourceRangeArgumentCaptor.getValue().resource()).isEqualTo(RESOURCE);
+  }
+
+}
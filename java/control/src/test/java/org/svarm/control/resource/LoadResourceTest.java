@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.control.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.api.ImmutableTenantResource;
+import org.svarm.control.engine.HeartbeatEngine;
+import org.svarm.control.model.ClusterStats;
+import org.svarm.control.model.ImmutableClusterStats;
+import org.svarm.control.model.ImmutableNodeStats;
+import org.svarm.control.model.NodeStats;
+import org.svarm.server.exception.NotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+class LoadResourceTest {
+
+  @Mock private HeartbeatEngine heartbeatEngine;
+
+  @InjectMocks private LoadResource resource;
+
+  private NodeStats stats(final String nodeUuid) {
+    return ImmutableNodeStats.builder()
+        .nodeUuid(nodeUuid).lastSeen(Instant.ofEpochSecond(1000)).samples(1)
+        .bytesOnDisk(100).qps(10).p99Millis(5).openDatabases(1)
+        .build();
+  }
+
+  @Test
+  void cluster_resourcesAsJson() {
+    final ClusterStats cluster = ImmutableClusterStats.builder()
+        .nodes(1).bytesOnDisk(100).qps(10).p99Millis(5).openDatabases(1)
+        .rowEstimates(Map.of(ImmutableTenantResource.builder().tenant("tenant").resource("resource").build(), 3L))
+        .build();
+    when(heartbeatEngine.cluster()).thenReturn(cluster);
+
+    final JsonNode json = new ObjectMapper().valueToTree(resource.cluster());
+
+    assertThat(json.has("rowEstimates")).isFalse();
+    assertThat(json.get("resources")).hasSize(1);
+    assertThat(json.get("resources").get(0).get("tenant").asText()).isEqualTo("tenant");
+    assertThat(json.get("resources").get(0).get("rowEstimate").asLong()).isEqualTo(3L);
+  }
+
+  @Test
+  void nodes_sorted() {
+    when(heartbeatEngine.stats()).thenReturn(List.of(stats("b"), stats("a")));
+    assertThat(resource.nodes()).extracting(NodeStats::nodeUuid).containsExactly("a", "b");
+  }
+
+  @Test
+  void node() {
+    final NodeStats stats = stats("a");
+    when(heartbeatEngine.stats("a")).thenReturn(Optional.of(stats));
+    assertThat(resource.node("a")).isEqualTo(stats);
+  }
+
+  @Test
+  void node_notHeardFrom() {
+    when(heartbeatEngine.stats("a")).thenReturn(Optional.empty());
+    assertThatExceptionOfType(NotFoundException.class).isThrownBy(() -> resource.node("a"));
+  }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.control.resource;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.control.common.api.NodeHeartbeat;
+import org.svarm.control.common.api.NodeInfo;
+import org.svarm.control.converter.KeyInfoConverter;
+import org.svarm.control.converter.NodeInfoConverter;
+import org.svarm.control.engine.HeartbeatEngine;
+import org.svarm.control.manager.NodeManager;
+import org.svarm.control.manager.NodeRangeManager;
+import org.svarm.server.exception.NotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+class NodeResourceTest {
+
+  private static final String UUID = "uuid";
+
+  @Mock private NodeManager nodeManager;
+  @Mock private NodeRangeManager nodeRangeManager;
+  @Mock private NodeInfoConverter nodeInfoConverter;
+  @Mock private KeyInfoConverter keyInfoConverter;
+  @Mock private HeartbeatEngine heartbeatEngine;
+  @Mock private NodeHeartbeat heartbeat;
+
+  @InjectMocks private NodeResource resource;
+
+  @Test
+  void heartbeat_enabled() {
+    when(nodeManager.status(UUID)).thenReturn(Optional.of(NodeInfo.Status.ENABLED.name()));
+    resource.heartbeat(UUID, heartbeat);
+    verify(heartbeatEngine).ingest(UUID, heartbeat);
+  }
+
+  @Test
+  void heartbeat_disabled() {
+    when(nodeManager.status(UUID)).thenReturn(Optional.of(NodeInfo.Status.DISABLED.name()));
+    assertThatExceptionOfType(NotFoundException.class).isThrownBy(() -> resource.heartbeat(UUID, heartbeat));
+    verifyNoInteractions(heartbeatEngine);
+  }
+
+  @Test
+  void heartbeat_unknownNode() {
+    when(nodeManager.status(UUID)).thenReturn(Optional.empty());
+    assertThatExceptionOfType(NotFoundException.class).isThrownBy(() -> resource.heartbeat(UUID, heartbeat));
+    verifyNoInteractions(heartbeatEngine);
+  }
+
+}
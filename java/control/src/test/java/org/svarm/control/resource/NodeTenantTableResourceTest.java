@@ -16,23 +16,38 @@
 
 package org.svarm.control.resource;
 
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import jakarta.ws.rs.BadRequestException;
 import java.util.List;
+import java.util.Map;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.control.common.api.ImmutableResourceBatch;
+import org.svarm.control.common.api.ImmutableTableMetaData;
+import org.svarm.control.common.api.ResourceBatch;
+import org.svarm.control.common.api.TenantResourceInfo;
+import org.svarm.control.converter.TenantResourceInfoConverter;
 import org.svarm.control.manager.NodeRangeManager;
+import org.svarm.control.model.NodeRange;
+import org.svarm.datastore.common.TableDefinition;
 
 @ExtendWith(MockitoExtension.class)
 class NodeTenantTableResourceTest {
 
   private static final String TENANT = "TENANT";
+  private static final TableDefinition TABLE_DEFINITION = TableDefinition.V1SingleEntryEngine;
   @Mock private NodeRangeManager nodeRangeManager;
   @Mock private List<String> list;
+  @Mock private TenantResourceInfoConverter tenantResourceInfoConverter;
+  @Mock private NodeRange nodeRange;
+  @Mock private TenantResourceInfo tenantResourceInfo;
 
   @InjectMocks private NodeTenantTableResource nodeTenantTableResource;
 
@@ -42,4 +57,30 @@ class NodeTenantTableResourceTest {
     Assertions.assertThat(nodeTenantTableResource.listResources(TENANT)).isEqualTo(list);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void batchResources() {
+    final ResourceBatch batch = ImmutableResourceBatch.builder()
+        .putCreate("new", ImmutableTableMetaData.builder().tableDefinition(TABLE_DEFINITION).build())
+        .addDelete("old")
+        .build();
+    when(nodeRangeManager.createTenantResources(TENANT, Map.of("new", TABLE_DEFINITION)))
+        .thenReturn(Map.of("new", List.of(nodeRange)));
+    when(tenantResourceInfoConverter.from(List.of(nodeRange))).thenReturn(tenantResourceInfo);
+
+    Assertions.assertThat(nodeTenantTableResource.batchResources(TENANT, batch)).containsExactly(tenantResourceInfo);
+    verify(nodeRangeManager).deleteTenantResources(TENANT, List.of("old"));
+  }
+
+  @Test
+  public void batchResources_createAndDelete() {
+    final ResourceBatch batch = ImmutableResourceBatch.builder()
+        .putCreate("both", ImmutableTableMetaData.builder().tableDefinition(TABLE_DEFINITION).build())
+        .addDelete("both")
+        .build();
+
+    Assertions.assertThatExceptionOfType(BadRequestException.class)
+        .isThrownBy(() -> nodeTenantTableResource.batchResources(TENANT, batch));
+    verifyNoInteractions(nodeRangeManager);
+  }
+
+}
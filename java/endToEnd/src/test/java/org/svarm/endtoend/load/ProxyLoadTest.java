@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.endtoend.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.svarm.endtoend.EnvironmentManager.COMPONENT;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.svarm.control.common.api.ImmutableTableMetaData;
+import org.svarm.control.common.api.TableMetaData;
+import org.svarm.datastore.common.TableDefinition;
+
+/**
+ * Drives reads and writes through the proxy, and so the nodes behind it, from many concurrent clients and reports
+ * the throughput and latency. The nodes only see the load the proxy forwards to them; their background work, like
+ * repair and range moves, is not driven here. Run it once with the servers on platform threads and once on
+ * virtual threads to compare them:
+ *
+ * <pre>
+ *   SVARM_VIRTUAL_THREADS=false ./gradlew :endToEnd:test -Pe2e -Pload
+ *   SVARM_VIRTUAL_THREADS=true ./gradlew :endToEnd:test -Pe2e -Pload
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "svarm.load", matches = "true")
+public class ProxyLoadTest {
+
+  private static final Logger LOGGER = getLogger(ProxyLoadTest.class);
+  private static final String TABLE = "ProxyLoadTest.table";
+  private static final TableMetaData META_DATA = ImmutableTableMetaData.builder()
+      .tableDefinition(TableDefinition.V1SingleEntryEngine)
+      .build();
+  private static final int CLIENTS = Integer.getInteger("svarm.load.clients", 200);
+  private static final int ENTRIES = 1000;
+  private static final Duration WARMUP = Duration.ofSeconds(10);
+  private static final Duration RUN = Duration.ofSeconds(Long.getLong("svarm.load.seconds", 60));
+
+  @Test
+  void load() throws Exception {
+    final String tenant = "ProxyLoadTest.tenant:" + UUID.randomUUID();
+    COMPONENT.controlTenantResourceService().createResource(tenant, TABLE, META_DATA);
+    waitForReady(tenant);
+    final JsonNode data = COMPONENT.objectMapper().readValue("{\"a\":1,\"b\":\"load\"}", JsonNode.class);
+    for (int i = 0; i < ENTRIES; i++) {
+      COMPONENT.proxyService().createTenantTableEntry(tenant, TABLE, "entry-" + i, data);
+    }
+
+    run(tenant, data, WARMUP);
+    final Result result = run(tenant, data, RUN);
+    LOGGER.info("Load with virtual threads {}: {} clients, {} requests, {} errors, {} req/s, p50 {}ms, p99 {}ms",
+        System.getenv().getOrDefault("SVARM_VIRTUAL_THREADS", "false"), CLIENTS, result.count(), result.errors(),
+        result.count() / RUN.toSeconds(), result.percentile(0.50), result.percentile(0.99));
+    COMPONENT.controlTenantResourceService().deleteResource(tenant, TABLE);
+    assertThat(result.count()).isPositive();
+  }
+
+  private Result run(final String tenant, final JsonNode data, final Duration duration) {
+    final long end = System.nanoTime() + duration.toNanos();
+    final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+    final AtomicLong errors = new AtomicLong();
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < CLIENTS; i++) {
+        clients.execute(() -> {
+          final ThreadLocalRandom random = ThreadLocalRandom.current();
+          while (System.nanoTime() < end) {
+            final String entry = "entry-" + random.nextInt(ENTRIES);
+            final long start = System.nanoTime();
+            try {
+              // nine reads to every write.
+              if (random.nextInt(10) == 0) {
+                COMPONENT.proxyService().createTenantTableEntry(tenant, TABLE, entry, data);
+              } else {
+                COMPONENT.proxyService().readTenantTableEntry(tenant, TABLE, entry);
+              }
+              latencies.add(System.nanoTime() - start);
+            } catch (RuntimeException e) {
+              errors.incrementAndGet();
+            }
+          }
+        });
+      }
+    }
+    return new Result(new ArrayList<>(latencies), errors.get());
+  }
+
+  private void waitForReady(final String tenant) throws InterruptedException {
+    for (int i = 0; i < 20; i++) {
+      if (COMPONENT.controlTenantResourceService().readResource(tenant, TABLE).get().ready()) {
+        return;
+      }
+      Thread.sleep(200);
+    }
+    throw new IllegalStateException("Table never became ready");
+  }
+
+  private record Result(List<Long> latencies, long errors) {
+
+    long count() {
+      return latencies.size();
+    }
+
+    long percentile(final double percentile) {
+      if (latencies.isEmpty()) {
+        return 0;
+      }
+      Collections.sort(latencies);
+      final int index = (int) Math.ceil(latencies.size() * percentile) - 1;
+      return Duration.ofNanos(latencies.get(Math.max(index, 0))).toMillis();
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.node.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+/**
+ * A digest of an entry, so replicas can be compared without sending the data.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableEntryDigest.class)
+@JsonDeserialize(builder = ImmutableEntryDigest.Builder.class)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public interface EntryDigest {
+
+  /**
+   * id of the entry.
+   *
+   * @return value string
+   */
+  @JsonProperty("id")
+  String id();
+
+  /**
+   * timestamp of the entry.
+   *
+   * @return value long
+   */
+  @JsonProperty("timestamp")
+  Long timestamp();
+
+  /**
+   * digest of the entry data.
+   *
+   * @return value long
+   */
+  @JsonProperty("digest")
+  Long digest();
+
+}
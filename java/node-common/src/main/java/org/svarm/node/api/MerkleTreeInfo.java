@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.util.List;
+import org.immutables.value.Value;
+
+/**
+ * A merkle tree over the entries of a tenant table, used to find which buckets differ between replicas.
+ * The nodes are stored in heap order: the root is at zero, the children of node i are at 2i+1 and 2i+2,
+ * and the leaves are the last {@code leaves} nodes.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableMerkleTreeInfo.class)
+@JsonDeserialize(builder = ImmutableMerkleTreeInfo.Builder.class)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public interface MerkleTreeInfo {
+
+  /**
+   * Number of leaves in the tree. Always a power of two.
+   *
+   * @return value integer
+   */
+  @JsonProperty("leaves")
+  Integer leaves();
+
+  /**
+   * The hashes of every node in the tree, in heap order.
+   *
+   * @return value list
+   */
+  @JsonProperty("nodes")
+  List<Long> nodes();
+
+}
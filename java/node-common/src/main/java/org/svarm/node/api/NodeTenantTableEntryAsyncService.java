@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.node.api;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.svarm.node.codec.SmileCodec;
+
+/**
+ * The same calls as the NodeTenantTableEntryService, for clients that do not want to block on the response.
+ */
+@Path("/v1/tenant/{tenant}/table/{table}/entry")
+public interface NodeTenantTableEntryAsyncService {
+
+  /**
+   * Gets the entry.
+   *
+   * @param tenantId that owns the table.
+   * @param table    the table.
+   * @param entry    the entry.
+   * @return response. optional
+   */
+  @GET
+  @Path("/{entry}")
+  @Produces({MediaType.APPLICATION_JSON, SmileCodec.APPLICATION_SMILE})
+  CompletableFuture<Optional<EntryInfo>> readTenantTableEntry(@PathParam("tenant") final String tenantId,
+                                                              @PathParam("table") final String table,
+                                                              @PathParam("entry") final String entry);
+
+  /**
+   * Gets the digest of the entry, instead of the entry itself.
+   *
+   * @param tenantId that owns the table.
+   * @param table    the table.
+   * @param entry    the entry.
+   * @return response. optional
+   */
+  @GET
+  @Path("/{entry}/digest")
+  @Produces({MediaType.APPLICATION_JSON, SmileCodec.APPLICATION_SMILE})
+  CompletableFuture<Optional<EntryDigest>> readTenantTableEntryDigest(@PathParam("tenant") final String tenantId,
+                                                                      @PathParam("table") final String table,
+                                                                      @PathParam("entry") final String entry);
+
+  /**
+   * Create the tenant table entry.
+   *
+   * @param tenantId  that owns the table.
+   * @param table     the table.
+   * @param entry     for the table.
+   * @param entryInfo the data we care about in JSON form.
+   * @return completes when the node has it.
+   */
+  @PUT
+  @Path("/{entry}")
+  @Consumes({MediaType.APPLICATION_JSON, SmileCodec.APPLICATION_SMILE})
+  CompletableFuture<Void> createTenantTableEntry(@PathParam("tenant") final String tenantId,
+                                                 @PathParam("table") final String table,
+                                                 @PathParam("entry") final String entry,
+                                                 @NotNull @Valid final EntryInfo entryInfo);
+
+  /**
+   * Create the tenant table entry on one of its replicas, with the location hash in the header.
+   *
+   * @param tenantId     that owns the table.
+   * @param table        the table.
+   * @param entry        for the table.
+   * @param locationHash the location hash on this replica.
+   * @param entryInfo    the data we care about in JSON form.
+   * @return completes when the node has it.
+   * @see NodeTenantTableEntryService#createTenantTableEntryReplica(String, String, String, Integer, EntryInfo)
+   */
+  @PUT
+  @Path("/{entry}/replica")
+  @Consumes({MediaType.APPLICATION_JSON, SmileCodec.APPLICATION_SMILE})
+  CompletableFuture<Void> createTenantTableEntryReplica(
+      @PathParam("tenant") final String tenantId,
+      @PathParam("table") final String table,
+      @PathParam("entry") final String entry,
+      @HeaderParam(NodeTenantTableEntryService.LOCATION_HASH_HEADER) final Integer locationHash,
+      @NotNull @Valid final EntryInfo entryInfo);
+
+  /**
+   * Delete the tenant table entry.
+   *
+   * @param tenantId  that owns the table.
+   * @param table     the table.
+   * @param entry     to delete.
+   * @param timestamp of the delete.
+   * @return completes when the node has deleted it.
+   * @see NodeTenantTableEntryService#deleteTenantTableEntry(String, String, String, Long)
+   */
+  @DELETE
+  @Path("/{entry}")
+  CompletableFuture<Void> deleteTenantTableEntry(
+      @PathParam("tenant") final String tenantId,
+      @PathParam("table") final String table,
+      @PathParam("entry") final String entry,
+      @HeaderParam(NodeTenantTableEntryService.TIMESTAMP_HEADER) final Long timestamp);
+}
@@ -21,12 +21,14 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import java.util.Optional;
+import org.svarm.node.codec.SmileCodec;
 
 /**
  * All the ways to connect to the node service for tenant table entry calls.
@@ -34,6 +36,16 @@ import java.util.Optional;
 @Path("/v1/tenant/{tenant}/table/{table}/entry")
 public interface NodeTenantTableEntryService {
 
+  /**
+   * Header with the location hash for replica writes.
+   */
+  String LOCATION_HASH_HEADER = "X-Location-Hash";
+
+  /**
+   * Header with the timestamp of a delete, from the proxy that took it.
+   */
+  String TIMESTAMP_HEADER = "X-Timestamp";
+
   /**
    * Gets the entry.
    *
@@ -44,11 +56,26 @@ public interface NodeTenantTableEntryService {
    */
   @GET
   @Path("/{entry}")
-  @Produces(MediaType.APPLICATION_JSON)
+  @Produces({MediaType.APPLICATION_JSON, SmileCodec.APPLICATION_SMILE})
   Optional<EntryInfo> readTenantTableEntry(@PathParam("tenant") final String tenantId,
                                            @PathParam("table") final String table,
                                            @PathParam("entry") final String entry);
 
+  /**
+   * Gets the digest of the entry, instead of the entry itself.
+   *
+   * @param tenantId that owns the table.
+   * @param table    the table.
+   * @param entry    the entry.
+   * @return response. optional
+   */
+  @GET
+  @Path("/{entry}/digest")
+  @Produces({MediaType.APPLICATION_JSON, SmileCodec.APPLICATION_SMILE})
+  Optional<EntryDigest> readTenantTableEntryDigest(@PathParam("tenant") final String tenantId,
+                                                   @PathParam("table") final String table,
+                                                   @PathParam("entry") final String entry);
+
   /**
    * Create the tenant table entry.
    *
@@ -59,22 +86,45 @@ public interface NodeTenantTableEntryService {
    */
   @PUT
   @Path("/{entry}")
-  @Consumes(MediaType.APPLICATION_JSON)
+  @Consumes({MediaType.APPLICATION_JSON, SmileCodec.APPLICATION_SMILE})
   void createTenantTableEntry(@PathParam("tenant") final String tenantId,
                               @PathParam("table") final String table,
                               @PathParam("entry") final String entry,
                               @NotNull @Valid final EntryInfo entryInfo);
 
   /**
-   * Delete the tenant table entry.
+   * Create the tenant table entry on one of its replicas. The body is the same for every replica of a write, so the
+   * location hash for this replica is sent in the header and replaces the one in the body. Without the header the
+   * write is rejected as a bad request, rather than stored under a made up location hash.
    *
-   * @param tenantId that owns the table.
-   * @param table    the table.
-   * @param entry    to delete.
+   * @param tenantId     that owns the table.
+   * @param table        the table.
+   * @param entry        for the table.
+   * @param locationHash the location hash on this replica.
+   * @param entryInfo    the data we care about in JSON form.
+   */
+  @PUT
+  @Path("/{entry}/replica")
+  @Consumes({MediaType.APPLICATION_JSON, SmileCodec.APPLICATION_SMILE})
+  void createTenantTableEntryReplica(@PathParam("tenant") final String tenantId,
+                                     @PathParam("table") final String table,
+                                     @PathParam("entry") final String entry,
+                                     @NotNull @HeaderParam(LOCATION_HASH_HEADER) final Integer locationHash,
+                                     @NotNull @Valid final EntryInfo entryInfo);
+
+  /**
+   * Delete the tenant table entry. The tombstones are stamped with the timestamp from the header, so the delete is
+   * ordered against writes by the same clock that stamped them.
+   *
+   * @param tenantId  that owns the table.
+   * @param table     the table.
+   * @param entry     to delete.
+   * @param timestamp of the delete.
    */
   @DELETE
   @Path("/{entry}")
   void deleteTenantTableEntry(@PathParam("tenant") final String tenantId,
                               @PathParam("table") final String table,
-                              @PathParam("entry") final String entry);
+                              @PathParam("entry") final String entry,
+                              @NotNull @HeaderParam(TIMESTAMP_HEADER) final Long timestamp);
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.api;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import java.util.List;
+
+/**
+ * Node to node calls used to repair replicas. Both calls are limited to the entries the node holds in its range
+ * [low, high] that also have a replica in the caller's range [sharedLow, sharedHigh]. All ranges are inclusive.
+ */
+@Path("/v1/tenant/{tenant}/table/{table}/repair")
+public interface NodeTenantTableRepairService {
+
+  /**
+   * Gets the merkle tree for the entries shared with the given range.
+   *
+   * @param tenantId   that owns the table.
+   * @param table      the table.
+   * @param low        the low hash of this node's range.
+   * @param high       the high hash of this node's range.
+   * @param sharedLow  the low hash of the caller's range.
+   * @param sharedHigh the high hash of the caller's range.
+   * @param leaves     number of leaves in the tree.
+   * @return the tree.
+   */
+  @GET
+  @Path("/tree")
+  @Produces(MediaType.APPLICATION_JSON)
+  MerkleTreeInfo tree(@PathParam("tenant") final String tenantId,
+                      @PathParam("table") final String table,
+                      @QueryParam("low") final int low,
+                      @QueryParam("high") final int high,
+                      @QueryParam("sharedLow") final int sharedLow,
+                      @QueryParam("sharedHigh") final int sharedHigh,
+                      @QueryParam("leaves") final int leaves);
+
+  /**
+   * Gets the entries in a single leaf of the merkle tree for the entries shared with the given range.
+   *
+   * @param tenantId   that owns the table.
+   * @param table      the table.
+   * @param leaf       the leaf to read.
+   * @param low        the low hash of this node's range.
+   * @param high       the high hash of this node's range.
+   * @param sharedLow  the low hash of the caller's range.
+   * @param sharedHigh the high hash of the caller's range.
+   * @param leaves     number of leaves in the tree.
+   * @return the entries, including deleted ones.
+   */
+  @GET
+  @Path("/leaf/{leaf}")
+  @Produces(MediaType.APPLICATION_JSON)
+  List<RepairEntry> leaf(@PathParam("tenant") final String tenantId,
+                         @PathParam("table") final String table,
+                         @PathParam("leaf") final int leaf,
+                         @QueryParam("low") final int low,
+                         @QueryParam("high") final int high,
+                         @QueryParam("sharedLow") final int sharedLow,
+                         @QueryParam("sharedHigh") final int sharedHigh,
+                         @QueryParam("leaves") final int leaves);
+
+}
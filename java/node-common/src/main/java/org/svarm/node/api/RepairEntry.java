@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.util.Optional;
+import org.immutables.value.Value;
+
+/**
+ * An entry as seen by the repair process. Unlike the entry info, this includes deleted entries.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableRepairEntry.class)
+@JsonDeserialize(builder = ImmutableRepairEntry.Builder.class)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public interface RepairEntry {
+
+  /**
+   * id of the entry.
+   *
+   * @return value string
+   */
+  @JsonProperty("id")
+  String id();
+
+  /**
+   * locationHash of the entry in the node that owns it.
+   *
+   * @return value integer
+   */
+  @JsonProperty("locationHash")
+  Integer locationHash();
+
+  /**
+   * timestamp of the latest change to the entry.
+   *
+   * @return value long
+   */
+  @JsonProperty("timestamp")
+  Long timestamp();
+
+  /**
+   * data of the entry. Empty if the entry was deleted.
+   *
+   * @return value json node
+   */
+  @JsonProperty("data")
+  Optional<JsonNode> data();
+
+}
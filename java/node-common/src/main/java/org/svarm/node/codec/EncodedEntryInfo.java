@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.svarm.node.api.EntryInfo;
+
+/**
+ * An entry that is sent to several replicas. The encoded body is kept per media type, so the first replica call
+ * encodes it and the rest reuse the same bytes. Only the node client encoders know to look for this; the location
+ * hash for each replica goes in a header, not in here.
+ */
+public final class EncodedEntryInfo implements EntryInfo {
+
+  private final EntryInfo entryInfo;
+  private final Map<String, byte[]> encoded = new ConcurrentHashMap<>(2);
+
+  private EncodedEntryInfo(final EntryInfo entryInfo) {
+    this.entryInfo = entryInfo;
+  }
+
+  /**
+   * Wraps the entry.
+   *
+   * @param entryInfo to send.
+   * @return the wrapper.
+   */
+  public static EncodedEntryInfo of(final EntryInfo entryInfo) {
+    return new EncodedEntryInfo(entryInfo);
+  }
+
+  /**
+   * The entry being sent.
+   *
+   * @return the entry.
+   */
+  public EntryInfo entryInfo() {
+    return entryInfo;
+  }
+
+  /**
+   * The encoded entry for the media type, encoding it on the first call.
+   *
+   * @param mediaType the body is encoded as.
+   * @param encoder   to encode the entry if we have not yet.
+   * @return the bytes. Do not modify them.
+   */
+  public byte[] encoded(final String mediaType, final Function<EntryInfo, byte[]> encoder) {
+    return encoded.computeIfAbsent(mediaType, type -> encoder.apply(entryInfo));
+  }
+
+  @Override
+  public String id() {
+    return entryInfo.id();
+  }
+
+  @Override
+  public Integer locationHash() {
+    return entryInfo.locationHash();
+  }
+
+  @Override
+  public Long timestamp() {
+    return entryInfo.timestamp();
+  }
+
+  @Override
+  public JsonNode data() {
+    return entryInfo.data();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    return this == o || (o instanceof EncodedEntryInfo that && entryInfo.equals(that.entryInfo));
+  }
+
+  @Override
+  public int hashCode() {
+    return entryInfo.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "EncodedEntryInfo{" + entryInfo + "}";
+  }
+}
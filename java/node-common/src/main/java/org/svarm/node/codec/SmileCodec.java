@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.codec;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.node.api.EntryDigest;
+import org.svarm.node.api.EntryInfo;
+
+/**
+ * Binary (Jackson Smile) encoding for proxy to node calls. Smile is the same data model as JSON, so the api objects
+ * need no changes, but it is smaller and cheaper to generate and parse. Readers and writers are built once per type
+ * and reused; the ones for the entry calls are built up front.
+ */
+@Singleton
+public class SmileCodec {
+
+  /**
+   * The media type, for Content-Type and Accept.
+   */
+  public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+  private static final Logger LOGGER = getLogger(SmileCodec.class);
+
+  private final ObjectMapper mapper;
+  private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+  private final Map<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor.
+   */
+  @Inject
+  public SmileCodec() {
+    this.mapper = SmileMapper.builder().addModule(new Jdk8Module()).build();
+    for (Type type : new Type[]{EntryInfo.class, EntryDigest.class,
+        new TypeReference<Optional<EntryInfo>>() { }.getType(),
+        new TypeReference<Optional<EntryDigest>>() { }.getType()}) {
+      reader(type);
+      writer(type);
+    }
+    LOGGER.info("SmileCodec()");
+  }
+
+  /**
+   * The reader for the type.
+   *
+   * @param type to read.
+   * @return the reader.
+   */
+  public ObjectReader reader(final Type type) {
+    return readers.computeIfAbsent(type, t -> mapper.readerFor(javaType(t)));
+  }
+
+  /**
+   * The writer for the type.
+   *
+   * @param type to write.
+   * @return the writer.
+   */
+  public ObjectWriter writer(final Type type) {
+    return writers.computeIfAbsent(type, t -> mapper.writerFor(javaType(t)));
+  }
+
+  private JavaType javaType(final Type type) {
+    return mapper.getTypeFactory().constructType(type);
+  }
+
+}
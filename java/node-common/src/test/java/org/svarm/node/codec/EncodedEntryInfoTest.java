@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.node.api.ImmutableEntryInfo;
+
+class EncodedEntryInfoTest {
+
+  private final EntryInfo entryInfo = ImmutableEntryInfo.builder()
+      .id("id")
+      .locationHash(2)
+      .timestamp(3L)
+      .data(new ObjectMapper().createObjectNode().put("a", "b"))
+      .build();
+
+  @Test
+  void delegates() {
+    final EncodedEntryInfo encoded = EncodedEntryInfo.of(entryInfo);
+    assertThat(encoded.entryInfo()).isSameAs(entryInfo);
+    assertThat(encoded.id()).isEqualTo("id");
+    assertThat(encoded.locationHash()).isEqualTo(2);
+    assertThat(encoded.timestamp()).isEqualTo(3L);
+    assertThat(encoded.data()).isEqualTo(entryInfo.data());
+    assertThat(encoded).isEqualTo(EncodedEntryInfo.of(entryInfo)).hasSameHashCodeAs(entryInfo);
+  }
+
+  @Test
+  void encodesOncePerMediaType() {
+    final EncodedEntryInfo encoded = EncodedEntryInfo.of(entryInfo);
+    final AtomicInteger calls = new AtomicInteger();
+    final byte[] first = encoded.encoded("a", e -> new byte[]{(byte) calls.incrementAndGet()});
+    final byte[] second = encoded.encoded("a", e -> new byte[]{(byte) calls.incrementAndGet()});
+    final byte[] other = encoded.encoded("b", e -> new byte[]{(byte) calls.incrementAndGet()});
+
+    assertThat(second).isSameAs(first);
+    assertThat(other).containsExactly(2);
+    assertThat(calls).hasValue(2);
+  }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Type;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.node.api.ImmutableEntryInfo;
+
+class SmileCodecTest {
+
+  private static final Type OPTIONAL_ENTRY_INFO = new TypeReference<Optional<EntryInfo>>() { }.getType();
+
+  private SmileCodec codec;
+  private EntryInfo entryInfo;
+
+  @BeforeEach
+  void setup() throws Exception {
+    codec = new SmileCodec();
+    entryInfo = ImmutableEntryInfo.builder()
+        .id("id")
+        .locationHash(2)
+        .timestamp(3L)
+        .data(new ObjectMapper().readTree("{\"a\":\"some value\",\"b\":\"another value\"}"))
+        .build();
+  }
+
+  @Test
+  void roundTrip() throws Exception {
+    final byte[] bytes = codec.writer(EntryInfo.class).writeValueAsBytes(entryInfo);
+    assertThat((EntryInfo) codec.reader(EntryInfo.class).readValue(bytes)).isEqualTo(entryInfo);
+  }
+
+  @Test
+  void roundTrip_optional() throws Exception {
+    final byte[] bytes = codec.writer(OPTIONAL_ENTRY_INFO).writeValueAsBytes(Optional.of(entryInfo));
+    assertThat((Optional<EntryInfo>) codec.reader(OPTIONAL_ENTRY_INFO).readValue(bytes)).contains(entryInfo);
+  }
+
+  @Test
+  void smallerThanJson() throws Exception {
+    final byte[] smile = codec.writer(EntryInfo.class).writeValueAsBytes(entryInfo);
+    final byte[] json = new ObjectMapper().writeValueAsBytes(entryInfo);
+    assertThat(smile.length).isLessThan(json.length);
+  }
+
+  @Test
+  void readersAndWritersAreReused() {
+    assertThat(codec.reader(EntryInfo.class)).isSameAs(codec.reader(EntryInfo.class));
+    assertThat(codec.writer(OPTIONAL_ENTRY_INFO)).isSameAs(codec.writer(OPTIONAL_ENTRY_INFO));
+  }
+
+}
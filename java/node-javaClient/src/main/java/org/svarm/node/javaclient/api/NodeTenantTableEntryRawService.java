@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.javaclient.api;
+
+import feign.Response;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Entry reads that hand back the node's response as is, for callers that pass the body through instead of
+ * decoding it. Always JSON, since that is what gets passed on. The caller checks the status and closes the response.
+ */
+@Path("/v1/tenant/{tenant}/table/{table}/entry")
+public interface NodeTenantTableEntryRawService {
+
+  /**
+   * Gets the entry.
+   *
+   * @param tenantId that owns the table.
+   * @param table    the table.
+   * @param entry    the entry.
+   * @return the response, whatever the status.
+   */
+  @GET
+  @Path("/{entry}")
+  @Produces(MediaType.APPLICATION_JSON)
+  CompletableFuture<Response> readTenantTableEntry(@PathParam("tenant") final String tenantId,
+                                                   @PathParam("table") final String table,
+                                                   @PathParam("entry") final String entry);
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.javaclient.codec;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import feign.RequestTemplate;
+import feign.Util;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import feign.jackson.JacksonEncoder;
+import jakarta.ws.rs.core.MediaType;
+import java.lang.reflect.Type;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.node.codec.EncodedEntryInfo;
+
+/**
+ * The JSON encoder for the node clients. Same as the jackson encoder, except an {@link EncodedEntryInfo} is only
+ * encoded once, however many replicas it is sent to.
+ */
+@Singleton
+public class JsonFeignEncoder implements Encoder {
+
+  private static final Logger LOGGER = getLogger(JsonFeignEncoder.class);
+
+  private final JacksonEncoder jacksonEncoder;
+  private final ObjectWriter entryInfoWriter;
+
+  /**
+   * Constructor.
+   *
+   * @param objectMapper for json.
+   */
+  @Inject
+  public JsonFeignEncoder(final ObjectMapper objectMapper) {
+    LOGGER.info("JsonFeignEncoder({})", objectMapper);
+    this.jacksonEncoder = new JacksonEncoder(objectMapper);
+    this.entryInfoWriter = objectMapper.writerFor(EntryInfo.class);
+  }
+
+  @Override
+  public void encode(final Object object, final Type bodyType, final RequestTemplate template) {
+    if (object instanceof EncodedEntryInfo encodedEntryInfo) {
+      template.body(encodedEntryInfo.encoded(MediaType.APPLICATION_JSON, this::encode), Util.UTF_8);
+    } else {
+      jacksonEncoder.encode(object, bodyType, template);
+    }
+  }
+
+  private byte[] encode(final EntryInfo entryInfo) {
+    try {
+      return entryInfoWriter.writeValueAsBytes(entryInfo);
+    } catch (JsonProcessingException e) {
+      throw new EncodeException(e.getMessage(), e);
+    }
+  }
+
+}
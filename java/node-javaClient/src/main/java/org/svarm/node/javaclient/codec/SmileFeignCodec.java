@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.javaclient.codec;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.node.codec.EncodedEntryInfo;
+import org.svarm.node.codec.SmileCodec;
+
+/**
+ * Feign encoder, decoder and header interceptor for talking Smile to the nodes. The service interfaces list JSON
+ * first, so the interceptor swaps the Accept and Content-Type headers the contract set. An {@link EncodedEntryInfo}
+ * is only encoded once, however many replicas it is sent to.
+ */
+@Singleton
+public class SmileFeignCodec implements Encoder, Decoder, RequestInterceptor {
+
+  private static final Logger LOGGER = getLogger(SmileFeignCodec.class);
+  private static final String ACCEPT = "Accept";
+  private static final String CONTENT_TYPE = "Content-Type";
+
+  private final SmileCodec smileCodec;
+
+  /**
+   * Constructor.
+   *
+   * @param smileCodec to read and write with.
+   */
+  @Inject
+  public SmileFeignCodec(final SmileCodec smileCodec) {
+    LOGGER.info("SmileFeignCodec({})", smileCodec);
+    this.smileCodec = smileCodec;
+  }
+
+  @Override
+  public void encode(final Object object, final Type bodyType, final RequestTemplate template) {
+    if (object instanceof EncodedEntryInfo encodedEntryInfo) {
+      template.body(encodedEntryInfo.encoded(SmileCodec.APPLICATION_SMILE,
+          entryInfo -> encode(entryInfo, EntryInfo.class)), null);
+    } else {
+      template.body(encode(object, bodyType), null);
+    }
+  }
+
+  private byte[] encode(final Object object, final Type bodyType) {
+    try {
+      return smileCodec.writer(bodyType).writeValueAsBytes(object);
+    } catch (IOException e) {
+      throw new EncodeException(e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public Object decode(final Response response, final Type type) throws IOException {
+    if (response.status() == 404 || response.status() == 204) {
+      return Util.emptyValueOf(type);
+    }
+    if (response.body() == null) {
+      return null;
+    }
+    try (InputStream inputStream = response.body().asInputStream()) {
+      return smileCodec.reader(type).readValue(inputStream);
+    } catch (IOException e) {
+      throw new DecodeException(response.status(), e.getMessage(), response.request(), e);
+    }
+  }
+
+  @Override
+  public void apply(final RequestTemplate template) {
+    if (template.headers().containsKey(ACCEPT)) {
+      template.removeHeader(ACCEPT);
+      template.header(ACCEPT, SmileCodec.APPLICATION_SMILE);
+    }
+    if (template.body() != null) {
+      template.removeHeader(CONTENT_TYPE);
+      template.header(CONTENT_TYPE, SmileCodec.APPLICATION_SMILE);
+    }
+  }
+
+}
@@ -18,41 +18,73 @@ package org.svarm.node.javaclient.factory;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
+import feign.AsyncFeign;
 import feign.Feign;
-import io.github.resilience4j.feign.FeignDecorators;
 import io.github.resilience4j.feign.Resilience4jFeign;
-import io.github.resilience4j.retry.Retry;
 import javax.inject.Inject;
-import javax.inject.Named;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.svarm.common.javaclient.FeignBuilderInstrumentator;
+import org.svarm.node.api.NodeTenantTableEntryAsyncService;
 import org.svarm.node.api.NodeTenantTableEntryService;
+import org.svarm.node.api.NodeTenantTableRepairService;
+import org.svarm.node.javaclient.api.NodeTenantTableEntryRawService;
+import org.svarm.node.javaclient.codec.JsonFeignEncoder;
+import org.svarm.node.javaclient.codec.SmileFeignCodec;
+import org.svarm.node.javaclient.resilience.NodeResilience;
 
 /**
- * Creates instances of the node service based on the uri. No caching here.
+ * Creates instances of the node service based on the uri. No caching here. The smile variants talk the binary codec
+ * to the node, which is what the proxy uses; everything else stays on JSON. Every service is guarded by the
+ * circuit breaker and bulkhead for its node.
  */
 @Singleton
 public class NodeServiceFactory {
 
   private static final Logger LOGGER = getLogger(NodeServiceFactory.class);
 
-  private final Feign.Builder builder;
-
+  private final FeignBuilderInstrumentator instrumentator;
+  private final NodeResilience nodeResilience;
+  private final SmileFeignCodec smileFeignCodec;
+  private final JsonFeignEncoder jsonFeignEncoder;
+  private final AsyncFeign.AsyncBuilder<Object> asyncBuilder;
+  private final AsyncFeign.AsyncBuilder<Object> asyncSmileBuilder;
 
   /**
    * Constructor.
    *
-   * @param instrumentator to instrument.
-   * @param retry          default retry policy.
+   * @param instrumentator   to instrument.
+   * @param nodeResilience   to guard the calls to each node.
+   * @param smileFeignCodec  for the binary codec.
+   * @param jsonFeignEncoder for json.
    */
   @Inject
   public NodeServiceFactory(final FeignBuilderInstrumentator instrumentator,
-                            @Named("DEFAULT") final Retry retry) {
-    final FeignDecorators decorators = FeignDecorators.builder().withRetry(retry).build();
-    this.builder = Resilience4jFeign.builder(decorators);
-    instrumentator.instrument(builder);
-    LOGGER.info("NodeServiceFactory({})", builder);
+                            final NodeResilience nodeResilience,
+                            final SmileFeignCodec smileFeignCodec,
+                            final JsonFeignEncoder jsonFeignEncoder) {
+    this.instrumentator = instrumentator;
+    this.nodeResilience = nodeResilience;
+    this.smileFeignCodec = smileFeignCodec;
+    this.jsonFeignEncoder = jsonFeignEncoder;
+    this.asyncBuilder = instrumentator.generateAsync().encoder(jsonFeignEncoder);
+    this.asyncSmileBuilder = instrumentator.generateAsync()
+        .encoder(smileFeignCodec)
+        .decoder(smileFeignCodec)
+        .requestInterceptor(smileFeignCodec);
+    LOGGER.info("NodeServiceFactory({})", nodeResilience);
+  }
+
+  private Feign.Builder builder(final String uri) {
+    return instrumentator.instrument(Resilience4jFeign.builder(nodeResilience.decorator(uri)))
+        .encoder(jsonFeignEncoder);
+  }
+
+  private Feign.Builder smileBuilder(final String uri) {
+    return instrumentator.instrument(Resilience4jFeign.builder(nodeResilience.decorator(uri)))
+        .encoder(smileFeignCodec)
+        .decoder(smileFeignCodec)
+        .requestInterceptor(smileFeignCodec);
   }
 
   /**
@@ -63,7 +95,65 @@ public class NodeServiceFactory {
    */
   public NodeTenantTableEntryService nodeService(final String uri) {
     LOGGER.info("nodeService({})", uri);
-    return builder.target(NodeTenantTableEntryService.class, uri);
+    return builder(uri).target(NodeTenantTableEntryService.class, uri);
+  }
+
+  /**
+   * Get a node service that does not block on the response.
+   *
+   * @param uri the url of the node service.
+   * @return a node service.
+   */
+  public NodeTenantTableEntryAsyncService asyncNodeService(final String uri) {
+    LOGGER.info("asyncNodeService({})", uri);
+    return nodeResilience.decorateAsync(NodeTenantTableEntryAsyncService.class,
+        asyncBuilder.target(NodeTenantTableEntryAsyncService.class, uri), uri);
+  }
+
+  /**
+   * Get a node service that uses the binary codec.
+   *
+   * @param uri the url of the node service.
+   * @return a node service.
+   */
+  public NodeTenantTableEntryService smileNodeService(final String uri) {
+    LOGGER.info("smileNodeService({})", uri);
+    return smileBuilder(uri).target(NodeTenantTableEntryService.class, uri);
+  }
+
+  /**
+   * Get a node service that uses the binary codec and does not block on the response.
+   *
+   * @param uri the url of the node service.
+   * @return a node service.
+   */
+  public NodeTenantTableEntryAsyncService asyncSmileNodeService(final String uri) {
+    LOGGER.info("asyncSmileNodeService({})", uri);
+    return nodeResilience.decorateAsync(NodeTenantTableEntryAsyncService.class,
+        asyncSmileBuilder.target(NodeTenantTableEntryAsyncService.class, uri), uri);
+  }
+
+  /**
+   * Get a node service that hands back the raw response, so the body can be passed through.
+   *
+   * @param uri the url of the node service.
+   * @return a node service.
+   */
+  public NodeTenantTableEntryRawService rawNodeService(final String uri) {
+    LOGGER.info("rawNodeService({})", uri);
+    return nodeResilience.decorateAsync(NodeTenantTableEntryRawService.class,
+        asyncBuilder.target(NodeTenantTableEntryRawService.class, uri), uri);
+  }
+
+  /**
+   * Get a usable node repair service, for node to node calls.
+   *
+   * @param uri the url of the node service.
+   * @return a node repair service.
+   */
+  public NodeTenantTableRepairService repairService(final String uri) {
+    LOGGER.info("repairService({})", uri);
+    return builder(uri).target(NodeTenantTableRepairService.class, uri);
   }
 
 }
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.javaclient.resilience;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import feign.FeignException;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.functions.CheckedFunction;
+import io.github.resilience4j.feign.FeignDecorator;
+import io.github.resilience4j.feign.FeignDecorators;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.common.javaclient.JavaClientConfig;
+
+/**
+ * Guards the calls to each node, keyed by the node uri. Every node gets its own circuit breaker, so a dead node
+ * fails fast instead of tying up the caller, its own bulkhead, so a slow node can only hold so many of our calls,
+ * and its own retry, limited by a retry budget so retries can not multiply the load on a node that is already
+ * struggling. Client errors are the caller's fault and do not count against the node. The state of all of these is
+ * published to the meter registry, tagged with the node uri.
+ */
+@Singleton
+public class NodeResilience {
+
+  private static final Logger LOGGER = getLogger(NodeResilience.class);
+
+  private final CircuitBreakerRegistry circuitBreakerRegistry;
+  private final BulkheadRegistry bulkheadRegistry;
+  private final RetryRegistry retryRegistry;
+  private final Predicate<Throwable> retryable;
+  private final int retryBudgetPercent;
+  private final Map<String, RetryBudget> retryBudgets = new ConcurrentHashMap<>();
+  private final ThreadLocal<Integer> failures = ThreadLocal.withInitial(() -> 0);
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Constructor.
+   *
+   * @param javaClientConfig for the limits.
+   * @param retry            the default retry policy, which the per node retries are based on.
+   * @param meterRegistry    to publish the state.
+   */
+  @Inject
+  public NodeResilience(final Optional<JavaClientConfig> javaClientConfig,
+                        @Named("DEFAULT") final Retry retry,
+                        final MeterRegistry meterRegistry) {
+    final JavaClientConfig config = javaClientConfig.orElseGet(JavaClientConfig::defaultConfig);
+    this.meterRegistry = meterRegistry;
+    this.circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+        .failureRateThreshold(config.circuitBreakerFailureRateThreshold())
+        .slidingWindowSize(config.circuitBreakerWindowSize())
+        .minimumNumberOfCalls(config.circuitBreakerWindowSize())
+        .waitDurationInOpenState(Duration.ofSeconds(config.circuitBreakerOpenSeconds()))
+        .ignoreExceptions(FeignException.FeignClientException.class)
+        .recordResult(result -> result instanceof Response response && response.status() >= 500)
+        .build());
+    this.bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+        .maxConcurrentCalls(config.bulkheadMaxConcurrentCalls())
+        .maxWaitDuration(Duration.ZERO)
+        .build());
+    this.retryable = retry.getRetryConfig().getExceptionPredicate();
+    this.retryRegistry = RetryRegistry.of(retry.getRetryConfig());
+    this.retryBudgetPercent = config.retryBudgetPercent();
+    TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+    TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    TaggedRetryMetrics.ofRetryRegistry(retryRegistry).bindTo(meterRegistry);
+    LOGGER.info("NodeResilience({},{},{})", config.circuitBreakerFailureRateThreshold(),
+        config.bulkheadMaxConcurrentCalls(), retryBudgetPercent);
+  }
+
+  /**
+   * The circuit breaker for the node.
+   *
+   * @param uri of the node.
+   * @return the circuit breaker.
+   */
+  public CircuitBreaker circuitBreaker(final String uri) {
+    return circuitBreakerRegistry.circuitBreaker(uri);
+  }
+
+  /**
+   * The bulkhead for the node.
+   *
+   * @param uri of the node.
+   * @return the bulkhead.
+   */
+  public Bulkhead bulkhead(final String uri) {
+    return bulkheadRegistry.bulkhead(uri);
+  }
+
+  /**
+   * The circuit breakers of the nodes we have called so far, keyed by the node uri.
+   *
+   * @return the circuit breakers.
+   */
+  public Map<String, CircuitBreaker> circuitBreakers() {
+    return circuitBreakerRegistry.getAllCircuitBreakers().stream()
+        .collect(Collectors.toMap(CircuitBreaker::getName, Function.identity()));
+  }
+
+  private RetryBudget retryBudget(final String uri) {
+    return retryBudgets.computeIfAbsent(uri, u -> new RetryBudget(retryBudgetPercent));
+  }
+
+  /**
+   * The retry for the node. Retry asks if a failure can be retried before it checks if there are attempts left, so
+   * the budget is only taken when there are: the last attempt's failure just ends the call.
+   *
+   * @param uri of the node.
+   * @return the retry.
+   */
+  private Retry retry(final String uri) {
+    final RetryBudget retryBudget = retryBudget(uri);
+    final int maxAttempts = retryRegistry.getDefaultConfig().getMaxAttempts();
+    final RetryConfig config = RetryConfig.from(retryRegistry.getDefaultConfig())
+        .retryExceptions()
+        .retryOnException(throwable -> retryable.test(throwable)
+            && (lastAttempt(maxAttempts) || tryRetry(uri, retryBudget)))
+        .build();
+    return retryRegistry.retry(uri, config);
+  }
+
+  private boolean lastAttempt(final int maxAttempts) {
+    final int failed = failures.get() + 1;
+    failures.set(failed);
+    return failed >= maxAttempts;
+  }
+
+  private boolean tryRetry(final String uri, final RetryBudget retryBudget) {
+    final boolean allowed = retryBudget.tryRetry();
+    if (!allowed) {
+      meterRegistry.counter("NodeResilience.retryBudgetExhausted", "node", uri).increment();
+    }
+    return allowed;
+  }
+
+  /**
+   * The decorators for blocking calls to the node: the retry around the circuit breaker around the bulkhead, so
+   * every attempt is guarded and an open circuit is not retried.
+   *
+   * @param uri of the node.
+   * @return the decorator for the feign builder.
+   */
+  public FeignDecorator decorator(final String uri) {
+    final RetryBudget retryBudget = retryBudget(uri);
+    final FeignDecorators decorators = FeignDecorators.builder()
+        .withBulkhead(bulkhead(uri))
+        .withCircuitBreaker(circuitBreaker(uri))
+        .withRetry(retry(uri))
+        .build();
+    return (invocationCall, method, methodHandler, target) -> {
+      final CheckedFunction<Object[], Object> decorated =
+          decorators.decorate(invocationCall, method, methodHandler, target);
+      return args -> {
+        retryBudget.request();
+        // the retries of a blocking call all run on the calling thread.
+        failures.set(0);
+        try {
+          return decorated.apply(args);
+        } finally {
+          failures.remove();
+        }
+      };
+    };
+  }
+
+  /**
+   * Guards an async call to the node with its circuit breaker and bulkhead. There is no retry, as with all the async
+   * calls. The future from the call is handed back as is, so cancelling it still cancels the call.
+   *
+   * @param uri  of the node.
+   * @param call to make.
+   * @param <T>  the type returned.
+   * @return the future.
+   */
+  public <T> CompletableFuture<T> decorate(final String uri, final Supplier<CompletableFuture<T>> call) {
+    final Bulkhead bulkhead = bulkhead(uri);
+    if (!bulkhead.tryAcquirePermission()) {
+      return CompletableFuture.failedFuture(BulkheadFullException.createBulkheadFullException(bulkhead));
+    }
+    final CircuitBreaker circuitBreaker = circuitBreaker(uri);
+    if (!circuitBreaker.tryAcquirePermission()) {
+      bulkhead.onComplete();
+      return CompletableFuture.failedFuture(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+    }
+    final long start = circuitBreaker.getCurrentTimestamp();
+    final CompletableFuture<T> future;
+    try {
+      future = call.get();
+    } catch (RuntimeException e) {
+      bulkhead.onComplete();
+      circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e);
+      return CompletableFuture.failedFuture(e);
+    }
+    future.whenComplete((value, throwable) -> {
+      bulkhead.onComplete();
+      final long duration = circuitBreaker.getCurrentTimestamp() - start;
+      if (throwable == null) {
+        circuitBreaker.onResult(duration, circuitBreaker.getTimestampUnit(), value);
+      } else if (throwable instanceof CancellationException) {
+        circuitBreaker.releasePermission();
+      } else {
+        circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(),
+            throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Wraps an async feign client so every call it makes goes through decorate().
+   *
+   * @param type   of the client.
+   * @param target the client.
+   * @param uri    of the node.
+   * @param <T>    the type of client.
+   * @return the wrapped client.
+   */
+  public <T> T decorateAsync(final Class<T> type, final T target, final String uri) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+      if (!CompletableFuture.class.equals(method.getReturnType())) {
+        return invoke(target, method, args);
+      }
+      return decorate(uri, () -> invokeAsync(target, method, args));
+    }));
+  }
+
+  @SuppressWarnings("unchecked")
+  private CompletableFuture<Object> invokeAsync(final Object target, final Method method, final Object[] args) {
+    try {
+      return (CompletableFuture<Object>) invoke(target, method, args);
+    } catch (Throwable throwable) {
+      return CompletableFuture.failedFuture(throwable);
+    }
+  }
+
+  private Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.javaclient.resilience;
+
+/**
+ * Caps retries at a percentage of the calls. Every call adds a fraction of a token, and every retry needs a whole
+ * one, so a node that is failing everything sees at most that fraction of extra calls instead of one per attempt.
+ * Starts with a full balance so a quiet node can still retry.
+ */
+public class RetryBudget {
+
+  private static final double MAX_BALANCE = 10.0;
+
+  private final double ratio;
+  private double balance = MAX_BALANCE;
+
+  /**
+   * Constructor.
+   *
+   * @param percent of the calls that can be retried.
+   */
+  public RetryBudget(final int percent) {
+    this.ratio = percent / 100.0;
+  }
+
+  /**
+   * Records that a call was made, adding to the budget.
+   */
+  public synchronized void request() {
+    balance = Math.min(balance + ratio, MAX_BALANCE);
+  }
+
+  /**
+   * Takes a retry from the budget, if there is enough.
+   *
+   * @return true if the retry can be made.
+   */
+  public synchronized boolean tryRetry() {
+    if (balance < 1.0) {
+      return false;
+    }
+    balance -= 1.0;
+    return true;
+  }
+
+}
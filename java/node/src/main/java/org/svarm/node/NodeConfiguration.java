@@ -17,7 +17,9 @@
 package org.svarm.node;
 
 import java.time.Duration;
+import org.svarm.node.model.ImmutableRepairConfiguration;
 import org.svarm.node.model.ImmutableTombstoneConfiguration;
+import org.svarm.node.model.RepairConfiguration;
 import org.svarm.node.model.TombstoneConfiguration;
 import org.svarm.server.ServerConfiguration;
 
@@ -33,8 +35,13 @@ public class NodeConfiguration extends ServerConfiguration {
   private String nodeHost;
   private Integer nodePort = 8080;
   private int watchEngineThreads = 5;
+  private int reconcileThreads = 4;
+  private int reconcileAttempts = 3;
+  private int heartbeatSeconds = 10;
+  private int keyCacheSeconds = 300;
   private String nodeScheme = "http";
   private TombstoneConfiguration tombstoneConfiguration = ImmutableTombstoneConfiguration.builder().build();
+  private RepairConfiguration repairConfiguration = ImmutableRepairConfiguration.builder().build();
 
   /**
    * Instantiates a new Node configuration.
@@ -171,6 +178,79 @@ public class NodeConfiguration extends ServerConfiguration {
     this.watchEngineThreads = watchEngineThreads;
   }
 
+  /**
+   * Getter for how many tables are created at once when catching up with the control plane at start.
+   *
+   * @return value. reconcile threads
+   */
+  public int getReconcileThreads() {
+    return reconcileThreads;
+  }
+
+  /**
+   * Setter for how many tables are created at once when catching up with the control plane at start.
+   *
+   * @param reconcileThreads to set.
+   */
+  public void setReconcileThreads(final int reconcileThreads) {
+    this.reconcileThreads = reconcileThreads;
+  }
+
+  /**
+   * Getter for how many times a change, or the read of what is assigned to us, is tried when catching up
+   * with the control plane at start.
+   *
+   * @return value. reconcile attempts
+   */
+  public int getReconcileAttempts() {
+    return reconcileAttempts;
+  }
+
+  /**
+   * Setter for how many times a change is tried when catching up with the control plane at start.
+   *
+   * @param reconcileAttempts to set.
+   */
+  public void setReconcileAttempts(final int reconcileAttempts) {
+    this.reconcileAttempts = reconcileAttempts;
+  }
+
+  /**
+   * Getter for how often the node sends its load to the control plane.
+   *
+   * @return value. heartbeat seconds
+   */
+  public int getHeartbeatSeconds() {
+    return heartbeatSeconds;
+  }
+
+  /**
+   * Setter for how often the node sends its load to the control plane.
+   *
+   * @param heartbeatSeconds to set.
+   */
+  public void setHeartbeatSeconds(final int heartbeatSeconds) {
+    this.heartbeatSeconds = heartbeatSeconds;
+  }
+
+  /**
+   * Getter for how long keys from the control plane, and that we are registered, are remembered.
+   *
+   * @return value. key cache seconds
+   */
+  public int getKeyCacheSeconds() {
+    return keyCacheSeconds;
+  }
+
+  /**
+   * Setter for how long keys from the control plane, and that we are registered, are remembered.
+   *
+   * @param keyCacheSeconds to set.
+   */
+  public void setKeyCacheSeconds(final int keyCacheSeconds) {
+    this.keyCacheSeconds = keyCacheSeconds;
+  }
+
   /**
    * Gets node scheme.
    *
@@ -206,4 +286,22 @@ public class NodeConfiguration extends ServerConfiguration {
   public void setTombstoneConfiguration(final TombstoneConfiguration tombstoneConfiguration) {
     this.tombstoneConfiguration = tombstoneConfiguration;
   }
+
+  /**
+   * Gets repair configuration.
+   *
+   * @return the repair configuration
+   */
+  public RepairConfiguration getRepairConfiguration() {
+    return repairConfiguration;
+  }
+
+  /**
+   * Sets repair configuration.
+   *
+   * @param repairConfiguration the repair configuration
+   */
+  public void setRepairConfiguration(final RepairConfiguration repairConfiguration) {
+    this.repairConfiguration = repairConfiguration;
+  }
 }
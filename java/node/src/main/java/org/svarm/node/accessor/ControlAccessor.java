@@ -26,6 +26,7 @@ import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.svarm.control.common.api.ControlNodeService;
 import org.svarm.control.common.api.ImmutableNodeMetaData;
+import org.svarm.control.common.api.NodeHeartbeat;
 import org.svarm.control.common.api.NodeInfo;
 import org.svarm.control.common.api.NodeMetaData;
 import org.svarm.node.model.TenantTableIdentifier;
@@ -152,6 +153,20 @@ public class ControlAccessor {
     });
   }
 
+  /**
+   * Sends the node's load to the control plane.
+   *
+   * @param uuid      of the node.
+   * @param heartbeat the load.
+   */
+  public void heartbeat(final String uuid, final NodeHeartbeat heartbeat) {
+    LOGGER.trace("heartbeat({},{})", uuid, heartbeat);
+    metrics.time("ControlAccessor.heartbeat", () -> {
+      controlNodeService.heartbeat(uuid, heartbeat);
+      return null;
+    });
+  }
+
   /**
    * Returns the key for the node.
    *
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.engine;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeSet;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.common.engine.HashingEngine;
+import org.svarm.node.api.ImmutableMerkleTreeInfo;
+import org.svarm.node.api.MerkleTreeInfo;
+import org.svarm.node.api.RepairEntry;
+
+/**
+ * Builds and compares merkle trees of entries. Entries are placed into leaves by the hash of their id, not their
+ * location hash, since the location hash is different on every replica. A leaf is the sum of the digests of its
+ * entries, so entries can be added in any order.
+ */
+@Singleton
+public class MerkleTreeEngine {
+
+  /**
+   * Largest number of leaves we will build a tree for.
+   */
+  public static final int MAX_LEAVES = 1 << 16;
+
+  private static final Logger LOGGER = getLogger(MerkleTreeEngine.class);
+  private static final long RING_SIZE = 1L << Integer.SIZE;
+
+  private final HashingEngine hashingEngine;
+
+  /**
+   * Constructor.
+   *
+   * @param hashingEngine for hashing.
+   */
+  @Inject
+  public MerkleTreeEngine(final HashingEngine hashingEngine) {
+    this.hashingEngine = hashingEngine;
+    LOGGER.info("MerkleTreeEngine({})", hashingEngine);
+  }
+
+  /**
+   * Creates the leaves for a new tree, to be filled in with add().
+   *
+   * @param leaves number of leaves. Must be a power of two.
+   * @return the leaves.
+   */
+  public long[] emptyLeaves(final int leaves) {
+    validate(leaves);
+    return new long[leaves];
+  }
+
+  /**
+   * Adds the entry to the leaves.
+   *
+   * @param leafHashes the leaves from emptyLeaves().
+   * @param hash       the hash of the entry id.
+   * @param entry      the entry.
+   */
+  public void add(final long[] leafHashes, final int hash, final RepairEntry entry) {
+    add(leafHashes, hash, digest(entry));
+  }
+
+  /**
+   * Adds the digest of an entry to the leaves.
+   *
+   * @param leafHashes the leaves from emptyLeaves().
+   * @param hash       the hash of the entry id.
+   * @param digest     the digest of the entry.
+   */
+  public void add(final long[] leafHashes, final int hash, final long digest) {
+    leafHashes[leaf(hash, leafHashes.length)] += digest;
+  }
+
+  /**
+   * Builds the tree from the leaves.
+   *
+   * @param leafHashes the leaves.
+   * @return the tree.
+   */
+  public MerkleTreeInfo tree(final long[] leafHashes) {
+    final int leaves = leafHashes.length;
+    validate(leaves);
+    final long[] nodes = new long[leaves * 2 - 1];
+    System.arraycopy(leafHashes, 0, nodes, leaves - 1, leaves);
+    for (int i = leaves - 2; i >= 0; i--) {
+      nodes[i] = hashingEngine.murmur3x64(nodes[i * 2 + 1], nodes[i * 2 + 2]);
+    }
+    return ImmutableMerkleTreeInfo.builder()
+        .leaves(leaves)
+        .nodes(Arrays.stream(nodes).boxed().toList())
+        .build();
+  }
+
+  /**
+   * Finds the leaves that differ between the two trees, only walking the branches that differ.
+   *
+   * @param left  one tree.
+   * @param right the other tree.
+   * @return the leaf indexes, in order.
+   */
+  public List<Integer> differingLeaves(final MerkleTreeInfo left, final MerkleTreeInfo right) {
+    if (!left.leaves().equals(right.leaves()) || left.nodes().size() != right.nodes().size()) {
+      throw new IllegalArgumentException("Trees are different sizes: " + left.leaves() + ":" + right.leaves());
+    }
+    final int leaves = left.leaves();
+    final List<Integer> result = new ArrayList<>();
+    final Deque<Integer> toCheck = new ArrayDeque<>();
+    toCheck.push(0);
+    while (!toCheck.isEmpty()) {
+      final int index = toCheck.pop();
+      if (left.nodes().get(index).equals(right.nodes().get(index))) {
+        continue;
+      }
+      if (index >= leaves - 1) {
+        result.add(index - (leaves - 1));
+      } else {
+        toCheck.push(index * 2 + 2);
+        toCheck.push(index * 2 + 1);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The leaf the hash of an id belongs in. Leaves are in the same order as the hashes.
+   *
+   * @param hash   the hash of the id.
+   * @param leaves number of leaves.
+   * @return the leaf.
+   */
+  public int leaf(final int hash, final int leaves) {
+    return (int) (((long) hash - Integer.MIN_VALUE) / (RING_SIZE / leaves));
+  }
+
+  /**
+   * The lowest id hash in the leaf.
+   *
+   * @param leaf   the leaf.
+   * @param leaves number of leaves.
+   * @return the hash.
+   */
+  public int leafLow(final int leaf, final int leaves) {
+    return (int) (Integer.MIN_VALUE + (RING_SIZE / leaves) * leaf);
+  }
+
+  /**
+   * The highest id hash in the leaf.
+   *
+   * @param leaf   the leaf.
+   * @param leaves number of leaves.
+   * @return the hash.
+   */
+  public int leafHigh(final int leaf, final int leaves) {
+    return (int) (Integer.MIN_VALUE + (RING_SIZE / leaves) * (leaf + 1L) - 1L);
+  }
+
+  /**
+   * The digest of a single entry. Deleted entries have a digest too, so deletes are repaired.
+   *
+   * @param entry to digest.
+   * @return the digest.
+   */
+  public long digest(final RepairEntry entry) {
+    final StringBuilder builder = new StringBuilder(entry.id()).append('\n').append(entry.timestamp());
+    entry.data().ifPresentOrElse(data -> {
+      final TreeSet<String> names = new TreeSet<>();
+      data.fieldNames().forEachRemaining(names::add);
+      names.forEach(name -> {
+        final JsonNode value = data.get(name);
+        builder.append('\n').append(name).append('=').append(value);
+      });
+    }, () -> builder.append("\n<deleted>"));
+    return hashingEngine.murmur3x64(builder.toString());
+  }
+
+  /**
+   * Whether the entry replaces the one we have. The newer one wins. When the timestamps tie but the contents differ,
+   * the higher digest wins, so every replica picks the same one and their trees converge.
+   *
+   * @param entry    the entry from the other replica.
+   * @param existing the entry we have.
+   * @return true if the entry replaces ours.
+   */
+  public boolean supersedes(final RepairEntry entry, final RepairEntry existing) {
+    final int byTimestamp = Long.compare(entry.timestamp(), existing.timestamp());
+    if (byTimestamp != 0) {
+      return byTimestamp > 0;
+    }
+    return digest(entry) > digest(existing);
+  }
+
+  /**
+   * Validates the number of leaves is usable.
+   *
+   * @param leaves number of leaves.
+   */
+  public void validate(final int leaves) {
+    if (leaves < 1 || leaves > MAX_LEAVES || Integer.bitCount(leaves) != 1) {
+      throw new IllegalArgumentException("Leaves must be a power of two up to " + MAX_LEAVES + ": " + leaves);
+    }
+  }
+
+}
@@ -16,8 +16,10 @@
 
 package org.svarm.node.engine;
 
+import java.util.List;
 import java.util.Optional;
 import org.svarm.node.api.EntryInfo;
+import org.svarm.node.api.RepairEntry;
 import org.svarm.node.model.TenantTable;
 
 /**
@@ -47,9 +49,10 @@ public interface TableDefinitionEngine {
    *
    * @param tenantTable table to delete from.
    * @param entity      the entity id.
+   * @param timestamp   of the delete.
    * @return boolean if anything was deleted.
    */
-  boolean delete(TenantTable tenantTable, String entity);
+  boolean delete(TenantTable tenantTable, String entity, long timestamp);
 
   /**
    * Clear tombstones from the table.
@@ -58,4 +61,23 @@ public interface TableDefinitionEngine {
    * @return int number of tombstones cleared.
    */
   int clearTombstones(TenantTable tenantTable);
+
+  /**
+   * Reads every entry with a location hash in the range, including deleted ones. Used for repair.
+   *
+   * @param tenantTable table to read from.
+   * @param lowHash     the low hash, inclusive.
+   * @param highHash    the high hash, inclusive.
+   * @return the entries.
+   */
+  List<RepairEntry> repairEntries(TenantTable tenantTable, int lowHash, int highHash);
+
+  /**
+   * Applies the entry from another replica, if it supersedes what we have. See MerkleTreeEngine.supersedes().
+   *
+   * @param tenantTable table to write to.
+   * @param entry       the entry, with our location hash.
+   * @return boolean if anything changed.
+   */
+  boolean repair(TenantTable tenantTable, RepairEntry entry);
 }
@@ -138,9 +138,11 @@ public class HsqlDatabaseEngine implements DatabaseEngine {
   private String getInternalConnectionUrl() {
     LOGGER.trace("getInternalConnectionUrl()");
     final String directory = getDatabasePath(INTERNAL_DB_NAME);
-    final byte[] key = cryptUtils.xor(nodeInternalConfiguration.key(), controlPlaneManager.keyForNode());
+    final byte[] key = xor(nodeInternalConfiguration.key(), controlPlaneManager.keyForNode());
     final byte[] nonce = cryptUtils.fromBase64(nodeInternalConfiguration.nonce());
-    return getConnectionUrl(directory, key, nonce);
+    final String url = getConnectionUrl(directory, key, nonce);
+    cryptUtils.clean(key);
+    return url;
   }
 
   /**
@@ -152,10 +154,28 @@ public class HsqlDatabaseEngine implements DatabaseEngine {
   private String getTenantConnectionUrl(final TenantTable tenantTable) {
     LOGGER.trace("getTenantConnectionUrl({})", tenantTable);
     final String directory = getTenantTableDirectoryFilePath(tenantTable);
-    final byte[] key = cryptUtils.xor(tenantTable.key(),
-        controlPlaneManager.keyForTenant(tenantTable.identifier().tenantId()));
+    final byte[] key = xor(tenantTable.key(), controlPlaneManager.keyForTenant(tenantTable.identifier().tenantId()));
     final byte[] nonce = cryptUtils.fromBase64(tenantTable.nonce());
-    return getConnectionUrl(directory, key, nonce);
+    final String url = getConnectionUrl(directory, key, nonce);
+    cryptUtils.clean(key);
+    return url;
+  }
+
+  /**
+   * Combines our half of a key with the control plane's half. Both halves are cleaned.
+   *
+   * @param base64Key    our half.
+   * @param controlPlane the control plane half.
+   * @return the key.
+   */
+  private byte[] xor(final String base64Key, final byte[] controlPlane) {
+    final byte[] local = cryptUtils.fromBase64(base64Key);
+    try {
+      return cryptUtils.xor(local, controlPlane);
+    } finally {
+      cryptUtils.clean(local);
+      cryptUtils.clean(controlPlane);
+    }
   }
 
   /**
@@ -6,12 +6,15 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
 import java.util.List;
+import java.util.Optional;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.svarm.common.engine.JsonEngine;
 import org.svarm.node.api.EntryInfo;
 import org.svarm.node.api.ImmutableEntryInfo;
+import org.svarm.node.api.ImmutableRepairEntry;
+import org.svarm.node.api.RepairEntry;
 
 /**
  * Converts between rows and json.
@@ -20,6 +23,7 @@ import org.svarm.node.api.ImmutableEntryInfo;
 public class V1RowConverter {
   private static final String INTEGER_TYPE = "INTEGER";
   private static final String STRING_TYPE = "STRING";
+  private static final String TOMBSTONE_COL = "";
 
   private static final Logger LOGGER = getLogger(V1RowConverter.class);
 
@@ -63,6 +67,27 @@ public class V1RowConverter {
     return builder.build();
   }
 
+  /**
+   * Converts the rows of a single entry to a repair entry. If none of the rows have data, the entry
+   * is a tombstone and the data is empty.
+   *
+   * @param list of rows, all for the same entry.
+   * @return the repair entry.
+   */
+  public RepairEntry toRepairEntry(final List<V1Row> list) {
+    LOGGER.trace("toRepairEntry({})", list);
+    final V1Row first = list.get(0);
+    final ImmutableRepairEntry.Builder builder = ImmutableRepairEntry.builder()
+        .id(first.id())
+        .locationHash(first.hash())
+        .timestamp(list.stream().mapToLong(V1Row::timestamp).max().orElse(first.timestamp()));
+    if (list.stream().anyMatch(row -> row.cData().isPresent())) {
+      final EntryInfo entryInfo = toEntryInfo(list);
+      builder.data(Optional.of(entryInfo.data()));
+    }
+    return builder.build();
+  }
+
   /**
    * Converts an entryInfo to a list of rows.
    *
@@ -96,4 +121,25 @@ public class V1RowConverter {
     });
     return builder.build();
   }
+
+  /**
+   * A single row that marks the entry deleted, for when we learn of a delete for an entry we never had. It has no
+   * column name of its own, so it never shows up as data.
+   *
+   * @param id           of the entry.
+   * @param locationHash of the entry.
+   * @param timestamp    of the delete.
+   * @param expiry       when the tombstone can be cleared.
+   * @return the row.
+   */
+  public V1Row toTombstone(final String id, final int locationHash, final long timestamp, final long expiry) {
+    return ImmutableV1Row.builder()
+        .id(id)
+        .hash(locationHash)
+        .timestamp(timestamp)
+        .cCol(TOMBSTONE_COL)
+        .cDataType(STRING_TYPE)
+        .expiry(expiry)
+        .build();
+  }
 }
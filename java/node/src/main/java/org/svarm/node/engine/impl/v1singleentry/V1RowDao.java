@@ -121,6 +121,29 @@ public interface V1RowDao extends Transactional<V1RowDao> {
   void batchSoftDelete(@Bind("id") String id, @Bind("expiry") long expiry, @Bind("timestamp") long timestamp,
                       @Bind("cCol") List<String> keys);
 
+  /**
+   * Soft deletes all the live columns of the entry, leaving tombstones behind so replicas can learn about the delete.
+   *
+   * @param id        the id of the entry.
+   * @param expiry    the expiry of the tombstones.
+   * @param timestamp the timestamp of the change.
+   * @return the count
+   */
+  @SqlUpdate("update TENANT_DATA set C_DATA = null, EXPIRY = :expiry, TIMESTAMP = :timestamp "
+      + "where ID = :id and C_DATA is not null")
+  int softDelete(@Bind("id") String id, @Bind("expiry") long expiry, @Bind("timestamp") long timestamp);
+
+  /**
+   * Marks every column of the entry deleted, tombstones included, so a newer delete moves their timestamp forward.
+   *
+   * @param id        the id of the entry.
+   * @param expiry    the expiry of the tombstones.
+   * @param timestamp the timestamp of the change.
+   * @return the count
+   */
+  @SqlUpdate("update TENANT_DATA set C_DATA = null, EXPIRY = :expiry, TIMESTAMP = :timestamp where ID = :id")
+  int tombstone(@Bind("id") String id, @Bind("expiry") long expiry, @Bind("timestamp") long timestamp);
+
   /**
    * Delete expired int.
    *
@@ -129,4 +152,14 @@ public interface V1RowDao extends Transactional<V1RowDao> {
    */
   @SqlUpdate("delete from TENANT_DATA where EXPIRY is not null and EXPIRY <= :now")
   int deleteExpired(@Bind("now") long now);
+
+  /**
+   * Number of rows, tombstones included, as HSQLDB keeps it for the table. Cheap, since nothing is scanned, so fine
+   * to ask for often.
+   *
+   * @return the estimate.
+   */
+  @SqlQuery("select coalesce(max(CARDINALITY), 0) from INFORMATION_SCHEMA.SYSTEM_TABLESTATS "
+      + "where TABLE_SCHEMA = 'PUBLIC' and TABLE_NAME = 'TENANT_DATA'")
+  long rowEstimate();
 }
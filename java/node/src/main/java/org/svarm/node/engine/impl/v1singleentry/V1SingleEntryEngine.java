@@ -17,18 +17,25 @@
 package org.svarm.node.engine.impl.v1singleentry;
 
 import com.codeheadsystems.metrics.Metrics;
+import com.google.common.util.concurrent.Striped;
 import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.svarm.node.api.EntryInfo;
+import org.svarm.node.api.ImmutableEntryInfo;
+import org.svarm.node.api.RepairEntry;
+import org.svarm.node.engine.MerkleTreeEngine;
 import org.svarm.node.engine.TableDefinitionEngine;
 import org.svarm.node.manager.TenantTableJdbiManager;
 import org.svarm.node.model.DataStoreActions;
@@ -37,7 +44,9 @@ import org.svarm.node.model.TenantTable;
 import org.svarm.node.model.TombstoneConfiguration;
 
 /**
- * First implementation of reading/writing the data for an entry.
+ * First implementation of reading/writing the data for an entry. Changes are ordered by their timestamp, so a change
+ * older than what we already have, tombstones included, is ignored. The read, the check and the change are done in
+ * one transaction while holding the lock for the entry, so two changes to the same entry cannot both pass the check.
  */
 @Singleton
 public class V1SingleEntryEngine implements TableDefinitionEngine {
@@ -46,7 +55,9 @@ public class V1SingleEntryEngine implements TableDefinitionEngine {
   private final Metrics metrics;
   private final TenantTableJdbiManager dataSourceManager;
   private final V1RowConverter converter;
+  private final MerkleTreeEngine merkleTreeEngine;
   private final Duration expiryDuration;
+  private final Striped<Lock> locks = Striped.lock(1024);
 
   /**
    * Default constructor.
@@ -54,16 +65,19 @@ public class V1SingleEntryEngine implements TableDefinitionEngine {
    * @param metrics                for analytics.
    * @param dataSourceManager      for retrieving data sources of tenant dbs
    * @param converter              for conversion.
+   * @param merkleTreeEngine       to order repairs with the same timestamp.
    * @param tombstoneConfiguration the node configuration
    */
   @Inject
   public V1SingleEntryEngine(final Metrics metrics,
                              final TenantTableJdbiManager dataSourceManager,
                              final V1RowConverter converter,
+                             final MerkleTreeEngine merkleTreeEngine,
                              final TombstoneConfiguration tombstoneConfiguration) {
     this.dataSourceManager = dataSourceManager;
     this.metrics = metrics;
     this.converter = converter;
+    this.merkleTreeEngine = merkleTreeEngine;
     this.expiryDuration = tombstoneConfiguration.expiryDuration();
     LOGGER.info("V1SingleEntryEngine({},{},{})", metrics, dataSourceManager, converter);
   }
@@ -80,7 +94,7 @@ public class V1SingleEntryEngine implements TableDefinitionEngine {
     LOGGER.trace("read({},{})", tenantTable, entity);
     final List<V1Row> rows = dataSourceManager.getV1RowDao(tenantTable)
         .readEntry(entity);
-    if (rows.isEmpty()) {
+    if (rows.stream().noneMatch(row -> row.cData().isPresent())) { // missing, or only tombstones.
       return Optional.empty();
     } else {
       return Optional.of(converter.toEntryInfo(rows));
@@ -88,7 +102,8 @@ public class V1SingleEntryEngine implements TableDefinitionEngine {
   }
 
   /**
-   * Writes the entity to the table.
+   * Writes the entity to the table. Writes older than what we already have are ignored, so late writes (like hints
+   * being replayed) cannot undo newer ones.
    *
    * @param tenantTable table to write to.
    * @param entryInfo   the data.
@@ -96,25 +111,50 @@ public class V1SingleEntryEngine implements TableDefinitionEngine {
   @Override
   public void write(final TenantTable tenantTable, final EntryInfo entryInfo) {
     LOGGER.trace("write({},{})", tenantTable, entryInfo);
+    final V1RowDao dao = dataSourceManager.getV1RowDao(tenantTable);
     final Map<String, V1Row> v1Rows = converter.toV1Rows(entryInfo).stream()
         .collect(Collectors.toMap(V1Row::cCol, Function.identity()));
-    final List<String> existingKeys = keys(tenantTable, entryInfo.id());
-    final DataStoreActions<V1Row, String> actions = generate(v1Rows, existingKeys);
-    final V1RowDao dao = dataSourceManager.getV1RowDao(tenantTable);
-    dao.useTransaction(handle -> {
-      if (!actions.insert().isEmpty()) {
-        dao.batchInsert(actions.insert());
-      }
-      if (!actions.update().isEmpty()) {
-        dao.batchUpdate(actions.update());
+    locked(entryInfo.id(), () -> dao.inTransaction(transaction -> {
+      final List<V1Row> existing = transaction.readEntry(entryInfo.id());
+      if (newest(existing) > entryInfo.timestamp()) {
+        LOGGER.debug("Ignoring write older than the current entry: {}", entryInfo.id());
+        return false;
       }
-      if (!actions.delete().isEmpty()) {
-        final long expiry = System.currentTimeMillis() + expiryDuration.toMillis();
-        final long timestamp = System.currentTimeMillis();
-        dao.batchSoftDelete(entryInfo.id(), expiry, timestamp, actions.delete());
-        handle.commit();
-      }
-    });
+      write(transaction, entryInfo, v1Rows, existing);
+      return true;
+    }));
+  }
+
+  private void write(final V1RowDao transaction,
+                     final EntryInfo entryInfo,
+                     final Map<String, V1Row> v1Rows,
+                     final List<V1Row> existing) {
+    final List<String> existingKeys = existing.stream().map(V1Row::cCol).toList();
+    final DataStoreActions<V1Row, String> actions = generate(v1Rows, existingKeys);
+    if (!actions.insert().isEmpty()) {
+      transaction.batchInsert(actions.insert());
+    }
+    if (!actions.update().isEmpty()) {
+      transaction.batchUpdate(actions.update());
+    }
+    if (!actions.delete().isEmpty()) {
+      final long expiry = System.currentTimeMillis() + expiryDuration.toMillis();
+      transaction.batchSoftDelete(entryInfo.id(), expiry, entryInfo.timestamp(), actions.delete());
+    }
+  }
+
+  private long newest(final List<V1Row> rows) {
+    return rows.stream().mapToLong(V1Row::timestamp).max().orElse(Long.MIN_VALUE);
+  }
+
+  private <T> T locked(final String id, final Supplier<T> supplier) {
+    final Lock lock = locks.get(id);
+    lock.lock();
+    try {
+      return supplier.get();
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
@@ -151,23 +191,72 @@ public class V1SingleEntryEngine implements TableDefinitionEngine {
   }
 
   /**
-   * Delete the entity from the table, returning the JsonNode.
+   * Delete the entity from the table, returning the JsonNode. The columns are left as tombstones stamped with the
+   * timestamp of the delete until they expire, so the delete can be repaired onto replicas that missed it. A delete
+   * older than the entry we have is ignored.
    *
    * @param tenantTable table to delete from.
    * @param entity      the entity id.
+   * @param timestamp   of the delete.
    * @return boolean if anything was deleted.
    */
   @Override
-  public boolean delete(final TenantTable tenantTable, final String entity) {
-    LOGGER.trace("delete({},{})", tenantTable, entity);
+  public boolean delete(final TenantTable tenantTable, final String entity, final long timestamp) {
+    LOGGER.trace("delete({},{},{})", tenantTable, entity, timestamp);
 
-    final int updateCount = dataSourceManager.getV1RowDao(tenantTable).delete(entity);
-    final boolean result = updateCount > 0;
+    final long expiry = System.currentTimeMillis() + expiryDuration.toMillis();
+    final V1RowDao dao = dataSourceManager.getV1RowDao(tenantTable);
+    final boolean result = locked(entity, () -> dao.inTransaction(transaction -> {
+      if (newest(transaction.readEntry(entity)) > timestamp) {
+        LOGGER.debug("Ignoring delete older than the current entry: {}", entity);
+        return false;
+      }
+      return transaction.softDelete(entity, expiry, timestamp) > 0;
+    }));
 
     LOGGER.trace("deleted: {}:{}:{}", tenantTable, entity, result);
     return result;
   }
 
+  @Override
+  public List<RepairEntry> repairEntries(final TenantTable tenantTable, final int lowHash, final int highHash) {
+    LOGGER.trace("repairEntries({},{},{})", tenantTable, lowHash, highHash);
+    final Map<String, List<V1Row>> rowsById = dataSourceManager.getV1RowDao(tenantTable).read(lowHash, highHash)
+        .stream()
+        .collect(Collectors.groupingBy(V1Row::id, LinkedHashMap::new, Collectors.toList()));
+    return rowsById.values().stream().map(converter::toRepairEntry).toList();
+  }
+
+  @Override
+  public boolean repair(final TenantTable tenantTable, final RepairEntry entry) {
+    LOGGER.trace("repair({},{})", tenantTable, entry.id());
+    final V1RowDao dao = dataSourceManager.getV1RowDao(tenantTable);
+    final Optional<EntryInfo> entryInfo = entry.data().map(data -> ImmutableEntryInfo.builder()
+        .id(entry.id())
+        .locationHash(entry.locationHash())
+        .timestamp(entry.timestamp())
+        .data(data)
+        .build());
+    final Map<String, V1Row> v1Rows = entryInfo.map(converter::toV1Rows).orElse(List.of()).stream()
+        .collect(Collectors.toMap(V1Row::cCol, Function.identity()));
+    final long expiry = System.currentTimeMillis() + expiryDuration.toMillis();
+    return locked(entry.id(), () -> dao.inTransaction(transaction -> {
+      final List<V1Row> existing = transaction.readEntry(entry.id());
+      if (!existing.isEmpty() && !merkleTreeEngine.supersedes(entry, converter.toRepairEntry(existing))) {
+        return false;
+      }
+      if (entryInfo.isPresent()) {
+        write(transaction, entryInfo.get(), v1Rows, existing);
+        return true;
+      }
+      if (existing.isEmpty()) { // keep the delete, so our tree matches theirs.
+        transaction.insert(converter.toTombstone(entry.id(), entry.locationHash(), entry.timestamp(), expiry));
+        return true;
+      }
+      return transaction.tombstone(entry.id(), expiry, entry.timestamp()) > 0;
+    }));
+  }
+
   @Override
   public int clearTombstones(final TenantTable tenantTable) {
     LOGGER.trace("clearTombstones()");
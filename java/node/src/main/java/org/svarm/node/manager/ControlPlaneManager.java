@@ -17,6 +17,7 @@
 package org.svarm.node.manager;
 
 import io.dropwizard.lifecycle.Managed;
+import org.svarm.control.common.api.NodeHeartbeat;
 import org.svarm.node.model.TenantTableIdentifier;
 
 /**
@@ -32,19 +33,24 @@ public interface ControlPlaneManager extends Managed {
   boolean verifyRegistration();
 
   /**
-   * Returns the key base64 encoded for this node.
+   * Returns the key for this node. The array is the caller's, clean it when done.
    *
    * @return the key.
    */
-  String keyForNode();
+  byte[] keyForNode();
 
   /**
-   * Returns the key base64 encoded for this tenant.
+   * Returns the key for this tenant. The array is the caller's, clean it when done.
    *
    * @param tenantId to use.
    * @return the key.
    */
-  String keyForTenant(String tenantId);
+  byte[] keyForTenant(String tenantId);
+
+  /**
+   * Forgets the keys and registration state we remember, for when the control plane no longer knows us as enabled.
+   */
+  void invalidate();
 
   /**
    * Enables the table in the control plane.
@@ -60,4 +66,11 @@ public interface ControlPlaneManager extends Managed {
    */
   void delete(TenantTableIdentifier identifier);
 
+  /**
+   * Tells the control plane how loaded we are.
+   *
+   * @param heartbeat the load.
+   */
+  void heartbeat(NodeHeartbeat heartbeat);
+
 }
@@ -20,25 +20,42 @@ import static org.slf4j.LoggerFactory.getLogger;
 import static org.svarm.common.config.api.MetaData.ACTION_DELETE;
 import static org.svarm.common.config.api.MetaData.ACTION_REBALANCE;
 
+import com.codeheadsystems.metrics.Metrics;
 import com.google.common.annotations.VisibleForTesting;
 import io.dropwizard.lifecycle.Managed;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
+import org.svarm.common.config.accessor.Revisioned;
 import org.svarm.common.config.api.NodeTenantResourceRange;
 import org.svarm.common.config.api.TenantResource;
 import org.svarm.common.config.converter.NodeTenantResourceRangeConverter;
 import org.svarm.common.config.engine.Event;
+import org.svarm.common.config.engine.NodeConfigurationEngine;
 import org.svarm.common.config.engine.WatchEngine;
 import org.svarm.common.config.factory.WatchEngineFactory;
 import org.svarm.datastore.common.TableDefinition;
+import org.svarm.node.NodeConfiguration;
 import org.svarm.node.model.ImmutableTenantTableIdentifier;
 import org.svarm.node.model.NodeInternalConfiguration;
 import org.svarm.node.model.TenantTable;
 import org.svarm.node.model.TenantTableIdentifier;
+import org.svarm.server.engine.ExecutorEngine;
 
 /**
- * This class manages the control plane watcher. Which is how we get directions of what to do.
+ * This class manages the control plane watcher. Which is how we get directions of what to do. At start we read
+ * what is assigned to us and catch up on what changed while we were away, then watch from the revision we read at,
+ * so no change is missed or applied twice. If what is assigned to us cannot be read, or a change cannot be applied,
+ * after a few tries the start fails, since the watch would never send those changes to us again.
  */
 @Singleton
 public class ControlPlaneWatcherManager implements Managed {
@@ -50,6 +67,11 @@ public class ControlPlaneWatcherManager implements Managed {
   private final TenantTableManager tenantTableManager;
   private final NodeTenantResourceRangeConverter nodeTenantResourceRangeConverter;
   private final ControlPlaneManager controlPlaneManager;
+  private final NodeConfigurationEngine nodeConfigurationEngine;
+  private final Metrics metrics;
+  private final ExecutorEngine executorEngine;
+  private final int reconcileThreads;
+  private final int reconcileAttempts;
   private volatile WatchEngine engine;
 
   /**
@@ -60,18 +82,31 @@ public class ControlPlaneWatcherManager implements Managed {
    * @param tenantTableManager               to create tenant tables.
    * @param nodeTenantResourceRangeConverter to convert into tenant tables.
    * @param controlPlaneManager              for enablement.
+   * @param nodeConfigurationEngine          to read what is assigned to us.
+   * @param nodeConfiguration                for how many tables to create at once.
+   * @param executorEngine                   to create the tables with.
+   * @param metrics                          for metrics.
    */
   @Inject
   public ControlPlaneWatcherManager(final NodeInternalConfiguration configuration,
                                     final WatchEngineFactory factory,
                                     final TenantTableManager tenantTableManager,
                                     final NodeTenantResourceRangeConverter nodeTenantResourceRangeConverter,
-                                    final ControlPlaneManager controlPlaneManager) {
+                                    final ControlPlaneManager controlPlaneManager,
+                                    final NodeConfigurationEngine nodeConfigurationEngine,
+                                    final NodeConfiguration nodeConfiguration,
+                                    final ExecutorEngine executorEngine,
+                                    final Metrics metrics) {
     this.tenantTableManager = tenantTableManager;
     this.watchEngineFactory = factory;
     this.uuid = configuration.uuid();
     this.nodeTenantResourceRangeConverter = nodeTenantResourceRangeConverter;
     this.controlPlaneManager = controlPlaneManager;
+    this.nodeConfigurationEngine = nodeConfigurationEngine;
+    this.executorEngine = executorEngine;
+    this.reconcileThreads = Math.max(1, nodeConfiguration.getReconcileThreads());
+    this.reconcileAttempts = Math.max(1, nodeConfiguration.getReconcileAttempts());
+    this.metrics = metrics;
     LOGGER.info("ControlPlaneWatcherManager({},{})", factory, tenantTableManager);
   }
 
@@ -95,21 +130,95 @@ public class ControlPlaneWatcherManager implements Managed {
   private void handlePutEvent(final String key, final String value) {
     LOGGER.trace("handlePutEvent({},{})", key, value);
     final NodeTenantResourceRange range = nodeTenantResourceRangeConverter.fromKeyValue(key, value);
-    range.metaData().action().ifPresentOrElse(action -> {
-      switch (action) {
-        case (ACTION_DELETE) -> handleDelete(range);
-        case (ACTION_REBALANCE) -> LOGGER.warn("REBALACING not implemented."); // TODO: Implement.
-        default -> LOGGER.warn("Not configured to handle other actions: {} : {}", action, range);
-        // TODO: Metric failure pls.
+    range.metaData().action().ifPresentOrElse(action -> handleAction(range, action), () -> handleNewTable(range));
+  }
+
+  private void handleAction(final NodeTenantResourceRange range, final String action) {
+    switch (action) {
+      case (ACTION_DELETE) -> handleDelete(range);
+      case (ACTION_REBALANCE) -> LOGGER.warn("REBALACING not implemented."); // TODO: Implement.
+      default -> LOGGER.warn("Not configured to handle other actions: {} : {}", action, range);
+      // TODO: Metric failure pls.
+    }
+  }
+
+  /**
+   * Applies what is assigned to us that we have not done yet. Tables we already have are not created again, but
+   * are enabled again, since we may have stopped after creating one and before telling the control plane; enabling
+   * is idempotent and cheap next to creating a table. Pending actions are always applied, since the control plane
+   * is still waiting to hear back on them. Tables we have that are no longer assigned are left alone. Changes that
+   * fail are tried again, up to the configured attempts.
+   *
+   * @param ranges assigned to us.
+   * @throws InterruptedException  if interrupted while waiting on the changes.
+   * @throws IllegalStateException if some changes still failed on the last attempt.
+   */
+  @VisibleForTesting
+  void reconcile(final List<NodeTenantResourceRange> ranges) throws InterruptedException {
+    LOGGER.trace("reconcile({})", ranges.size());
+    final Map<String, Set<String>> tablesByTenant = new HashMap<>();
+    final List<Runnable> changes = new ArrayList<>();
+    for (NodeTenantResourceRange range : ranges) {
+      final Optional<String> action = range.metaData().action();
+      if (action.isPresent()) {
+        changes.add(() -> handleAction(range, action.get()));
+        continue;
+      }
+      final TenantResource tenantResource = range.nodeTenantResource().tenantResource();
+      final Set<String> tables = tablesByTenant.computeIfAbsent(tenantResource.tenant(),
+          tenant -> Set.copyOf(tenantTableManager.tables(tenant)));
+      if (tables.contains(tenantResource.resource())) {
+        changes.add(() -> controlPlaneManager.enable(identifier(tenantResource)));
+      } else {
+        changes.add(() -> handleNewTable(range));
+      }
+    }
+    LOGGER.info("reconcile(): {} assigned, {} to apply", ranges.size(), changes.size());
+    if (changes.isEmpty()) {
+      return;
+    }
+    final ExecutorService executorService =
+        executorEngine.pool("reconcile", Math.min(reconcileThreads, changes.size()));
+    try {
+      List<Runnable> remaining = changes;
+      for (int attempt = 1; attempt <= reconcileAttempts && !remaining.isEmpty(); attempt++) {
+        remaining = apply(executorService, remaining, attempt);
+      }
+      if (!remaining.isEmpty()) {
+        throw new IllegalStateException(
+            String.format("Unable to apply %d of %d changes assigned to us", remaining.size(), changes.size()));
       }
-    }, () -> handleNewTable(range));
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private List<Runnable> apply(final ExecutorService executorService,
+                               final List<Runnable> changes,
+                               final int attempt) throws InterruptedException {
+    final List<Future<?>> futures = changes.stream().<Future<?>>map(executorService::submit).toList();
+    final List<Runnable> failed = new ArrayList<>();
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        futures.get(i).get();
+        metrics.increment("ControlPlaneWatcherManager.reconcile.change");
+      } catch (ExecutionException e) {
+        LOGGER.error("reconcile(): unable to apply a change on attempt {}", attempt, e.getCause());
+        metrics.increment("ControlPlaneWatcherManager.reconcile.failure");
+        failed.add(changes.get(i));
+      }
+    }
+    return failed;
+  }
+
+  private TenantTableIdentifier identifier(final TenantResource tenantResource) {
+    return ImmutableTenantTableIdentifier.builder()
+        .tenantId(tenantResource.tenant()).tableName(tenantResource.resource()).build();
   }
 
   private void handleDelete(final NodeTenantResourceRange range) {
     LOGGER.info("handleDelete({})", range);
-    final TenantResource tenantResource = range.nodeTenantResource().tenantResource();
-    final TenantTableIdentifier identifier = ImmutableTenantTableIdentifier.builder()
-        .tenantId(tenantResource.tenant()).tableName(tenantResource.resource()).build();
+    final TenantTableIdentifier identifier = identifier(range.nodeTenantResource().tenantResource());
     if (tenantTableManager.delete(identifier)) {
       LOGGER.info("Deleted: {}", identifier);
     } else {
@@ -120,21 +229,40 @@ public class ControlPlaneWatcherManager implements Managed {
 
   private void handleNewTable(final NodeTenantResourceRange range) {
     LOGGER.info("handleNewTable({})", range);
-    final TenantResource tenantResource = range.nodeTenantResource().tenantResource();
-    final TenantTableIdentifier identifier = ImmutableTenantTableIdentifier.builder()
-        .tenantId(tenantResource.tenant()).tableName(tenantResource.resource()).build();
+    final TenantTableIdentifier identifier = identifier(range.nodeTenantResource().tenantResource());
     // TODO: Get this table definition from the request!
     final TenantTable tenantTable = tenantTableManager.create(identifier, TableDefinition.V1SingleEntryEngine);
     controlPlaneManager.enable(identifier);
     LOGGER.info("handleNewTable({}) : {}", range, tenantTable);
   }
 
+  /**
+   * Reads what is assigned to us, and the revision we read it at, trying up to the configured attempts.
+   *
+   * @return what is assigned to us.
+   * @throws IllegalStateException if it could not be read on the last attempt.
+   */
+  private Revisioned<List<NodeTenantResourceRange>> readAssigned() {
+    RuntimeException failure = null;
+    for (int attempt = 1; attempt <= reconcileAttempts; attempt++) {
+      try {
+        return nodeConfigurationEngine.readNodeResourcesRevisioned(uuid);
+      } catch (RuntimeException e) {
+        LOGGER.error("start(): unable to read what is assigned to us on attempt {}", attempt, e);
+        metrics.increment("ControlPlaneWatcherManager.reconcile.unavailable");
+        failure = e;
+      }
+    }
+    throw new IllegalStateException("Unable to read what is assigned to us", failure);
+  }
+
   @Override
   public void start() throws Exception {
     if (engine == null) {
       LOGGER.info("start()");
-      engine = watchEngineFactory.watchEngine("node", uuid, this::handle);
-      // TODO: after we start watching, read what we have and handle those entries one by one.
+      final Revisioned<List<NodeTenantResourceRange>> assigned = readAssigned();
+      reconcile(assigned.value());
+      engine = watchEngineFactory.watchEngine("node", uuid, assigned.revision() + 1, this::handle);
     } else {
       LOGGER.warn("start(): already have an engine");
     }
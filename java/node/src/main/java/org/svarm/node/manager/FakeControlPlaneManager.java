@@ -23,6 +23,7 @@ import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.svarm.common.crypt.CryptUtils;
+import org.svarm.control.common.api.NodeHeartbeat;
 import org.svarm.node.model.NodeInternalConfiguration;
 import org.svarm.node.model.TenantTableIdentifier;
 
@@ -34,7 +35,7 @@ import org.svarm.node.model.TenantTableIdentifier;
 public class FakeControlPlaneManager implements ControlPlaneManager {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(FakeControlPlaneManager.class);
-  private final String key;
+  private final byte[] key;
 
   /**
    * Default constructor.
@@ -51,8 +52,8 @@ public class FakeControlPlaneManager implements ControlPlaneManager {
     final long most = uuid.getMostSignificantBits();
     final byte[] array = new byte[32];
     ByteBuffer.wrap(array).putLong(least).putLong(most).putLong(least).putLong(most);
-    key = cryptUtils.toBase64(array);
-    LOGGER.warn("FAKE KEY: {}", key);
+    key = array;
+    LOGGER.warn("FAKE KEY: {}", cryptUtils.toBase64(key));
   }
 
   @Override
@@ -66,8 +67,8 @@ public class FakeControlPlaneManager implements ControlPlaneManager {
    * @return key based on node uuid.
    */
   @Override
-  public String keyForNode() {
-    return key;
+  public byte[] keyForNode() {
+    return key.clone();
   }
 
   /**
@@ -77,8 +78,13 @@ public class FakeControlPlaneManager implements ControlPlaneManager {
    * @return key based on node uuid.
    */
   @Override
-  public String keyForTenant(final String tenantId) {
-    return key;
+  public byte[] keyForTenant(final String tenantId) {
+    return key.clone();
+  }
+
+  @Override
+  public void invalidate() {
+    // Nothing to do.
   }
 
   @Override
@@ -90,4 +96,9 @@ public class FakeControlPlaneManager implements ControlPlaneManager {
   public void delete(final TenantTableIdentifier identifier) {
     // Nothing to do.
   }
+
+  @Override
+  public void heartbeat(final NodeHeartbeat heartbeat) {
+    // Nothing to do.
+  }
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.manager;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.codeheadsystems.metrics.Metrics;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.common.crypt.CryptUtils;
+import org.svarm.node.NodeConfiguration;
+
+/**
+ * Holds the key material we get from the control plane for a while, so opening tenant databases does not cost a
+ * control plane call each time. Keys are kept as byte arrays and zeroed as soon as they expire or are invalidated.
+ * Callers get their own copy, which they should clean when done. Loads happen outside of the map's locks, so a slow
+ * control plane only holds up callers waiting on the same key.
+ */
+@Singleton
+public class KeyCache {
+
+  private static final Logger LOGGER = getLogger(KeyCache.class);
+
+  private final CryptUtils cryptUtils;
+  private final Clock clock;
+  private final Metrics metrics;
+  private final Duration ttl;
+  private final Map<String, Entry> entries;
+  private volatile Instant nextSweep;
+
+  /**
+   * Constructor.
+   *
+   * @param nodeConfiguration for the ttl.
+   * @param cryptUtils        to decode and clean keys.
+   * @param clock             for the ttl.
+   * @param metrics           metrics.
+   */
+  @Inject
+  public KeyCache(final NodeConfiguration nodeConfiguration,
+                  final CryptUtils cryptUtils,
+                  final Clock clock,
+                  final Metrics metrics) {
+    this.cryptUtils = cryptUtils;
+    this.clock = clock;
+    this.metrics = metrics;
+    this.ttl = Duration.ofSeconds(nodeConfiguration.getKeyCacheSeconds());
+    this.entries = new ConcurrentHashMap<>();
+    this.nextSweep = Instant.MIN;
+    LOGGER.info("KeyCache({})", ttl);
+  }
+
+  /**
+   * Gets a copy of the key, loading it if we do not have it or it expired. Concurrent callers for the same key
+   * share one load.
+   *
+   * @param reference what the key is for.
+   * @param loader    gets the base64 encoded key from the control plane.
+   * @return a copy of the key.
+   */
+  public byte[] get(final String reference, final Supplier<String> loader) {
+    final Instant now = clock.instant();
+    sweep(now);
+    while (true) {
+      final Entry[] created = new Entry[1];
+      final Entry entry = entries.compute(reference, (ref, existing) -> {
+        if (existing != null && (!existing.key().isDone() || now.isBefore(existing.expires()))) {
+          return existing; // loaded, or being loaded.
+        }
+        if (existing != null) {
+          clean(existing);
+        }
+        created[0] = new Entry(new CompletableFuture<>(), now.plus(ttl));
+        return created[0];
+      });
+      if (entry == created[0]) {
+        metrics.increment("KeyCache.miss");
+        load(reference, entry, loader);
+      } else {
+        metrics.increment("KeyCache.hit");
+      }
+      await(entry);
+      final byte[][] copy = new byte[1][];
+      entries.computeIfPresent(reference, (ref, current) -> {
+        if (current == entry) {
+          copy[0] = entry.key().join().clone(); // copied under the lock, so it cannot be cleaned out from under us.
+        }
+        return current;
+      });
+      if (copy[0] != null) {
+        return copy[0];
+      }
+      // invalidated while we waited, get it again.
+    }
+  }
+
+  private void load(final String reference, final Entry entry, final Supplier<String> loader) {
+    try {
+      entry.key().complete(cryptUtils.fromBase64(loader.get()));
+    } catch (RuntimeException e) {
+      entries.remove(reference, entry);
+      entry.key().completeExceptionally(e);
+    }
+  }
+
+  private void await(final Entry entry) {
+    try {
+      entry.key().join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Zeroes and drops every key.
+   */
+  public void invalidateAll() {
+    LOGGER.info("invalidateAll()");
+    List.copyOf(entries.keySet()).forEach(reference -> entries.computeIfPresent(reference, (ref, entry) -> {
+      clean(entry);
+      return null;
+    }));
+  }
+
+  private void sweep(final Instant now) {
+    if (now.isBefore(nextSweep)) {
+      return;
+    }
+    nextSweep = now.plus(ttl);
+    List.copyOf(entries.keySet()).forEach(reference -> entries.computeIfPresent(reference, (ref, entry) -> {
+      if (!entry.key().isDone() || now.isBefore(entry.expires())) {
+        return entry;
+      }
+      clean(entry);
+      return null;
+    }));
+  }
+
+  /**
+   * Zeroes the key once it is loaded. Only called once the entry is out of the map.
+   *
+   * @param entry to clean.
+   */
+  private void clean(final Entry entry) {
+    entry.key().thenAccept(cryptUtils::clean);
+  }
+
+  private record Entry(CompletableFuture<byte[]> key, Instant expires) {
+  }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.manager;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.codeheadsystems.metrics.Metrics;
+import io.dropwizard.lifecycle.Managed;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.jdbi.v3.core.Jdbi;
+import org.slf4j.Logger;
+import org.svarm.common.util.ShutdownUtility;
+import org.svarm.control.common.api.ImmutableNodeHeartbeat;
+import org.svarm.control.common.api.ImmutableResourceLoad;
+import org.svarm.control.common.api.NodeHeartbeat;
+import org.svarm.control.common.api.ResourceLoad;
+import org.svarm.node.NodeConfiguration;
+import org.svarm.node.engine.impl.v1singleentry.V1RowDao;
+import org.svarm.node.model.TenantTable;
+import org.svarm.node.resource.TenantTableEntryResource;
+import org.svarm.server.engine.ExecutorEngine;
+
+/**
+ * Sends the control plane a heartbeat with our load every so often. QPS and p99 come from the timers already on the
+ * resources, row estimates only from the tenant databases we have open, so a heartbeat never opens a database or
+ * scans a table.
+ */
+@Singleton
+public class NodeHeartbeatManager implements Managed {
+
+  private static final Logger LOGGER = getLogger(NodeHeartbeatManager.class);
+  private static final String RESOURCE_PREFIX = TenantTableEntryResource.class.getPackageName() + ".";
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  private final NodeConfiguration nodeConfiguration;
+  private final ControlPlaneManager controlPlaneManager;
+  private final TenantTableJdbiManager tenantTableJdbiManager;
+  private final MetricRegistry metricRegistry;
+  private final Metrics metrics;
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * Constructor.
+   *
+   * @param nodeConfiguration      for the interval and the database directory.
+   * @param controlPlaneManager    to send the heartbeat to.
+   * @param tenantTableJdbiManager for the open databases.
+   * @param metricRegistry         for the request timers.
+   * @param metrics                metrics.
+   * @param executorEngine         for the scheduler.
+   */
+  @Inject
+  public NodeHeartbeatManager(final NodeConfiguration nodeConfiguration,
+                              final ControlPlaneManager controlPlaneManager,
+                              final TenantTableJdbiManager tenantTableJdbiManager,
+                              final MetricRegistry metricRegistry,
+                              final Metrics metrics,
+                              final ExecutorEngine executorEngine) {
+    this.nodeConfiguration = nodeConfiguration;
+    this.controlPlaneManager = controlPlaneManager;
+    this.tenantTableJdbiManager = tenantTableJdbiManager;
+    this.metricRegistry = metricRegistry;
+    this.metrics = metrics;
+    this.scheduler = executorEngine.scheduler("heartbeat");
+    LOGGER.info("NodeHeartbeatManager({},{},{})", controlPlaneManager, tenantTableJdbiManager, metrics);
+  }
+
+  @Override
+  public void start() throws Exception {
+    LOGGER.info("start()");
+    final int seconds = nodeConfiguration.getHeartbeatSeconds();
+    scheduler.scheduleWithFixedDelay(this::send, seconds, seconds, TimeUnit.SECONDS);
+  }
+
+  @Override
+  public void stop() throws Exception {
+    LOGGER.info("stop()");
+    ShutdownUtility.shutdown(LOGGER, "Heartbeat scheduler", scheduler);
+  }
+
+  /**
+   * Our load right now.
+   *
+   * @return the heartbeat.
+   */
+  public NodeHeartbeat heartbeat() {
+    final Map<TenantTable, Jdbi> open = tenantTableJdbiManager.allValues();
+    final Collection<Timer> timers = metricRegistry.getTimers((name, metric) -> name.startsWith(RESOURCE_PREFIX))
+        .values();
+    return ImmutableNodeHeartbeat.builder()
+        .bytesOnDisk(bytesOnDisk())
+        .qps(timers.stream().mapToDouble(Timer::getOneMinuteRate).sum())
+        .p99Millis(timers.stream().mapToDouble(timer -> timer.getSnapshot().get99thPercentile()).max().orElse(0)
+            / NANOS_PER_MILLI)
+        .openDatabases(open.size())
+        .resources(resources(open))
+        .build();
+  }
+
+  private void send() {
+    try {
+      controlPlaneManager.heartbeat(heartbeat());
+      metrics.increment("NodeHeartbeatManager.sent");
+    } catch (RuntimeException e) { // the scheduler stops for good if we throw.
+      LOGGER.warn("Unable to send heartbeat: {}", e.getMessage());
+      metrics.increment("NodeHeartbeatManager.failure");
+    }
+  }
+
+  private List<ResourceLoad> resources(final Map<TenantTable, Jdbi> open) {
+    final List<ResourceLoad> resources = new ArrayList<>();
+    open.forEach((table, jdbi) -> {
+      try {
+        resources.add(ImmutableResourceLoad.builder()
+            .tenant(table.identifier().tenantId())
+            .resource(table.identifier().tableName())
+            .rowEstimate(jdbi.withExtension(V1RowDao.class, V1RowDao::rowEstimate))
+            .build());
+      } catch (RuntimeException e) {
+        LOGGER.debug("Unable to estimate rows for {}", table.identifier(), e); // closed while we looked.
+      }
+    });
+    return resources;
+  }
+
+  private long bytesOnDisk() {
+    if (nodeConfiguration.isRunDatabaseInMemory() || nodeConfiguration.getDatabaseDirectory() == null) {
+      return 0;
+    }
+    final Path directory = Path.of(nodeConfiguration.getDatabaseDirectory());
+    if (!Files.isDirectory(directory)) {
+      return 0;
+    }
+    try (Stream<Path> files = Files.walk(directory)) {
+      return files.filter(Files::isRegularFile).mapToLong(this::size).sum();
+    } catch (IOException | UncheckedIOException e) {
+      LOGGER.warn("Unable to size {}", directory, e);
+      return 0;
+    }
+  }
+
+  private long size(final Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      return 0; // removed while we looked.
+    }
+  }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.manager;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import io.dropwizard.lifecycle.Managed;
+import java.time.Clock;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.common.config.engine.NodeLivenessEngine;
+import org.svarm.node.model.NodeInternalConfiguration;
+
+/**
+ * Publishes that this node is alive while it runs, so the proxies and control stop sending us work as soon as we
+ * are gone. The value published is when we started.
+ */
+@Singleton
+public class NodeLivenessManager implements Managed {
+
+  private static final Logger LOGGER = getLogger(NodeLivenessManager.class);
+
+  private final NodeLivenessEngine nodeLivenessEngine;
+  private final Clock clock;
+  private final String uuid;
+
+  /**
+   * Constructor.
+   *
+   * @param configuration      to get the uuid.
+   * @param nodeLivenessEngine to publish with.
+   * @param clock              for the start time.
+   */
+  @Inject
+  public NodeLivenessManager(final NodeInternalConfiguration configuration,
+                             final NodeLivenessEngine nodeLivenessEngine,
+                             final Clock clock) {
+    this.nodeLivenessEngine = nodeLivenessEngine;
+    this.clock = clock;
+    this.uuid = configuration.uuid();
+    LOGGER.info("NodeLivenessManager({})", uuid);
+  }
+
+  @Override
+  public void start() throws Exception {
+    LOGGER.info("start()");
+    nodeLivenessEngine.publish(uuid, clock.instant().toString());
+  }
+
+  @Override
+  public void stop() throws Exception {
+    LOGGER.info("stop()");
+    nodeLivenessEngine.revoke();
+  }
+}
@@ -19,12 +19,18 @@ package org.svarm.node.manager;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import com.codeheadsystems.metrics.Metrics;
+import feign.FeignException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.function.Supplier;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
+import org.svarm.control.common.api.NodeHeartbeat;
 import org.svarm.control.common.api.NodeInfo;
 import org.svarm.node.NodeConfiguration;
 import org.svarm.node.accessor.ControlAccessor;
@@ -32,12 +38,17 @@ import org.svarm.node.model.NodeInternalConfiguration;
 import org.svarm.node.model.TenantTableIdentifier;
 
 /**
- * Manager for the control plane.
+ * Manager for the control plane. Keys and that we are registered are remembered for a while, and forgotten as soon
+ * as the control plane says it does not know us as enabled: a key or heartbeat call answered with not found, or a
+ * status other than enabled when we verify our registration. Heartbeats go out every few seconds, so a disabled or
+ * banned node drops its keys long before they would expire.
  */
 @Singleton
 public class RealControlPlaneManager implements ControlPlaneManager {
 
   private static final Logger LOGGER = getLogger(RealControlPlaneManager.class);
+  private static final String NODE_KEY = "node";
+  private static final String TENANT_KEY = "tenant:%s";
 
   private final Metrics metrics;
   private final ControlAccessor controlAccessor;
@@ -45,6 +56,10 @@ public class RealControlPlaneManager implements ControlPlaneManager {
   private final String host;
   private final Integer port;
   private final String uri;
+  private final KeyCache keyCache;
+  private final Clock clock;
+  private final Duration registrationTtl;
+  private volatile Instant registeredUntil;
 
   /**
    * Constructor.
@@ -53,13 +68,21 @@ public class RealControlPlaneManager implements ControlPlaneManager {
    * @param controlAccessor       to access the control plane.
    * @param internalConfiguration for configuration.
    * @param nodeConfiguration     for configuration.
+   * @param keyCache              for the keys.
+   * @param clock                 for how long we remember we are registered.
    */
   @Inject
   public RealControlPlaneManager(final Metrics metrics,
                                  final ControlAccessor controlAccessor,
                                  final NodeInternalConfiguration internalConfiguration,
-                                 final NodeConfiguration nodeConfiguration) {
+                                 final NodeConfiguration nodeConfiguration,
+                                 final KeyCache keyCache,
+                                 final Clock clock) {
     this.metrics = metrics;
+    this.keyCache = keyCache;
+    this.clock = clock;
+    this.registrationTtl = Duration.ofSeconds(nodeConfiguration.getKeyCacheSeconds());
+    this.registeredUntil = Instant.MIN;
     this.controlAccessor = controlAccessor;
     this.nodeUuid = internalConfiguration.uuid();
     if (nodeConfiguration.getNodeHost() == null) {
@@ -96,6 +119,7 @@ public class RealControlPlaneManager implements ControlPlaneManager {
     } else { // not present, better register.
       controlAccessor.register(nodeUuid, uri);
     }
+    invalidate(); // whatever we cached was from when we were enabled.
     controlAccessor.enable(nodeUuid);
     final String newStatus = controlAccessor.status(nodeUuid)
         .orElseThrow(() -> new IllegalStateException("Unable to get status"));
@@ -103,21 +127,55 @@ public class RealControlPlaneManager implements ControlPlaneManager {
   }
 
   @Override
-  public String keyForNode() {
+  public byte[] keyForNode() {
     LOGGER.trace("keyForNode()");
     return metrics.time("RealControlPlaneManager.keyForNode", () -> {
-      if (!verifyRegistration()) {
-        throw new IllegalStateException("Unable to verify registration");
+      final Instant now = clock.instant();
+      if (!now.isBefore(registeredUntil)) {
+        if (!verifyRegistration()) {
+          throw new IllegalStateException("Unable to verify registration");
+        }
+        registeredUntil = now.plus(registrationTtl);
       }
-      return controlAccessor.keyForNode(nodeUuid);
+      return key(NODE_KEY, () -> controlAccessor.keyForNode(nodeUuid));
     });
   }
 
   @Override
-  public String keyForTenant(final String tenantId) {
+  public byte[] keyForTenant(final String tenantId) {
     LOGGER.trace("keyForTenant({})", tenantId);
     return metrics.time("RealControlPlaneManager.keyForTenant",
-        () -> controlAccessor.keyForResource(nodeUuid, tenantId));
+        () -> key(String.format(TENANT_KEY, tenantId), () -> controlAccessor.keyForResource(nodeUuid, tenantId)));
+  }
+
+  @Override
+  public void invalidate() {
+    LOGGER.info("invalidate()");
+    registeredUntil = Instant.MIN;
+    keyCache.invalidateAll();
+  }
+
+  /**
+   * Gets the key from the cache. The control plane answers not found for keys once we are disabled or banned, so
+   * we forget everything we have when it does.
+   *
+   * @param reference for the cache.
+   * @param loader    the control plane call.
+   * @return the key.
+   */
+  private byte[] key(final String reference, final Supplier<String> loader) {
+    try {
+      return keyCache.get(reference, loader);
+    } catch (FeignException.NotFound e) {
+      notEnabled();
+      throw e;
+    }
+  }
+
+  private void notEnabled() {
+    LOGGER.warn("Control plane does not know us as enabled, forgetting keys");
+    metrics.increment("RealControlPlaneManager.invalidated");
+    invalidate();
   }
 
   @Override
@@ -140,6 +198,17 @@ public class RealControlPlaneManager implements ControlPlaneManager {
         });
   }
 
+  @Override
+  public void heartbeat(final NodeHeartbeat heartbeat) {
+    LOGGER.trace("heartbeat({})", heartbeat);
+    try {
+      controlAccessor.heartbeat(nodeUuid, heartbeat);
+    } catch (FeignException.NotFound e) {
+      notEnabled();
+      throw e;
+    }
+  }
+
   @Override
   public void start() throws Exception {
     LOGGER.trace("start()");
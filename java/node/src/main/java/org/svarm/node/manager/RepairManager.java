@@ -0,0 +1,440 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.manager;
+
+import com.codeheadsystems.metrics.Metrics;
+import com.codeheadsystems.metrics.Tags;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.RateLimiter;
+import io.dropwizard.lifecycle.Managed;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.svarm.common.config.api.ImmutableTenantResource;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.common.config.api.TenantResourceRange;
+import org.svarm.common.config.engine.NodeConfigurationEngine;
+import org.svarm.common.engine.RingEngine;
+import org.svarm.common.model.RingEntry;
+import org.svarm.common.util.ShutdownUtility;
+import org.svarm.node.api.ImmutableRepairEntry;
+import org.svarm.node.api.MerkleTreeInfo;
+import org.svarm.node.api.NodeTenantTableRepairService;
+import org.svarm.node.api.RepairEntry;
+import org.svarm.node.dao.TenantDao;
+import org.svarm.node.engine.MerkleTreeEngine;
+import org.svarm.node.javaclient.factory.NodeServiceFactory;
+import org.svarm.node.model.NodeInternalConfiguration;
+import org.svarm.node.model.RepairConfiguration;
+import org.svarm.node.model.TenantTableIdentifier;
+import org.svarm.node.utils.TagHelper;
+import org.svarm.server.engine.ExecutorEngine;
+
+/**
+ * Anti-entropy repair between replicas. For each of our ranges of a table, we compare merkle trees with every other
+ * node range over the entries we both should hold, then pull the entries from the leaves that differ. Only entries
+ * that supersede ours are applied. The other node does the same against us, so between the two the replicas converge.
+ * Repairs are pull only, and limited by a bandwidth budget shared across all tables.
+ */
+@Singleton
+public class RepairManager implements Managed {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RepairManager.class);
+
+  private final String uuid;
+  private final TenantDao tenantDao;
+  private final TenantTableManager tenantTableManager;
+  private final TenantTableEntryManager tenantTableEntryManager;
+  private final NodeConfigurationEngine nodeConfigurationEngine;
+  private final MerkleTreeEngine merkleTreeEngine;
+  private final RingEngine ringEngine;
+  private final Metrics metrics;
+  private final RepairConfiguration repairConfiguration;
+  private final LoadingCache<String, NodeTenantTableRepairService> repairServices;
+  private final LoadingCache<DigestRange, List<EntryDigest>> digestCache;
+  private final RateLimiter rateLimiter;
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * Instantiates a new Repair manager.
+   *
+   * @param configuration           to get our uuid.
+   * @param tenantDao               the tenant dao
+   * @param tenantTableManager      the tenant table manager
+   * @param tenantTableEntryManager the tenant table entry manager
+   * @param nodeConfigurationEngine to find the node ranges for a table.
+   * @param nodeServiceFactory      to talk to the other nodes.
+   * @param merkleTreeEngine        for the trees.
+   * @param ringEngine              to find where entries are replicated.
+   * @param metrics                 for metrics.
+   * @param repairConfiguration     the repair configuration
+   * @param executorEngine          to create the scheduler.
+   */
+  @Inject
+  public RepairManager(final NodeInternalConfiguration configuration,
+                       final TenantDao tenantDao,
+                       final TenantTableManager tenantTableManager,
+                       final TenantTableEntryManager tenantTableEntryManager,
+                       final NodeConfigurationEngine nodeConfigurationEngine,
+                       final NodeServiceFactory nodeServiceFactory,
+                       final MerkleTreeEngine merkleTreeEngine,
+                       final RingEngine ringEngine,
+                       final Metrics metrics,
+                       final RepairConfiguration repairConfiguration,
+                       final ExecutorEngine executorEngine) {
+    this.uuid = configuration.uuid();
+    this.tenantDao = tenantDao;
+    this.tenantTableManager = tenantTableManager;
+    this.tenantTableEntryManager = tenantTableEntryManager;
+    this.nodeConfigurationEngine = nodeConfigurationEngine;
+    this.merkleTreeEngine = merkleTreeEngine;
+    this.ringEngine = ringEngine;
+    this.metrics = metrics;
+    this.repairConfiguration = repairConfiguration;
+    merkleTreeEngine.validate(repairConfiguration.leaves());
+    this.repairServices = CacheBuilder.newBuilder()
+        .maximumSize(100)
+        .build(CacheLoader.from(nodeServiceFactory::repairService));
+    this.digestCache = CacheBuilder.newBuilder()
+        .maximumSize(100)
+        .expireAfterWrite(repairConfiguration.digestCacheExpiry())
+        .build(CacheLoader.from(key -> digests(key.identifier(), key.low(), key.high())));
+    this.rateLimiter = RateLimiter.create(repairConfiguration.bytesPerSecond());
+    this.scheduler = executorEngine.scheduler("repair");
+    LOGGER.info("RepairManager({},{},{},{})", uuid, tenantTableEntryManager, nodeConfigurationEngine,
+        repairConfiguration);
+  }
+
+  @Override
+  public void start() throws Exception {
+    LOGGER.info("start()");
+    if (!repairConfiguration.enabled()) {
+      LOGGER.info("Repair is disabled");
+      return;
+    }
+    scheduler.scheduleWithFixedDelay(this::repairAll,
+        repairConfiguration.repairServiceStartDelay().toMillis(),
+        repairConfiguration.repairRerunDelay().toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() throws Exception {
+    LOGGER.info("stop()");
+    ShutdownUtility.shutdown(LOGGER, "Repair scheduler", scheduler);
+  }
+
+  /**
+   * Cycles through all the tables, repairing each in turn. Failures are logged and do not stop the cycle.
+   */
+  @VisibleForTesting
+  void repairAll() {
+    LOGGER.info("Starting repair cycle");
+    tenantDao.allTenants().forEach(tenant -> tenantTableManager.tables(tenant).forEach(table -> {
+      final TenantTableIdentifier identifier = TenantTableIdentifier.from(tenant, table);
+      try {
+        final int repaired = repair(identifier);
+        LOGGER.info("Repaired {} entries for {}", repaired, identifier);
+      } catch (RuntimeException e) {
+        LOGGER.warn("Unable to repair {}", identifier, e);
+        metrics.increment("RepairManager.failure", TagHelper.from(identifier));
+      }
+    }));
+  }
+
+  /**
+   * Repairs the table against every other node holding a range of it.
+   *
+   * @param identifier the table.
+   * @return the number of entries we repaired locally.
+   */
+  public int repair(final TenantTableIdentifier identifier) {
+    LOGGER.trace("repair({})", identifier);
+    final TenantResource tenantResource = ImmutableTenantResource.builder()
+        .tenant(identifier.tenantId()).resource(identifier.tableName()).build();
+    final Optional<TenantResourceRange> range = nodeConfigurationEngine.readTenantResourceRange(tenantResource);
+    if (range.isEmpty()) {
+      LOGGER.debug("No ranges for {}", identifier);
+      return 0;
+    }
+    final Map<Integer, NodeRange> hashToNodeRange = range.get().hashToNodeRange();
+    final List<Integer> starts = hashToNodeRange.keySet().stream().sorted().toList();
+    int repaired = 0;
+    for (int i = 0; i < starts.size(); i++) {
+      if (!uuid.equals(hashToNodeRange.get(starts.get(i)).uuid())) {
+        continue;
+      }
+      final List<EntryDigest> digests = digests(identifier, starts.get(i), high(starts, i)); // once per cycle.
+      for (int j = 0; j < starts.size(); j++) {
+        final NodeRange peer = hashToNodeRange.get(starts.get(j));
+        if (uuid.equals(peer.uuid())) {
+          continue;
+        }
+        repaired += repair(identifier, starts.get(i), high(starts, i), digests, peer, starts.get(j), high(starts, j));
+      }
+    }
+    return repaired;
+  }
+
+  /**
+   * Builds the merkle tree for the entries we hold in our range that also belong in the shared range. The other node
+   * asks for a tree per range it holds, so the digests of our range are cached rather than rescanned each time.
+   *
+   * @param identifier the table.
+   * @param low        the low hash of our range.
+   * @param high       the high hash of our range.
+   * @param sharedLow  the low hash of the other range.
+   * @param sharedHigh the high hash of the other range.
+   * @param leaves     number of leaves.
+   * @return the tree.
+   */
+  public MerkleTreeInfo tree(final TenantTableIdentifier identifier,
+                             final int low,
+                             final int high,
+                             final int sharedLow,
+                             final int sharedHigh,
+                             final int leaves) {
+    LOGGER.trace("tree({},{},{},{},{},{})", identifier, low, high, sharedLow, sharedHigh, leaves);
+    validateRange(low, high);
+    validateRange(sharedLow, sharedHigh);
+    return metrics.time("RepairManager.tree", TagHelper.from(identifier),
+        () -> tree(digestCache.getUnchecked(new DigestRange(identifier, low, high)), sharedLow, sharedHigh, leaves));
+  }
+
+  /**
+   * Scans our range once, keeping only what the trees need, so one scan serves the tree for every other range.
+   *
+   * @param identifier the table.
+   * @param low        the low hash of our range.
+   * @param high       the high hash of our range.
+   * @return the digests of the entries we hold.
+   */
+  private List<EntryDigest> digests(final TenantTableIdentifier identifier, final int low, final int high) {
+    final List<EntryDigest> digests = new ArrayList<>();
+    final long width = (long) high - low + 1L;
+    final long chunkSize = (width + repairConfiguration.scanChunks() - 1L) / repairConfiguration.scanChunks();
+    for (long start = low; start <= high; start += chunkSize) {
+      final long end = Math.min(high, start + chunkSize - 1L);
+      tenantTableEntryManager.repairEntries(identifier, (int) start, (int) end).forEach(entry -> digests.add(
+          new EntryDigest(ringEngine.ringEntry(entry.id(), repairConfiguration.replicationFactor()),
+              merkleTreeEngine.digest(entry))));
+    }
+    return digests;
+  }
+
+  private MerkleTreeInfo tree(final List<EntryDigest> digests,
+                              final int sharedLow,
+                              final int sharedHigh,
+                              final int leaves) {
+    final long[] leafHashes = merkleTreeEngine.emptyLeaves(leaves);
+    digests.stream()
+        .filter(digest -> isShared(digest.ringEntry(), sharedLow, sharedHigh))
+        .forEach(digest -> merkleTreeEngine.add(leafHashes, digest.ringEntry().hash(), digest.digest()));
+    return merkleTreeEngine.tree(leafHashes);
+  }
+
+  /**
+   * Reads the entries of a single leaf of the tree. Only the location ranges the leaf maps to are read.
+   *
+   * @param identifier the table.
+   * @param leaf       the leaf.
+   * @param low        the low hash of our range.
+   * @param high       the high hash of our range.
+   * @param sharedLow  the low hash of the other range.
+   * @param sharedHigh the high hash of the other range.
+   * @param leaves     number of leaves.
+   * @return the entries, including deleted ones.
+   */
+  public List<RepairEntry> leaf(final TenantTableIdentifier identifier,
+                                final int leaf,
+                                final int low,
+                                final int high,
+                                final int sharedLow,
+                                final int sharedHigh,
+                                final int leaves) {
+    LOGGER.trace("leaf({},{},{},{},{},{},{})", identifier, leaf, low, high, sharedLow, sharedHigh, leaves);
+    merkleTreeEngine.validate(leaves);
+    validateRange(low, high);
+    validateRange(sharedLow, sharedHigh);
+    if (leaf < 0 || leaf >= leaves) {
+      throw new IllegalArgumentException("No such leaf: " + leaf);
+    }
+    return metrics.time("RepairManager.leaf", TagHelper.from(identifier), () -> {
+      final Map<String, RepairEntry> result = new LinkedHashMap<>();
+      for (Map.Entry<Integer, Integer> locationRange : locationRanges(leaf, leaves)) {
+        final int from = Math.max(low, locationRange.getKey());
+        final int to = Math.min(high, locationRange.getValue());
+        if (from > to) {
+          continue;
+        }
+        tenantTableEntryManager.repairEntries(identifier, from, to).forEach(entry -> {
+          final RingEntry ringEntry = ringEngine.ringEntry(entry.id(), repairConfiguration.replicationFactor());
+          if (merkleTreeEngine.leaf(ringEntry.hash(), leaves) == leaf && isShared(ringEntry, sharedLow, sharedHigh)) {
+            result.putIfAbsent(entry.id(), entry);
+          }
+        });
+      }
+      return List.copyOf(result.values());
+    });
+  }
+
+  private int repair(final TenantTableIdentifier identifier,
+                     final int low,
+                     final int high,
+                     final List<EntryDigest> digests,
+                     final NodeRange peer,
+                     final int peerLow,
+                     final int peerHigh) {
+    LOGGER.trace("repair({},{},{},{})", identifier, low, high, peer);
+    final Tags tags = TagHelper.from(identifier);
+    final int leaves = repairConfiguration.leaves();
+    final NodeTenantTableRepairService service = repairServices.getUnchecked(peer.uri());
+    final MerkleTreeInfo ours = tree(digests, peerLow, peerHigh, leaves);
+    final MerkleTreeInfo theirs = service.tree(identifier.tenantId(), identifier.tableName(),
+        peerLow, peerHigh, low, high, leaves);
+    final List<Integer> differingLeaves = merkleTreeEngine.differingLeaves(ours, theirs);
+    LOGGER.debug("{} differing leaves for {} with {}", differingLeaves.size(), identifier, peer.uuid());
+    int repaired = 0;
+    for (Integer leaf : differingLeaves) {
+      metrics.increment("RepairManager.differingLeaf", tags);
+      final Map<String, RepairEntry> local = leaf(identifier, leaf, low, high, peerLow, peerHigh, leaves).stream()
+          .collect(Collectors.toMap(RepairEntry::id, Function.identity()));
+      final List<RepairEntry> remote = service.leaf(identifier.tenantId(), identifier.tableName(), leaf,
+          peerLow, peerHigh, low, high, leaves);
+      for (RepairEntry entry : remote) {
+        rateLimiter.acquire(size(entry));
+        final RepairEntry existing = local.get(entry.id());
+        if (existing != null && !merkleTreeEngine.supersedes(entry, existing)) {
+          continue; // ours wins, the other node will pull it if needed.
+        }
+        final Optional<Integer> locationHash = existing != null
+            ? Optional.of(existing.locationHash())
+            : ringEngine.ringEntry(entry.id(), repairConfiguration.replicationFactor()).locationStores().stream()
+            .filter(hash -> hash >= low && hash <= high)
+            .findFirst();
+        if (locationHash.isEmpty()) {
+          LOGGER.warn("Entry not in our range: {}:{}", identifier, entry.id());
+          continue;
+        }
+        if (tenantTableEntryManager.repair(identifier,
+            ImmutableRepairEntry.copyOf(entry).withLocationHash(locationHash.get()))) {
+          metrics.increment("RepairManager.repairedEntry", tags);
+          repaired++;
+        }
+      }
+    }
+    return repaired;
+  }
+
+  /**
+   * The location hash ranges that the entries of the leaf can be stored in, one set per replica.
+   *
+   * @param leaf   the leaf.
+   * @param leaves number of leaves.
+   * @return list of low to high ranges.
+   */
+  private List<Map.Entry<Integer, Integer>> locationRanges(final int leaf, final int leaves) {
+    final List<Map.Entry<Integer, Integer>> ranges = new ArrayList<>();
+    if (leaves == 1) {
+      ranges.add(Map.entry(Integer.MIN_VALUE, Integer.MAX_VALUE));
+      return ranges;
+    }
+    final int idLow = merkleTreeEngine.leafLow(leaf, leaves);
+    final int idHigh = merkleTreeEngine.leafHigh(leaf, leaves);
+    for (Long base : ringEngine.replicationBases(repairConfiguration.replicationFactor())) {
+      final int from = ringEngine.locationHash(idLow, base);
+      final int to = ringEngine.locationHash(idHigh, base);
+      if (from <= to) {
+        ranges.add(Map.entry(from, to));
+      } else { // wrapped around the ring.
+        ranges.add(Map.entry(from, Integer.MAX_VALUE));
+        ranges.add(Map.entry(Integer.MIN_VALUE, to));
+      }
+    }
+    return ranges;
+  }
+
+  private boolean isShared(final RingEntry ringEntry, final int sharedLow, final int sharedHigh) {
+    return ringEntry.locationStores().stream().anyMatch(hash -> hash >= sharedLow && hash <= sharedHigh);
+  }
+
+  private int high(final List<Integer> starts, final int index) {
+    return index + 1 < starts.size() ? starts.get(index + 1) - 1 : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Estimates the size of the entry as stored, one row per field, without serializing it again. Entries only hold
+   * text and numbers; numbers are counted at their widest.
+   *
+   * @param entry the entry.
+   * @return the estimated bytes.
+   */
+  private int size(final RepairEntry entry) {
+    int size = entry.id().length();
+    if (entry.data().isPresent()) {
+      final Iterator<Map.Entry<String, JsonNode>> fields = entry.data().get().fields();
+      while (fields.hasNext()) {
+        final Map.Entry<String, JsonNode> field = fields.next();
+        final JsonNode value = field.getValue();
+        size += field.getKey().length() + (value.isTextual() ? value.textValue().length() : Long.BYTES);
+      }
+    }
+    return Math.max(1, size);
+  }
+
+  private void validateRange(final int low, final int high) {
+    if (low > high) {
+      throw new IllegalArgumentException("Invalid range: " + low + " to " + high);
+    }
+  }
+
+  /**
+   * An entry we hold, reduced to where it is replicated and its digest.
+   *
+   * @param ringEntry where the entry is replicated.
+   * @param digest    the digest of the entry.
+   */
+  private record EntryDigest(RingEntry ringEntry, long digest) {
+  }
+
+  /**
+   * One of our ranges of a table, the key of the digest cache.
+   *
+   * @param identifier the table.
+   * @param low        the low hash of our range.
+   * @param high       the high hash of our range.
+   */
+  private record DigestRange(TenantTableIdentifier identifier, int low, int high) {
+  }
+
+}
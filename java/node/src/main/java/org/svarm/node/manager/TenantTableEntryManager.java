@@ -16,14 +16,19 @@
 
 package org.svarm.node.manager;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.svarm.common.engine.HashingEngine;
 import org.svarm.datastore.common.TableDefinition;
+import org.svarm.node.api.EntryDigest;
 import org.svarm.node.api.EntryInfo;
+import org.svarm.node.api.ImmutableEntryDigest;
+import org.svarm.node.api.RepairEntry;
 import org.svarm.node.engine.TableDefinitionEngine;
 import org.svarm.node.model.TenantTable;
 import org.svarm.node.model.TenantTableIdentifier;
@@ -39,19 +44,23 @@ public class TenantTableEntryManager {
 
   private final Map<TableDefinition, TableDefinitionEngine> tableDefinitionEngineMap;
   private final TenantTableManager tenantTableManager;
+  private final HashingEngine hashingEngine;
 
   /**
    * Constructor.
    *
    * @param tableDefinitionEngineMap the map of who does the hard work.
    * @param tenantTableManager       to get the tenant table.
+   * @param hashingEngine            to digest entries.
    */
   @Inject
   public TenantTableEntryManager(final Map<TableDefinition, TableDefinitionEngine> tableDefinitionEngineMap,
-                                 final TenantTableManager tenantTableManager) {
+                                 final TenantTableManager tenantTableManager,
+                                 final HashingEngine hashingEngine) {
     LOGGER.info("TenantTableEntryManager({},{})", tableDefinitionEngineMap, tenantTableManager);
     this.tableDefinitionEngineMap = tableDefinitionEngineMap;
     this.tenantTableManager = tenantTableManager;
+    this.hashingEngine = hashingEngine;
   }
 
   /**
@@ -69,6 +78,23 @@ public class TenantTableEntryManager {
     return engine(tenantTable).read(tenantTable, entity);
   }
 
+  /**
+   * Reads the digest of the entry.
+   *
+   * @param identifier of the table.
+   * @param entity     to read.
+   * @return the digest, if found.
+   */
+  public Optional<EntryDigest> digest(final TenantTableIdentifier identifier,
+                                      final String entity) {
+    LOGGER.trace("digest({},{})", identifier, entity);
+    return read(identifier, entity).map(entryInfo -> ImmutableEntryDigest.builder()
+        .id(entryInfo.id())
+        .timestamp(entryInfo.timestamp())
+        .digest(hashingEngine.digest(entryInfo.data()))
+        .build());
+  }
+
   /**
    * Writes the entry.
    *
@@ -88,14 +114,16 @@ public class TenantTableEntryManager {
    *
    * @param identifier of the table.
    * @param entity     the entity.
+   * @param timestamp  of the delete.
    * @return if it was deleted or not.
    */
   public boolean delete(final TenantTableIdentifier identifier,
-                        final String entity) {
-    LOGGER.trace("delete({},{})", identifier, entity);
+                        final String entity,
+                        final long timestamp) {
+    LOGGER.trace("delete({},{},{})", identifier, entity, timestamp);
     final TenantTable tenantTable = tenantTableManager.get(identifier)
         .orElseThrow(() -> new NotFoundException("No such table:" + identifier));
-    return engine(tenantTable).delete(tenantTable, entity);
+    return engine(tenantTable).delete(tenantTable, entity, timestamp);
   }
 
   /**
@@ -110,6 +138,38 @@ public class TenantTableEntryManager {
     engine(tenantTable).clearTombstones(tenantTable);
   }
 
+  /**
+   * Reads the entries in the location hash range, including deleted ones. Used for repair.
+   *
+   * @param identifier of the table.
+   * @param lowHash    the low hash, inclusive.
+   * @param highHash   the high hash, inclusive.
+   * @return the entries.
+   */
+  public List<RepairEntry> repairEntries(final TenantTableIdentifier identifier,
+                                         final int lowHash,
+                                         final int highHash) {
+    LOGGER.trace("repairEntries({},{},{})", identifier, lowHash, highHash);
+    final TenantTable tenantTable = tenantTableManager.get(identifier)
+        .orElseThrow(() -> new NotFoundException("No such table:" + identifier));
+    return engine(tenantTable).repairEntries(tenantTable, lowHash, highHash);
+  }
+
+  /**
+   * Applies the entry from another replica if it is newer than ours.
+   *
+   * @param identifier of the table.
+   * @param entry      the entry, with our location hash.
+   * @return if anything changed.
+   */
+  public boolean repair(final TenantTableIdentifier identifier,
+                        final RepairEntry entry) {
+    LOGGER.trace("repair({},{})", identifier, entry.id());
+    final TenantTable tenantTable = tenantTableManager.get(identifier)
+        .orElseThrow(() -> new NotFoundException("No such table:" + identifier));
+    return engine(tenantTable).repair(tenantTable, entry);
+  }
+
   private TableDefinitionEngine engine(final TenantTable tenantTable) {
     final String tableVersion = tenantTable.tableVersion();
     LOGGER.trace("engine({})", tableVersion);
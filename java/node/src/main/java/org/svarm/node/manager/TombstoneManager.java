@@ -3,7 +3,6 @@ package org.svarm.node.manager;
 import io.dropwizard.lifecycle.Managed;
 import java.time.Duration;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
@@ -14,6 +13,7 @@ import org.svarm.common.util.ShutdownUtility;
 import org.svarm.node.dao.TenantDao;
 import org.svarm.node.model.TenantTableIdentifier;
 import org.svarm.node.model.TombstoneConfiguration;
+import org.svarm.server.engine.ExecutorEngine;
 
 /**
  * The type Tombstone manager.
@@ -38,19 +38,21 @@ public class TombstoneManager implements Managed {
    * @param tenantTableManager      the tenant table manager
    * @param tenantTableEntryManager the tenant table entry manager
    * @param tombstoneConfiguration  the node configuration
+   * @param executorEngine          to create the executors.
    */
   @Inject
   public TombstoneManager(final TenantDao tenantDao,
                           final TenantTableManager tenantTableManager,
                           final TenantTableEntryManager tenantTableEntryManager,
-                          final TombstoneConfiguration tombstoneConfiguration) {
+                          final TombstoneConfiguration tombstoneConfiguration,
+                          final ExecutorEngine executorEngine) {
     this.tenantDao = tenantDao;
     this.tenantTableManager = tenantTableManager;
     this.tenantTableEntryManager = tenantTableEntryManager;
     this.tombstoneRerunDelay = tombstoneConfiguration.tombstoneRerunDelay();
     this.tombstoneServiceStartDelay = tombstoneConfiguration.tombstoneServiceStartDelay();
-    this.tombstoneService = Executors.newSingleThreadExecutor();
-    this.scheduler = Executors.newSingleThreadScheduledExecutor();
+    this.tombstoneService = executorEngine.single("tombstone");
+    this.scheduler = executorEngine.scheduler("tombstone-scheduler");
     LOGGER.info("TombstoneManager({},{},{},{})", tenantDao, tenantTableManager, tenantTableEntryManager, tombstoneRerunDelay);
   }
 
@@ -0,0 +1,93 @@
+package org.svarm.node.model;
+
+import java.time.Duration;
+import org.immutables.value.Value;
+
+/**
+ * The interface Repair configuration. Controls the anti-entropy repair between replicas.
+ */
+@Value.Immutable
+public interface RepairConfiguration {
+
+  /**
+   * If the repair service should run at all.
+   *
+   * @return the boolean
+   */
+  @Value.Default
+  default boolean enabled() {
+    return true;
+  }
+
+  /**
+   * Replication factor used to find which entries are shared with other nodes. Must match the proxy.
+   *
+   * @return the int
+   */
+  @Value.Default
+  default int replicationFactor() {
+    return 3;
+  }
+
+  /**
+   * Number of leaves in the merkle trees. Must be a power of two. More leaves means smaller repairs but bigger trees.
+   *
+   * @return the int
+   */
+  @Value.Default
+  default int leaves() {
+    return 1024;
+  }
+
+  /**
+   * Number of chunks to read a table in when building a tree, to limit memory use.
+   *
+   * @return the int
+   */
+  @Value.Default
+  default int scanChunks() {
+    return 64;
+  }
+
+  /**
+   * How long the digests of one of our ranges are kept to answer the tree requests from other nodes. One scan then
+   * serves the trees for every range of their repair cycle.
+   *
+   * @return the duration
+   */
+  @Value.Default
+  default Duration digestCacheExpiry() {
+    return Duration.ofMinutes(10);
+  }
+
+  /**
+   * The bandwidth budget for repairing entries, in bytes per second across all tables.
+   *
+   * @return the long
+   */
+  @Value.Default
+  default long bytesPerSecond() {
+    return 1024L * 1024L;
+  }
+
+  /**
+   * Repair rerun delay duration. The delay between repair cycles through all the tables.
+   *
+   * @return the duration
+   */
+  @Value.Default
+  default Duration repairRerunDelay() {
+    return Duration.ofHours(1);
+  }
+
+  /**
+   * Repair service start delay duration. How long to wait for the repair service to first schedule.
+   *
+   * @return the duration
+   */
+  @Value.Default
+  default Duration repairServiceStartDelay() {
+    return Duration.ofMinutes(5);
+  }
+
+}
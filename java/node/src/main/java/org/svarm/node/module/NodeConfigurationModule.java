@@ -16,21 +16,24 @@
 
 package org.svarm.node.module;
 
+import static org.svarm.common.config.module.EtcdModule.LIVENESS_SCHEDULER;
 import static org.svarm.common.config.module.EtcdModule.WATCH_ENGINE_EXECUTOR;
 import static org.svarm.control.javaclient.module.ControlServiceModule.CONTROL_SERVICE_CONNECTION_URL;
 
 import dagger.Module;
 import dagger.Provides;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import org.svarm.common.javaclient.JavaClientConfig;
 import org.svarm.node.NodeConfiguration;
 import org.svarm.node.factory.NodeConfigurationFactory;
 import org.svarm.node.model.NodeInternalConfiguration;
+import org.svarm.node.model.RepairConfiguration;
 import org.svarm.node.model.TombstoneConfiguration;
 import org.svarm.server.ServerConfiguration;
+import org.svarm.server.engine.ExecutorEngine;
 
 /**
  * The configuration for the node.
@@ -68,6 +71,18 @@ public class NodeConfigurationModule {
     return configuration.getTombstoneConfiguration();
   }
 
+  /**
+   * Repair configuration repair configuration.
+   *
+   * @param configuration the configuration
+   * @return the repair configuration
+   */
+  @Provides
+  @Singleton
+  public RepairConfiguration repairConfiguration(final NodeConfiguration configuration) {
+    return configuration.getRepairConfiguration();
+  }
+
   /**
    * Java client config java client config.
    *
@@ -111,14 +126,28 @@ public class NodeConfigurationModule {
    * Gets an executor service for the watch engine.
    *
    * @param nodeConfiguration to get the count from.
+   * @param executorEngine    to create the executor.
    * @return the service.
    */
   @Provides
   @Singleton
   @Named(WATCH_ENGINE_EXECUTOR)
-  public ExecutorService executorService(final NodeConfiguration nodeConfiguration) {
-    return Executors.newFixedThreadPool(nodeConfiguration.getWatchEngineThreads());
+  public ExecutorService executorService(final NodeConfiguration nodeConfiguration,
+                                         final ExecutorEngine executorEngine) {
+    return executorEngine.pool("watch-engine", nodeConfiguration.getWatchEngineThreads());
   }
 
+  /**
+   * Gets a scheduler for the liveness engine.
+   *
+   * @param executorEngine to create the scheduler.
+   * @return the scheduler.
+   */
+  @Provides
+  @Singleton
+  @Named(LIVENESS_SCHEDULER)
+  public ScheduledExecutorService livenessScheduler(final ExecutorEngine executorEngine) {
+    return executorEngine.scheduler("liveness");
+  }
 
 }
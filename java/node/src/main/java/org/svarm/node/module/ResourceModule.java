@@ -22,9 +22,14 @@ import dagger.multibindings.IntoSet;
 import io.dropwizard.lifecycle.Managed;
 import org.svarm.node.manager.ControlPlaneManager;
 import org.svarm.node.manager.ControlPlaneWatcherManager;
+import org.svarm.node.manager.NodeHeartbeatManager;
+import org.svarm.node.manager.NodeLivenessManager;
+import org.svarm.node.manager.RepairManager;
 import org.svarm.node.manager.TombstoneManager;
+import org.svarm.node.resource.SmileProvider;
 import org.svarm.node.resource.TenantResource;
 import org.svarm.node.resource.TenantTableEntryResource;
+import org.svarm.node.resource.TenantTableRepairResource;
 import org.svarm.node.resource.TenantTableResource;
 import org.svarm.server.resource.JerseyResource;
 
@@ -64,6 +69,26 @@ public interface ResourceModule {
   @IntoSet
   JerseyResource tenantTableEntryResource(TenantTableEntryResource resource);
 
+  /**
+   * Tenant table repair resource.
+   *
+   * @param resource resource
+   * @return JerseyResource. jersey resource
+   */
+  @Binds
+  @IntoSet
+  JerseyResource tenantTableRepairResource(TenantTableRepairResource resource);
+
+  /**
+   * Smile body reader and writer, for the proxy.
+   *
+   * @param resource resource
+   * @return JerseyResource. jersey resource
+   */
+  @Binds
+  @IntoSet
+  JerseyResource smileProvider(SmileProvider resource);
+
   /**
    * Managed resource: control plane watcher.
    *
@@ -84,6 +109,26 @@ public interface ResourceModule {
   @IntoSet
   Managed controlPlaneManager(ControlPlaneManager resource);
 
+  /**
+   * Managed resource: node heartbeat.
+   *
+   * @param resource node heartbeat.
+   * @return managed. managed
+   */
+  @Binds
+  @IntoSet
+  Managed nodeHeartbeatManager(NodeHeartbeatManager resource);
+
+  /**
+   * Managed resource: node liveness.
+   *
+   * @param resource node liveness.
+   * @return managed. managed
+   */
+  @Binds
+  @IntoSet
+  Managed nodeLivenessManager(NodeLivenessManager resource);
+
   /**
    * Managed resource: tombstone.
    *
@@ -94,4 +139,14 @@ public interface ResourceModule {
   @IntoSet
   Managed tombstoneManager(TombstoneManager resource);
 
+  /**
+   * Managed resource: repair.
+   *
+   * @param resource repair manager.
+   * @return managed resources.
+   */
+  @Binds
+  @IntoSet
+  Managed repairManager(RepairManager resource);
+
 }
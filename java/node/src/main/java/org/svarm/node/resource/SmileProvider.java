@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.resource;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Optional;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.node.codec.SmileCodec;
+import org.svarm.server.resource.JerseyResource;
+
+/**
+ * Reads and writes entity bodies as Smile when the proxy asks for it. JSON stays the default; this provider is only
+ * selected when the Content-Type or Accept header is the Smile media type.
+ */
+@Singleton
+@Produces(SmileCodec.APPLICATION_SMILE)
+@Consumes(SmileCodec.APPLICATION_SMILE)
+public class SmileProvider implements JerseyResource, MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+  private static final Logger LOGGER = getLogger(SmileProvider.class);
+  private static final MediaType SMILE = MediaType.valueOf(SmileCodec.APPLICATION_SMILE);
+
+  private final SmileCodec smileCodec;
+
+  /**
+   * Constructor.
+   *
+   * @param smileCodec to read and write with.
+   */
+  @Inject
+  public SmileProvider(final SmileCodec smileCodec) {
+    LOGGER.info("SmileProvider({})", smileCodec);
+    this.smileCodec = smileCodec;
+  }
+
+  @Override
+  public boolean isReadable(final Class<?> type,
+                            final Type genericType,
+                            final Annotation[] annotations,
+                            final MediaType mediaType) {
+    return SMILE.isCompatible(mediaType);
+  }
+
+  @Override
+  public Object readFrom(final Class<Object> type,
+                         final Type genericType,
+                         final Annotation[] annotations,
+                         final MediaType mediaType,
+                         final MultivaluedMap<String, String> httpHeaders,
+                         final InputStream entityStream) throws IOException {
+    return smileCodec.reader(genericType).readValue(entityStream);
+  }
+
+  @Override
+  public boolean isWriteable(final Class<?> type,
+                             final Type genericType,
+                             final Annotation[] annotations,
+                             final MediaType mediaType) {
+    // optionals are unwrapped by dropwizard first, so an empty one is still a 404.
+    return SMILE.isCompatible(mediaType) && !Optional.class.isAssignableFrom(type);
+  }
+
+  @Override
+  public void writeTo(final Object value,
+                      final Class<?> type,
+                      final Type genericType,
+                      final Annotation[] annotations,
+                      final MediaType mediaType,
+                      final MultivaluedMap<String, Object> httpHeaders,
+                      final OutputStream entityStream) throws IOException {
+    smileCodec.writer(genericType).writeValue(entityStream, value);
+  }
+
+}
@@ -24,7 +24,9 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.svarm.node.api.EntryDigest;
 import org.svarm.node.api.EntryInfo;
+import org.svarm.node.api.ImmutableEntryInfo;
 import org.svarm.node.api.NodeTenantTableEntryService;
 import org.svarm.node.manager.TenantTableEntryManager;
 import org.svarm.node.model.TenantTableIdentifier;
@@ -71,6 +73,25 @@ public class TenantTableEntryResource implements NodeTenantTableEntryService, Je
     return tenantTableEntryManager.read(TenantTableIdentifier.from(tenantId, table), entry);
   }
 
+  /**
+   * Gets the digest of the entry.
+   *
+   * @param tenantId that owns the table.
+   * @param table    the table.
+   * @param entry    the entry.
+   * @return response.
+   */
+  @Timed
+  @ExceptionMetered
+  @ResponseMetered
+  @Override
+  public Optional<EntryDigest> readTenantTableEntryDigest(final String tenantId,
+                                                          final String table,
+                                                          final String entry) {
+    LOGGER.debug("readTenantTableEntryDigest({},{},{})", tenantId, table, entry);
+    return tenantTableEntryManager.digest(TenantTableIdentifier.from(tenantId, table), entry);
+  }
+
   /**
    * Create the tenant table entry.
    *
@@ -91,12 +112,36 @@ public class TenantTableEntryResource implements NodeTenantTableEntryService, Je
     tenantTableEntryManager.write(TenantTableIdentifier.from(tenantId, table), entryInfo);
   }
 
+  /**
+   * Create the tenant table entry on this replica, with the location hash from the header.
+   *
+   * @param tenantId     that owns the table.
+   * @param table        the table.
+   * @param entry        for the table.
+   * @param locationHash the location hash on this replica.
+   * @param entryInfo    the data we care about in JSON form.
+   */
+  @Timed
+  @ExceptionMetered
+  @ResponseMetered
+  @Override
+  public void createTenantTableEntryReplica(final String tenantId,
+                                            final String table,
+                                            final String entry,
+                                            final Integer locationHash,
+                                            final EntryInfo entryInfo) { // Do NOT log this data!
+    LOGGER.debug("writeReplica({},{},{},{})", tenantId, table, entry, locationHash);
+    tenantTableEntryManager.write(TenantTableIdentifier.from(tenantId, table),
+        ImmutableEntryInfo.copyOf(entryInfo).withLocationHash(locationHash));
+  }
+
   /**
    * Delete the tenant table entry.
    *
-   * @param tenantId that owns the table.
-   * @param table    the table.
-   * @param entry    to delete.
+   * @param tenantId  that owns the table.
+   * @param table     the table.
+   * @param entry     to delete.
+   * @param timestamp of the delete.
    */
   @Timed
   @ExceptionMetered
@@ -104,9 +149,10 @@ public class TenantTableEntryResource implements NodeTenantTableEntryService, Je
   @Override
   public void deleteTenantTableEntry(final String tenantId,
                                      final String table,
-                                     final String entry) {
-    LOGGER.debug("delete({},{},{})", tenantId, table, entry);
-    if (!tenantTableEntryManager.delete(TenantTableIdentifier.from(tenantId, table), entry)) {
+                                     final String entry,
+                                     final Long timestamp) {
+    LOGGER.debug("delete({},{},{},{})", tenantId, table, entry, timestamp);
+    if (!tenantTableEntryManager.delete(TenantTableIdentifier.from(tenantId, table), entry, timestamp)) {
       throw new NotFoundException();
     }
   }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.resource;
+
+import com.codahale.metrics.annotation.ExceptionMetered;
+import com.codahale.metrics.annotation.ResponseMetered;
+import com.codahale.metrics.annotation.Timed;
+import java.util.List;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.svarm.node.api.MerkleTreeInfo;
+import org.svarm.node.api.NodeTenantTableRepairService;
+import org.svarm.node.api.RepairEntry;
+import org.svarm.node.manager.RepairManager;
+import org.svarm.node.model.TenantTableIdentifier;
+import org.svarm.server.resource.JerseyResource;
+
+/**
+ * Resource for the repair requests from other nodes.
+ */
+@Singleton
+public class TenantTableRepairResource implements NodeTenantTableRepairService, JerseyResource {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TenantTableRepairResource.class);
+
+  private final RepairManager repairManager;
+
+  /**
+   * Default constructor.
+   *
+   * @param repairManager to manage the repairs.
+   */
+  @Inject
+  public TenantTableRepairResource(final RepairManager repairManager) {
+    LOGGER.info("TenantTableRepairResource({})", repairManager);
+    this.repairManager = repairManager;
+  }
+
+  @Timed
+  @ExceptionMetered
+  @ResponseMetered
+  @Override
+  public MerkleTreeInfo tree(final String tenantId,
+                             final String table,
+                             final int low,
+                             final int high,
+                             final int sharedLow,
+                             final int sharedHigh,
+                             final int leaves) {
+    LOGGER.debug("tree({},{},{},{},{},{},{})", tenantId, table, low, high, sharedLow, sharedHigh, leaves);
+    return repairManager.tree(TenantTableIdentifier.from(tenantId, table), low, high, sharedLow, sharedHigh, leaves);
+  }
+
+  @Timed
+  @ExceptionMetered
+  @ResponseMetered
+  @Override
+  public List<RepairEntry> leaf(final String tenantId,
+                                final String table,
+                                final int leaf,
+                                final int low,
+                                final int high,
+                                final int sharedLow,
+                                final int sharedHigh,
+                                final int leaves) { // Do NOT log the results!
+    LOGGER.debug("leaf({},{},{},{},{},{},{},{})", tenantId, table, leaf, low, high, sharedLow, sharedHigh, leaves);
+    return repairManager.leaf(TenantTableIdentifier.from(tenantId, table), leaf, low, high, sharedLow, sharedHigh,
+        leaves);
+  }
+
+}
@@ -199,7 +199,14 @@ public class NodeIntegTest {
     assertThat(NODE_ENTRY.readTenantTableEntry(tenant, table, e1.id())).contains(e1);
     assertThat(NODE_ENTRY.readTenantTableEntry(tenant, table, e2.id())).contains(e2);
 
-    NODE_ENTRY.deleteTenantTableEntry(tenant, table, e1.id());
+    final EntryInfo replica = ImmutableEntryInfo.copyOf(e2).withTimestamp(e2.timestamp() + 1);
+    NODE_ENTRY.createTenantTableEntryReplica(tenant, table, e2.id(), 42, replica);
+    assertThat(NODE_ENTRY.readTenantTableEntry(tenant, table, e2.id()))
+        .contains(ImmutableEntryInfo.copyOf(replica).withLocationHash(42));
+    assertThatExceptionOfType(FeignException.BadRequest.class)
+        .isThrownBy(() -> NODE_ENTRY.createTenantTableEntryReplica(tenant, table, e2.id(), null, replica));
+
+    NODE_ENTRY.deleteTenantTableEntry(tenant, table, e1.id(), e1.timestamp() + 1);
     assertThatExceptionOfType(FeignException.NotFound.class)
         .isThrownBy(() -> NODE_ENTRY.readTenantTableEntry(tenant, table, e1.id()));
 
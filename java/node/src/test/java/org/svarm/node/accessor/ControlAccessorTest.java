@@ -31,6 +31,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.svarm.control.common.api.ControlNodeService;
 import org.svarm.control.common.api.KeyInfo;
+import org.svarm.control.common.api.NodeHeartbeat;
 import org.svarm.control.common.api.NodeInfo;
 import org.svarm.control.common.api.NodeMetaData;
 import org.svarm.node.model.ImmutableTenantTableIdentifier;
@@ -50,6 +51,7 @@ class ControlAccessorTest extends BaseMetricTest {
   @Mock private ControlNodeService controlNodeService;
   @Mock private NodeInfo nodeInfo;
   @Mock private KeyInfo keyInfo;
+  @Mock private NodeHeartbeat heartbeat;
   @Captor private ArgumentCaptor<String> stringArgumentCaptor;
   @Captor private ArgumentCaptor<NodeMetaData> metaDataArgumentCaptor;
 
@@ -94,6 +96,12 @@ class ControlAccessorTest extends BaseMetricTest {
     assertThat(stringArgumentCaptor.getValue()).isEqualTo(UUID);
   }
 
+  @Test
+  void heartbeat() {
+    accessor.heartbeat(UUID, heartbeat);
+    verify(controlNodeService).heartbeat(UUID, heartbeat);
+  }
+
   @Test
   void disable() {
     accessor.disable(UUID);
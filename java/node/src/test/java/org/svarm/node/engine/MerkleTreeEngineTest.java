@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.svarm.common.engine.HashingEngine;
+import org.svarm.common.engine.JsonEngine;
+import org.svarm.common.factory.ObjectMapperFactory;
+import org.svarm.node.api.ImmutableRepairEntry;
+import org.svarm.node.api.MerkleTreeInfo;
+import org.svarm.node.api.RepairEntry;
+
+class MerkleTreeEngineTest {
+
+  private JsonEngine jsonEngine;
+  private MerkleTreeEngine engine;
+
+  @BeforeEach
+  void setup() {
+    jsonEngine = new JsonEngine(new ObjectMapperFactory().generate());
+    engine = new MerkleTreeEngine(new HashingEngine());
+  }
+
+  @Test
+  void leaf() {
+    assertThat(engine.leaf(Integer.MIN_VALUE, 4)).isEqualTo(0);
+    assertThat(engine.leaf(-1, 4)).isEqualTo(1);
+    assertThat(engine.leaf(0, 4)).isEqualTo(2);
+    assertThat(engine.leaf(Integer.MAX_VALUE, 4)).isEqualTo(3);
+    assertThat(engine.leaf(Integer.MAX_VALUE, 1)).isEqualTo(0);
+  }
+
+  @Test
+  void leafRange() {
+    assertThat(engine.leafLow(0, 4)).isEqualTo(Integer.MIN_VALUE);
+    assertThat(engine.leafHigh(1, 4)).isEqualTo(-1);
+    assertThat(engine.leafLow(2, 4)).isEqualTo(0);
+    assertThat(engine.leafHigh(3, 4)).isEqualTo(Integer.MAX_VALUE);
+    assertThat(engine.leafLow(0, 1)).isEqualTo(Integer.MIN_VALUE);
+    assertThat(engine.leafHigh(0, 1)).isEqualTo(Integer.MAX_VALUE);
+  }
+
+  @Test
+  void validate() {
+    assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> engine.emptyLeaves(3));
+    assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> engine.emptyLeaves(0));
+    assertThat(engine.emptyLeaves(8)).hasSize(8);
+  }
+
+  @Test
+  void supersedes() {
+    final RepairEntry entry = ImmutableRepairEntry.builder().id("id").locationHash(1).timestamp(1000L)
+        .data(jsonEngine.createObjectNode().put("name", "value")).build();
+    final RepairEntry other = ImmutableRepairEntry.copyOf(entry)
+        .withData(jsonEngine.createObjectNode().put("name", "other"));
+    final RepairEntry newer = ImmutableRepairEntry.copyOf(entry).withTimestamp(1001L).withData(Optional.empty());
+
+    assertThat(engine.supersedes(newer, entry)).isTrue();
+    assertThat(engine.supersedes(entry, newer)).isFalse();
+    assertThat(engine.supersedes(entry, entry)).isFalse();
+    // a tie is decided the same way from either side.
+    assertThat(engine.supersedes(entry, other)).isNotEqualTo(engine.supersedes(other, entry));
+    assertThat(engine.supersedes(entry, other)).isEqualTo(engine.digest(entry) > engine.digest(other));
+  }
+
+  @Test
+  void tree() {
+    final MerkleTreeInfo tree = engine.tree(engine.emptyLeaves(4));
+    assertThat(tree.leaves()).isEqualTo(4);
+    assertThat(tree.nodes()).hasSize(7);
+  }
+
+  @Test
+  void differingLeaves_same() {
+    final long[] left = engine.emptyLeaves(8);
+    final long[] right = engine.emptyLeaves(8);
+    engine.add(left, 0, entry("one", 1L));
+    engine.add(left, Integer.MIN_VALUE, entry("two", 1L));
+    engine.add(right, Integer.MIN_VALUE, entry("two", 1L)); // order does not matter
+    engine.add(right, 0, entry("one", 1L));
+    assertThat(engine.differingLeaves(engine.tree(left), engine.tree(right))).isEmpty();
+  }
+
+  @Test
+  void differingLeaves_different() {
+    final long[] left = engine.emptyLeaves(8);
+    final long[] right = engine.emptyLeaves(8);
+    engine.add(left, 0, entry("one", 1L));
+    engine.add(left, Integer.MIN_VALUE, entry("two", 1L));
+    engine.add(right, Integer.MIN_VALUE, entry("two", 2L));
+    engine.add(right, Integer.MAX_VALUE, entry("three", 1L));
+    assertThat(engine.differingLeaves(engine.tree(left), engine.tree(right))).containsExactly(0, 4, 7);
+  }
+
+  @Test
+  void differingLeaves_wrongSize() {
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> engine.differingLeaves(engine.tree(engine.emptyLeaves(2)), engine.tree(engine.emptyLeaves(4))));
+  }
+
+  @Test
+  void digest() {
+    final ObjectNode first = jsonEngine.createObjectNode().put("a", "b").put("c", 1);
+    final ObjectNode second = jsonEngine.createObjectNode().put("c", 1).put("a", "b");
+    final ObjectNode third = jsonEngine.createObjectNode().put("c", "1").put("a", "b");
+    final RepairEntry entry = ImmutableRepairEntry.builder().id("id").locationHash(1).timestamp(1L).data(first).build();
+    assertThat(engine.digest(entry))
+        .isEqualTo(engine.digest(ImmutableRepairEntry.copyOf(entry).withData(second)))
+        .isEqualTo(engine.digest(ImmutableRepairEntry.copyOf(entry).withLocationHash(2))) // location is not included
+        .isNotEqualTo(engine.digest(ImmutableRepairEntry.copyOf(entry).withData(third)))
+        .isNotEqualTo(engine.digest(ImmutableRepairEntry.copyOf(entry).withData(Optional.empty())))
+        .isNotEqualTo(engine.digest(ImmutableRepairEntry.copyOf(entry).withTimestamp(2L)));
+  }
+
+  private RepairEntry entry(final String id, final long timestamp) {
+    return ImmutableRepairEntry.builder().id(id).locationHash(0).timestamp(timestamp)
+        .data(jsonEngine.createObjectNode().put("id", id)).build();
+  }
+
+}
@@ -57,6 +57,14 @@ class V1RowDaoTest extends BaseSQLTest {
     assertThat(result).hasNoNullFieldsOrPropertiesExcept("expiry").isEqualTo(row);
   }
 
+  @Test
+  void rowEstimate() {
+    final long before = dao.rowEstimate();
+    dao.insert(randomRow());
+    dao.insert(randomRow());
+    assertThat(dao.rowEstimate()).isEqualTo(before + 2);
+  }
+
   private V1Row randomRow() {
     return ImmutableV1Row.builder()
         .id(UUID.randomUUID().toString())
@@ -3,10 +3,12 @@ package org.svarm.node.engine.impl.v1singleentry;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.engine.HashingEngine;
 import org.svarm.common.engine.JsonEngine;
 import org.svarm.common.factory.ObjectMapperFactory;
 import org.svarm.datastore.common.TableDefinition;
@@ -14,6 +16,9 @@ import org.svarm.node.BaseSQLTest;
 import org.svarm.node.NodeConfiguration;
 import org.svarm.node.api.EntryInfo;
 import org.svarm.node.api.ImmutableEntryInfo;
+import org.svarm.node.api.ImmutableRepairEntry;
+import org.svarm.node.api.RepairEntry;
+import org.svarm.node.engine.MerkleTreeEngine;
 import org.svarm.node.model.ImmutableTenantTable;
 import org.svarm.node.model.ImmutableTenantTableIdentifier;
 import org.svarm.node.model.ImmutableTombstoneConfiguration;
@@ -33,6 +38,7 @@ class V1SingleEntryEngineTest extends BaseSQLTest {
       .key("KEY").nonce("NONCE").build();
   private JsonEngine jsonEngine;
   private V1RowConverter converter;
+  private MerkleTreeEngine merkleTreeEngine;
   private V1SingleEntryEngine engine;
 
 
@@ -41,7 +47,9 @@ class V1SingleEntryEngineTest extends BaseSQLTest {
     jsonEngine = new JsonEngine(new ObjectMapperFactory().generate());
     converter = new V1RowConverter(jsonEngine);
     final TombstoneConfiguration tombstoneConfiguration = ImmutableTombstoneConfiguration.builder().expiryDuration(java.time.Duration.ofSeconds(0)).build();
-    engine = new V1SingleEntryEngine(metrics, tenantTableJdbiManager, converter, tombstoneConfiguration);
+    merkleTreeEngine = new MerkleTreeEngine(new HashingEngine());
+    engine = new V1SingleEntryEngine(metrics, tenantTableJdbiManager, converter, merkleTreeEngine,
+        tombstoneConfiguration);
   }
 
   @Test
@@ -75,9 +83,103 @@ class V1SingleEntryEngineTest extends BaseSQLTest {
     assertThat(engine.keys(TENANT_TABLE, info.id()))
         .hasSize(3)
         .contains("something", "number", "ANewField"); // other is now gone
-    engine.delete(TENANT_TABLE, info.id());
+    engine.delete(TENANT_TABLE, info.id(), info.timestamp() + 1);
     assertThat(engine.read(TENANT_TABLE, info.id()))
         .isEmpty();
   }
 
-}
\ No newline at end of file
+  @Test
+  void delete_orderedByTimestamp() {
+    final EntryInfo info = ImmutableEntryInfo.builder().id("ID").locationHash(2).timestamp(2000L)
+        .data(jsonEngine.createObjectNode().put("something", "new")).build();
+    engine.write(TENANT_TABLE, info);
+
+    // older deletes are ignored
+    assertThat(engine.delete(TENANT_TABLE, info.id(), 1000L)).isFalse();
+    assertThat(engine.read(TENANT_TABLE, info.id())).contains(info);
+
+    // the tombstone has the timestamp of the delete, so a newer write brings it back.
+    assertThat(engine.delete(TENANT_TABLE, info.id(), 3000L)).isTrue();
+    assertThat(engine.repairEntries(TENANT_TABLE, 0, 10)).containsExactly(ImmutableRepairEntry.builder()
+        .id("ID").locationHash(2).timestamp(3000L).build());
+    final EntryInfo recreated = ImmutableEntryInfo.copyOf(info).withTimestamp(4000L);
+    engine.write(TENANT_TABLE, recreated);
+    assertThat(engine.read(TENANT_TABLE, info.id())).contains(recreated);
+  }
+
+  @Test
+  void write_olderIgnored() {
+    final EntryInfo info = ImmutableEntryInfo.builder().id("ID").locationHash(2).timestamp(2000L)
+        .data(jsonEngine.createObjectNode().put("something", "new")).build();
+    engine.write(TENANT_TABLE, info);
+    engine.write(TENANT_TABLE, ImmutableEntryInfo.copyOf(info).withTimestamp(1000L)
+        .withData(jsonEngine.createObjectNode().put("something", "old")));
+    assertThat(engine.read(TENANT_TABLE, info.id()))
+        .contains(info);
+  }
+
+  @Test
+  void repair() {
+    final ObjectNode objectNode = jsonEngine.createObjectNode()
+        .put("something", "else")
+        .put("number", 5);
+    final EntryInfo info = ImmutableEntryInfo.builder().id("ID").locationHash(5).timestamp(1000L)
+        .data(objectNode).build();
+    engine.write(TENANT_TABLE, info);
+    final RepairEntry entry = ImmutableRepairEntry.builder().id("ID").locationHash(5).timestamp(1000L)
+        .data(objectNode).build();
+    assertThat(engine.repairEntries(TENANT_TABLE, 0, 10)).containsExactly(entry);
+    assertThat(engine.repairEntries(TENANT_TABLE, 6, 10)).isEmpty();
+
+    // older changes are ignored
+    assertThat(engine.repair(TENANT_TABLE, ImmutableRepairEntry.copyOf(entry).withTimestamp(500L).withData(Optional.empty())))
+        .isFalse();
+    assertThat(engine.read(TENANT_TABLE, "ID")).contains(info);
+
+    // newer deletes leave a tombstone
+    final RepairEntry tombstone = ImmutableRepairEntry.copyOf(entry).withTimestamp(2000L).withData(Optional.empty());
+    assertThat(engine.repair(TENANT_TABLE, tombstone)).isTrue();
+    assertThat(engine.read(TENANT_TABLE, "ID")).isEmpty();
+    assertThat(engine.repairEntries(TENANT_TABLE, 0, 10)).containsExactly(tombstone);
+
+    // newer writes bring it back
+    final ObjectNode newNode = jsonEngine.createObjectNode().put("a", "b");
+    assertThat(engine.repair(TENANT_TABLE, ImmutableRepairEntry.copyOf(entry).withTimestamp(3000L).withData(newNode)))
+        .isTrue();
+    assertThat(engine.read(TENANT_TABLE, "ID"))
+        .contains(ImmutableEntryInfo.copyOf(info).withTimestamp(3000L).withData(newNode));
+  }
+
+  @Test
+  void repair_sameTimestamp() {
+    final RepairEntry first = ImmutableRepairEntry.builder().id("ID").locationHash(5).timestamp(1000L)
+        .data(jsonEngine.createObjectNode().put("something", "else")).build();
+    final RepairEntry second = ImmutableRepairEntry.copyOf(first)
+        .withData(jsonEngine.createObjectNode().put("something", "different"));
+    final RepairEntry winner = merkleTreeEngine.digest(first) > merkleTreeEngine.digest(second) ? first : second;
+    final RepairEntry loser = winner == first ? second : first;
+
+    assertThat(engine.repair(TENANT_TABLE, loser)).isTrue();
+    assertThat(engine.repair(TENANT_TABLE, winner)).isTrue();
+    assertThat(engine.repair(TENANT_TABLE, loser)).isFalse();
+    assertThat(engine.repairEntries(TENANT_TABLE, 0, 10)).containsExactly(winner);
+  }
+
+  @Test
+  void repair_tombstoneForMissingEntry() {
+    final RepairEntry tombstone = ImmutableRepairEntry.builder().id("GONE").locationHash(5).timestamp(1000L).build();
+
+    assertThat(engine.repair(TENANT_TABLE, tombstone)).isTrue();
+    assertThat(engine.read(TENANT_TABLE, "GONE")).isEmpty();
+    assertThat(engine.repairEntries(TENANT_TABLE, 0, 10)).containsExactly(tombstone);
+
+    // repairing it again changes nothing.
+    assertThat(engine.repair(TENANT_TABLE, tombstone)).isFalse();
+
+    // a newer delete moves the tombstone forward.
+    final RepairEntry newer = ImmutableRepairEntry.copyOf(tombstone).withTimestamp(2000L);
+    assertThat(engine.repair(TENANT_TABLE, newer)).isTrue();
+    assertThat(engine.repairEntries(TENANT_TABLE, 0, 10)).containsExactly(newer);
+  }
+
+}
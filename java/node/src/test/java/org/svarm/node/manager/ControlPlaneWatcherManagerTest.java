@@ -1,11 +1,17 @@
 package org.svarm.node.manager;
 
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.svarm.common.config.api.MetaData.ACTION_DELETE;
 
+import com.codeheadsystems.metrics.Metrics;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,19 +21,28 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.accessor.ImmutableRevisioned;
+import org.svarm.common.config.accessor.Revisioned;
+import org.svarm.common.config.api.ImmutableMetaData;
+import org.svarm.common.config.api.ImmutableNodeTenantResource;
+import org.svarm.common.config.api.ImmutableNodeTenantResourceRange;
+import org.svarm.common.config.api.ImmutableTenantResource;
 import org.svarm.common.config.api.MetaData;
 import org.svarm.common.config.api.NodeTenantResource;
 import org.svarm.common.config.api.NodeTenantResourceRange;
 import org.svarm.common.config.api.TenantResource;
 import org.svarm.common.config.converter.NodeTenantResourceRangeConverter;
 import org.svarm.common.config.engine.Event;
+import org.svarm.common.config.engine.NodeConfigurationEngine;
 import org.svarm.common.config.engine.WatchEngine;
 import org.svarm.common.config.factory.WatchEngineFactory;
 import org.svarm.datastore.common.TableDefinition;
+import org.svarm.node.NodeConfiguration;
 import org.svarm.node.model.ImmutableTenantTableIdentifier;
 import org.svarm.node.model.NodeInternalConfiguration;
 import org.svarm.node.model.TenantTable;
 import org.svarm.node.model.TenantTableIdentifier;
+import org.svarm.server.engine.ExecutorEngine;
 
 @ExtendWith(MockitoExtension.class)
 class ControlPlaneWatcherManagerTest {
@@ -44,6 +59,8 @@ class ControlPlaneWatcherManagerTest {
   @Mock private TenantTableManager tenantTableManager;
   @Mock private NodeTenantResourceRangeConverter nodeTenantResourceRangeConverter;
   @Mock private ControlPlaneManager controlPlaneManager;
+  @Mock private NodeConfigurationEngine nodeConfigurationEngine;
+  @Mock private Metrics metrics;
   @Mock private NodeInternalConfiguration nodeInternalConfiguration;
   @Mock private WatchEngine watchEngine;
   @Mock private Event event;
@@ -61,7 +78,26 @@ class ControlPlaneWatcherManagerTest {
   @BeforeEach
   void setup() {
     when(nodeInternalConfiguration.uuid()).thenReturn(UUID);
-    manager = new ControlPlaneWatcherManager(nodeInternalConfiguration, watchEngineFactory, tenantTableManager, nodeTenantResourceRangeConverter, controlPlaneManager);
+    final NodeConfiguration nodeConfiguration = new NodeConfiguration();
+    manager = new ControlPlaneWatcherManager(nodeInternalConfiguration, watchEngineFactory, tenantTableManager,
+        nodeTenantResourceRangeConverter, controlPlaneManager, nodeConfigurationEngine, nodeConfiguration,
+        new ExecutorEngine(nodeConfiguration), metrics);
+  }
+
+  private static NodeTenantResourceRange range(final String table, final Optional<String> action) {
+    return ImmutableNodeTenantResourceRange.builder()
+        .nodeTenantResource(ImmutableNodeTenantResource.builder()
+            .uuid(UUID)
+            .tenantResource(ImmutableTenantResource.builder().tenant(TENANT).resource(table).build())
+            .build())
+        .metaData(ImmutableMetaData.builder().hash(1).action(action).build())
+        .build();
+  }
+
+  private static Revisioned<List<NodeTenantResourceRange>> revisioned(final long revision,
+                                                                      final NodeTenantResourceRange... ranges) {
+    return ImmutableRevisioned.<List<NodeTenantResourceRange>>builder()
+        .value(List.of(ranges)).revision(revision).build();
   }
 
   @Test
@@ -120,7 +156,8 @@ class ControlPlaneWatcherManagerTest {
 
   @Test
   void startStop() throws Exception {
-    when(watchEngineFactory.watchEngine(eq("node"), eq(UUID), consumerArgumentCaptor.capture()))
+    when(nodeConfigurationEngine.readNodeResourcesRevisioned(UUID)).thenReturn(revisioned(9));
+    when(watchEngineFactory.watchEngine(eq("node"), eq(UUID), eq(10L), consumerArgumentCaptor.capture()))
         .thenReturn(watchEngine);
     manager.start();
     manager.start();
@@ -129,4 +166,86 @@ class ControlPlaneWatcherManagerTest {
     verify(watchEngine, times(1)).close();
   }
 
-}
\ No newline at end of file
+  @Test
+  void start_reconciles() throws Exception {
+    final TenantTableIdentifier newIdentifier = ImmutableTenantTableIdentifier.builder()
+        .tenantId(TENANT).tableName("new").build();
+    final TenantTableIdentifier deletedIdentifier = ImmutableTenantTableIdentifier.builder()
+        .tenantId(TENANT).tableName("deleted").build();
+    when(nodeConfigurationEngine.readNodeResourcesRevisioned(UUID)).thenReturn(revisioned(9,
+        range(TABLE, Optional.empty()),
+        range("new", Optional.empty()),
+        range("deleted", Optional.of(ACTION_DELETE))));
+    when(tenantTableManager.tables(TENANT)).thenReturn(List.of(TABLE, "deleted"));
+    when(tenantTableManager.create(newIdentifier, TableDefinition.V1SingleEntryEngine)).thenReturn(tenantTable);
+    when(tenantTableManager.delete(deletedIdentifier)).thenReturn(true);
+    when(watchEngineFactory.watchEngine(eq("node"), eq(UUID), eq(10L), any())).thenReturn(watchEngine);
+
+    manager.start();
+
+    verify(tenantTableManager).tables(TENANT); // once per tenant.
+    verify(tenantTableManager, never()).create(eq(IDENTIFIER), any());
+    verify(controlPlaneManager).enable(IDENTIFIER); // we may have stopped before enabling it.
+    verify(controlPlaneManager).enable(newIdentifier);
+    verify(controlPlaneManager).delete(deletedIdentifier);
+    verify(metrics, times(3)).increment("ControlPlaneWatcherManager.reconcile.change");
+  }
+
+  @Test
+  void start_reconcileFailure_retried() throws Exception {
+    final TenantTableIdentifier newIdentifier = ImmutableTenantTableIdentifier.builder()
+        .tenantId(TENANT).tableName("new").build();
+    when(nodeConfigurationEngine.readNodeResourcesRevisioned(UUID)).thenReturn(revisioned(9,
+        range("new", Optional.empty())));
+    when(tenantTableManager.tables(TENANT)).thenReturn(List.of());
+    when(tenantTableManager.create(newIdentifier, TableDefinition.V1SingleEntryEngine))
+        .thenThrow(new IllegalStateException("boom"))
+        .thenReturn(tenantTable);
+    when(watchEngineFactory.watchEngine(eq("node"), eq(UUID), eq(10L), any())).thenReturn(watchEngine);
+
+    manager.start();
+
+    verify(metrics).increment("ControlPlaneWatcherManager.reconcile.failure");
+    verify(metrics).increment("ControlPlaneWatcherManager.reconcile.change");
+    verify(controlPlaneManager).enable(newIdentifier);
+  }
+
+  @Test
+  void start_reconcileFailure_failsStart() {
+    when(nodeConfigurationEngine.readNodeResourcesRevisioned(UUID)).thenReturn(revisioned(9,
+        range("new", Optional.empty())));
+    when(tenantTableManager.tables(TENANT)).thenReturn(List.of());
+    when(tenantTableManager.create(any(), any())).thenThrow(new IllegalStateException("boom"));
+
+    assertThatExceptionOfType(IllegalStateException.class).isThrownBy(manager::start);
+
+    verify(tenantTableManager, times(3)).create(any(), any());
+    verify(metrics, times(3)).increment("ControlPlaneWatcherManager.reconcile.failure");
+    verify(controlPlaneManager, never()).enable(any());
+    verify(watchEngineFactory, never()).watchEngine(any(), any(), anyLong(), any());
+  }
+
+  @Test
+  void start_readFails_retried() throws Exception {
+    when(nodeConfigurationEngine.readNodeResourcesRevisioned(UUID))
+        .thenThrow(new IllegalArgumentException("down"))
+        .thenReturn(revisioned(9));
+    when(watchEngineFactory.watchEngine(eq("node"), eq(UUID), eq(10L), any())).thenReturn(watchEngine);
+
+    manager.start();
+
+    verify(metrics).increment("ControlPlaneWatcherManager.reconcile.unavailable");
+  }
+
+  @Test
+  void start_readFails_failsStart() {
+    when(nodeConfigurationEngine.readNodeResourcesRevisioned(UUID)).thenThrow(new IllegalArgumentException("down"));
+
+    assertThatExceptionOfType(IllegalStateException.class).isThrownBy(manager::start);
+
+    verify(nodeConfigurationEngine, times(3)).readNodeResourcesRevisioned(UUID);
+    verify(metrics, times(3)).increment("ControlPlaneWatcherManager.reconcile.unavailable");
+    verify(watchEngineFactory, never()).watchEngine(any(), any(), anyLong(), any());
+  }
+
+}
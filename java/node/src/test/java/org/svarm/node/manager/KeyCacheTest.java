@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.when;
+
+import com.codeheadsystems.metrics.test.BaseMetricTest;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.crypt.CryptUtils;
+import org.svarm.node.NodeConfiguration;
+
+@ExtendWith(MockitoExtension.class)
+class KeyCacheTest extends BaseMetricTest {
+
+  private static final String REFERENCE = "reference";
+  private static final byte[] KEY_BYTES = new byte[]{1, 2, 3, 4};
+  private static final String KEY = Base64.getEncoder().encodeToString(KEY_BYTES);
+  private static final Instant NOW = Instant.ofEpochSecond(1000);
+
+  @Mock private Clock clock;
+
+  private List<byte[]> cleaned;
+  private KeyCache keyCache;
+
+  @BeforeEach
+  void setup() {
+    final NodeConfiguration nodeConfiguration = new NodeConfiguration();
+    nodeConfiguration.setKeyCacheSeconds(60);
+    cleaned = new ArrayList<>();
+    final CryptUtils cryptUtils = new CryptUtils(new Random()) {
+      @Override
+      public void clean(final byte[] array) {
+        cleaned.add(array);
+        super.clean(array);
+      }
+    };
+    keyCache = new KeyCache(nodeConfiguration, cryptUtils, clock, metrics);
+    when(clock.instant()).thenReturn(NOW);
+  }
+
+  @Test
+  void get_loadsOnce() {
+    final List<String> loads = new ArrayList<>();
+    assertThat(keyCache.get(REFERENCE, () -> {
+      loads.add(KEY);
+      return KEY;
+    })).isEqualTo(KEY_BYTES);
+    assertThat(keyCache.get(REFERENCE, () -> {
+      loads.add(KEY);
+      return KEY;
+    })).isEqualTo(KEY_BYTES);
+    assertThat(loads).hasSize(1);
+  }
+
+  @Test
+  void get_loadsOutsideTheLock() {
+    final List<String> loads = new ArrayList<>();
+    assertThat(keyCache.get(REFERENCE, () -> {
+      loads.add(KEY);
+      if (loads.size() == 1) {
+        keyCache.invalidateAll(); // a recursive update if we loaded under the map's lock.
+      }
+      return KEY;
+    })).isEqualTo(KEY_BYTES);
+    assertThat(loads).hasSize(2);
+    assertThat(cleaned).hasSize(1); // the key invalidated while loading is still zeroed.
+    assertThat(cleaned.get(0)).containsOnly(0);
+  }
+
+  @Test
+  void invalidateAll_zeroesTheKeys() {
+    keyCache.get(REFERENCE, () -> KEY);
+    keyCache.invalidateAll();
+    assertThat(cleaned).hasSize(1);
+    assertThat(cleaned.get(0)).containsOnly(0);
+  }
+
+  @Test
+  void get_expiredKeysAreZeroed() {
+    keyCache.get(REFERENCE, () -> KEY);
+    when(clock.instant()).thenReturn(NOW.plusSeconds(60));
+    keyCache.get(REFERENCE, () -> KEY);
+    assertThat(cleaned).hasSize(1);
+    assertThat(cleaned.get(0)).containsOnly(0);
+  }
+
+  @Test
+  void get_failedLoadKeepsNothing() {
+    assertThatExceptionOfType(IllegalStateException.class)
+        .isThrownBy(() -> keyCache.get(REFERENCE, () -> {
+          throw new IllegalStateException();
+        }));
+    assertThat(keyCache.get(REFERENCE, () -> KEY)).isEqualTo(KEY_BYTES);
+  }
+
+}
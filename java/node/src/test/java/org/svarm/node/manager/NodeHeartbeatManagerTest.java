@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codeheadsystems.metrics.test.BaseMetricTest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.extension.ExtensionCallback;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.control.common.api.ImmutableResourceLoad;
+import org.svarm.control.common.api.NodeHeartbeat;
+import org.svarm.node.NodeConfiguration;
+import org.svarm.node.engine.impl.v1singleentry.V1RowDao;
+import org.svarm.node.model.ImmutableTenantTable;
+import org.svarm.node.model.TenantTable;
+import org.svarm.node.model.TenantTableIdentifier;
+import org.svarm.node.resource.TenantTableEntryResource;
+import org.svarm.server.engine.ExecutorEngine;
+
+@ExtendWith(MockitoExtension.class)
+class NodeHeartbeatManagerTest extends BaseMetricTest {
+
+  private static final String TENANT = "tenant";
+  private static final String TABLE = "table";
+  private static final TenantTable TENANT_TABLE = ImmutableTenantTable.builder()
+      .identifier(TenantTableIdentifier.from(TENANT, TABLE)).tableVersion("version").enabled(true)
+      .estimatedQuantity(1).key("KEY").nonce("NONCE").build();
+
+  @TempDir private Path directory;
+  @Mock private ControlPlaneManager controlPlaneManager;
+  @Mock private TenantTableJdbiManager tenantTableJdbiManager;
+  @Mock private ExecutorEngine executorEngine;
+  @Mock private ScheduledExecutorService scheduler;
+  @Mock private Jdbi jdbi;
+  @Captor private ArgumentCaptor<Runnable> runnableArgumentCaptor;
+
+  private NodeConfiguration nodeConfiguration;
+  private MetricRegistry metricRegistry;
+  private NodeHeartbeatManager manager;
+
+  @BeforeEach
+  void setup() {
+    nodeConfiguration = new NodeConfiguration();
+    nodeConfiguration.setDatabaseDirectory(directory.toString());
+    metricRegistry = new MetricRegistry();
+    when(executorEngine.scheduler("heartbeat")).thenReturn(scheduler);
+    manager = new NodeHeartbeatManager(nodeConfiguration, controlPlaneManager, tenantTableJdbiManager,
+        metricRegistry, metrics, executorEngine);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void heartbeat() throws Exception {
+    Files.write(Files.createDirectories(directory.resolve("db")).resolve("data"), new byte[100]);
+    metricRegistry.timer(TenantTableEntryResource.class.getName() + ".read").update(4, TimeUnit.MILLISECONDS);
+    metricRegistry.timer("something.else").update(1, TimeUnit.SECONDS);
+    when(tenantTableJdbiManager.allValues()).thenReturn(Map.of(TENANT_TABLE, jdbi));
+    when(jdbi.withExtension(eq(V1RowDao.class), any(ExtensionCallback.class))).thenReturn(5L);
+
+    final NodeHeartbeat heartbeat = manager.heartbeat();
+
+    assertThat(heartbeat.bytesOnDisk()).isEqualTo(100);
+    assertThat(heartbeat.p99Millis()).isEqualTo(4.0);
+    assertThat(heartbeat.openDatabases()).isEqualTo(1);
+    assertThat(heartbeat.resources())
+        .containsExactly(ImmutableResourceLoad.builder().tenant(TENANT).resource(TABLE).rowEstimate(5).build());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void heartbeat_tableClosedWhileCounting() throws Exception {
+    nodeConfiguration.setRunDatabaseInMemory(true);
+    when(tenantTableJdbiManager.allValues()).thenReturn(Map.of(TENANT_TABLE, jdbi));
+    when(jdbi.withExtension(eq(V1RowDao.class), any(ExtensionCallback.class))).thenThrow(new IllegalStateException());
+
+    final NodeHeartbeat heartbeat = manager.heartbeat();
+
+    assertThat(heartbeat.bytesOnDisk()).isZero();
+    assertThat(heartbeat.openDatabases()).isEqualTo(1);
+    assertThat(heartbeat.resources()).isEmpty();
+  }
+
+  @Test
+  void start_sendsOnSchedule() throws Exception {
+    when(tenantTableJdbiManager.allValues()).thenReturn(Map.of());
+    manager.start();
+    verify(scheduler).scheduleWithFixedDelay(runnableArgumentCaptor.capture(), anyLong(), eq(10L), eq(TimeUnit.SECONDS));
+
+    runnableArgumentCaptor.getValue().run();
+
+    verify(controlPlaneManager).heartbeat(any(NodeHeartbeat.class));
+  }
+
+  @Test
+  void start_failuresDoNotStopTheSchedule() throws Exception {
+    when(tenantTableJdbiManager.allValues()).thenReturn(Map.of());
+    doThrow(new IllegalStateException("down")).when(controlPlaneManager).heartbeat(any(NodeHeartbeat.class));
+    manager.start();
+    verify(scheduler).scheduleWithFixedDelay(runnableArgumentCaptor.capture(), anyLong(), eq(10L), eq(TimeUnit.SECONDS));
+
+    runnableArgumentCaptor.getValue().run(); // does not throw
+  }
+
+}
@@ -18,11 +18,18 @@ package org.svarm.node.manager;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.codeheadsystems.metrics.test.BaseMetricTest;
+import feign.FeignException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Optional;
+import java.util.Random;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,6 +37,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.crypt.CryptUtils;
+import org.svarm.control.common.api.NodeHeartbeat;
 import org.svarm.control.common.api.NodeInfo;
 import org.svarm.node.NodeConfiguration;
 import org.svarm.node.accessor.ControlAccessor;
@@ -39,7 +48,9 @@ import org.svarm.node.model.NodeInternalConfiguration;
 class RealControlPlaneManagerTest extends BaseMetricTest {
   private static final String UUID = "uuid";
   private static final String TENANT = "tenant";
-  private static final String KEY = "key";
+  private static final byte[] KEY_BYTES = new byte[]{1, 2, 3, 4};
+  private static final String KEY = Base64.getEncoder().encodeToString(KEY_BYTES);
+  private static final Instant NOW = Instant.ofEpochSecond(1000);
   private static final String HOST = "host";
   private static final Integer PORT = 99999;
   private static final String SCHEME = "scheme";
@@ -47,6 +58,8 @@ class RealControlPlaneManagerTest extends BaseMetricTest {
   @Mock private ControlAccessor controlAccessor;
   @Mock private NodeConfiguration nodeConfiguration;
   @Mock private NodeInternalConfiguration nodeInternalConfiguration;
+  @Mock private Clock clock;
+  @Mock private NodeHeartbeat heartbeat;
   @Captor private ArgumentCaptor<String> stringArgumentCaptor;
   @Captor private ArgumentCaptor<Integer> integerArgumentCaptor;
 
@@ -57,28 +70,32 @@ class RealControlPlaneManagerTest extends BaseMetricTest {
     when(nodeConfiguration.getNodeHost()).thenReturn(HOST);
     when(nodeConfiguration.getNodePort()).thenReturn(PORT);
     when(nodeConfiguration.getNodeScheme()).thenReturn(SCHEME);
+    when(nodeConfiguration.getKeyCacheSeconds()).thenReturn(300);
     when(nodeInternalConfiguration.uuid()).thenReturn(UUID);
-    manager = new RealControlPlaneManager(metrics, controlAccessor, nodeInternalConfiguration, nodeConfiguration);
+    when(clock.instant()).thenReturn(NOW);
+    final KeyCache keyCache = new KeyCache(nodeConfiguration, new CryptUtils(new Random()), clock, metrics);
+    manager = new RealControlPlaneManager(metrics, controlAccessor, nodeInternalConfiguration, nodeConfiguration,
+        keyCache, clock);
   }
 
   @Test
   void keyForTenant() {
     when(controlAccessor.keyForResource(UUID, TENANT)).thenReturn(KEY);
-    assertThat(manager.keyForTenant(TENANT)).isEqualTo(KEY);
+    assertThat(manager.keyForTenant(TENANT)).isEqualTo(KEY_BYTES);
   }
 
   @Test
   void keyForNode_statusEnabled() {
     when(controlAccessor.status(UUID)).thenReturn(Optional.of(NodeInfo.Status.ENABLED.name()));
     when(controlAccessor.keyForNode(UUID)).thenReturn(KEY);
-    assertThat(manager.keyForNode()).isEqualTo(KEY);
+    assertThat(manager.keyForNode()).isEqualTo(KEY_BYTES);
   }
 
   @Test
   void keyForNode_statusDisabled() {
     when(controlAccessor.status(UUID)).thenReturn(Optional.of(NodeInfo.Status.DISABLED.name())).thenReturn(Optional.of(NodeInfo.Status.ENABLED.name()));
     when(controlAccessor.keyForNode(UUID)).thenReturn(KEY);
-    assertThat(manager.keyForNode()).isEqualTo(KEY);
+    assertThat(manager.keyForNode()).isEqualTo(KEY_BYTES);
     verify(controlAccessor).enable(stringArgumentCaptor.capture());
     assertThat(stringArgumentCaptor.getValue()).isEqualTo(UUID);
   }
@@ -87,7 +104,7 @@ class RealControlPlaneManagerTest extends BaseMetricTest {
   void keyForNode_registered() {
     when(controlAccessor.status(UUID)).thenReturn(Optional.empty()).thenReturn(Optional.of(NodeInfo.Status.ENABLED.name())).thenReturn(Optional.of(NodeInfo.Status.ENABLED.name()));
     when(controlAccessor.keyForNode(UUID)).thenReturn(KEY);
-    assertThat(manager.keyForNode()).isEqualTo(KEY);
+    assertThat(manager.keyForNode()).isEqualTo(KEY_BYTES);
     verify(controlAccessor).enable(stringArgumentCaptor.capture());
     verify(controlAccessor).register(stringArgumentCaptor.capture(), stringArgumentCaptor.capture());
     assertThat(stringArgumentCaptor.getAllValues()).contains(UUID, SCHEME + "://" + HOST + ":" + PORT);
@@ -100,4 +117,77 @@ class RealControlPlaneManagerTest extends BaseMetricTest {
     verify(controlAccessor).register(stringArgumentCaptor.capture(), stringArgumentCaptor.capture());
     assertThat(stringArgumentCaptor.getAllValues()).contains(UUID, SCHEME + "://" + HOST + ":" + PORT);
   }
-}
\ No newline at end of file
+
+  @Test
+  void keyForTenant_cached() {
+    when(controlAccessor.keyForResource(UUID, TENANT)).thenReturn(KEY);
+    assertThat(manager.keyForTenant(TENANT)).isEqualTo(KEY_BYTES);
+    assertThat(manager.keyForTenant(TENANT)).isEqualTo(KEY_BYTES);
+    verify(controlAccessor, times(1)).keyForResource(UUID, TENANT);
+  }
+
+  @Test
+  void keyForTenant_callerOwnsTheCopy() {
+    when(controlAccessor.keyForResource(UUID, TENANT)).thenReturn(KEY);
+    final byte[] first = manager.keyForTenant(TENANT);
+    first[0] = 0;
+    assertThat(manager.keyForTenant(TENANT)).isEqualTo(KEY_BYTES);
+  }
+
+  @Test
+  void keyForTenant_expires() {
+    when(controlAccessor.keyForResource(UUID, TENANT)).thenReturn(KEY);
+    manager.keyForTenant(TENANT);
+    when(clock.instant()).thenReturn(NOW.plusSeconds(300));
+    manager.keyForTenant(TENANT);
+    verify(controlAccessor, times(2)).keyForResource(UUID, TENANT);
+  }
+
+  @Test
+  void keyForNode_registrationCached() {
+    when(controlAccessor.status(UUID)).thenReturn(Optional.of(NodeInfo.Status.ENABLED.name()));
+    when(controlAccessor.keyForNode(UUID)).thenReturn(KEY);
+    manager.keyForNode();
+    manager.keyForNode();
+    verify(controlAccessor, times(1)).status(UUID);
+    verify(controlAccessor, times(1)).keyForNode(UUID);
+  }
+
+  @Test
+  void keyForTenant_notFound_invalidates() {
+    when(controlAccessor.status(UUID)).thenReturn(Optional.of(NodeInfo.Status.ENABLED.name()));
+    when(controlAccessor.keyForNode(UUID)).thenReturn(KEY);
+    when(controlAccessor.keyForResource(UUID, TENANT)).thenThrow(FeignException.NotFound.class);
+    manager.keyForNode();
+
+    assertThatExceptionOfType(FeignException.NotFound.class).isThrownBy(() -> manager.keyForTenant(TENANT));
+
+    manager.keyForNode();
+    verify(controlAccessor, times(2)).status(UUID);
+    verify(controlAccessor, times(2)).keyForNode(UUID);
+  }
+
+  @Test
+  void heartbeat_notFound_invalidatesBeforeTheTtl() {
+    when(controlAccessor.keyForResource(UUID, TENANT)).thenReturn(KEY);
+    manager.keyForTenant(TENANT);
+    doThrow(FeignException.NotFound.class).when(controlAccessor).heartbeat(UUID, heartbeat);
+
+    assertThatExceptionOfType(FeignException.NotFound.class).isThrownBy(() -> manager.heartbeat(heartbeat));
+
+    manager.keyForTenant(TENANT); // the clock has not moved.
+    verify(controlAccessor, times(2)).keyForResource(UUID, TENANT);
+  }
+
+  @Test
+  void verifyRegistration_disabled_invalidates() {
+    when(controlAccessor.keyForResource(UUID, TENANT)).thenReturn(KEY);
+    when(controlAccessor.status(UUID)).thenReturn(Optional.of(NodeInfo.Status.DISABLED.name()));
+    manager.keyForTenant(TENANT);
+
+    assertThat(manager.verifyRegistration()).isFalse();
+
+    manager.keyForTenant(TENANT);
+    verify(controlAccessor, times(2)).keyForResource(UUID, TENANT);
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codeheadsystems.metrics.test.BaseMetricTest;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.api.ImmutableNodeRange;
+import org.svarm.common.config.api.ImmutableTenantResourceRange;
+import org.svarm.common.config.api.TenantResourceRange;
+import org.svarm.common.config.engine.NodeConfigurationEngine;
+import org.svarm.common.engine.HashingEngine;
+import org.svarm.common.engine.JsonEngine;
+import org.svarm.common.engine.RingEngine;
+import org.svarm.common.factory.ObjectMapperFactory;
+import org.svarm.node.api.ImmutableRepairEntry;
+import org.svarm.node.api.MerkleTreeInfo;
+import org.svarm.node.api.NodeTenantTableRepairService;
+import org.svarm.node.api.RepairEntry;
+import org.svarm.node.dao.TenantDao;
+import org.svarm.node.engine.MerkleTreeEngine;
+import org.svarm.node.javaclient.factory.NodeServiceFactory;
+import org.svarm.node.model.ImmutableRepairConfiguration;
+import org.svarm.node.model.NodeInternalConfiguration;
+import org.svarm.node.model.TenantTableIdentifier;
+import org.svarm.server.engine.ExecutorEngine;
+
+@ExtendWith(MockitoExtension.class)
+class RepairManagerTest extends BaseMetricTest {
+
+  private static final String US = "us";
+  private static final String THEM = "them";
+  private static final String URI = "http://them";
+  private static final String TENANT = "tenant";
+  private static final String TABLE = "table";
+  private static final String ID = "id";
+  private static final int LEAVES = 4;
+  private static final int REPLICATION_FACTOR = 2;
+  private static final TenantTableIdentifier IDENTIFIER = TenantTableIdentifier.from(TENANT, TABLE);
+  private static final TenantResourceRange RANGE = ImmutableTenantResourceRange.builder()
+      .tenant(TENANT).resource(TABLE)
+      .hashToNodeRange(Map.of(
+          Integer.MIN_VALUE, ImmutableNodeRange.builder().uuid(US).uri("http://us").hash(Integer.MIN_VALUE).build(),
+          0, ImmutableNodeRange.builder().uuid(THEM).uri(URI).hash(0).build()))
+      .build();
+
+  @Mock private NodeInternalConfiguration configuration;
+  @Mock private TenantDao tenantDao;
+  @Mock private TenantTableManager tenantTableManager;
+  @Mock private TenantTableEntryManager tenantTableEntryManager;
+  @Mock private NodeConfigurationEngine nodeConfigurationEngine;
+  @Mock private NodeServiceFactory nodeServiceFactory;
+  @Mock private NodeTenantTableRepairService service;
+  @Mock private ExecutorEngine executorEngine;
+  @Captor private ArgumentCaptor<RepairEntry> repairEntryArgumentCaptor;
+
+  private JsonEngine jsonEngine;
+  private HashingEngine hashingEngine;
+  private MerkleTreeEngine merkleTreeEngine;
+  private RingEngine ringEngine;
+  private RepairManager manager;
+
+  @BeforeEach
+  void setup() {
+    jsonEngine = new JsonEngine(new ObjectMapperFactory().generate());
+    hashingEngine = new HashingEngine();
+    merkleTreeEngine = new MerkleTreeEngine(hashingEngine);
+    ringEngine = new RingEngine(hashingEngine);
+    when(configuration.uuid()).thenReturn(US);
+    manager = new RepairManager(configuration, tenantDao, tenantTableManager, tenantTableEntryManager,
+        nodeConfigurationEngine, nodeServiceFactory, merkleTreeEngine, ringEngine, metrics,
+        ImmutableRepairConfiguration.builder()
+            .replicationFactor(REPLICATION_FACTOR).leaves(LEAVES).scanChunks(1).bytesPerSecond(1_000_000_000L)
+            .build(),
+        executorEngine);
+  }
+
+  @Test
+  void tree() {
+    final RepairEntry entry = entry(ourLocation(), 1L);
+    when(tenantTableEntryManager.repairEntries(IDENTIFIER, Integer.MIN_VALUE, -1)).thenReturn(List.of(entry));
+    final long[] expected = merkleTreeEngine.emptyLeaves(LEAVES);
+    merkleTreeEngine.add(expected, hashingEngine.murmur3(ID), entry);
+
+    assertThat(manager.tree(IDENTIFIER, Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE, LEAVES))
+        .isEqualTo(merkleTreeEngine.tree(expected));
+  }
+
+  @Test
+  void tree_scansOurRangeOnce() {
+    when(tenantTableEntryManager.repairEntries(IDENTIFIER, Integer.MIN_VALUE, -1)).thenReturn(List.of());
+
+    manager.tree(IDENTIFIER, Integer.MIN_VALUE, -1, 0, (1 << 30) - 1, LEAVES);
+    manager.tree(IDENTIFIER, Integer.MIN_VALUE, -1, 1 << 30, Integer.MAX_VALUE, LEAVES);
+
+    verify(tenantTableEntryManager, times(1)).repairEntries(IDENTIFIER, Integer.MIN_VALUE, -1);
+  }
+
+  @Test
+  void tree_notShared() {
+    final RepairEntry entry = entry(ourLocation(), 1L);
+    when(tenantTableEntryManager.repairEntries(IDENTIFIER, Integer.MIN_VALUE, -1)).thenReturn(List.of(entry));
+    final int theirLocation = theirLocation();
+
+    assertThat(manager.tree(IDENTIFIER, Integer.MIN_VALUE, -1, theirLocation + 1, Integer.MAX_VALUE, LEAVES))
+        .isEqualTo(merkleTreeEngine.tree(merkleTreeEngine.emptyLeaves(LEAVES)));
+  }
+
+  @Test
+  void leaf() {
+    final RepairEntry entry = entry(ourLocation(), 1L);
+    final int leaf = merkleTreeEngine.leaf(hashingEngine.murmur3(ID), LEAVES);
+    when(tenantTableEntryManager.repairEntries(eq(IDENTIFIER), anyInt(), anyInt())).thenReturn(List.of(entry));
+
+    assertThat(manager.leaf(IDENTIFIER, leaf, Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE, LEAVES))
+        .containsExactly(entry);
+    assertThat(manager.leaf(IDENTIFIER, (leaf + 1) % LEAVES, Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE, LEAVES))
+        .isEmpty();
+  }
+
+  @Test
+  void repair_noRange() {
+    when(nodeConfigurationEngine.readTenantResourceRange(any())).thenReturn(Optional.empty());
+
+    assertThat(manager.repair(IDENTIFIER)).isZero();
+  }
+
+  @Test
+  void repair_pullsNewer() {
+    final RepairEntry remote = entry(theirLocation(), 2L);
+    final int leaf = setupRemote(remote);
+    when(tenantTableEntryManager.repairEntries(eq(IDENTIFIER), anyInt(), anyInt())).thenReturn(List.of());
+    when(service.leaf(TENANT, TABLE, leaf, 0, Integer.MAX_VALUE, Integer.MIN_VALUE, -1, LEAVES))
+        .thenReturn(List.of(remote));
+    when(tenantTableEntryManager.repair(eq(IDENTIFIER), repairEntryArgumentCaptor.capture())).thenReturn(true);
+
+    assertThat(manager.repair(IDENTIFIER)).isEqualTo(1);
+    assertThat(repairEntryArgumentCaptor.getValue())
+        .isEqualTo(ImmutableRepairEntry.copyOf(remote).withLocationHash(ourLocation()));
+  }
+
+  @Test
+  void repair_ignoresOlder() {
+    final RepairEntry remote = entry(theirLocation(), 1L);
+    final int leaf = setupRemote(remote);
+    when(tenantTableEntryManager.repairEntries(eq(IDENTIFIER), anyInt(), anyInt()))
+        .thenReturn(List.of(entry(ourLocation(), 2L)));
+    when(service.leaf(TENANT, TABLE, leaf, 0, Integer.MAX_VALUE, Integer.MIN_VALUE, -1, LEAVES))
+        .thenReturn(List.of(remote));
+
+    assertThat(manager.repair(IDENTIFIER)).isZero();
+    verify(tenantTableEntryManager, never()).repair(any(), any());
+  }
+
+  @Test
+  void repair_sameTimestamp_higherDigestWins() {
+    final RepairEntry first = entry(theirLocation(), 1L);
+    final RepairEntry second = ImmutableRepairEntry.copyOf(first)
+        .withData(jsonEngine.createObjectNode().put("name", "other"));
+    final boolean firstWins = merkleTreeEngine.digest(first) > merkleTreeEngine.digest(second);
+    final RepairEntry remote = firstWins ? first : second;
+    final RepairEntry local = ImmutableRepairEntry.copyOf(firstWins ? second : first).withLocationHash(ourLocation());
+    final int leaf = setupRemote(remote);
+    when(tenantTableEntryManager.repairEntries(eq(IDENTIFIER), anyInt(), anyInt())).thenReturn(List.of(local));
+    when(service.leaf(TENANT, TABLE, leaf, 0, Integer.MAX_VALUE, Integer.MIN_VALUE, -1, LEAVES))
+        .thenReturn(List.of(remote));
+    when(tenantTableEntryManager.repair(eq(IDENTIFIER), repairEntryArgumentCaptor.capture())).thenReturn(true);
+
+    assertThat(manager.repair(IDENTIFIER)).isEqualTo(1);
+    assertThat(repairEntryArgumentCaptor.getValue())
+        .isEqualTo(ImmutableRepairEntry.copyOf(remote).withLocationHash(ourLocation()));
+  }
+
+  @Test
+  void repair_scansOurRangeOncePerCycle() {
+    final TenantResourceRange range = ImmutableTenantResourceRange.builder().from(RANGE)
+        .putHashToNodeRange(1 << 30, ImmutableNodeRange.builder().uuid(THEM).uri(URI).hash(1 << 30).build())
+        .build();
+    final MerkleTreeInfo empty = merkleTreeEngine.tree(merkleTreeEngine.emptyLeaves(LEAVES));
+    when(nodeConfigurationEngine.readTenantResourceRange(any())).thenReturn(Optional.of(range));
+    when(nodeServiceFactory.repairService(URI)).thenReturn(service);
+    when(service.tree(eq(TENANT), eq(TABLE), anyInt(), anyInt(), eq(Integer.MIN_VALUE), eq(-1), eq(LEAVES)))
+        .thenReturn(empty);
+    when(tenantTableEntryManager.repairEntries(IDENTIFIER, Integer.MIN_VALUE, -1)).thenReturn(List.of());
+
+    assertThat(manager.repair(IDENTIFIER)).isZero();
+    verify(service, times(2)).tree(eq(TENANT), eq(TABLE), anyInt(), anyInt(), eq(Integer.MIN_VALUE), eq(-1),
+        eq(LEAVES));
+    verify(tenantTableEntryManager, times(1)).repairEntries(IDENTIFIER, Integer.MIN_VALUE, -1);
+  }
+
+  @Test
+  void repairAll_continuesOnFailure() {
+    when(tenantDao.allTenants()).thenReturn(List.of(TENANT));
+    when(tenantTableManager.tables(TENANT)).thenReturn(List.of(TABLE, "other"));
+    when(nodeConfigurationEngine.readTenantResourceRange(any()))
+        .thenThrow(new IllegalStateException("boom"))
+        .thenReturn(Optional.empty());
+
+    manager.repairAll();
+
+    verify(nodeConfigurationEngine, times(2)).readTenantResourceRange(any());
+  }
+
+  private int setupRemote(final RepairEntry remote) {
+    when(nodeConfigurationEngine.readTenantResourceRange(any())).thenReturn(Optional.of(RANGE));
+    when(nodeServiceFactory.repairService(URI)).thenReturn(service);
+    final long[] theirs = merkleTreeEngine.emptyLeaves(LEAVES);
+    merkleTreeEngine.add(theirs, hashingEngine.murmur3(ID), remote);
+    when(service.tree(TENANT, TABLE, 0, Integer.MAX_VALUE, Integer.MIN_VALUE, -1, LEAVES))
+        .thenReturn(merkleTreeEngine.tree(theirs));
+    return merkleTreeEngine.leaf(hashingEngine.murmur3(ID), LEAVES);
+  }
+
+  private int ourLocation() {
+    return ringEngine.ringEntry(ID, REPLICATION_FACTOR).locationStores().stream()
+        .filter(hash -> hash < 0).findFirst().orElseThrow();
+  }
+
+  private int theirLocation() {
+    return ringEngine.ringEntry(ID, REPLICATION_FACTOR).locationStores().stream()
+        .filter(hash -> hash >= 0).findFirst().orElseThrow();
+  }
+
+  private RepairEntry entry(final int locationHash, final long timestamp) {
+    return ImmutableRepairEntry.builder().id(ID).locationHash(locationHash).timestamp(timestamp)
+        .data(jsonEngine.createObjectNode().put("name", "value")).build();
+  }
+
+}
@@ -22,6 +22,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
 import java.util.Map;
 import java.util.Optional;
@@ -32,8 +33,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.engine.HashingEngine;
 import org.svarm.datastore.common.TableDefinition;
 import org.svarm.node.api.EntryInfo;
+import org.svarm.node.api.ImmutableEntryDigest;
 import org.svarm.node.engine.TableDefinitionEngine;
 import org.svarm.node.model.TenantTable;
 import org.svarm.node.model.TenantTableIdentifier;
@@ -59,7 +62,7 @@ class TenantTableEntryManagerTest {
   @BeforeEach
   void setup() {
     final Map<TableDefinition, TableDefinitionEngine> map = ImmutableMap.of(TableDefinition.V1SingleEntryEngine, tableDefinitionEngine);
-    manager = new TenantTableEntryManager(map, tenantTableManager);
+    manager = new TenantTableEntryManager(map, tenantTableManager, new HashingEngine());
   }
 
   @Test
@@ -73,6 +76,21 @@ class TenantTableEntryManagerTest {
         .contains(entryInfo);
   }
 
+  @Test
+  void digest_tableFound() {
+    final JsonNode data = new ObjectMapper().createObjectNode().put("a", "b");
+    when(tenantTableManager.get(identifier)).thenReturn(Optional.of(tenantTable));
+    when(tenantTable.tableVersion()).thenReturn(TABLE_VERSION);
+    when(tableDefinitionEngine.read(tenantTable, ENTITY)).thenReturn(Optional.of(entryInfo));
+    when(entryInfo.id()).thenReturn(ENTITY);
+    when(entryInfo.timestamp()).thenReturn(1000L);
+    when(entryInfo.data()).thenReturn(data);
+
+    assertThat(manager.digest(identifier, ENTITY))
+        .contains(ImmutableEntryDigest.builder().id(ENTITY).timestamp(1000L)
+            .digest(new HashingEngine().digest(data)).build());
+  }
+
   @Test
   void read_tableFound_noEngine() {
     when(tenantTableManager.get(identifier)).thenReturn(Optional.of(tenantTable));
@@ -120,9 +138,9 @@ class TenantTableEntryManagerTest {
   void delete_tableFound() {
     when(tenantTableManager.get(identifier)).thenReturn(Optional.of(tenantTable));
     when(tenantTable.tableVersion()).thenReturn(TABLE_VERSION);
-    when(tableDefinitionEngine.delete(tenantTable, ENTITY)).thenReturn(true);
+    when(tableDefinitionEngine.delete(tenantTable, ENTITY, 1000L)).thenReturn(true);
 
-    assertThat(manager.delete(identifier, ENTITY)).isTrue();
+    assertThat(manager.delete(identifier, ENTITY, 1000L)).isTrue();
   }
 
   @Test
@@ -131,13 +149,13 @@ class TenantTableEntryManagerTest {
     when(tenantTable.tableVersion()).thenReturn(TABLE_VERSION + " not found");
 
     assertThatExceptionOfType(IllegalArgumentException.class)
-        .isThrownBy(() -> manager.delete(identifier, ENTITY));
+        .isThrownBy(() -> manager.delete(identifier, ENTITY, 1000L));
   }
 
   @Test
   void delete_tableNotFound() {
     when(tenantTableManager.get(identifier)).thenReturn(Optional.empty());
     assertThatExceptionOfType(NotFoundException.class)
-        .isThrownBy(() -> manager.delete(identifier, ENTITY));
+        .isThrownBy(() -> manager.delete(identifier, ENTITY, 1000L));
   }
 }
\ No newline at end of file
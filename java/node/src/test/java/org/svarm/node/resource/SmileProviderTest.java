@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.node.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.node.api.ImmutableEntryInfo;
+import org.svarm.node.codec.SmileCodec;
+
+class SmileProviderTest {
+
+  private static final MediaType SMILE = MediaType.valueOf(SmileCodec.APPLICATION_SMILE);
+
+  private SmileProvider provider;
+  private EntryInfo entryInfo;
+
+  @BeforeEach
+  void setup() throws Exception {
+    provider = new SmileProvider(new SmileCodec());
+    entryInfo = ImmutableEntryInfo.builder()
+        .id("id")
+        .locationHash(2)
+        .timestamp(3L)
+        .data(new ObjectMapper().readTree("{\"a\":2}"))
+        .build();
+  }
+
+  @Test
+  void onlySmile() {
+    assertThat(provider.isReadable(EntryInfo.class, EntryInfo.class, null, SMILE)).isTrue();
+    assertThat(provider.isWriteable(EntryInfo.class, EntryInfo.class, null, SMILE)).isTrue();
+    assertThat(provider.isReadable(EntryInfo.class, EntryInfo.class, null, MediaType.APPLICATION_JSON_TYPE)).isFalse();
+    assertThat(provider.isWriteable(EntryInfo.class, EntryInfo.class, null, MediaType.APPLICATION_JSON_TYPE)).isFalse();
+  }
+
+  @Test
+  void optionalLeftToDropwizard() {
+    assertThat(provider.isWriteable(Optional.class, Optional.class, null, SMILE)).isFalse();
+  }
+
+  @Test
+  void roundTrip() throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    provider.writeTo(entryInfo, EntryInfo.class, EntryInfo.class, null, SMILE, null, out);
+    final Object result = provider.readFrom(Object.class, EntryInfo.class, null, SMILE, null,
+        new ByteArrayInputStream(out.toByteArray()));
+    assertThat(result).isEqualTo(entryInfo);
+  }
+
+}
@@ -16,6 +16,9 @@
 
 package org.svarm.proxy;
 
+import java.util.HashMap;
+import java.util.Map;
+import org.svarm.proxy.model.Consistency;
 import org.svarm.server.ServerConfiguration;
 
 /**
@@ -26,8 +29,30 @@ public class ProxyConfiguration extends ServerConfiguration {
   private int replicationFactor = 3;
   private int watchEngineThreads = 5;
   private int nodeServiceThreads = 20;
-  private int tenantResourceRangeCacheSize = 100;
   private int nodeTenantServiceCacheSize = 100;
+  private Consistency readConsistency = Consistency.QUORUM;
+  private Consistency writeConsistency = Consistency.QUORUM;
+  private Map<String, Consistency> tableReadConsistency = new HashMap<>();
+  private Map<String, Consistency> tableWriteConsistency = new HashMap<>();
+  private boolean hintedHandoffEnabled = true;
+  private String hintDirectory;
+  private int hintExpiryMinutes = 180;
+  private int hintReplayPerSecond = 100;
+  private int hintReplayIntervalSeconds = 10;
+  private double readRepairChance = 0.1;
+  private boolean hedgedReadsEnabled = true;
+  private long hedgeDefaultDelayMillis = 50;
+  private long hedgeMinimumDelayMillis = 5;
+  private int hedgeBudgetPercent = 5;
+  private boolean asyncProxy = true;
+  private boolean binaryNodeCodec = true;
+  private boolean passThroughReads = true;
+  private int nodeCircuitBreakerFailureRatePercent = 50;
+  private int nodeCircuitBreakerOpenSeconds = 10;
+  private int nodeBulkheadMaxConcurrentCalls = 64;
+  private int nodeRetryBudgetPercent = 10;
+  private int outlierConsecutiveFailures = 5;
+  private int outlierEjectionSeconds = 30;
 
   /**
    * Instantiates a new Proxy configuration.
@@ -93,36 +118,433 @@ public class ProxyConfiguration extends ServerConfiguration {
   /**
    * Getter.
    *
-   * @return value. tenant resource range cache size
+   * @return value. node tenant service cache size
    */
-  public int getTenantResourceRangeCacheSize() {
-    return tenantResourceRangeCacheSize;
+  public int getNodeTenantServiceCacheSize() {
+    return nodeTenantServiceCacheSize;
   }
 
   /**
    * Setter.
    *
-   * @param tenantResourceRangeCacheSize the value.
+   * @param nodeTenantServiceCacheSize the value.
    */
-  public void setTenantResourceRangeCacheSize(final int tenantResourceRangeCacheSize) {
-    this.tenantResourceRangeCacheSize = tenantResourceRangeCacheSize;
+  public void setNodeTenantServiceCacheSize(final int nodeTenantServiceCacheSize) {
+    this.nodeTenantServiceCacheSize = nodeTenantServiceCacheSize;
   }
 
   /**
    * Getter.
    *
-   * @return value. node tenant service cache size
+   * @return value. write consistency
    */
-  public int getNodeTenantServiceCacheSize() {
-    return nodeTenantServiceCacheSize;
+  public Consistency getWriteConsistency() {
+    return writeConsistency;
   }
 
   /**
    * Setter.
    *
-   * @param nodeTenantServiceCacheSize the value.
+   * @param writeConsistency the value.
    */
-  public void setNodeTenantServiceCacheSize(final int nodeTenantServiceCacheSize) {
-    this.nodeTenantServiceCacheSize = nodeTenantServiceCacheSize;
+  public void setWriteConsistency(final Consistency writeConsistency) {
+    this.writeConsistency = writeConsistency;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. hinted handoff enabled
+   */
+  public boolean isHintedHandoffEnabled() {
+    return hintedHandoffEnabled;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param hintedHandoffEnabled the value.
+   */
+  public void setHintedHandoffEnabled(final boolean hintedHandoffEnabled) {
+    this.hintedHandoffEnabled = hintedHandoffEnabled;
+  }
+
+  /**
+   * Getter. Where hints are kept until they are replayed. There is no default, since the hints are writes we
+   * acknowledged and have to survive a restart; it must be set when hinted handoff is enabled.
+   *
+   * @return value. hint directory
+   */
+  public String getHintDirectory() {
+    return hintDirectory;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param hintDirectory the value.
+   */
+  public void setHintDirectory(final String hintDirectory) {
+    this.hintDirectory = hintDirectory;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. hint expiry minutes
+   */
+  public int getHintExpiryMinutes() {
+    return hintExpiryMinutes;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param hintExpiryMinutes the value.
+   */
+  public void setHintExpiryMinutes(final int hintExpiryMinutes) {
+    this.hintExpiryMinutes = hintExpiryMinutes;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. hint replay per second
+   */
+  public int getHintReplayPerSecond() {
+    return hintReplayPerSecond;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param hintReplayPerSecond the value.
+   */
+  public void setHintReplayPerSecond(final int hintReplayPerSecond) {
+    this.hintReplayPerSecond = hintReplayPerSecond;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. hint replay interval seconds
+   */
+  public int getHintReplayIntervalSeconds() {
+    return hintReplayIntervalSeconds;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param hintReplayIntervalSeconds the value.
+   */
+  public void setHintReplayIntervalSeconds(final int hintReplayIntervalSeconds) {
+    this.hintReplayIntervalSeconds = hintReplayIntervalSeconds;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. chance from 0 to 1 that a read with stale replicas repairs them.
+   */
+  public double getReadRepairChance() {
+    return readRepairChance;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param readRepairChance the value.
+   */
+  public void setReadRepairChance(final double readRepairChance) {
+    this.readRepairChance = readRepairChance;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. read consistency
+   */
+  public Consistency getReadConsistency() {
+    return readConsistency;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param readConsistency the value.
+   */
+  public void setReadConsistency(final Consistency readConsistency) {
+    this.readConsistency = readConsistency;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. read consistency per table, keyed by tenant/table
+   */
+  public Map<String, Consistency> getTableReadConsistency() {
+    return tableReadConsistency;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param tableReadConsistency the value.
+   */
+  public void setTableReadConsistency(final Map<String, Consistency> tableReadConsistency) {
+    this.tableReadConsistency = tableReadConsistency;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. write consistency per table, keyed by tenant/table
+   */
+  public Map<String, Consistency> getTableWriteConsistency() {
+    return tableWriteConsistency;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param tableWriteConsistency the value.
+   */
+  public void setTableWriteConsistency(final Map<String, Consistency> tableWriteConsistency) {
+    this.tableWriteConsistency = tableWriteConsistency;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. if slow reads are hedged to another replica
+   */
+  public boolean isHedgedReadsEnabled() {
+    return hedgedReadsEnabled;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param hedgedReadsEnabled the value.
+   */
+  public void setHedgedReadsEnabled(final boolean hedgedReadsEnabled) {
+    this.hedgedReadsEnabled = hedgedReadsEnabled;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. hedge delay before we know the node latency
+   */
+  public long getHedgeDefaultDelayMillis() {
+    return hedgeDefaultDelayMillis;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param hedgeDefaultDelayMillis the value.
+   */
+  public void setHedgeDefaultDelayMillis(final long hedgeDefaultDelayMillis) {
+    this.hedgeDefaultDelayMillis = hedgeDefaultDelayMillis;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. smallest hedge delay
+   */
+  public long getHedgeMinimumDelayMillis() {
+    return hedgeMinimumDelayMillis;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param hedgeMinimumDelayMillis the value.
+   */
+  public void setHedgeMinimumDelayMillis(final long hedgeMinimumDelayMillis) {
+    this.hedgeMinimumDelayMillis = hedgeMinimumDelayMillis;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. most extra requests hedging can add, as a percentage of reads
+   */
+  public int getHedgeBudgetPercent() {
+    return hedgeBudgetPercent;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param hedgeBudgetPercent the value.
+   */
+  public void setHedgeBudgetPercent(final int hedgeBudgetPercent) {
+    this.hedgeBudgetPercent = hedgeBudgetPercent;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. if requests are handled without blocking threads, instead of a thread per request and node call
+   */
+  public boolean isAsyncProxy() {
+    return asyncProxy;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param asyncProxy the value.
+   */
+  public void setAsyncProxy(final boolean asyncProxy) {
+    this.asyncProxy = asyncProxy;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. if calls to the nodes use the binary (smile) codec instead of JSON
+   */
+  public boolean isBinaryNodeCodec() {
+    return binaryNodeCodec;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param binaryNodeCodec the value.
+   */
+  public void setBinaryNodeCodec(final boolean binaryNodeCodec) {
+    this.binaryNodeCodec = binaryNodeCodec;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. if reads that only need one replica pass the node's data through without parsing it
+   */
+  public boolean isPassThroughReads() {
+    return passThroughReads;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param passThroughReads the value.
+   */
+  public void setPassThroughReads(final boolean passThroughReads) {
+    this.passThroughReads = passThroughReads;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. failure rate, as a percentage, at which the circuit breaker for a node opens
+   */
+  public int getNodeCircuitBreakerFailureRatePercent() {
+    return nodeCircuitBreakerFailureRatePercent;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param nodeCircuitBreakerFailureRatePercent the value.
+   */
+  public void setNodeCircuitBreakerFailureRatePercent(final int nodeCircuitBreakerFailureRatePercent) {
+    this.nodeCircuitBreakerFailureRatePercent = nodeCircuitBreakerFailureRatePercent;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. how long the circuit breaker for a node stays open
+   */
+  public int getNodeCircuitBreakerOpenSeconds() {
+    return nodeCircuitBreakerOpenSeconds;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param nodeCircuitBreakerOpenSeconds the value.
+   */
+  public void setNodeCircuitBreakerOpenSeconds(final int nodeCircuitBreakerOpenSeconds) {
+    this.nodeCircuitBreakerOpenSeconds = nodeCircuitBreakerOpenSeconds;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. the most concurrent calls to a single node
+   */
+  public int getNodeBulkheadMaxConcurrentCalls() {
+    return nodeBulkheadMaxConcurrentCalls;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param nodeBulkheadMaxConcurrentCalls the value.
+   */
+  public void setNodeBulkheadMaxConcurrentCalls(final int nodeBulkheadMaxConcurrentCalls) {
+    this.nodeBulkheadMaxConcurrentCalls = nodeBulkheadMaxConcurrentCalls;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. most retries to a node, as a percentage of the calls to it
+   */
+  public int getNodeRetryBudgetPercent() {
+    return nodeRetryBudgetPercent;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param nodeRetryBudgetPercent the value.
+   */
+  public void setNodeRetryBudgetPercent(final int nodeRetryBudgetPercent) {
+    this.nodeRetryBudgetPercent = nodeRetryBudgetPercent;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. consecutive failures before a node is ejected from replica selection
+   */
+  public int getOutlierConsecutiveFailures() {
+    return outlierConsecutiveFailures;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param outlierConsecutiveFailures the value.
+   */
+  public void setOutlierConsecutiveFailures(final int outlierConsecutiveFailures) {
+    this.outlierConsecutiveFailures = outlierConsecutiveFailures;
+  }
+
+  /**
+   * Getter.
+   *
+   * @return value. how long an ejected node stays out of replica selection
+   */
+  public int getOutlierEjectionSeconds() {
+    return outlierEjectionSeconds;
+  }
+
+  /**
+   * Setter.
+   *
+   * @param outlierEjectionSeconds the value.
+   */
+  public void setOutlierEjectionSeconds(final int outlierEjectionSeconds) {
+    this.outlierEjectionSeconds = outlierEjectionSeconds;
   }
 }
@@ -26,7 +26,9 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.svarm.common.config.api.NodeRange;
+import org.svarm.node.api.NodeTenantTableEntryAsyncService;
 import org.svarm.node.api.NodeTenantTableEntryService;
+import org.svarm.node.javaclient.api.NodeTenantTableEntryRawService;
 import org.svarm.node.javaclient.factory.NodeServiceFactory;
 import org.svarm.proxy.ProxyConfiguration;
 
@@ -39,9 +41,11 @@ public class CachingNodeTenantTableEntryServiceEngine {
   private static final Logger LOGGER = getLogger(CachingNodeTenantTableEntryServiceEngine.class);
 
   private final LoadingCache<String, NodeTenantTableEntryService> cache;
+  private final LoadingCache<String, NodeTenantTableEntryAsyncService> asyncCache;
+  private final LoadingCache<String, NodeTenantTableEntryRawService> rawCache;
 
   /**
-   * Constructor.
+   * Constructor. The node clients talk smile unless the configuration turns the binary codec off.
    *
    * @param nodeServiceFactory for getting node instances.
    * @param configuration      the proxy configuration.
@@ -52,11 +56,21 @@ public class CachingNodeTenantTableEntryServiceEngine {
     cache = CacheBuilder.newBuilder()
         .maximumSize(configuration.getNodeTenantServiceCacheSize())
         .removalListener(this::onRemoval)
-        .build(CacheLoader.from(nodeServiceFactory::nodeService));
+        .build(CacheLoader.from(configuration.isBinaryNodeCodec()
+            ? nodeServiceFactory::smileNodeService : nodeServiceFactory::nodeService));
+    asyncCache = CacheBuilder.newBuilder()
+        .maximumSize(configuration.getNodeTenantServiceCacheSize())
+        .removalListener(this::onRemoval)
+        .build(CacheLoader.from(configuration.isBinaryNodeCodec()
+            ? nodeServiceFactory::asyncSmileNodeService : nodeServiceFactory::asyncNodeService));
+    rawCache = CacheBuilder.newBuilder()
+        .maximumSize(configuration.getNodeTenantServiceCacheSize())
+        .removalListener(this::onRemoval)
+        .build(CacheLoader.from(nodeServiceFactory::rawNodeService));
     LOGGER.info("CachingNodeTenantTableEntryServiceEngine()");
   }
 
-  private void onRemoval(final RemovalNotification<String, NodeTenantTableEntryService> removalNotification) {
+  private void onRemoval(final RemovalNotification<String, ?> removalNotification) {
     LOGGER.info("Removing {} reason {}", removalNotification.getKey(), removalNotification.getCause().name());
   }
 
@@ -71,4 +85,26 @@ public class CachingNodeTenantTableEntryServiceEngine {
     return cache.getUnchecked(nodeRange.uri());
   }
 
+  /**
+   * Returns the node tenant table entry service that does not block.
+   *
+   * @param nodeRange that has the uri.
+   * @return the service.
+   */
+  public NodeTenantTableEntryAsyncService getAsync(final NodeRange nodeRange) {
+    LOGGER.trace("getAsync({})", nodeRange);
+    return asyncCache.getUnchecked(nodeRange.uri());
+  }
+
+  /**
+   * Returns the node tenant table entry service that hands back the raw response.
+   *
+   * @param nodeRange that has the uri.
+   * @return the service.
+   */
+  public NodeTenantTableEntryRawService getRaw(final NodeRange nodeRange) {
+    LOGGER.trace("getRaw({})", nodeRange);
+    return rawCache.getUnchecked(nodeRange.uri());
+  }
+
 }
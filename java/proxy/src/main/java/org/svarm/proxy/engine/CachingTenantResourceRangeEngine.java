@@ -18,81 +18,212 @@ package org.svarm.proxy.engine;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.cache.RemovalNotification;
+import com.codeheadsystems.metrics.Metrics;
+import com.google.common.annotations.VisibleForTesting;
+import io.dropwizard.lifecycle.Managed;
+import io.etcd.jetcd.Watch;
+import io.etcd.jetcd.common.exception.CompactedException;
+import io.etcd.jetcd.watch.WatchEvent;
+import io.etcd.jetcd.watch.WatchResponse;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import org.immutables.value.Value;
 import org.slf4j.Logger;
+import org.svarm.common.config.accessor.Revisioned;
+import org.svarm.common.config.api.ImmutableTenantResource;
 import org.svarm.common.config.api.TenantResource;
 import org.svarm.common.config.api.TenantResourceRange;
 import org.svarm.common.config.engine.NodeConfigurationEngine;
-import org.svarm.common.config.engine.WatchEngine;
-import org.svarm.common.config.factory.WatchEngineFactory;
-import org.svarm.proxy.ProxyConfiguration;
-import org.svarm.server.exception.NotFoundException;
+import org.svarm.proxy.model.RoutingTable;
+import org.svarm.server.engine.ExecutorEngine;
 
 /**
- * This will cache the tenant resource range.
+ * Keeps a local copy of every tenant resource range, along with the routing table compiled from it. At start we
+ * read the whole tenant namespace once, then watch it from the revision we read at, so every proxy has one read
+ * and one watch on etcd no matter how many tenant resources there are, and a lookup never goes to etcd. If the
+ * watch fails, including when etcd compacted the revision we needed, we read everything again and watch from
+ * there. A changed range replaces the old routing table in a single step so readers see one or the other. Until
+ * the first read works we know of no tenant resources at all, so the proxy reports itself unhealthy until then.
  */
 @Singleton
-public class CachingTenantResourceRangeEngine {
+public class CachingTenantResourceRangeEngine implements Managed {
 
   private static final Logger LOGGER = getLogger(CachingTenantResourceRangeEngine.class);
+  private static final long RESYNC_RETRY_SECONDS = 1;
 
   private final NodeConfigurationEngine nodeConfigurationEngine;
-  private final WatchEngineFactory watchEngineFactory;
-  private final LoadingCache<TenantResource, CacheHolder> cache;
+  private final Metrics metrics;
+  private final ScheduledExecutorService scheduler;
+  private volatile Map<TenantResource, RoutingTable> snapshot = Map.of();
+  private volatile boolean ready;
+  // guarded by this.
+  private Watch.Watcher watcher;
+  private long generation;
+  private long revision;
+  private boolean running;
 
   /**
    * Constructor.
    *
-   * @param nodeConfigurationEngine to get the configuration.
-   * @param watchEngineFactory      to watch for changes.
-   * @param proxyConfiguration      for configuration.
+   * @param nodeConfigurationEngine to read and watch the configuration.
+   * @param metrics                 for metrics.
+   * @param executorEngine          for the resync scheduler.
    */
   @Inject
   public CachingTenantResourceRangeEngine(final NodeConfigurationEngine nodeConfigurationEngine,
-                                          final WatchEngineFactory watchEngineFactory,
-                                          final ProxyConfiguration proxyConfiguration) {
+                                          final Metrics metrics,
+                                          final ExecutorEngine executorEngine) {
     this.nodeConfigurationEngine = nodeConfigurationEngine;
-    this.watchEngineFactory = watchEngineFactory;
-    this.cache = CacheBuilder.newBuilder()
-        .maximumSize(proxyConfiguration.getTenantResourceRangeCacheSize())
-        .removalListener(this::onRemoval)
-        .build(CacheLoader.from(this::generate));
+    this.metrics = metrics;
+    this.scheduler = executorEngine.scheduler("range-resync");
     LOGGER.info("CachingTenantResourceRangeEngine()");
   }
 
-  private CacheHolder generate(final TenantResource tenantResource) {
-    final TenantResourceRange range = nodeConfigurationEngine.readTenantResourceRange(tenantResource)
-        .orElseThrow(NotFoundException::new);
-    final WatchEngine watchEngine = watchEngineFactory.watchEngine(
-        NodeConfigurationEngine.TENANT_NAMESPACE,
-        nodeConfigurationEngine.getTenantResourceKey(tenantResource),
-        (e) -> clear(tenantResource));
-    return ImmutableCacheHolder.builder().tenantResourceRange(range).watchEngine(watchEngine).build();
+  @Override
+  public synchronized void start() {
+    LOGGER.info("start()");
+    running = true;
+    resync();
   }
 
-  private void clear(final TenantResource tenantResource) {
-    LOGGER.trace("clear({})", tenantResource);
-    final CacheHolder cacheHolder = cache.getIfPresent(tenantResource);
-    if (cacheHolder != null) {
-      cacheHolder.watchEngine().close();
-      cache.invalidate(tenantResource);
+  @Override
+  public synchronized void stop() {
+    LOGGER.info("stop()");
+    running = false;
+    generation++;
+    closeWatcher();
+    scheduler.shutdownNow();
+  }
+
+  /**
+   * Reads every range, replaces the snapshot, and watches from the revision we read at. Retries until it works.
+   */
+  @VisibleForTesting
+  synchronized void resync() {
+    if (!running) {
+      return;
+    }
+    closeWatcher();
+    final long current = ++generation; // events from the old watch are ignored from here on.
+    try {
+      final Revisioned<List<TenantResourceRange>> ranges = metrics.time(
+          "CachingTenantResourceRangeEngine.resync", nodeConfigurationEngine::readTenantResourceRanges);
+      final Map<TenantResource, RoutingTable> loaded = new ConcurrentHashMap<>();
+      ranges.value().forEach(range -> loaded.put(tenantResource(range), RoutingTable.of(range)));
+      snapshot = loaded;
+      ready = true;
+      revision = ranges.revision();
+      watcher = nodeConfigurationEngine.watchTenantResourceRanges(revision + 1, Watch.listener(
+          response -> watchResponse(current, response),
+          throwable -> error(current, throwable),
+          () -> complete(current)));
+      LOGGER.info("resync(): {} tenant resources at revision {}", loaded.size(), revision);
+    } catch (RuntimeException e) {
+      LOGGER.error("resync(): failed, retrying in {}s", RESYNC_RETRY_SECONDS, e);
+      metrics.increment("CachingTenantResourceRangeEngine.resyncFailure");
+      scheduler.schedule(this::resync, RESYNC_RETRY_SECONDS, TimeUnit.SECONDS);
+    }
+  }
+
+  private void closeWatcher() {
+    if (watcher != null) {
+      watcher.close();
+      watcher = null;
+    }
+  }
+
+  /**
+   * Applies the changes from the watch to the snapshot.
+   *
+   * @param watchGeneration the generation of the watch the events are from.
+   * @param response        the events.
+   */
+  @VisibleForTesting
+  synchronized void watchResponse(final long watchGeneration, final WatchResponse response) {
+    if (watchGeneration != generation) {
+      LOGGER.trace("watchResponse(): dropping events from an old watch");
+      return;
+    }
+    for (WatchEvent event : response.getEvents()) {
+      final String key = event.getKeyValue().getKey().toString();
+      switch (event.getEventType()) {
+        case PUT -> nodeConfigurationEngine.toTenantResourceRange(key, event.getKeyValue().getValue().toString())
+            .ifPresent(range -> snapshot.put(tenantResource(range), RoutingTable.of(range)));
+        case DELETE -> nodeConfigurationEngine.toTenantResource(key)
+            .ifPresent(tenantResource -> snapshot.remove(tenantResource));
+        default -> LOGGER.warn("Unknown event: {}", event.getEventType());
+      }
+      metrics.increment("CachingTenantResourceRangeEngine.event", "type", event.getEventType().name());
+      revision = Math.max(revision, event.getKeyValue().getModRevision());
+    }
+  }
+
+  /**
+   * The watch failed. Etcd does not resume a watch once it fails, so we start over.
+   *
+   * @param watchGeneration the generation of the watch that failed.
+   * @param throwable       why.
+   */
+  @VisibleForTesting
+  synchronized void error(final long watchGeneration, final Throwable throwable) {
+    if (watchGeneration != generation) {
+      return;
+    }
+    if (throwable instanceof CompactedException) {
+      LOGGER.warn("error(): revision {} was compacted, resyncing", revision);
+      metrics.increment("CachingTenantResourceRangeEngine.compacted");
     } else {
-      LOGGER.warn("Got a watcher with no value: {}", tenantResource);
+      LOGGER.error("error(): watch failed, resyncing", throwable);
+      metrics.increment("CachingTenantResourceRangeEngine.watchError");
     }
+    scheduleResync();
   }
 
-  private void onRemoval(
-      final RemovalNotification<TenantResource, CachingTenantResourceRangeEngine.CacheHolder> notification) {
-    LOGGER.trace("removed {} because {}", notification.getKey(), notification.getCause().name());
-    notification.getValue().watchEngine().close();
+  /**
+   * The watch ended. Unless we are stopping, start over.
+   *
+   * @param watchGeneration the generation of the watch that ended.
+   */
+  @VisibleForTesting
+  synchronized void complete(final long watchGeneration) {
+    if (watchGeneration != generation) {
+      return;
+    }
+    LOGGER.warn("complete(): watch ended, resyncing");
+    scheduleResync();
+  }
+
+  private void scheduleResync() {
+    if (running) {
+      scheduler.execute(this::resync); // not on the watch thread, which we are about to close.
+    }
+  }
+
+  private TenantResource tenantResource(final TenantResourceRange range) {
+    return ImmutableTenantResource.builder().tenant(range.tenant()).resource(range.resource()).build();
+  }
+
+  /**
+   * If we have read the ranges from etcd at least once. Until then every lookup comes back empty.
+   *
+   * @return true once read.
+   */
+  public boolean ready() {
+    return ready;
+  }
+
+  /**
+   * The revision the snapshot is current to.
+   *
+   * @return the revision.
+   */
+  public synchronized long revision() {
+    return revision;
   }
 
   /**
@@ -102,35 +233,19 @@ public class CachingTenantResourceRangeEngine {
    * @return the list of resource ranges.
    */
   public Optional<TenantResourceRange> readTenantResourceRange(final TenantResource tenantResource) {
-    LOGGER.trace("readTenantResourceRange", tenantResource);
-    try {
-      return Optional.of(cache.get(tenantResource).tenantResourceRange());
-    } catch (ExecutionException e) {
-      LOGGER.trace("Not found {}", tenantResource);
-      return Optional.empty();
-    }
+    LOGGER.trace("readTenantResourceRange({})", tenantResource);
+    return readRoutingTable(tenantResource).map(RoutingTable::tenantResourceRange);
   }
 
   /**
-   * Holds the various components for the cache.
+   * Reads the compiled routing table for the tenant resource.
+   *
+   * @param tenantResource of the node.
+   * @return the routing table.
    */
-  @Value.Immutable
-  interface CacheHolder {
-
-    /**
-     * The range itself.
-     *
-     * @return the range.
-     */
-    TenantResourceRange tenantResourceRange();
-
-    /**
-     * The watcher.
-     *
-     * @return watcher. watch engine
-     */
-    WatchEngine watchEngine();
-
+  public Optional<RoutingTable> readRoutingTable(final TenantResource tenantResource) {
+    LOGGER.trace("readRoutingTable({})", tenantResource);
+    return Optional.ofNullable(snapshot.get(ImmutableTenantResource.copyOf(tenantResource)));
   }
 
 }
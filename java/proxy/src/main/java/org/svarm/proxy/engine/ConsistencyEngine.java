@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.proxy.engine;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Map;
+import java.util.Optional;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.proxy.ProxyConfiguration;
+import org.svarm.proxy.model.Consistency;
+
+/**
+ * Decides the consistency for a request. A level requested by the client in the header wins, then the level
+ * configured for the table, then the default. The requested level is only known on the request thread, so the
+ * resources resolve the consistency there and pass it along to work that completes on other threads.
+ */
+@Singleton
+public class ConsistencyEngine {
+
+  /**
+   * Identifier for the header. Usable by clients and servers alike.
+   */
+  public static final String CONSISTENCY_HEADER = "X-Consistency";
+
+  private static final Logger LOGGER = getLogger(ConsistencyEngine.class);
+
+  private final ThreadLocal<Consistency> requested = new ThreadLocal<>();
+  private final Consistency readConsistency;
+  private final Consistency writeConsistency;
+  private final Map<String, Consistency> tableReadConsistency;
+  private final Map<String, Consistency> tableWriteConsistency;
+
+  /**
+   * Constructor.
+   *
+   * @param configuration the proxy configuration.
+   */
+  @Inject
+  public ConsistencyEngine(final ProxyConfiguration configuration) {
+    this.readConsistency = configuration.getReadConsistency();
+    this.writeConsistency = configuration.getWriteConsistency();
+    this.tableReadConsistency = Map.copyOf(configuration.getTableReadConsistency());
+    this.tableWriteConsistency = Map.copyOf(configuration.getTableWriteConsistency());
+    LOGGER.info("ConsistencyEngine({},{},{},{})", readConsistency, writeConsistency, tableReadConsistency,
+        tableWriteConsistency);
+  }
+
+  /**
+   * The key used for a table in the configuration.
+   *
+   * @param tenantResource the table.
+   * @return the key.
+   */
+  public static String key(final TenantResource tenantResource) {
+    return tenantResource.tenant() + "/" + tenantResource.resource();
+  }
+
+  /**
+   * Sets the consistency the client requested for the current request.
+   *
+   * @param consistency requested.
+   */
+  public void set(final Consistency consistency) {
+    requested.set(consistency);
+  }
+
+  /**
+   * Gets the consistency the client requested for the current request, if any.
+   *
+   * @return the consistency.
+   */
+  public Optional<Consistency> get() {
+    return Optional.ofNullable(requested.get());
+  }
+
+  /**
+   * Clears the requested consistency.
+   */
+  public void clear() {
+    requested.remove();
+  }
+
+  /**
+   * The consistency to use for a read. Call on the request thread.
+   *
+   * @param tenantResource the table.
+   * @return the consistency.
+   */
+  public Consistency readConsistency(final TenantResource tenantResource) {
+    return get().orElseGet(() -> tableReadConsistency.getOrDefault(key(tenantResource), readConsistency));
+  }
+
+  /**
+   * The consistency to use for a write or delete. Call on the request thread.
+   *
+   * @param tenantResource the table.
+   * @return the consistency.
+   */
+  public Consistency writeConsistency(final TenantResource tenantResource) {
+    return get().orElseGet(() -> tableWriteConsistency.getOrDefault(key(tenantResource), writeConsistency));
+  }
+
+}
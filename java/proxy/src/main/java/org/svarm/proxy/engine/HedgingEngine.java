@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.proxy.engine;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.codeheadsystems.metrics.Metrics;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.proxy.ProxyConfiguration;
+
+/**
+ * Decides when and if a read should be hedged with a second replica. The delay is the node's recent p95 latency.
+ * Hedges are limited by a budget: every read adds a fraction of a token, and every hedge needs a whole one, so
+ * hedges can never be more than that fraction of the reads.
+ */
+@Singleton
+public class HedgingEngine {
+
+  private static final Logger LOGGER = getLogger(HedgingEngine.class);
+  private static final double MAX_BALANCE = 10.0;
+
+  private final boolean enabled;
+  private final long defaultDelayMillis;
+  private final long minimumDelayMillis;
+  private final double ratio;
+  private final NodeStatsEngine nodeStatsEngine;
+  private final Metrics metrics;
+  private double balance;
+
+  /**
+   * Constructor.
+   *
+   * @param configuration   the proxy configuration.
+   * @param nodeStatsEngine for the node latencies.
+   * @param metrics         for metrics.
+   */
+  @Inject
+  public HedgingEngine(final ProxyConfiguration configuration,
+                       final NodeStatsEngine nodeStatsEngine,
+                       final Metrics metrics) {
+    this.enabled = configuration.isHedgedReadsEnabled();
+    this.defaultDelayMillis = configuration.getHedgeDefaultDelayMillis();
+    this.minimumDelayMillis = configuration.getHedgeMinimumDelayMillis();
+    this.ratio = configuration.getHedgeBudgetPercent() / 100.0;
+    this.nodeStatsEngine = nodeStatsEngine;
+    this.metrics = metrics;
+    LOGGER.info("HedgingEngine({},{},{})", enabled, defaultDelayMillis, ratio);
+  }
+
+  /**
+   * If hedging is enabled at all.
+   *
+   * @return boolean.
+   */
+  public boolean enabled() {
+    return enabled;
+  }
+
+  /**
+   * How long to wait for the node before hedging.
+   *
+   * @param nodeRange the node being read from.
+   * @return the delay in millis.
+   */
+  public long delayMillis(final NodeRange nodeRange) {
+    return nodeStatsEngine.p95(nodeRange.uri())
+        .map(p95 -> Math.max(p95.toMillis(), minimumDelayMillis))
+        .orElse(defaultDelayMillis);
+  }
+
+  /**
+   * Records that a read was made, adding to the budget.
+   */
+  public synchronized void request() {
+    balance = Math.min(balance + ratio, MAX_BALANCE);
+  }
+
+  /**
+   * Takes a hedge from the budget, if there is enough.
+   *
+   * @return true if the hedge can be made.
+   */
+  public boolean tryHedge() {
+    final boolean allowed;
+    synchronized (this) {
+      allowed = balance >= 1.0;
+      if (allowed) {
+        balance -= 1.0;
+      }
+    }
+    metrics.increment("HedgingEngine.tryHedge", "allowed", String.valueOf(allowed));
+    return allowed;
+  }
+
+}
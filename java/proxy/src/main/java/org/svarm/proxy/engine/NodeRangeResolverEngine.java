@@ -3,16 +3,15 @@ package org.svarm.proxy.engine;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import com.codeheadsystems.metrics.Metrics;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.svarm.common.config.api.NodeRange;
 import org.svarm.common.config.api.TenantResource;
-import org.svarm.common.config.api.TenantResourceRange;
 import org.svarm.common.engine.RingEngine;
-import org.svarm.common.model.RingEntry;
+import org.svarm.proxy.model.RoutingTable;
 import org.svarm.server.exception.NotFoundException;
 
 /**
@@ -56,31 +55,36 @@ public class NodeRangeResolverEngine {
                                                  final String entry) {
     LOGGER.trace("nodeRangeToHash({}, {})", tenantResource, entry);
     return metrics.time("TableEntryManager.nodeRangeToHash", () -> {
-      final TenantResourceRange range = cachingTenantResourceRangeEngine.readTenantResourceRange(tenantResource)
+      final RoutingTable routingTable = cachingTenantResourceRangeEngine.readRoutingTable(tenantResource)
           .orElseThrow(NotFoundException::new);
-      final RingEntry ringEntry = ringEngine.ringEntry(entry, DEFAULT_REPLICATION_FACTOR); // TODO: make this configurable.
-      return ringEntry.locationStores().stream()
-          .map(hash -> Map.entry(nodeRangeForHash(range, hash), hash))
-          .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
-              (oldValue, newValue) -> oldValue)); // if two have the same value, pick the old one... but we should warn.
+      final int[] locations = new int[DEFAULT_REPLICATION_FACTOR]; // TODO: make this configurable.
+      final NodeRange[] nodeRanges = new NodeRange[DEFAULT_REPLICATION_FACTOR];
+      resolve(routingTable, entry, locations, nodeRanges);
+      final Map<NodeRange, Integer> result = new HashMap<>();
+      for (int i = 0; i < locations.length; i++) {
+        // if two have the same value, pick the old one... but we should warn.
+        result.putIfAbsent(nodeRanges[i], locations[i]);
+      }
+      return result;
     });
   }
 
   /**
-   * Return the node closest (smaller than) the hash. We should time this and see if we can speed it up. It will
-   * be called a lot.
+   * The allocation free core of nodeRangeToHash(). Fills in the location hashes of the entry's replicas, and the
+   * node range that owns each one. The replication factor is the length of the locations array.
    *
-   * @param range for the table.
-   * @param hash  we are looking for.
-   * @return the node range that works.
+   * @param routingTable for the tenant resource.
+   * @param entry        to lookup.
+   * @param locations    filled with the location hashes.
+   * @param nodeRanges   filled with the node range for the matching location. At least as long as locations.
    */
-  public NodeRange nodeRangeForHash(final TenantResourceRange range, final Integer hash) {
-    LOGGER.trace("nodeRangeForHash({}, {})", range, hash);
-    final Map<Integer, NodeRange> hashNodeRangeMap = range.hashToNodeRange();
-    return hashNodeRangeMap.entrySet().stream()
-        .filter(e -> (e.getKey() <= hash)) // remove the values with a low-hash higher than our hash.
-        .max(Map.Entry.comparingByKey()) // low to high
-        .map(Map.Entry::getValue)
-        .orElseThrow(() -> new IllegalStateException("Unable to find correct set!"));
+  public void resolve(final RoutingTable routingTable,
+                      final CharSequence entry,
+                      final int[] locations,
+                      final NodeRange[] nodeRanges) {
+    ringEngine.locationHashes(entry, locations.length, locations);
+    for (int i = 0; i < locations.length; i++) {
+      nodeRanges[i] = routingTable.nodeRangeForHash(locations[i]);
+    }
   }
 }
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.proxy.engine;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.proxy.ProxyConfiguration;
+
+/**
+ * Tracks how each node has been responding to us, keyed by the node uri. Each node gets a score from its
+ * latency (an exponentially weighted moving average), the calls we have in flight to it, and its recent error
+ * rate, in the spirit of C3 and the Cassandra dynamic snitch. Lower is better. Nodes we know nothing about score
+ * zero, so they get tried. A node that fails too many calls in a row is ejected for a while: it sorts behind
+ * every healthy node, so it is only used when there is nothing better, until the ejection runs out.
+ */
+@Singleton
+public class NodeStatsEngine {
+
+  private static final Logger LOGGER = getLogger(NodeStatsEngine.class);
+  private static final int SAMPLES = 128;
+  private static final int RECALCULATE_EVERY = 16;
+  private static final double ALPHA = 0.2;
+  private static final double ERROR_PENALTY = 10.0;
+
+  private final Map<String, NodeStats> stats = new ConcurrentHashMap<>();
+  private final MeterRegistry meterRegistry;
+  private final int outlierConsecutiveFailures;
+  private final long outlierEjectionNanos;
+
+  /**
+   * Constructor.
+   *
+   * @param configuration for the outlier ejection.
+   * @param meterRegistry to publish the scores.
+   */
+  @Inject
+  public NodeStatsEngine(final ProxyConfiguration configuration,
+                         final MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.outlierConsecutiveFailures = configuration.getOutlierConsecutiveFailures();
+    this.outlierEjectionNanos = Duration.ofSeconds(configuration.getOutlierEjectionSeconds()).toNanos();
+    LOGGER.info("NodeStatsEngine({},{})", outlierConsecutiveFailures, outlierEjectionNanos);
+  }
+
+  private NodeStats stats(final String uri) {
+    return stats.computeIfAbsent(uri, this::register);
+  }
+
+  private NodeStats register(final String uri) {
+    LOGGER.info("Tracking node {}", uri);
+    final NodeStats nodeStats = new NodeStats();
+    Gauge.builder("NodeStatsEngine.score", nodeStats, NodeStats::score).tag("node", uri).register(meterRegistry);
+    Gauge.builder("NodeStatsEngine.latency", nodeStats, s -> s.ewma).tag("node", uri).register(meterRegistry);
+    Gauge.builder("NodeStatsEngine.inFlight", nodeStats, s -> s.inFlight.get()).tag("node", uri).register(meterRegistry);
+    Gauge.builder("NodeStatsEngine.errorRate", nodeStats, s -> s.errorRate).tag("node", uri).register(meterRegistry);
+    Gauge.builder("NodeStatsEngine.ejected", nodeStats, s -> s.ejected() ? 1 : 0).tag("node", uri).register(meterRegistry);
+    return nodeStats;
+  }
+
+  /**
+   * Records the start of a call to the node.
+   *
+   * @param uri of the node.
+   */
+  public void begin(final String uri) {
+    stats(uri).inFlight.incrementAndGet();
+  }
+
+  /**
+   * Records the end of a call to the node, started with begin().
+   *
+   * @param uri     of the node.
+   * @param nanos   how long the call took.
+   * @param success if the call succeeded.
+   */
+  public void end(final String uri, final long nanos, final boolean success) {
+    final NodeStats nodeStats = stats(uri);
+    nodeStats.inFlight.decrementAndGet();
+    nodeStats.record(nanos, success);
+    if (success) {
+      nodeStats.consecutiveFailures.set(0);
+    } else if (outlierConsecutiveFailures > 0
+        && nodeStats.consecutiveFailures.incrementAndGet() >= outlierConsecutiveFailures
+        && !nodeStats.ejected()) {
+      LOGGER.warn("Ejecting node {} after {} failures in a row", uri, outlierConsecutiveFailures);
+      meterRegistry.counter("NodeStatsEngine.ejections", "node", uri).increment();
+      nodeStats.consecutiveFailures.set(0);
+      nodeStats.ejectedUntil = System.nanoTime() + outlierEjectionNanos;
+    }
+  }
+
+  /**
+   * Records the end of a call to the node, started with begin(), that we cancelled before it finished. How long
+   * it ran says nothing about the node, so only the in flight count changes.
+   *
+   * @param uri of the node.
+   */
+  public void cancel(final String uri) {
+    stats(uri).inFlight.decrementAndGet();
+  }
+
+  /**
+   * If the node is ejected, having failed too many calls in a row recently.
+   *
+   * @param uri of the node.
+   * @return true if ejected.
+   */
+  public boolean ejected(final String uri) {
+    final NodeStats nodeStats = stats.get(uri);
+    return nodeStats != null && nodeStats.ejected();
+  }
+
+  /**
+   * The uris of the nodes we have called so far.
+   *
+   * @return the uris.
+   */
+  public Set<String> nodes() {
+    return Set.copyOf(stats.keySet());
+  }
+
+  /**
+   * The 95th percentile latency of the recent calls to the node, once we have seen enough of them.
+   *
+   * @param uri of the node.
+   * @return the latency.
+   */
+  public Optional<Duration> p95(final String uri) {
+    final NodeStats nodeStats = stats.get(uri);
+    if (nodeStats == null || nodeStats.p95 < 0) {
+      return Optional.empty();
+    }
+    return Optional.of(Duration.ofNanos(nodeStats.p95));
+  }
+
+  /**
+   * The score for the node. Lower is better.
+   *
+   * @param uri of the node.
+   * @return the score.
+   */
+  public double score(final String uri) {
+    final NodeStats nodeStats = stats.get(uri);
+    return nodeStats == null ? 0.0 : nodeStats.score();
+  }
+
+  /**
+   * Orders the node ranges best first, with the ejected nodes after the rest. Ties keep their original order.
+   *
+   * @param nodeRanges to order.
+   * @return the ordered list.
+   */
+  public List<NodeRange> order(final Collection<NodeRange> nodeRanges) {
+    return nodeRanges.stream()
+        .sorted(Comparator.<NodeRange, Boolean>comparing(nodeRange -> ejected(nodeRange.uri()))
+            .thenComparingDouble(nodeRange -> score(nodeRange.uri())))
+        .toList();
+  }
+
+  /**
+   * The recent latencies for a node, kept in a ring, and the running averages.
+   */
+  private static class NodeStats {
+
+    private final long[] latencies = new long[SAMPLES];
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long ejectedUntil;
+    private int count;
+    private volatile long p95 = -1;
+    private volatile double ewma = -1;
+    private volatile double errorRate;
+
+    private synchronized void record(final long nanos, final boolean success) {
+      ewma = ewma < 0 ? nanos : ALPHA * nanos + (1 - ALPHA) * ewma;
+      errorRate = ALPHA * (success ? 0.0 : 1.0) + (1 - ALPHA) * errorRate;
+      latencies[count % SAMPLES] = nanos;
+      count++;
+      if (count % RECALCULATE_EVERY == 0) {
+        final int size = Math.min(count, SAMPLES);
+        final long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+        p95 = sorted[(int) Math.ceil(size * 0.95) - 1];
+      }
+    }
+
+    private boolean ejected() {
+      return ejectedUntil != 0 && System.nanoTime() - ejectedUntil < 0;
+    }
+
+    private double score() {
+      if (ewma < 0) {
+        return 0.0;
+      }
+      final double queue = 1 + Math.max(inFlight.get(), 0);
+      return ewma * queue * queue * queue * (1 + ERROR_PENALTY * errorRate);
+    }
+  }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.proxy.engine;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Response;
+import feign.Util;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.proxy.model.RawEntry;
+
+/**
+ * Reads entries from the node without building a tree from them. The entry json is scanned with the streaming
+ * parser for its timestamp and for where the data starts and ends; the data itself is never parsed, only skipped.
+ */
+@Singleton
+public class RawEntryEngine {
+
+  private static final Logger LOGGER = getLogger(RawEntryEngine.class);
+
+  private final ObjectMapper objectMapper;
+  private final JsonFactory jsonFactory;
+
+  /**
+   * Constructor.
+   *
+   * @param objectMapper for json.
+   */
+  @Inject
+  public RawEntryEngine(final ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+    this.jsonFactory = objectMapper.getFactory();
+    LOGGER.info("RawEntryEngine({})", objectMapper);
+  }
+
+  /**
+   * Reads the response from a node entry read. Closes the response.
+   *
+   * @param response from the node.
+   * @return the raw entry, or empty if the node does not have it.
+   */
+  public Optional<RawEntry> read(final Response response) {
+    try (response) {
+      if (response.status() == 404) {
+        return Optional.empty();
+      }
+      if (response.status() < 200 || response.status() >= 300) {
+        throw FeignException.errorStatus("readTenantTableEntry", response);
+      }
+      try (InputStream inputStream = response.body().asInputStream()) {
+        return Optional.of(parse(Util.toByteArray(inputStream)));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Scans the entry json for the timestamp and the data.
+   *
+   * @param body the entry json.
+   * @return the raw entry.
+   */
+  public RawEntry parse(final byte[] body) {
+    try (JsonParser parser = jsonFactory.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IllegalArgumentException("Entry is not an object");
+      }
+      long timestamp = -1;
+      int start = -1;
+      int end = -1;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String name = parser.currentName();
+        parser.nextToken();
+        switch (name) {
+          case "timestamp" -> timestamp = parser.getLongValue();
+          case "data" -> {
+            start = (int) parser.currentTokenLocation().getByteOffset();
+            parser.skipChildren();
+            parser.finishToken(); // scalars are read lazily, so make sure we are past the end of it.
+            end = (int) parser.currentLocation().getByteOffset();
+          }
+          default -> parser.skipChildren();
+        }
+      }
+      if (start < 0 || timestamp < 0) {
+        throw new IllegalArgumentException("Entry is missing the data or timestamp");
+      }
+      return RawEntry.of(body, start, end - start, timestamp);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * For when we already have the entry, like when the replicas disagreed and it had to be resolved.
+   *
+   * @param entryInfo the entry.
+   * @return the raw entry of its data.
+   */
+  public RawEntry of(final EntryInfo entryInfo) {
+    try {
+      final byte[] data = objectMapper.writeValueAsBytes(entryInfo.data());
+      return RawEntry.of(data, 0, data.length, entryInfo.timestamp());
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+}
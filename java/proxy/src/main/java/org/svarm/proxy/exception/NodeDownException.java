@@ -0,0 +1,16 @@
+package org.svarm.proxy.exception;
+
+/**
+ * Thrown instead of calling a node whose liveness lease has gone.
+ */
+public class NodeDownException extends RuntimeException {
+
+  /**
+   * Main constructor.
+   *
+   * @param uuid of the node.
+   */
+  public NodeDownException(final String uuid) {
+    super("Node is down: " + uuid);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.proxy.healthchecks;
+
+import com.codahale.metrics.health.HealthCheck;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.svarm.proxy.engine.CachingTenantResourceRangeEngine;
+
+/**
+ * Unhealthy until the tenant resource ranges have been read, since until then the proxy can not route anything.
+ */
+@Singleton
+public class TenantResourceRangeHealthCheck extends HealthCheck {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TenantResourceRangeHealthCheck.class);
+
+  private final CachingTenantResourceRangeEngine cachingTenantResourceRangeEngine;
+
+  /**
+   * Constructor.
+   *
+   * @param cachingTenantResourceRangeEngine to check.
+   */
+  @Inject
+  public TenantResourceRangeHealthCheck(final CachingTenantResourceRangeEngine cachingTenantResourceRangeEngine) {
+    LOGGER.info("TenantResourceRangeHealthCheck({})", cachingTenantResourceRangeEngine);
+    this.cachingTenantResourceRangeEngine = cachingTenantResourceRangeEngine;
+  }
+
+  @Override
+  protected Result check() throws Exception {
+    LOGGER.trace("check()");
+    if (!cachingTenantResourceRangeEngine.ready()) {
+      return Result.unhealthy("Tenant resource ranges not read yet");
+    }
+    return Result.healthy();
+  }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.proxy.manager;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.codeheadsystems.metrics.Metrics;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.dropwizard.lifecycle.Managed;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.common.config.engine.LiveNodesEngine;
+import org.svarm.common.engine.JsonEngine;
+import org.svarm.common.util.ShutdownUtility;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.proxy.ProxyConfiguration;
+import org.svarm.proxy.engine.CachingNodeTenantTableEntryServiceEngine;
+import org.svarm.proxy.exception.NodeDownException;
+import org.svarm.proxy.model.Hint;
+import org.svarm.proxy.model.ImmutableHint;
+import org.svarm.server.engine.ExecutorEngine;
+
+/**
+ * Hinted handoff. Writes that could not reach a replica are kept on local disk, one file per hint in a directory per
+ * node, and replayed in order once the node answers again. Hints are rate limited on replay and dropped after they
+ * expire; anything older is left for the node repair process. Nodes we know are down are not replayed to. Hints are
+ * written to disk on their own thread, so the write path never waits on the disk.
+ */
+@Singleton
+public class HintManager implements Managed {
+
+  private static final Logger LOGGER = getLogger(HintManager.class);
+  private static final String SUFFIX = ".json";
+
+  private final boolean enabled;
+  private final Path directory;
+  private final Duration expiry;
+  private final Duration replayInterval;
+  private final JsonEngine jsonEngine;
+  private final CachingNodeTenantTableEntryServiceEngine cachingNodeTenantTableEntryServiceEngine;
+  private final Clock clock;
+  private final Metrics metrics;
+  private final LiveNodesEngine liveNodesEngine;
+  private final RateLimiter rateLimiter;
+  private final ScheduledExecutorService scheduler;
+  private final ExecutorService writer;
+
+  /**
+   * Constructor.
+   *
+   * @param configuration                            the proxy configuration.
+   * @param jsonEngine                               to read and write the hints.
+   * @param cachingNodeTenantTableEntryServiceEngine to get the node connections.
+   * @param clock                                    for timestamps.
+   * @param metrics                                  for processing.
+   * @param liveNodesEngine                          to skip the nodes we know are down.
+   * @param executorEngine                           to create the scheduler and the writer.
+   */
+  @Inject
+  public HintManager(final ProxyConfiguration configuration,
+                     final JsonEngine jsonEngine,
+                     final CachingNodeTenantTableEntryServiceEngine cachingNodeTenantTableEntryServiceEngine,
+                     final Clock clock,
+                     final Metrics metrics,
+                     final LiveNodesEngine liveNodesEngine,
+                     final ExecutorEngine executorEngine) {
+    this.enabled = configuration.isHintedHandoffEnabled();
+    if (enabled && configuration.getHintDirectory() == null) {
+      throw new IllegalStateException("hintDirectory must be set when hinted handoff is enabled");
+    }
+    this.directory = enabled ? Path.of(configuration.getHintDirectory()) : null;
+    this.expiry = Duration.ofMinutes(configuration.getHintExpiryMinutes());
+    this.replayInterval = Duration.ofSeconds(configuration.getHintReplayIntervalSeconds());
+    this.jsonEngine = jsonEngine;
+    this.cachingNodeTenantTableEntryServiceEngine = cachingNodeTenantTableEntryServiceEngine;
+    this.clock = clock;
+    this.metrics = metrics;
+    this.liveNodesEngine = liveNodesEngine;
+    this.rateLimiter = RateLimiter.create(configuration.getHintReplayPerSecond());
+    this.scheduler = executorEngine.scheduler("hints");
+    this.writer = executorEngine.single("hint-writer");
+    LOGGER.info("HintManager({},{},{})", enabled, directory, expiry);
+  }
+
+  /**
+   * Checks to see if the failure means the node could not be reached, or could not handle the request right now.
+   * These are the failures worth a hint, as the write should succeed once the node is back. The async client
+   * reports a node it cannot connect to with the IOException itself. A node that is down, or whose circuit breaker
+   * or bulkhead turned the call away, was never called.
+   *
+   * @param throwable the failure.
+   * @return true if the node was unreachable.
+   */
+  public static boolean unreachable(final Throwable throwable) {
+    return throwable instanceof RetryableException
+        || throwable instanceof FeignException.FeignServerException
+        || throwable instanceof IOException
+        || throwable instanceof NodeDownException
+        || throwable instanceof CallNotPermittedException
+        || throwable instanceof BulkheadFullException;
+  }
+
+  @Override
+  public void start() throws Exception {
+    LOGGER.info("start()");
+    if (!enabled) {
+      LOGGER.info("Hinted handoff is disabled");
+      return;
+    }
+    scheduler.scheduleWithFixedDelay(this::replayAll,
+        replayInterval.toMillis(), replayInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() throws Exception {
+    LOGGER.info("stop()");
+    ShutdownUtility.shutdown(LOGGER, "Hint scheduler", scheduler);
+    ShutdownUtility.shutdown(LOGGER, "Hint writer", writer);
+  }
+
+  /**
+   * Queues the write for the node to be stored, so it can be replayed later. The hint is stamped now, so hints keep
+   * their order however long the disk takes.
+   *
+   * @param nodeRange      the node that could not be reached.
+   * @param tenantResource the tenant resource.
+   * @param entryInfo      what was to be written.
+   * @return true if the hint was queued to be stored.
+   */
+  public boolean hint(final NodeRange nodeRange,
+                      final TenantResource tenantResource,
+                      final EntryInfo entryInfo) {
+    LOGGER.trace("hint({},{},{})", nodeRange, tenantResource, entryInfo.id());
+    if (!enabled) {
+      return false;
+    }
+    final Hint hint = ImmutableHint.builder()
+        .nodeRange(nodeRange)
+        .tenant(tenantResource.tenant())
+        .resource(tenantResource.resource())
+        .entryInfo(entryInfo)
+        .created(clock.millis())
+        .build();
+    try {
+      writer.execute(() -> store(hint));
+      return true;
+    } catch (RejectedExecutionException e) {
+      LOGGER.error("Unable to queue hint for {}", nodeRange, e);
+      metrics.increment("HintManager.hint.failure", "node", nodeRange.uuid());
+      return false;
+    }
+  }
+
+  private void store(final Hint hint) {
+    final NodeRange nodeRange = hint.nodeRange();
+    // file names sort in the order the hints were created.
+    final String name = String.format("%020d-%s", hint.created(), UUID.randomUUID());
+    try {
+      final Path nodeDirectory = Files.createDirectories(directory.resolve(nodeRange.uuid()));
+      final Path temp = nodeDirectory.resolve(name + ".tmp");
+      jsonEngine.writeValue(temp.toFile(), hint);
+      Files.move(temp, nodeDirectory.resolve(name + SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+      metrics.increment("HintManager.hint", "node", nodeRange.uuid());
+    } catch (IOException | IllegalArgumentException e) {
+      LOGGER.error("Unable to store hint for {}", nodeRange, e);
+      metrics.increment("HintManager.hint.failure", "node", nodeRange.uuid());
+    }
+  }
+
+  /**
+   * Replays the hints for every node we have hints for.
+   *
+   * @return the number of hints delivered.
+   */
+  @VisibleForTesting
+  int replayAll() {
+    LOGGER.trace("replayAll()");
+    if (!Files.isDirectory(directory)) {
+      return 0;
+    }
+    try (Stream<Path> nodes = Files.list(directory)) {
+      return nodes.filter(Files::isDirectory)
+          .filter(node -> liveNodesEngine.isLive(node.getFileName().toString()))
+          .mapToInt(this::replay)
+          .sum();
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Unable to replay hints from {}", directory, e);
+      return 0;
+    }
+  }
+
+  /**
+   * Replays the hints for a single node, oldest first. Stops at the first hint the node is still unable to take.
+   *
+   * @param nodeDirectory the directory of hints for the node.
+   * @return the number of hints delivered.
+   */
+  @VisibleForTesting
+  int replay(final Path nodeDirectory) {
+    LOGGER.trace("replay({})", nodeDirectory);
+    final List<Path> hints;
+    try (Stream<Path> stream = Files.list(nodeDirectory)) {
+      hints = stream.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+    } catch (IOException e) {
+      LOGGER.warn("Unable to list hints in {}", nodeDirectory, e);
+      return 0;
+    }
+    final long expiredBefore = clock.millis() - expiry.toMillis();
+    int delivered = 0;
+    for (Path path : hints) {
+      final Hint hint;
+      try {
+        hint = jsonEngine.readValue(path.toFile(), Hint.class);
+      } catch (IllegalArgumentException e) {
+        LOGGER.warn("Dropping unreadable hint {}", path, e);
+        delete(path);
+        continue;
+      }
+      if (hint.created() < expiredBefore) {
+        LOGGER.debug("Expired hint {}", path);
+        metrics.increment("HintManager.expired", "node", hint.nodeRange().uuid());
+        delete(path);
+        continue;
+      }
+      rateLimiter.acquire();
+      try {
+        cachingNodeTenantTableEntryServiceEngine.get(hint.nodeRange())
+            .createTenantTableEntry(hint.tenant(), hint.resource(), hint.entryInfo().id(), hint.entryInfo());
+        metrics.increment("HintManager.replayed", "node", hint.nodeRange().uuid());
+        delivered++;
+      } catch (RuntimeException e) {
+        if (unreachable(e)) {
+          LOGGER.debug("Node still unreachable {}", hint.nodeRange().uri());
+          break;
+        }
+        LOGGER.warn("Dropping hint {} that the node rejected", path, e);
+        metrics.increment("HintManager.rejected", "node", hint.nodeRange().uuid());
+      }
+      delete(path);
+    }
+    return delivered;
+  }
+
+  private void delete(final Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to delete hint {}", path, e);
+    }
+  }
+
+}
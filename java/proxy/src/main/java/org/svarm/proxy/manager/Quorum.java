@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.proxy.manager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.svarm.common.config.api.NodeRange;
+
+/**
+ * Collects the responses from a set of replicas. Completes as soon as the required number have responded, or as
+ * soon as it is clear they never will. Responses that arrive later are still collected, for anyone who wants
+ * to wait on all of them.
+ *
+ * @param <T> the response type.
+ */
+class Quorum<T> {
+
+  private final int required;
+  private final int total;
+  private final Map<NodeRange, T> responses = new LinkedHashMap<>();
+  private final CompletableFuture<Map<NodeRange, T>> result = new CompletableFuture<>();
+  private final CompletableFuture<Map<NodeRange, T>> all = new CompletableFuture<>();
+  private int failures;
+
+  /**
+   * Constructor.
+   *
+   * @param required the number of responses needed.
+   * @param total    the number of replicas asked.
+   */
+  Quorum(final int required, final int total) {
+    this.required = required;
+    this.total = total;
+    if (required <= 0) {
+      result.complete(Map.of());
+    } else if (required > total) {
+      result.completeExceptionally(new IllegalStateException(
+          String.format("Only %d replicas, %d required", total, required)));
+    }
+    if (total <= 0) {
+      all.complete(Map.of());
+    }
+  }
+
+  /**
+   * Records a response.
+   *
+   * @param nodeRange that responded.
+   * @param response  what it said.
+   */
+  synchronized void success(final NodeRange nodeRange, final T response) {
+    responses.put(nodeRange, response);
+    if (responses.size() >= required) {
+      result.complete(new LinkedHashMap<>(responses));
+    }
+    completeAll();
+  }
+
+  /**
+   * Records a failure.
+   *
+   * @param nodeRange that failed.
+   * @param throwable why.
+   */
+  synchronized void failure(final NodeRange nodeRange, final Throwable throwable) {
+    failures++;
+    if (total - failures < required) {
+      result.completeExceptionally(new IllegalStateException(
+          String.format("%d of %d replicas failed, %d required", failures, total, required),
+          throwable));
+    }
+    completeAll();
+  }
+
+  private void completeAll() {
+    if (responses.size() + failures >= total) {
+      all.complete(new LinkedHashMap<>(responses));
+    }
+  }
+
+  /**
+   * A future completed once the required responses are in, or failed with an IllegalStateException if too many
+   * replicas failed.
+   *
+   * @return the responses so far, at least the required number of them.
+   */
+  CompletableFuture<Map<NodeRange, T>> result() {
+    return result;
+  }
+
+  /**
+   * A future completed once every replica has responded or failed.
+   *
+   * @return the successful responses.
+   */
+  CompletableFuture<Map<NodeRange, T>> all() {
+    return all;
+  }
+
+}
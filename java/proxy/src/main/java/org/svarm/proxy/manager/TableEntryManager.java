@@ -14,6 +14,7 @@
  * limitations under the License.
  */
 
+
 package org.svarm.proxy.manager;
 
 import static org.slf4j.LoggerFactory.getLogger;
@@ -21,41 +22,80 @@ import static org.svarm.proxy.module.ProxyModule.NODE_SERVICE_EXECUTOR;
 
 import com.codeheadsystems.metrics.Metrics;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.google.common.annotations.VisibleForTesting;
 import feign.FeignException;
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.svarm.common.config.api.NodeRange;
 import org.svarm.common.config.api.TenantResource;
+import org.svarm.common.config.engine.LiveNodesEngine;
+import org.svarm.common.engine.HashingEngine;
+import org.svarm.common.engine.TraceUuidEngine;
+import org.svarm.node.api.EntryDigest;
 import org.svarm.node.api.EntryInfo;
 import org.svarm.node.api.ImmutableEntryInfo;
+import org.svarm.node.codec.EncodedEntryInfo;
+import org.svarm.proxy.ProxyConfiguration;
 import org.svarm.proxy.engine.CachingNodeTenantTableEntryServiceEngine;
+import org.svarm.proxy.engine.HedgingEngine;
 import org.svarm.proxy.engine.NodeRangeResolverEngine;
+import org.svarm.proxy.engine.NodeStatsEngine;
+import org.svarm.proxy.engine.RawEntryEngine;
+import org.svarm.proxy.exception.NodeDownException;
+import org.svarm.proxy.model.Consistency;
+import org.svarm.proxy.model.RawEntry;
+import org.svarm.server.exception.NotFoundException;
 
 /**
- * Handles the requests to the various nodes for a single entry.
+ * Handles the requests to the various nodes for a single entry. Each request completes as soon as enough replicas
+ * have responded for the consistency level; the rest finish in the background. The requests are composed from
+ * futures; with the async proxy the node calls do not block a thread either, otherwise each node call blocks a
+ * thread from the node service executor. Callbacks that go on to call nodes are wrapped to run with the trace id of
+ * the request, so every node call made for it carries the same trace. The consistency is resolved by the caller on
+ * the request thread and passed in, since the callbacks run on other threads.
  */
 @Singleton
 public class TableEntryManager {
 
   private static final Logger LOGGER = getLogger(TableEntryManager.class);
-  private static final int DEFAULT_REPLICATION_FACTOR = 3;
   private final CachingNodeTenantTableEntryServiceEngine cachingNodeTenantTableEntryServiceEngine;
   private final Clock clock;
   private final Metrics metrics;
   private final ExecutorService nodeServiceExecutor;
   private final NodeRangeResolverEngine nodeRangeResolverEngine;
+  private final HintManager hintManager;
+  private final HashingEngine hashingEngine;
+  private final HedgingEngine hedgingEngine;
+  private final NodeStatsEngine nodeStatsEngine;
+  private final RawEntryEngine rawEntryEngine;
+  private final LiveNodesEngine liveNodesEngine;
+  private final TraceUuidEngine traceUuidEngine;
+  private final double readRepairChance;
+  private final boolean asyncProxy;
+  private final boolean passThroughReads;
 
 
   /**
@@ -66,71 +106,597 @@ public class TableEntryManager {
    * @param metrics                                  for processing.
    * @param nodeServiceExecutor                      for making requests.
    * @param nodeRangeResolverEngine                  to get the node ranges.
+   * @param hintManager                              to hold writes for unreachable nodes.
+   * @param configuration                            the proxy configuration.
+   * @param hashingEngine                            to digest entries.
+   * @param hedgingEngine                            to decide when to hedge reads.
+   * @param nodeStatsEngine                          to record how the nodes respond.
+   * @param rawEntryEngine                           to pass entries through without parsing them.
+   * @param liveNodesEngine                          to skip the nodes we know are down.
+   * @param traceUuidEngine                          to keep the request's trace in callbacks.
    */
   @Inject
   public TableEntryManager(final CachingNodeTenantTableEntryServiceEngine cachingNodeTenantTableEntryServiceEngine,
                            final Clock clock,
                            final Metrics metrics,
                            final @Named(NODE_SERVICE_EXECUTOR) ExecutorService nodeServiceExecutor,
-                           final NodeRangeResolverEngine nodeRangeResolverEngine) {
+                           final NodeRangeResolverEngine nodeRangeResolverEngine,
+                           final HintManager hintManager,
+                           final ProxyConfiguration configuration,
+                           final HashingEngine hashingEngine,
+                           final HedgingEngine hedgingEngine,
+                           final NodeStatsEngine nodeStatsEngine,
+                           final RawEntryEngine rawEntryEngine,
+                           final LiveNodesEngine liveNodesEngine,
+                           final TraceUuidEngine traceUuidEngine) {
     this.cachingNodeTenantTableEntryServiceEngine = cachingNodeTenantTableEntryServiceEngine;
     this.clock = clock;
     this.metrics = metrics;
     this.nodeServiceExecutor = nodeServiceExecutor;
     this.nodeRangeResolverEngine = nodeRangeResolverEngine;
-    LOGGER.info("TableEntryManager()");
+    this.hintManager = hintManager;
+    this.hashingEngine = hashingEngine;
+    this.hedgingEngine = hedgingEngine;
+    this.nodeStatsEngine = nodeStatsEngine;
+    this.rawEntryEngine = rawEntryEngine;
+    this.liveNodesEngine = liveNodesEngine;
+    this.traceUuidEngine = traceUuidEngine;
+    this.readRepairChance = configuration.getReadRepairChance();
+    this.asyncProxy = configuration.isAsyncProxy();
+    this.passThroughReads = configuration.isPassThroughReads();
+    LOGGER.info("TableEntryManager({},{},{})", readRepairChance, asyncProxy, passThroughReads);
+  }
+
+  private static Throwable unwrap(final Throwable throwable) {
+    return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+  }
+
+  private static <T> void record(final Quorum<T> quorum, final NodeRange nodeRange, final T result,
+                                 final Throwable throwable) {
+    if (throwable == null) {
+      quorum.success(nodeRange, result);
+    } else {
+      quorum.failure(nodeRange, unwrap(throwable));
+    }
+  }
+
+  /**
+   * Waits on the future, for the blocking calls.
+   *
+   * @param future to wait on.
+   * @param <T>    the type returned.
+   * @return the value.
+   * @throws IllegalStateException if too many replicas failed.
+   */
+  private static <T> T join(final CompletableFuture<T> future) {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      final Throwable cause = unwrap(e.getCause());
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Unable to get value", cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted waiting on replicas", e);
+    }
   }
 
   /**
-   * Provide a way to get the entry from the data stores.
+   * Provide a way to get the entry from the data stores, blocking until we have it.
    *
    * @param tenantResource tenantResource to lookup.
    * @param entry          the actual entry.
+   * @param consistency    for the read.
    * @return the value.
+   * @see #getTenantTableEntryAsync(TenantResource, String, Consistency)
    */
   public Optional<EntryInfo> getTenantTableEntry(final TenantResource tenantResource,
-                                                 final String entry) {
-    LOGGER.trace("getTenantTableEntry({},{})", tenantResource, entry);
+                                                 final String entry,
+                                                 final Consistency consistency) {
+    return join(getTenantTableEntryAsync(tenantResource, entry, consistency));
+  }
+
+  /**
+   * Provide a way to get the entry from the data stores. The entry is read from one replica, hedged to a second
+   * if the first is slow, with only digests read from the rest. Once the read consistency is met, if they all
+   * agree, we are done. Otherwise the disagreeing replicas are read in full and the entry with the highest
+   * timestamp wins. Replicas that had an older version are sent the winner in the background, some of the time.
+   *
+   * @param tenantResource tenantResource to lookup.
+   * @param entry          the actual entry.
+   * @param consistency    for the read.
+   * @return the value, once the read consistency is met.
+   */
+  public CompletableFuture<Optional<EntryInfo>> getTenantTableEntryAsync(final TenantResource tenantResource,
+                                                                         final String entry,
+                                                                         final Consistency consistency) {
+    LOGGER.trace("getTenantTableEntryAsync({},{},{})", tenantResource, entry, consistency);
     final Map<NodeRange, Integer> rangeHashMap = nodeRangeResolverEngine.nodeRangeToHash(tenantResource, entry);
+    if (rangeHashMap.isEmpty()) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+    final int required = consistency.required(rangeHashMap.size());
+    // the best responding replica gives us the data, the next best is where we hedge.
+    final List<NodeRange> nodeRanges = order(rangeHashMap.keySet());
+    final NodeRange dataNodeRange = nodeRanges.get(0);
+    final List<NodeRange> others = nodeRanges.subList(1, nodeRanges.size());
+    // with ALL we need every replica anyway, so there is nothing to gain from hedging.
+    final Optional<NodeRange> hedgeNodeRange = hedgingEngine.enabled() && required < nodeRanges.size()
+        ? Optional.of(nodeRanges.get(1)) : Optional.empty();
 
-    final Map<JsonNode, List<EntryInfo>> map = rangeHashMap.keySet().stream()
-        .map(nodeRange -> (Callable<Optional<EntryInfo>>) () -> getEntryFromNode(tenantResource, entry, nodeRange))
-        .map(nodeServiceExecutor::submit)
-        .map(this::get)
-        .filter(Optional::isPresent)
-        .map(Optional::get)
-        .collect(Collectors.groupingBy(EntryInfo::data));
-    if (map.isEmpty()) {
-      return Optional.empty();
-    } else {
-      return map.entrySet().stream()
-          .sorted(this::largestListFirst)
-          .map(Map.Entry::getValue)
-          .map(list -> list.get(0))
-          .findFirst();
+    final CompletableFuture<Map.Entry<NodeRange, Optional<EntryInfo>>> dataFuture =
+        readData(tenantResource, entry, dataNodeRange, hedgeNodeRange);
+    final Map<NodeRange, CompletableFuture<Optional<EntryDigest>>> digestFutures = new LinkedHashMap<>();
+    others.forEach(nodeRange -> digestFutures.put(nodeRange, readDigest(tenantResource, entry, nodeRange)));
+
+    return dataFuture.handle(traceUuidEngine.wrapBiFunction((reply, throwable) -> {
+      if (throwable == null) {
+        return verify(tenantResource, entry, rangeHashMap, required, digestFutures, reply);
+      }
+      metrics.increment("TableEntryManager.dataReadFailure",
+          "tenant", tenantResource.tenant(), "resource", tenantResource.resource());
+      if (others.isEmpty()) {
+        // the only replica failed, there is no one else to ask.
+        return CompletableFuture.<Optional<EntryInfo>>failedFuture(unwrap(throwable));
+      }
+      LOGGER.warn("Unable to read {} from {}, reading the other replicas", entry, dataNodeRange.uri(),
+          unwrap(throwable));
+      return readEntries(tenantResource, entry, others, required).result()
+          .thenApply(traceUuidEngine.wrapFunction(
+              results -> resolve(tenantResource, rangeHashMap, results, new LinkedHashMap<>())));
+    })).thenCompose(Function.identity());
+  }
+
+  /**
+   * If a read can pass the node's data through. Only when the read consistency is ONE, since then a single replica
+   * is authoritative and we never need to compare its data, and only for the async proxy.
+   *
+   * @param consistency for the read.
+   * @return true if the raw read should be used.
+   */
+  public boolean passThrough(final Consistency consistency) {
+    return passThroughReads && asyncProxy && consistency == Consistency.ONE;
+  }
+
+  /**
+   * Reads the entry from the best replica and hands back its body as the node sent it, so the data can be written
+   * to the client without being parsed. Digests are still read from the other replicas; if any disagree on the
+   * timestamp, a full read is done in the background to resolve and repair them. Only for reads with a consistency
+   * of ONE.
+   *
+   * @param tenantResource tenantResource to lookup.
+   * @param entry          the actual entry.
+   * @return the raw entry.
+   * @see #passThrough(Consistency)
+   */
+  public CompletableFuture<Optional<RawEntry>> getTenantTableEntryRawAsync(final TenantResource tenantResource,
+                                                                           final String entry) {
+    LOGGER.trace("getTenantTableEntryRawAsync({},{})", tenantResource, entry);
+    final Map<NodeRange, Integer> rangeHashMap = nodeRangeResolverEngine.nodeRangeToHash(tenantResource, entry);
+    if (rangeHashMap.isEmpty()) {
+      return CompletableFuture.completedFuture(Optional.empty());
     }
+    final List<NodeRange> nodeRanges = order(rangeHashMap.keySet());
+    final NodeRange dataNodeRange = nodeRanges.get(0);
+    final List<NodeRange> others = nodeRanges.subList(1, nodeRanges.size());
+    final Map<NodeRange, CompletableFuture<Optional<EntryDigest>>> digestFutures = new LinkedHashMap<>();
+    others.forEach(nodeRange -> digestFutures.put(nodeRange, readDigest(tenantResource, entry, nodeRange)));
+
+    return readRaw(tenantResource, entry, dataNodeRange).handle(traceUuidEngine.wrapBiFunction((raw, throwable) -> {
+      if (throwable == null) {
+        checkTimestamps(tenantResource, entry, raw.map(RawEntry::timestamp), digestFutures);
+        return CompletableFuture.completedFuture(raw);
+      }
+      metrics.increment("TableEntryManager.dataReadFailure",
+          "tenant", tenantResource.tenant(), "resource", tenantResource.resource());
+      if (others.isEmpty()) {
+        // the only replica failed, there is no one else to ask.
+        return CompletableFuture.<Optional<RawEntry>>failedFuture(unwrap(throwable));
+      }
+      LOGGER.warn("Unable to read {} from {}, reading the other replicas", entry, dataNodeRange.uri(),
+          unwrap(throwable));
+      return readEntries(tenantResource, entry, others, 1).result()
+          .thenApply(traceUuidEngine.wrapFunction(
+              results -> resolve(tenantResource, rangeHashMap, results, new LinkedHashMap<>())
+                  .map(rawEntryEngine::of)));
+    })).thenCompose(Function.identity());
+  }
+
+  /**
+   * Once the digests are in, does a full read in the background if any replica has a different version than the
+   * one we passed through. The full read resolves the winner and repairs the replicas behind it.
+   *
+   * @param tenantResource the tenant resource.
+   * @param entry          the entry.
+   * @param timestamp      of the entry we passed through, if any.
+   * @param digestFutures  the digests we asked for.
+   */
+  private void checkTimestamps(final TenantResource tenantResource,
+                               final String entry,
+                               final Optional<Long> timestamp,
+                               final Map<NodeRange, CompletableFuture<Optional<EntryDigest>>> digestFutures) {
+    // a replica we could not reach is left to hints and repair.
+    final List<CompletableFuture<Boolean>> matches = digestFutures.values().stream()
+        .map(future -> future.handle((digest, throwable) ->
+            throwable != null || timestamp.equals(digest.map(EntryDigest::timestamp))))
+        .toList();
+    CompletableFuture.allOf(matches.toArray(CompletableFuture[]::new)).thenRun(traceUuidEngine.wrap(() -> {
+      if (matches.stream().allMatch(CompletableFuture::join)) {
+        return;
+      }
+      metrics.increment("TableEntryManager.passThroughMismatch",
+          "tenant", tenantResource.tenant(), "resource", tenantResource.resource());
+      getTenantTableEntryAsync(tenantResource, entry, Consistency.ONE).whenComplete((ignored, throwable) -> {
+        if (throwable != null) {
+          LOGGER.warn("Unable to resolve {} after a pass through read", entry, unwrap(throwable));
+        }
+      });
+    }));
   }
 
   /**
-   * Largest list first int.
+   * Checks the full entry we read against the digests from the other replicas, reading the ones that disagree.
    *
-   * @param entry1 the entry 1
-   * @param entry2 the entry 2
-   * @return the int
+   * @param tenantResource the tenant resource.
+   * @param entry          the entry.
+   * @param rangeHashMap   the location hash for each node range.
+   * @param required       the number of replicas needed.
+   * @param digestFutures  the digests we asked for.
+   * @param reply          the node range that gave us the data, with the data.
+   * @return the entry.
    */
-  @VisibleForTesting
-  int largestListFirst(final Map.Entry<JsonNode, List<EntryInfo>> entry1,
-                       final Map.Entry<JsonNode, List<EntryInfo>> entry2) {
-    return entry2.getValue().size() - entry1.getValue().size();
+  private CompletableFuture<Optional<EntryInfo>> verify(
+      final TenantResource tenantResource,
+      final String entry,
+      final Map<NodeRange, Integer> rangeHashMap,
+      final int required,
+      final Map<NodeRange, CompletableFuture<Optional<EntryDigest>>> digestFutures,
+      final Map.Entry<NodeRange, Optional<EntryInfo>> reply) {
+    final NodeRange source = reply.getKey();
+    final Optional<EntryInfo> data = reply.getValue();
+    // the digests we need come from the replicas other than the one that gave us the data.
+    final Map<NodeRange, CompletableFuture<Optional<EntryDigest>>> otherDigests = new LinkedHashMap<>(digestFutures);
+    otherDigests.remove(source);
+    final Quorum<Optional<EntryDigest>> digests = new Quorum<>(required - 1, otherDigests.size());
+    otherDigests.forEach((nodeRange, future) ->
+        future.whenComplete((digest, throwable) -> record(digests, nodeRange, digest, throwable)));
+
+    final Optional<Long> dataDigest = data.map(entryInfo -> hashingEngine.digest(entryInfo.data()));
+    return digests.result().thenCompose(traceUuidEngine.wrapFunction(responses -> {
+      // replicas that respond after we are done are only checked to see if they need repair.
+      digests.all().thenAccept(traceUuidEngine.wrapConsumer(all -> all.forEach((nodeRange, digest) -> {
+        if (!responses.containsKey(nodeRange) && !matches(data, dataDigest, digest)) {
+          data.ifPresent(winner -> readRepair(tenantResource, rangeHashMap,
+              Map.of(nodeRange, digest.map(EntryDigest::timestamp)), winner));
+        }
+      })));
+
+      // replicas that match the digest have what the data node has.
+      final Map<NodeRange, Optional<Long>> timestamps = new LinkedHashMap<>();
+      timestamps.put(source, data.map(EntryInfo::timestamp));
+      final List<NodeRange> mismatched = new ArrayList<>();
+      responses.forEach((nodeRange, digest) -> {
+        if (matches(data, dataDigest, digest)) {
+          timestamps.put(nodeRange, data.map(EntryInfo::timestamp));
+        } else {
+          mismatched.add(nodeRange);
+        }
+      });
+      if (mismatched.isEmpty()) {
+        return CompletableFuture.completedFuture(data);
+      }
+      metrics.increment("TableEntryManager.digestMismatch",
+          "tenant", tenantResource.tenant(), "resource", tenantResource.resource());
+      return readEntries(tenantResource, entry, mismatched, mismatched.size()).all()
+          .thenApply(traceUuidEngine.wrapFunction(read -> {
+            final Map<NodeRange, Optional<EntryInfo>> results = new LinkedHashMap<>();
+            results.put(source, data);
+            results.putAll(read);
+            return resolve(tenantResource, rangeHashMap, results, timestamps);
+          }));
+    }));
+  }
+
+  private boolean matches(final Optional<EntryInfo> data,
+                          final Optional<Long> dataDigest,
+                          final Optional<EntryDigest> digest) {
+    if (data.isEmpty() || digest.isEmpty()) {
+      return data.isEmpty() && digest.isEmpty();
+    }
+    return data.get().timestamp().equals(digest.get().timestamp())
+        && dataDigest.get().equals(digest.get().digest());
+  }
+
+  private Quorum<Optional<EntryInfo>> readEntries(final TenantResource tenantResource,
+                                                  final String entry,
+                                                  final List<NodeRange> nodeRanges,
+                                                  final int required) {
+    final Quorum<Optional<EntryInfo>> quorum = new Quorum<>(required, nodeRanges.size());
+    nodeRanges.forEach(nodeRange -> readEntry(tenantResource, entry, nodeRange)
+        .whenComplete((result, throwable) -> record(quorum, nodeRange, result, throwable)));
+    return quorum;
   }
 
-  private <T> T get(final Future<T> future) {
+  /**
+   * Reads the full entry from the node range. If it is slower than usual, and the budget allows, the read is
+   * hedged to the backup, and whichever answers first wins. The other read is cancelled.
+   *
+   * @param tenantResource the tenant resource.
+   * @param entry          the entry.
+   * @param nodeRange      to read from.
+   * @param backup         to hedge to, if any.
+   * @return the node range that answered, with its answer.
+   */
+  private CompletableFuture<Map.Entry<NodeRange, Optional<EntryInfo>>> readData(final TenantResource tenantResource,
+                                                                               final String entry,
+                                                                               final NodeRange nodeRange,
+                                                                               final Optional<NodeRange> backup) {
+    final CompletableFuture<Map.Entry<NodeRange, Optional<EntryInfo>>> result = new CompletableFuture<>();
+    final List<CompletableFuture<Optional<EntryInfo>>> attempts = new CopyOnWriteArrayList<>();
+    final AtomicInteger outstanding = new AtomicInteger(1);
+    final CompletableFuture<Optional<EntryInfo>> first = readEntry(tenantResource, entry, nodeRange);
+    attempts.add(first);
+    first.whenComplete((value, throwable) -> complete(result, nodeRange, value, throwable, outstanding));
+    backup.ifPresent(hedge -> {
+      hedgingEngine.request();
+      final Executor delayed = CompletableFuture.delayedExecutor(
+          hedgingEngine.delayMillis(nodeRange), TimeUnit.MILLISECONDS, nodeServiceExecutor);
+      CompletableFuture.runAsync(traceUuidEngine.wrap(() -> {
+        if (!result.isDone() && hedgingEngine.tryHedge()) {
+          LOGGER.debug("Hedging read of {} from {} to {}", entry, nodeRange.uri(), hedge.uri());
+          outstanding.incrementAndGet();
+          final CompletableFuture<Optional<EntryInfo>> hedged = readEntry(tenantResource, entry, hedge);
+          attempts.add(hedged);
+          hedged.whenComplete((value, throwable) -> complete(result, hedge, value, throwable, outstanding));
+        }
+      }), delayed);
+    });
+    result.whenComplete((reply, throwable) -> attempts.forEach(attempt -> attempt.cancel(true)));
+    return result;
+  }
+
+  private void complete(final CompletableFuture<Map.Entry<NodeRange, Optional<EntryInfo>>> result,
+                        final NodeRange nodeRange,
+                        final Optional<EntryInfo> value,
+                        final Throwable throwable,
+                        final AtomicInteger outstanding) {
+    if (throwable == null) {
+      result.complete(Map.entry(nodeRange, value));
+    } else if (outstanding.decrementAndGet() == 0) {
+      result.completeExceptionally(unwrap(throwable));
+    }
+  }
+
+  /**
+   * Orders the node ranges best first, with the nodes we know are down after the rest, so reads go to live
+   * replicas.
+   *
+   * @param nodeRanges to order.
+   * @return the ordered list.
+   */
+  private List<NodeRange> order(final Collection<NodeRange> nodeRanges) {
+    return nodeStatsEngine.order(nodeRanges).stream()
+        .sorted(Comparator.comparing((NodeRange nodeRange) -> !liveNodesEngine.isLive(nodeRange.uuid())))
+        .toList();
+  }
+
+  /**
+   * Makes the call to the node, recording how the node responded. With the async proxy the async call is used,
+   * otherwise the blocking call is run on the node service executor. Cancelling the returned future cancels the
+   * call. A node we know is down is not called at all; the future fails right away, so writes to it are hinted.
+   *
+   * @param nodeRange the node being called.
+   * @param blocking  the blocking call.
+   * @param async     the async call.
+   * @param <T>       the type returned.
+   * @return the future.
+   */
+  private <T> CompletableFuture<T> call(final NodeRange nodeRange,
+                                        final Supplier<T> blocking,
+                                        final Supplier<CompletableFuture<T>> async) {
+    if (!liveNodesEngine.isLive(nodeRange.uuid())) {
+      metrics.increment("TableEntryManager.nodeDown", "node", nodeRange.uuid());
+      return CompletableFuture.failedFuture(new NodeDownException(nodeRange.uuid()));
+    }
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    final long start = System.nanoTime();
+    // a cancelled call may never run, so whichever of the call or the cancel finishes first records it. A cancel
+    // is not a sample of how the node is doing, it just stops counting as in flight.
+    final AtomicBoolean finished = new AtomicBoolean(false);
+    final Consumer<Boolean> end = success -> {
+      if (finished.compareAndSet(false, true)) {
+        nodeStatsEngine.end(nodeRange.uri(), System.nanoTime() - start, success);
+      }
+    };
+    final Runnable cancel = () -> {
+      if (finished.compareAndSet(false, true)) {
+        nodeStatsEngine.cancel(nodeRange.uri());
+      }
+    };
+    nodeStatsEngine.begin(nodeRange.uri());
+    final Future<?> task;
+    if (asyncProxy) {
+      final CompletableFuture<T> request = start(async);
+      request.whenComplete((value, throwable) -> {
+        end.accept(throwable == null);
+        if (throwable == null) {
+          future.complete(value);
+        } else {
+          future.completeExceptionally(unwrap(throwable));
+        }
+      });
+      task = request;
+    } else {
+      task = nodeServiceExecutor.submit(traceUuidEngine.wrap(() -> {
+        try {
+          final T value = blocking.get();
+          end.accept(true);
+          future.complete(value);
+        } catch (RuntimeException e) {
+          end.accept(false);
+          future.completeExceptionally(e);
+        }
+      }));
+    }
+    future.whenComplete((value, throwable) -> {
+      if (future.isCancelled()) {
+        cancel.run();
+        task.cancel(true);
+      }
+    });
+    return future;
+  }
+
+  private <T> CompletableFuture<T> start(final Supplier<CompletableFuture<T>> async) {
     try {
-      return future.get();
-    } catch (InterruptedException | ExecutionException e) {
-      LOGGER.error("Unable to get value", e);
-      throw new IllegalStateException("Unable to get value", e);
+      return async.get();
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Picks the entry with the highest timestamp, and repairs the replicas behind it.
+   *
+   * @param tenantResource the tenant resource.
+   * @param rangeHashMap   the location hash for each node range.
+   * @param results        the full entries we read.
+   * @param timestamps     the timestamps of replicas we know of, without their full entry.
+   * @return the winner.
+   */
+  private Optional<EntryInfo> resolve(final TenantResource tenantResource,
+                                      final Map<NodeRange, Integer> rangeHashMap,
+                                      final Map<NodeRange, Optional<EntryInfo>> results,
+                                      final Map<NodeRange, Optional<Long>> timestamps) {
+    final Optional<EntryInfo> winner = results.values().stream()
+        .flatMap(Optional::stream)
+        .max(Comparator.comparing(EntryInfo::timestamp));
+    results.forEach((nodeRange, result) -> timestamps.put(nodeRange, result.map(EntryInfo::timestamp)));
+    winner.ifPresent(entryInfo -> readRepair(tenantResource, rangeHashMap, timestamps, entryInfo));
+    return winner;
+  }
+
+  /**
+   * Finds the replicas that are behind the winning entry, and if we are chosen to, send them the winner. A replica
+   * without the entry may have deleted it after the winner was written, and reads do not tell us when, so only
+   * replicas with an older version are repaired. The repair manager on the nodes settles the rest, tombstones
+   * included.
+   *
+   * @param tenantResource the tenant resource.
+   * @param rangeHashMap   the location hash for each node range.
+   * @param timestamps     the timestamp each node range has for the entry, if any.
+   * @param winner         the entry with the highest timestamp.
+   */
+  private void readRepair(final TenantResource tenantResource,
+                          final Map<NodeRange, Integer> rangeHashMap,
+                          final Map<NodeRange, Optional<Long>> timestamps,
+                          final EntryInfo winner) {
+    final List<NodeRange> stale = timestamps.entrySet().stream()
+        .filter(e -> e.getValue().map(timestamp -> timestamp < winner.timestamp()).orElse(false))
+        .map(Map.Entry::getKey)
+        .toList();
+    if (stale.isEmpty()) {
+      return;
+    }
+    metrics.increment("TableEntryManager.divergence",
+        "tenant", tenantResource.tenant(), "resource", tenantResource.resource());
+    if (ThreadLocalRandom.current().nextDouble() >= readRepairChance) {
+      return;
     }
+    final EncodedEntryInfo body = EncodedEntryInfo.of(winner);
+    stale.forEach(nodeRange -> writeEntry(tenantResource, winner.id(), nodeRange, rangeHashMap.get(nodeRange), body)
+        .whenComplete((ignored, throwable) -> {
+          if (throwable == null) {
+            metrics.increment("TableEntryManager.readRepair",
+                "tenant", tenantResource.tenant(), "resource", tenantResource.resource());
+          } else {
+            LOGGER.warn("Unable to read repair {} on {}", winner.id(), nodeRange.uri(), unwrap(throwable));
+            metrics.increment("TableEntryManager.readRepair.failure",
+                "tenant", tenantResource.tenant(), "resource", tenantResource.resource());
+          }
+        }));
+  }
+
+  private CompletableFuture<Optional<EntryInfo>> readEntry(final TenantResource tenantResource,
+                                                           final String entry,
+                                                           final NodeRange nodeRange) {
+    return call(nodeRange,
+        () -> getEntryFromNode(tenantResource, entry, nodeRange),
+        () -> emptyIfNotFound(nodeRange, cachingNodeTenantTableEntryServiceEngine.getAsync(nodeRange)
+            .readTenantTableEntry(tenantResource.tenant(), tenantResource.resource(), entry)));
+  }
+
+  private CompletableFuture<Optional<RawEntry>> readRaw(final TenantResource tenantResource,
+                                                        final String entry,
+                                                        final NodeRange nodeRange) {
+    final Supplier<CompletableFuture<Optional<RawEntry>>> async = () -> cachingNodeTenantTableEntryServiceEngine
+        .getRaw(nodeRange)
+        .readTenantTableEntry(tenantResource.tenant(), tenantResource.resource(), entry)
+        .thenApply(rawEntryEngine::read);
+    return call(nodeRange, () -> join(async.get()), async);
+  }
+
+  private CompletableFuture<Optional<EntryDigest>> readDigest(final TenantResource tenantResource,
+                                                              final String entry,
+                                                              final NodeRange nodeRange) {
+    return call(nodeRange,
+        () -> getDigestFromNode(tenantResource, entry, nodeRange),
+        () -> emptyIfNotFound(nodeRange, cachingNodeTenantTableEntryServiceEngine.getAsync(nodeRange)
+            .readTenantTableEntryDigest(tenantResource.tenant(), tenantResource.resource(), entry)));
+  }
+
+  /**
+   * Writes the body to one replica. The body is shared by all the replicas of the write, so it is only encoded
+   * once; the location hash for this replica goes in a header.
+   *
+   * @param tenantResource the tenant resource.
+   * @param entry          the entry.
+   * @param nodeRange      the replica.
+   * @param locationHash   the location hash on this replica.
+   * @param body           the entry to write.
+   * @return completes when the replica has it.
+   */
+  private CompletableFuture<Void> writeEntry(final TenantResource tenantResource,
+                                             final String entry,
+                                             final NodeRange nodeRange,
+                                             final int locationHash,
+                                             final EncodedEntryInfo body) {
+    return call(nodeRange,
+        () -> {
+          cachingNodeTenantTableEntryServiceEngine.get(nodeRange).createTenantTableEntryReplica(
+              tenantResource.tenant(), tenantResource.resource(), entry, locationHash, body);
+          return null;
+        },
+        () -> cachingNodeTenantTableEntryServiceEngine.getAsync(nodeRange).createTenantTableEntryReplica(
+            tenantResource.tenant(), tenantResource.resource(), entry, locationHash, body));
+  }
+
+  private CompletableFuture<Void> deleteEntry(final TenantResource tenantResource,
+                                              final String entry,
+                                              final NodeRange nodeRange,
+                                              final Long timestamp) {
+    return call(nodeRange,
+        () -> {
+          cachingNodeTenantTableEntryServiceEngine.get(nodeRange)
+              .deleteTenantTableEntry(tenantResource.tenant(), tenantResource.resource(), entry, timestamp);
+          return null;
+        },
+        () -> cachingNodeTenantTableEntryServiceEngine.getAsync(nodeRange)
+            .deleteTenantTableEntry(tenantResource.tenant(), tenantResource.resource(), entry, timestamp));
+  }
+
+  private <T> CompletableFuture<Optional<T>> emptyIfNotFound(final NodeRange nodeRange,
+                                                             final CompletableFuture<Optional<T>> future) {
+    return future.exceptionallyCompose(throwable -> {
+      final Throwable cause = unwrap(throwable);
+      if (cause instanceof FeignException.NotFound) {
+        LOGGER.trace("Not found for {}", nodeRange);
+        return CompletableFuture.completedFuture(Optional.empty());
+      }
+      return CompletableFuture.failedFuture(cause);
+    });
   }
 
   private Optional<EntryInfo> getEntryFromNode(final TenantResource tenantResource, final String entry, final NodeRange nodeRange) {
@@ -146,57 +712,152 @@ public class TableEntryManager {
     return Optional.empty();
   }
 
+  private Optional<EntryDigest> getDigestFromNode(final TenantResource tenantResource, final String entry, final NodeRange nodeRange) {
+    try {
+      return cachingNodeTenantTableEntryServiceEngine.get(nodeRange)
+          .readTenantTableEntryDigest(
+              tenantResource.tenant(),
+              tenantResource.resource(),
+              entry);
+    } catch (FeignException.NotFound e) {
+      LOGGER.trace("Not found for {}", nodeRange);
+    }
+    return Optional.empty();
+  }
+
   /**
-   * Writes the value to all the nodes in the set.
+   * Writes the value to all the nodes in the set, blocking until the write consistency is met.
    *
    * @param tenantResource to write.
    * @param entry          the entry.
    * @param data           the data.
+   * @param consistency    for the write.
+   * @see #putTenantTableEntryAsync(TenantResource, String, JsonNode, Consistency)
    */
   public void putTenantTableEntry(final TenantResource tenantResource,
                                   final String entry,
-                                  final JsonNode data) {
-    LOGGER.trace("putTenantTableEntry({},{},{})", tenantResource, entry, data);
+                                  final JsonNode data,
+                                  final Consistency consistency) {
+    join(putTenantTableEntryAsync(tenantResource, entry, data, consistency));
+  }
+
+  /**
+   * Writes the value to all the nodes in the set, completing once the write consistency is met. Replicas that
+   * cannot be reached are given a hint to replay later, but only replicas that took the write count towards
+   * the write consistency.
+   *
+   * @param tenantResource to write.
+   * @param entry          the entry.
+   * @param data           the data.
+   * @param consistency    for the write.
+   * @return completes once the write consistency is met.
+   */
+  public CompletableFuture<Void> putTenantTableEntryAsync(final TenantResource tenantResource,
+                                                          final String entry,
+                                                          final JsonNode data,
+                                                          final Consistency consistency) {
+    LOGGER.trace("putTenantTableEntryAsync({},{},{},{})", tenantResource, entry, data, consistency);
     // get the node lists from etcd.
     final Map<NodeRange, Integer> rangeHashMap = nodeRangeResolverEngine.nodeRangeToHash(tenantResource, entry);
+    if (rangeHashMap.isEmpty()) {
+      return noReplicas(tenantResource);
+    }
     final Long timestamp = clock.millis();
+    final Quorum<Boolean> quorum = new Quorum<>(consistency.required(rangeHashMap.size()), rangeHashMap.size());
 
-    rangeHashMap.entrySet().stream()
-        .map(tuple -> (Runnable) () -> {
-          final EntryInfo entryInfo = ImmutableEntryInfo.builder()
-              .id(entry).data(data).locationHash(tuple.getValue()).timestamp(timestamp)
-              .build();
-          cachingNodeTenantTableEntryServiceEngine.get(tuple.getKey())
-              .createTenantTableEntry(
-                  tenantResource.tenant(),
-                  tenantResource.resource(),
-                  entry,
-                  entryInfo);
-        })
-        .map(nodeServiceExecutor::submit)
-        .forEach(this::get); // let the future complete before we return.
+    // one body for all the replicas; each gets its own location hash in the header.
+    final EncodedEntryInfo body = EncodedEntryInfo.of(ImmutableEntryInfo.builder()
+        .id(entry).data(data).locationHash(0).timestamp(timestamp)
+        .build());
+    rangeHashMap.forEach((nodeRange, hash) -> {
+      writeEntry(tenantResource, entry, nodeRange, hash, body)
+          .whenComplete((ignored, throwable) -> {
+            if (throwable == null) {
+              quorum.success(nodeRange, true);
+              return;
+            }
+            final Throwable cause = unwrap(throwable);
+            final EntryInfo entryInfo = ImmutableEntryInfo.copyOf(body.entryInfo()).withLocationHash(hash);
+            if (HintManager.unreachable(cause) && hintManager.hint(nodeRange, tenantResource, entryInfo)) {
+              LOGGER.warn("Hinted write of {} for unreachable node {}", entry, nodeRange.uri());
+            } else {
+              LOGGER.error("Unable to write {} to {}", entry, nodeRange.uri(), cause);
+            }
+            quorum.failure(nodeRange, cause);
+          });
+    });
+    return completion(quorum, consistency);
   }
 
   /**
-   * Writes the value to all the nodes in the set.
+   * Deletes the value from all the nodes in the set, blocking until the write consistency is met.
    *
    * @param tenantResource to write.
    * @param entry          the entry.
+   * @param consistency    for the delete.
+   * @see #deleteTenantTableEntryAsync(TenantResource, String, Consistency)
    */
   public void deleteTenantTableEntry(final TenantResource tenantResource,
-                                     final String entry) {
-    LOGGER.trace("deleteTenantTableEntry({},{})", tenantResource, entry);
+                                     final String entry,
+                                     final Consistency consistency) {
+    join(deleteTenantTableEntryAsync(tenantResource, entry, consistency));
+  }
+
+  /**
+   * Deletes the value from all the nodes in the set, completing once the write consistency is met. The delete is
+   * stamped here, like writes are, so the nodes order it against the writes. A node that does not have the entry
+   * counts as deleted. Nodes that missed the delete get it from the node repair process.
+   *
+   * @param tenantResource to write.
+   * @param entry          the entry.
+   * @param consistency    for the delete.
+   * @return completes once the write consistency is met.
+   */
+  public CompletableFuture<Void> deleteTenantTableEntryAsync(final TenantResource tenantResource,
+                                                             final String entry,
+                                                             final Consistency consistency) {
+    LOGGER.trace("deleteTenantTableEntryAsync({},{},{})", tenantResource, entry, consistency);
     // get the node lists from etcd.
     final Map<NodeRange, Integer> rangeHashMap = nodeRangeResolverEngine.nodeRangeToHash(tenantResource, entry);
-    rangeHashMap.keySet().stream()
-        .map(cachingNodeTenantTableEntryServiceEngine::get)
-        .map((node) -> (Runnable) () -> node.deleteTenantTableEntry(
-            tenantResource.tenant(),
-            tenantResource.resource(),
-            entry))
-        .map(nodeServiceExecutor::submit)
-        .forEach(this::get); // let the future complete before we return.
+    if (rangeHashMap.isEmpty()) {
+      return noReplicas(tenantResource);
+    }
+    final Long timestamp = clock.millis();
+    final Quorum<Boolean> quorum = new Quorum<>(consistency.required(rangeHashMap.size()), rangeHashMap.size());
+
+    rangeHashMap.keySet().forEach(nodeRange -> deleteEntry(tenantResource, entry, nodeRange, timestamp)
+        .whenComplete((ignored, throwable) -> {
+          final Throwable cause = throwable == null ? null : unwrap(throwable);
+          if (cause == null || cause instanceof FeignException.NotFound) {
+            quorum.success(nodeRange, true);
+          } else {
+            LOGGER.error("Unable to delete {} from {}", entry, nodeRange.uri(), cause);
+            quorum.failure(nodeRange, cause);
+          }
+        }));
+    return completion(quorum, consistency);
+  }
+
+  /**
+   * Fails a write or delete that has no replicas, as nothing would take it, so it must not report success.
+   *
+   * @param tenantResource the tenant resource.
+   * @return the failed future.
+   */
+  private CompletableFuture<Void> noReplicas(final TenantResource tenantResource) {
+    metrics.increment("TableEntryManager.noReplicas",
+        "tenant", tenantResource.tenant(), "resource", tenantResource.resource());
+    return CompletableFuture.failedFuture(new NotFoundException("No replicas for " + tenantResource));
   }
 
+  private CompletableFuture<Void> completion(final Quorum<Boolean> quorum, final Consistency consistency) {
+    return quorum.result().handle((responses, throwable) -> {
+      if (throwable != null) {
+        metrics.increment("TableEntryManager.consistencyFailure", "consistency", consistency.name());
+        throw new CompletionException(unwrap(throwable));
+      }
+      return null;
+    });
+  }
 
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.proxy.model;
+
+/**
+ * How many replicas have to respond before a request is considered successful.
+ */
+public enum Consistency {
+
+  /**
+   * A single replica.
+   */
+  ONE,
+  /**
+   * A majority of the replicas.
+   */
+  QUORUM,
+  /**
+   * Every replica.
+   */
+  ALL;
+
+  /**
+   * The number of replicas required out of the given count.
+   *
+   * @param replicas the number of replicas for the request.
+   * @return the number required, never more than the replicas.
+   */
+  public int required(final int replicas) {
+    return switch (this) {
+      case ONE -> Math.min(1, replicas);
+      case QUORUM -> Math.min(replicas / 2 + 1, replicas);
+      case ALL -> replicas;
+    };
+  }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.proxy.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.node.api.EntryInfo;
+
+/**
+ * A write that could not be delivered to a replica, held until the replica is reachable again.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableHint.class)
+@JsonDeserialize(builder = ImmutableHint.Builder.class)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public interface Hint {
+
+  /**
+   * The node range the write was meant for.
+   *
+   * @return value. node range
+   */
+  @JsonProperty("nodeRange")
+  NodeRange nodeRange();
+
+  /**
+   * The tenant.
+   *
+   * @return value. string
+   */
+  @JsonProperty("tenant")
+  String tenant();
+
+  /**
+   * The resource.
+   *
+   * @return value. string
+   */
+  @JsonProperty("resource")
+  String resource();
+
+  /**
+   * The entry to write, with its original timestamp.
+   *
+   * @return value. entry info
+   */
+  @JsonProperty("entryInfo")
+  EntryInfo entryInfo();
+
+  /**
+   * When the hint was created, in millis.
+   *
+   * @return value. long
+   */
+  @JsonProperty("created")
+  Long created();
+
+}
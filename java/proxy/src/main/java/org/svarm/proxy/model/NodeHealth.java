@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.proxy.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+/**
+ * How the proxy sees a node: its circuit breaker, bulkhead, and if it is ejected from replica selection.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableNodeHealth.class)
+@JsonDeserialize(builder = ImmutableNodeHealth.Builder.class)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public interface NodeHealth {
+
+  /**
+   * The uri of the node.
+   *
+   * @return value. string
+   */
+  @JsonProperty("uri")
+  String uri();
+
+  /**
+   * The state of the circuit breaker, CLOSED when the node is healthy.
+   *
+   * @return value. string
+   */
+  @JsonProperty("circuitBreaker")
+  String circuitBreaker();
+
+  /**
+   * The failure rate the circuit breaker has seen, or -1 until it has seen enough calls.
+   *
+   * @return value. float
+   */
+  @JsonProperty("failureRate")
+  float failureRate();
+
+  /**
+   * How many more concurrent calls the bulkhead allows.
+   *
+   * @return value. int
+   */
+  @JsonProperty("availableConcurrentCalls")
+  int availableConcurrentCalls();
+
+  /**
+   * If the node is ejected from replica selection.
+   *
+   * @return value. boolean
+   */
+  @JsonProperty("ejected")
+  boolean ejected();
+
+  /**
+   * The score for the node. Lower is better.
+   *
+   * @return value. double
+   */
+  @JsonProperty("score")
+  double score();
+
+}
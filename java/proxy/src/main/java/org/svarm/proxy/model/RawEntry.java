@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.proxy.model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An entry as the node sent it: the response body, untouched, with where the data sits inside it. Lets the proxy
+ * hand the data straight to the client without building a tree from it and writing it back out.
+ */
+public final class RawEntry {
+
+  private final byte[] body;
+  private final int dataOffset;
+  private final int dataLength;
+  private final long timestamp;
+
+  private RawEntry(final byte[] body, final int dataOffset, final int dataLength, final long timestamp) {
+    this.body = body;
+    this.dataOffset = dataOffset;
+    this.dataLength = dataLength;
+    this.timestamp = timestamp;
+  }
+
+  /**
+   * The raw entry.
+   *
+   * @param body       the body from the node. Not copied, do not modify it.
+   * @param dataOffset where the data starts in the body.
+   * @param dataLength the length of the data.
+   * @param timestamp  of the entry.
+   * @return the raw entry.
+   */
+  public static RawEntry of(final byte[] body, final int dataOffset, final int dataLength, final long timestamp) {
+    if (dataOffset < 0 || dataLength < 0 || dataOffset + dataLength > body.length) {
+      throw new IllegalArgumentException("Data is not within the body");
+    }
+    return new RawEntry(body, dataOffset, dataLength, timestamp);
+  }
+
+  /**
+   * Timestamp of the entry.
+   *
+   * @return the timestamp.
+   */
+  public long timestamp() {
+    return timestamp;
+  }
+
+  /**
+   * The length of the data.
+   *
+   * @return in bytes.
+   */
+  public int dataLength() {
+    return dataLength;
+  }
+
+  /**
+   * Writes the data, as the node encoded it.
+   *
+   * @param outputStream to write to.
+   * @throws IOException if the stream fails.
+   */
+  public void writeData(final OutputStream outputStream) throws IOException {
+    outputStream.write(body, dataOffset, dataLength);
+  }
+
+}
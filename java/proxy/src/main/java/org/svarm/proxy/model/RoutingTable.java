@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.proxy.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.common.config.api.TenantResourceRange;
+
+/**
+ * A compiled, read-only view of a tenant resource range. The low hash of each range is kept in a sorted primitive
+ * array with the node ranges in a parallel array, so resolving a hash is a binary search with no allocation. Build
+ * one per version of the tenant resource range and replace it as a whole when the range changes.
+ */
+public final class RoutingTable {
+
+  private final TenantResourceRange tenantResourceRange;
+  private final int[] lows;
+  private final NodeRange[] nodeRanges;
+
+  private RoutingTable(final TenantResourceRange tenantResourceRange,
+                       final int[] lows,
+                       final NodeRange[] nodeRanges) {
+    this.tenantResourceRange = tenantResourceRange;
+    this.lows = lows;
+    this.nodeRanges = nodeRanges;
+  }
+
+  /**
+   * Compiles the routing table for the range.
+   *
+   * @param tenantResourceRange to compile.
+   * @return the routing table.
+   */
+  public static RoutingTable of(final TenantResourceRange tenantResourceRange) {
+    final Map<Integer, NodeRange> hashToNodeRange = tenantResourceRange.hashToNodeRange();
+    final int[] lows = new int[hashToNodeRange.size()];
+    int i = 0;
+    for (Integer low : hashToNodeRange.keySet()) {
+      lows[i++] = low;
+    }
+    Arrays.sort(lows);
+    final NodeRange[] nodeRanges = new NodeRange[lows.length];
+    for (i = 0; i < lows.length; i++) {
+      nodeRanges[i] = hashToNodeRange.get(lows[i]);
+    }
+    return new RoutingTable(tenantResourceRange, lows, nodeRanges);
+  }
+
+  /**
+   * The range this table was compiled from.
+   *
+   * @return the tenant resource range.
+   */
+  public TenantResourceRange tenantResourceRange() {
+    return tenantResourceRange;
+  }
+
+  /**
+   * The number of ranges in the table.
+   *
+   * @return the size.
+   */
+  public int size() {
+    return lows.length;
+  }
+
+  /**
+   * Return the node range with the largest low hash that is not greater than the hash.
+   *
+   * @param hash we are looking for.
+   * @return the node range that owns the hash.
+   */
+  public NodeRange nodeRangeForHash(final int hash) {
+    int index = Arrays.binarySearch(lows, hash);
+    if (index < 0) {
+      index = -index - 2; // insertion point minus one.
+    }
+    if (index < 0) {
+      throw new IllegalStateException("Unable to find correct set!");
+    }
+    return nodeRanges[index];
+  }
+
+}
@@ -20,13 +20,19 @@ import static org.svarm.common.config.module.EtcdModule.WATCH_ENGINE_EXECUTOR;
 
 import dagger.Module;
 import dagger.Provides;
+import dagger.multibindings.IntoSet;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import javax.inject.Named;
+import javax.inject.Provider;
 import javax.inject.Singleton;
+import org.svarm.common.javaclient.ImmutableJavaClientConfig;
 import org.svarm.common.javaclient.JavaClientConfig;
 import org.svarm.proxy.ProxyConfiguration;
+import org.svarm.proxy.resource.AsyncProxyResource;
+import org.svarm.proxy.resource.ProxyResource;
 import org.svarm.server.ServerConfiguration;
+import org.svarm.server.engine.ExecutorEngine;
+import org.svarm.server.resource.JerseyResource;
 
 /**
  * For setting up the configuration for the service.
@@ -65,34 +71,61 @@ public class ProxyModule {
    */
   @Provides
   @Singleton
-  public JavaClientConfig javaClientConfig(final ServerConfiguration configuration) {
-    return configuration.isUseTestJavaClient() ? JavaClientConfig.testConfig() : JavaClientConfig.defaultConfig();
+  public JavaClientConfig javaClientConfig(final ProxyConfiguration configuration) {
+    final JavaClientConfig base = configuration.isUseTestJavaClient()
+        ? JavaClientConfig.testConfig() : JavaClientConfig.defaultConfig();
+    return ImmutableJavaClientConfig.builder().from(base)
+        .circuitBreakerFailureRateThreshold(configuration.getNodeCircuitBreakerFailureRatePercent())
+        .circuitBreakerOpenSeconds(configuration.getNodeCircuitBreakerOpenSeconds())
+        .bulkheadMaxConcurrentCalls(configuration.getNodeBulkheadMaxConcurrentCalls())
+        .retryBudgetPercent(configuration.getNodeRetryBudgetPercent())
+        .build();
   }
 
   /**
    * Gets an executor service for the watch engine.
    *
    * @param proxyConfiguration to get the count from.
+   * @param executorEngine     to create the executor.
    * @return the service.
    */
   @Provides
   @Singleton
   @Named(WATCH_ENGINE_EXECUTOR)
-  public ExecutorService executorService(final ProxyConfiguration proxyConfiguration) {
-    return Executors.newFixedThreadPool(proxyConfiguration.getWatchEngineThreads());
+  public ExecutorService executorService(final ProxyConfiguration proxyConfiguration,
+                                         final ExecutorEngine executorEngine) {
+    return executorEngine.pool("watch-engine", proxyConfiguration.getWatchEngineThreads());
   }
 
   /**
    * Gets an executor service for the node service engine.
    *
    * @param proxyConfiguration to get the count from.
+   * @param executorEngine     to create the executor.
    * @return the service.
    */
   @Provides
   @Singleton
   @Named(NODE_SERVICE_EXECUTOR)
-  public ExecutorService nodeServiceExecutor(final ProxyConfiguration proxyConfiguration) {
-    return Executors.newFixedThreadPool(proxyConfiguration.getNodeServiceThreads());
+  public ExecutorService nodeServiceExecutor(final ProxyConfiguration proxyConfiguration,
+                                             final ExecutorEngine executorEngine) {
+    return executorEngine.pool("node-service", proxyConfiguration.getNodeServiceThreads());
+  }
+
+  /**
+   * The proxy resource. The async one unless configured to block.
+   *
+   * @param proxyConfiguration to pick the resource.
+   * @param proxyResource      the blocking resource.
+   * @param asyncProxyResource the async resource.
+   * @return a jersey resource.
+   */
+  @Provides
+  @IntoSet
+  public JerseyResource proxyResource(final ProxyConfiguration proxyConfiguration,
+                                      final Provider<ProxyResource> proxyResource,
+                                      final Provider<AsyncProxyResource> asyncProxyResource) {
+    return proxyConfiguration.isAsyncProxy() ? asyncProxyResource.get() : proxyResource.get();
   }
 
 }
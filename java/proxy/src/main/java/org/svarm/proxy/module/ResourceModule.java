@@ -16,10 +16,17 @@
 
 package org.svarm.proxy.module;
 
+import com.codahale.metrics.health.HealthCheck;
 import dagger.Binds;
 import dagger.Module;
 import dagger.multibindings.IntoSet;
-import org.svarm.proxy.resource.ProxyResource;
+import io.dropwizard.lifecycle.Managed;
+import org.svarm.common.config.engine.LiveNodesEngine;
+import org.svarm.proxy.engine.CachingTenantResourceRangeEngine;
+import org.svarm.proxy.healthchecks.TenantResourceRangeHealthCheck;
+import org.svarm.proxy.manager.HintManager;
+import org.svarm.proxy.resource.ConsistencyResource;
+import org.svarm.proxy.resource.NodeHealthResource;
 import org.svarm.server.resource.JerseyResource;
 
 /**
@@ -29,13 +36,63 @@ import org.svarm.server.resource.JerseyResource;
 public interface ResourceModule {
 
   /**
-   * The proxy resource.
+   * The consistency header filter.
    *
    * @param resource to bind.
    * @return a jersey resource.
    */
   @Binds
   @IntoSet
-  JerseyResource proxyResource(final ProxyResource resource);
+  JerseyResource consistencyResource(final ConsistencyResource resource);
+
+  /**
+   * The node health admin view.
+   *
+   * @param resource to bind.
+   * @return a jersey resource.
+   */
+  @Binds
+  @IntoSet
+  JerseyResource nodeHealthResource(final NodeHealthResource resource);
+
+  /**
+   * Managed resource: hinted handoff.
+   *
+   * @param resource to bind.
+   * @return a managed object.
+   */
+  @Binds
+  @IntoSet
+  Managed hintManager(final HintManager resource);
+
+  /**
+   * Managed resource: the watch on the node liveness keys.
+   *
+   * @param resource to bind.
+   * @return a managed object.
+   */
+  @Binds
+  @IntoSet
+  Managed liveNodesEngine(final LiveNodesEngine resource);
+
+  /**
+   * Managed resource: the local copy of the tenant resource ranges.
+   *
+   * @param resource to bind.
+   * @return a managed object.
+   */
+  @Binds
+  @IntoSet
+  Managed cachingTenantResourceRangeEngine(final CachingTenantResourceRangeEngine resource);
+
+  /**
+   * Health check: the tenant resource ranges are loaded.
+   *
+   * @param healthCheck health check.
+   * @return health check.
+   */
+  @Binds
+  @IntoSet
+  HealthCheck tenantResourceRangeHealthCheck(final TenantResourceRangeHealthCheck healthCheck);
 
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.proxy.resource;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.codahale.metrics.annotation.ExceptionMetered;
+import com.codahale.metrics.annotation.ResponseMetered;
+import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.common.config.api.ImmutableTenantResource;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.proxy.engine.ConsistencyEngine;
+import org.svarm.proxy.manager.TableEntryManager;
+import org.svarm.proxy.model.Consistency;
+import org.svarm.server.resource.JerseyResource;
+
+/**
+ * The proxy resource that does not hold a request thread while the nodes are called. Same api as the
+ * ProxyService, but the response is resumed once the consistency level is met. The consistency is resolved here, on
+ * the request thread, as the request completes on other threads.
+ */
+@Singleton
+@Path("/v1/tenant/{tenant}/table/{table}/entry")
+public class AsyncProxyResource implements JerseyResource {
+
+  private static final Logger LOGGER = getLogger(AsyncProxyResource.class);
+
+  private final TableEntryManager tableEntryManager;
+  private final ConsistencyEngine consistencyEngine;
+
+  /**
+   * Constructor.
+   *
+   * @param tableEntryManager to get the real data.
+   * @param consistencyEngine to resolve the consistency of the request.
+   */
+  @Inject
+  public AsyncProxyResource(final TableEntryManager tableEntryManager,
+                            final ConsistencyEngine consistencyEngine) {
+    this.tableEntryManager = tableEntryManager;
+    this.consistencyEngine = consistencyEngine;
+    LOGGER.info("AsyncProxyResource()");
+  }
+
+  private static Throwable unwrap(final Throwable throwable) {
+    return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+  }
+
+  /**
+   * Gets the entry.
+   *
+   * @param tenantId      that owns the table.
+   * @param table         the table.
+   * @param entry         the entry.
+   * @param asyncResponse resumed with the entry, or not found.
+   */
+  @GET
+  @Path("/{entry}")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Timed
+  @ExceptionMetered
+  @ResponseMetered
+  public void readTenantTableEntry(@PathParam("tenant") final String tenantId,
+                                   @PathParam("table") final String table,
+                                   @PathParam("entry") final String entry,
+                                   @Suspended final AsyncResponse asyncResponse) {
+    LOGGER.trace("readTenantTableEntry({},{},{})", tenantId, table, entry);
+    final TenantResource tenantResource = ImmutableTenantResource.builder()
+        .tenant(tenantId).resource(table).build();
+    final Consistency consistency = consistencyEngine.readConsistency(tenantResource);
+    if (tableEntryManager.passThrough(consistency)) {
+      // the data goes to the client as the node wrote it.
+      tableEntryManager.getTenantTableEntryRawAsync(tenantResource, entry).whenComplete((rawEntry, throwable) ->
+          resume(asyncResponse, rawEntry, throwable,
+              raw -> Response.ok((StreamingOutput) raw::writeData, MediaType.APPLICATION_JSON_TYPE).build()));
+    } else {
+      tableEntryManager.getTenantTableEntryAsync(tenantResource, entry, consistency)
+          .whenComplete((entryInfo, throwable) -> resume(asyncResponse, entryInfo, throwable, EntryInfo::data));
+    }
+  }
+
+  private <T> void resume(final AsyncResponse asyncResponse,
+                          final Optional<T> value,
+                          final Throwable throwable,
+                          final Function<T, Object> entity) {
+    if (throwable != null) {
+      asyncResponse.resume(unwrap(throwable));
+    } else if (value.isEmpty()) {
+      asyncResponse.resume(new NotFoundException());
+    } else {
+      asyncResponse.resume(entity.apply(value.get()));
+    }
+  }
+
+  /**
+   * Create the tenant table entry.
+   *
+   * @param tenantId      that owns the table.
+   * @param table         the table.
+   * @param entry         for the table.
+   * @param data          the data we care about in JSON form.
+   * @param asyncResponse resumed once written.
+   */
+  @PUT
+  @Path("/{entry}")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Timed
+  @ExceptionMetered
+  @ResponseMetered
+  public void createTenantTableEntry(@PathParam("tenant") final String tenantId,
+                                     @PathParam("table") final String table,
+                                     @PathParam("entry") final String entry,
+                                     @NotNull @Valid final JsonNode data,
+                                     @Suspended final AsyncResponse asyncResponse) {
+    LOGGER.trace("createTenantTableEntry({},{},{})", tenantId, table, entry);
+    final TenantResource tenantResource = ImmutableTenantResource.builder()
+        .tenant(tenantId).resource(table).build();
+    tableEntryManager.putTenantTableEntryAsync(tenantResource, entry, data,
+        consistencyEngine.writeConsistency(tenantResource))
+        .whenComplete((ignored, throwable) -> resume(asyncResponse, throwable));
+  }
+
+  /**
+   * Delete the tenant table entry.
+   *
+   * @param tenantId      that owns the table.
+   * @param table         the table.
+   * @param entry         to delete.
+   * @param asyncResponse resumed once deleted.
+   */
+  @DELETE
+  @Path("/{entry}")
+  @Timed
+  @ExceptionMetered
+  @ResponseMetered
+  public void deleteTenantTableEntry(@PathParam("tenant") final String tenantId,
+                                     @PathParam("table") final String table,
+                                     @PathParam("entry") final String entry,
+                                     @Suspended final AsyncResponse asyncResponse) {
+    LOGGER.trace("deleteTenantTableEntry({},{},{})", tenantId, table, entry);
+    final TenantResource tenantResource = ImmutableTenantResource.builder()
+        .tenant(tenantId).resource(table).build();
+    tableEntryManager.deleteTenantTableEntryAsync(tenantResource, entry,
+        consistencyEngine.writeConsistency(tenantResource))
+        .whenComplete((ignored, throwable) -> resume(asyncResponse, throwable));
+  }
+
+  private void resume(final AsyncResponse asyncResponse, final Throwable throwable) {
+    if (throwable == null) {
+      asyncResponse.resume(Response.noContent().build());
+    } else {
+      asyncResponse.resume(unwrap(throwable));
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.proxy.resource;
+
+import static org.svarm.proxy.engine.ConsistencyEngine.CONSISTENCY_HEADER;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import java.io.IOException;
+import java.util.Locale;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.svarm.proxy.engine.ConsistencyEngine;
+import org.svarm.proxy.model.Consistency;
+import org.svarm.server.resource.JerseyResource;
+
+/**
+ * Lets the client pick the consistency for a request with a header. Ensures it is reset at the end of the request.
+ */
+@Singleton
+public class ConsistencyResource implements ContainerRequestFilter, ContainerResponseFilter, JerseyResource {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConsistencyResource.class);
+  private final ConsistencyEngine consistencyEngine;
+
+  /**
+   * Default constructor.
+   *
+   * @param consistencyEngine engine.
+   */
+  @Inject
+  public ConsistencyResource(final ConsistencyEngine consistencyEngine) {
+    this.consistencyEngine = consistencyEngine;
+    LOGGER.info("ConsistencyResource");
+  }
+
+  /**
+   * Gets the consistency from the header, if there is one.
+   *
+   * @param requestContext request context.
+   * @throws IOException if anything goes wrong.
+   */
+  @Override
+  public void filter(final ContainerRequestContext requestContext) throws IOException {
+    final String header = requestContext.getHeaderString(CONSISTENCY_HEADER);
+    consistencyEngine.clear();
+    if (header != null) {
+      LOGGER.trace("filter():{}", header);
+      try {
+        consistencyEngine.set(Consistency.valueOf(header.trim().toUpperCase(Locale.ROOT)));
+      } catch (IllegalArgumentException e) {
+        throw new BadRequestException("Unknown consistency: " + header);
+      }
+    }
+  }
+
+  /**
+   * Clears the consistency.
+   *
+   * @param requestContext  request context.
+   * @param responseContext response context.
+   * @throws IOException if anything goes wrong.
+   */
+  @Override
+  public void filter(final ContainerRequestContext requestContext,
+                     final ContainerResponseContext responseContext) throws IOException {
+    consistencyEngine.clear();
+  }
+}
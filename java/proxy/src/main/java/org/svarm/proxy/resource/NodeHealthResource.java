@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.svarm.proxy.resource;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.codahale.metrics.annotation.Timed;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import java.util.List;
+import java.util.TreeSet;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.node.javaclient.resilience.NodeResilience;
+import org.svarm.proxy.engine.NodeStatsEngine;
+import org.svarm.proxy.model.ImmutableNodeHealth;
+import org.svarm.proxy.model.NodeHealth;
+import org.svarm.server.resource.JerseyResource;
+
+/**
+ * Admin view of the nodes the proxy talks to, so an operator can see which circuits are open and which nodes are
+ * ejected.
+ */
+@Singleton
+@Path("/v1/admin/nodes")
+public class NodeHealthResource implements JerseyResource {
+
+  private static final Logger LOGGER = getLogger(NodeHealthResource.class);
+
+  private final NodeResilience nodeResilience;
+  private final NodeStatsEngine nodeStatsEngine;
+
+  /**
+   * Constructor.
+   *
+   * @param nodeResilience  for the circuit breakers and bulkheads.
+   * @param nodeStatsEngine for the ejections and scores.
+   */
+  @Inject
+  public NodeHealthResource(final NodeResilience nodeResilience,
+                            final NodeStatsEngine nodeStatsEngine) {
+    this.nodeResilience = nodeResilience;
+    this.nodeStatsEngine = nodeStatsEngine;
+    LOGGER.info("NodeHealthResource()");
+  }
+
+  /**
+   * The health of every node we have called, sorted by uri.
+   *
+   * @return the list.
+   */
+  @GET
+  @Timed
+  @Produces(MediaType.APPLICATION_JSON)
+  public List<NodeHealth> nodes() {
+    LOGGER.trace("nodes()");
+    final TreeSet<String> uris = new TreeSet<>(nodeResilience.circuitBreakers().keySet());
+    uris.addAll(nodeStatsEngine.nodes());
+    return uris.stream().map(this::health).toList();
+  }
+
+  private NodeHealth health(final String uri) {
+    final CircuitBreaker circuitBreaker = nodeResilience.circuitBreaker(uri);
+    final Bulkhead bulkhead = nodeResilience.bulkhead(uri);
+    return ImmutableNodeHealth.builder()
+        .uri(uri)
+        .circuitBreaker(circuitBreaker.getState().name())
+        .failureRate(circuitBreaker.getMetrics().getFailureRate())
+        .availableConcurrentCalls(bulkhead.getMetrics().getAvailableConcurrentCalls())
+        .ejected(nodeStatsEngine.ejected(uri))
+        .score(nodeStatsEngine.score(uri))
+        .build();
+  }
+
+}
@@ -30,6 +30,7 @@ import org.svarm.common.config.api.ImmutableTenantResource;
 import org.svarm.common.config.api.TenantResource;
 import org.svarm.node.api.EntryInfo;
 import org.svarm.proxy.common.api.ProxyService;
+import org.svarm.proxy.engine.ConsistencyEngine;
 import org.svarm.proxy.manager.TableEntryManager;
 import org.svarm.server.resource.JerseyResource;
 
@@ -42,16 +43,20 @@ public class ProxyResource implements ProxyService, JerseyResource {
   private static final Logger LOGGER = getLogger(ProxyResource.class);
 
   private final TableEntryManager tableEntryManager;
+  private final ConsistencyEngine consistencyEngine;
 
 
   /**
    * Constructor.
    *
    * @param tableEntryManager to get the real data.
+   * @param consistencyEngine to resolve the consistency of the request.
    */
   @Inject
-  public ProxyResource(final TableEntryManager tableEntryManager) {
+  public ProxyResource(final TableEntryManager tableEntryManager,
+                       final ConsistencyEngine consistencyEngine) {
     this.tableEntryManager = tableEntryManager;
+    this.consistencyEngine = consistencyEngine;
     LOGGER.info("ProxyResource()");
   }
 
@@ -65,7 +70,8 @@ public class ProxyResource implements ProxyService, JerseyResource {
     LOGGER.trace("readTenantTableEntry({},{},{})", tenantId, table, entry);
     final TenantResource tenantResource = ImmutableTenantResource.builder()
         .tenant(tenantId).resource(table).build();
-    return tableEntryManager.getTenantTableEntry(tenantResource, entry).map(EntryInfo::data);
+    return tableEntryManager.getTenantTableEntry(tenantResource, entry,
+        consistencyEngine.readConsistency(tenantResource)).map(EntryInfo::data);
   }
 
   @Override
@@ -79,7 +85,8 @@ public class ProxyResource implements ProxyService, JerseyResource {
     LOGGER.trace("createTenantTableEntry({},{},{})", tenantId, table, entry);
     final TenantResource tenantResource = ImmutableTenantResource.builder()
         .tenant(tenantId).resource(table).build();
-    tableEntryManager.putTenantTableEntry(tenantResource, entry, data);
+    tableEntryManager.putTenantTableEntry(tenantResource, entry, data,
+        consistencyEngine.writeConsistency(tenantResource));
   }
 
   @Override
@@ -92,6 +99,7 @@ public class ProxyResource implements ProxyService, JerseyResource {
     LOGGER.trace("deleteTenantTableEntry({},{},{})", tenantId, table, entry);
     final TenantResource tenantResource = ImmutableTenantResource.builder()
         .tenant(tenantId).resource(table).build();
-    tableEntryManager.deleteTenantTableEntry(tenantResource, entry);
+    tableEntryManager.deleteTenantTableEntry(tenantResource, entry,
+        consistencyEngine.writeConsistency(tenantResource));
   }
 }
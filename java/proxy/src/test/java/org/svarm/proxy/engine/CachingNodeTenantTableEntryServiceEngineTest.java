@@ -25,7 +25,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.svarm.common.config.api.NodeRange;
+import org.svarm.node.api.NodeTenantTableEntryAsyncService;
 import org.svarm.node.api.NodeTenantTableEntryService;
+import org.svarm.node.javaclient.api.NodeTenantTableEntryRawService;
 import org.svarm.node.javaclient.factory.NodeServiceFactory;
 import org.svarm.proxy.ProxyConfiguration;
 
@@ -37,6 +39,8 @@ class CachingNodeTenantTableEntryServiceEngineTest {
   @Mock private NodeServiceFactory nodeServiceFactory;
   @Mock private NodeRange nodeRange;
   @Mock private NodeTenantTableEntryService service;
+  @Mock private NodeTenantTableEntryAsyncService asyncService;
+  @Mock private NodeTenantTableEntryRawService rawService;
   @Mock private ProxyConfiguration proxyConfiguration;
 
   @InjectMocks private CachingNodeTenantTableEntryServiceEngine engine;
@@ -49,5 +53,33 @@ class CachingNodeTenantTableEntryServiceEngineTest {
     assertThat(engine.get(nodeRange)).isEqualTo(service);
   }
 
+  @Test
+  void getAsync() {
+    when(nodeRange.uri()).thenReturn(URL);
+    when(nodeServiceFactory.asyncNodeService(URL)).thenReturn(asyncService);
+
+    assertThat(engine.getAsync(nodeRange)).isEqualTo(asyncService);
+  }
+
+  @Test
+  void getRaw() {
+    when(nodeRange.uri()).thenReturn(URL);
+    when(nodeServiceFactory.rawNodeService(URL)).thenReturn(rawService);
+
+    assertThat(engine.getRaw(nodeRange)).isEqualTo(rawService);
+  }
+
+  @Test
+  void get_binaryNodeCodec() {
+    when(proxyConfiguration.isBinaryNodeCodec()).thenReturn(true);
+    when(nodeRange.uri()).thenReturn(URL);
+    when(nodeServiceFactory.smileNodeService(URL)).thenReturn(service);
+    when(nodeServiceFactory.asyncSmileNodeService(URL)).thenReturn(asyncService);
+    final CachingNodeTenantTableEntryServiceEngine smile =
+        new CachingNodeTenantTableEntryServiceEngine(nodeServiceFactory, proxyConfiguration);
+
+    assertThat(smile.get(nodeRange)).isEqualTo(service);
+    assertThat(smile.getAsync(nodeRange)).isEqualTo(asyncService);
+  }
 
 }
\ No newline at end of file
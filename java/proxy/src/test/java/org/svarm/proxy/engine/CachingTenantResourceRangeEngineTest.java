@@ -1,45 +1,185 @@
 package org.svarm.proxy.engine;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.codeheadsystems.metrics.test.BaseMetricTest;
+import io.etcd.jetcd.ByteSequence;
+import io.etcd.jetcd.KeyValue;
+import io.etcd.jetcd.Watch;
+import io.etcd.jetcd.common.exception.CompactedException;
+import io.etcd.jetcd.watch.WatchEvent;
+import io.etcd.jetcd.watch.WatchResponse;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.accessor.ImmutableRevisioned;
+import org.svarm.common.config.accessor.Revisioned;
+import org.svarm.common.config.api.ImmutableNodeRange;
+import org.svarm.common.config.api.ImmutableTenantResource;
+import org.svarm.common.config.api.ImmutableTenantResourceRange;
+import org.svarm.common.config.api.NodeRange;
 import org.svarm.common.config.api.TenantResource;
 import org.svarm.common.config.api.TenantResourceRange;
 import org.svarm.common.config.engine.NodeConfigurationEngine;
-import org.svarm.common.config.engine.WatchEngine;
-import org.svarm.common.config.factory.WatchEngineFactory;
 import org.svarm.proxy.ProxyConfiguration;
+import org.svarm.server.engine.ExecutorEngine;
 
 @ExtendWith(MockitoExtension.class)
-class CachingTenantResourceRangeEngineTest {
+class CachingTenantResourceRangeEngineTest extends BaseMetricTest {
+
+  private static final String KEY = "svarm_tenant/tenant/resource";
+  private static final String VALUE = "{}";
+  private static final TenantResource TENANT_RESOURCE = ImmutableTenantResource.builder()
+      .tenant("tenant").resource("resource").build();
+  private static final NodeRange NODE_A = ImmutableNodeRange.builder().uuid("a").uri("uri-a").hash(0).build();
+  private static final NodeRange NODE_B = ImmutableNodeRange.builder().uuid("b").uri("uri-b").hash(0).build();
+  private static final TenantResourceRange RANGE = range(NODE_A);
+  private static final TenantResourceRange UPDATED_RANGE = range(NODE_B);
 
-  private static final String TENANT_RESOURCE_KEY = "tenantResourceKey";
   @Mock private NodeConfigurationEngine nodeConfigurationEngine;
-  @Mock private WatchEngineFactory watchEngineFactory;
-  @Mock private ProxyConfiguration proxyConfiguration;
-  @Mock private TenantResource tenantResource;
-  @Mock private WatchEngine watchEngine;
-  @Mock private TenantResourceRange tenantResourceRange;
+  @Mock private Watch.Watcher watcher;
+  @Mock private WatchResponse watchResponse;
+  @Mock private WatchEvent watchEvent;
+  @Mock private KeyValue keyValue;
+  @Captor private ArgumentCaptor<Watch.Listener> listenerCaptor;
+
+  private CachingTenantResourceRangeEngine engine;
+
+  private static TenantResourceRange range(final NodeRange nodeRange) {
+    return ImmutableTenantResourceRange.builder()
+        .tenant("tenant").resource("resource").hashToNodeRange(Map.of(0, nodeRange)).build();
+  }
+
+  private static Revisioned<List<TenantResourceRange>> revisioned(final long revision,
+                                                                  final TenantResourceRange... ranges) {
+    return ImmutableRevisioned.<List<TenantResourceRange>>builder().value(List.of(ranges)).revision(revision).build();
+  }
+
+  @BeforeEach
+  void setup() {
+    engine = new CachingTenantResourceRangeEngine(nodeConfigurationEngine, metricsFactory,
+        new ExecutorEngine(new ProxyConfiguration()));
+  }
+
+  @AfterEach
+  void tearDown() {
+    engine.stop();
+  }
+
+  private void start() {
+    when(nodeConfigurationEngine.readTenantResourceRanges()).thenReturn(revisioned(5, RANGE));
+    when(nodeConfigurationEngine.watchTenantResourceRanges(eq(6L), listenerCaptor.capture())).thenReturn(watcher);
+    engine.start();
+  }
+
+  private void event(final WatchEvent.EventType type) {
+    when(keyValue.getKey()).thenReturn(ByteSequence.from(KEY.getBytes()));
+    when(keyValue.getModRevision()).thenReturn(7L);
+    when(watchEvent.getKeyValue()).thenReturn(keyValue);
+    when(watchEvent.getEventType()).thenReturn(type);
+    when(watchResponse.getEvents()).thenReturn(List.of(watchEvent));
+    listenerCaptor.getValue().onNext(watchResponse);
+  }
+
+  @Test
+  void notStarted() {
+    assertThat(engine.readRoutingTable(TENANT_RESOURCE)).isEmpty();
+    assertThat(engine.ready()).isFalse();
+  }
+
+  @Test
+  void start_loadsEverything() {
+    start();
+
+    assertThat(engine.readTenantResourceRange(TENANT_RESOURCE)).contains(RANGE);
+    assertThat(engine.readRoutingTable(TENANT_RESOURCE))
+        .isPresent()
+        .get()
+        .satisfies(table -> assertThat(table.nodeRangeForHash(100)).isEqualTo(NODE_A));
+    assertThat(engine.revision()).isEqualTo(5L);
+    assertThat(engine.ready()).isTrue();
+  }
+
+  @Test
+  void start_failureRetries() {
+    when(nodeConfigurationEngine.readTenantResourceRanges())
+        .thenThrow(new IllegalArgumentException("down"))
+        .thenReturn(revisioned(5, RANGE));
+    when(nodeConfigurationEngine.watchTenantResourceRanges(eq(6L), listenerCaptor.capture())).thenReturn(watcher);
+
+    engine.start();
+    assertThat(engine.ready()).isFalse(); // the retry is a second away.
+
+    verify(nodeConfigurationEngine, timeout(5000)).watchTenantResourceRanges(eq(6L), listenerCaptor.capture());
+    assertThat(engine.readTenantResourceRange(TENANT_RESOURCE)).contains(RANGE);
+    assertThat(engine.ready()).isTrue();
+  }
+
+  @Test
+  void put_swapsRoutingTable() {
+    start();
+    when(keyValue.getValue()).thenReturn(ByteSequence.from(VALUE.getBytes()));
+    when(nodeConfigurationEngine.toTenantResourceRange(KEY, VALUE)).thenReturn(Optional.of(UPDATED_RANGE));
+
+    event(WatchEvent.EventType.PUT);
+
+    assertThat(engine.readTenantResourceRange(TENANT_RESOURCE)).contains(UPDATED_RANGE);
+    assertThat(engine.revision()).isEqualTo(7L);
+  }
+
+  @Test
+  void delete_removes() {
+    start();
+    when(nodeConfigurationEngine.toTenantResource(KEY)).thenReturn(Optional.of(TENANT_RESOURCE));
+
+    event(WatchEvent.EventType.DELETE);
+
+    assertThat(engine.readTenantResourceRange(TENANT_RESOURCE)).isEmpty();
+  }
 
+  @Test
+  void compacted_resyncs() {
+    start();
+    final Watch.Listener first = listenerCaptor.getValue();
+    when(nodeConfigurationEngine.readTenantResourceRanges()).thenReturn(revisioned(20, UPDATED_RANGE));
+    when(nodeConfigurationEngine.watchTenantResourceRanges(eq(21L), listenerCaptor.capture())).thenReturn(watcher);
 
-  @InjectMocks private CachingTenantResourceRangeEngine engine;
+    first.onError(mock(CompactedException.class));
+
+    verify(nodeConfigurationEngine, timeout(5000)).watchTenantResourceRanges(eq(21L), listenerCaptor.capture());
+    verify(watcher).close();
+    assertThat(engine.readTenantResourceRange(TENANT_RESOURCE)).contains(UPDATED_RANGE);
+    assertThat(engine.revision()).isEqualTo(20L);
+  }
 
   @Test
-  void generateTest() {
-    when(nodeConfigurationEngine.readTenantResourceRange(tenantResource)).thenReturn(Optional.of(tenantResourceRange));
-    when(nodeConfigurationEngine.getTenantResourceKey(tenantResource)).thenReturn(TENANT_RESOURCE_KEY);
-    when(watchEngineFactory.watchEngine(eq(NodeConfigurationEngine.TENANT_NAMESPACE), eq(TENANT_RESOURCE_KEY), any())).thenReturn(watchEngine);
+  void oldWatch_ignored() {
+    start();
+    final Watch.Listener first = listenerCaptor.getValue();
+    when(nodeConfigurationEngine.readTenantResourceRanges()).thenReturn(revisioned(20, UPDATED_RANGE));
+    when(nodeConfigurationEngine.watchTenantResourceRanges(eq(21L), listenerCaptor.capture())).thenReturn(watcher);
+    first.onCompleted();
+    verify(nodeConfigurationEngine, timeout(5000)).watchTenantResourceRanges(eq(21L), listenerCaptor.capture());
+
+    first.onNext(watchResponse); // nothing is read from it.
+    first.onError(new IllegalStateException());
 
-    assertThat(engine.readTenantResourceRange(tenantResource))
-        .contains(tenantResourceRange);
+    verify(nodeConfigurationEngine, times(2)).readTenantResourceRanges();
+    assertThat(engine.readTenantResourceRange(TENANT_RESOURCE)).contains(UPDATED_RANGE);
   }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package org.svarm.proxy.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.svarm.common.config.api.ImmutableTenantResource;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.proxy.ProxyConfiguration;
+import org.svarm.proxy.model.Consistency;
+
+class ConsistencyEngineTest {
+
+  private static final TenantResource CONFIGURED = ImmutableTenantResource.builder()
+      .tenant("tenant").resource("configured").build();
+  private static final TenantResource OTHER = ImmutableTenantResource.builder()
+      .tenant("tenant").resource("other").build();
+
+  private ConsistencyEngine engine;
+
+  @BeforeEach
+  void setup() {
+    final ProxyConfiguration configuration = new ProxyConfiguration();
+    configuration.setReadConsistency(Consistency.ONE);
+    configuration.setWriteConsistency(Consistency.QUORUM);
+    configuration.setTableReadConsistency(Map.of("tenant/configured", Consistency.ALL));
+    configuration.setTableWriteConsistency(Map.of("tenant/configured", Consistency.ONE));
+    engine = new ConsistencyEngine(configuration);
+  }
+
+  @AfterEach
+  void tearDown() {
+    engine.clear();
+  }
+
+  @Test
+  void defaults() {
+    assertThat(engine.readConsistency(OTHER)).isEqualTo(Consistency.ONE);
+    assertThat(engine.writeConsistency(OTHER)).isEqualTo(Consistency.QUORUM);
+  }
+
+  @Test
+  void perTable() {
+    assertThat(engine.readConsistency(CONFIGURED)).isEqualTo(Consistency.ALL);
+    assertThat(engine.writeConsistency(CONFIGURED)).isEqualTo(Consistency.ONE);
+  }
+
+  @Test
+  void requested() {
+    engine.set(Consistency.QUORUM);
+    assertThat(engine.readConsistency(CONFIGURED)).isEqualTo(Consistency.QUORUM);
+    assertThat(engine.writeConsistency(OTHER)).isEqualTo(Consistency.QUORUM);
+    engine.clear();
+    assertThat(engine.get()).isEmpty();
+  }
+
+  @Test
+  void required() {
+    assertThat(Consistency.ONE.required(3)).isEqualTo(1);
+    assertThat(Consistency.QUORUM.required(3)).isEqualTo(2);
+    assertThat(Consistency.QUORUM.required(4)).isEqualTo(3);
+    assertThat(Consistency.ALL.required(3)).isEqualTo(3);
+    assertThat(Consistency.QUORUM.required(0)).isZero();
+  }
+}
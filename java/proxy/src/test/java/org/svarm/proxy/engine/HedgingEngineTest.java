@@ -0,0 +1,76 @@
+package org.svarm.proxy.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codeheadsystems.metrics.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.api.ImmutableNodeRange;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.proxy.ProxyConfiguration;
+
+@ExtendWith(MockitoExtension.class)
+class HedgingEngineTest {
+
+  private static final NodeRange NODE_RANGE = ImmutableNodeRange.builder().uuid("a").uri("uri-a").hash(1).build();
+
+  @Mock private Metrics metrics;
+
+  private NodeStatsEngine nodeStatsEngine;
+  private HedgingEngine engine;
+
+  @BeforeEach
+  void setup() {
+    final ProxyConfiguration configuration = new ProxyConfiguration();
+    configuration.setHedgeDefaultDelayMillis(50);
+    configuration.setHedgeMinimumDelayMillis(5);
+    configuration.setHedgeBudgetPercent(25);
+    nodeStatsEngine = new NodeStatsEngine(configuration, new SimpleMeterRegistry());
+    engine = new HedgingEngine(configuration, nodeStatsEngine, metrics);
+  }
+
+  private void record(final String uri, final long nanos) {
+    nodeStatsEngine.begin(uri);
+    nodeStatsEngine.end(uri, nanos, true);
+  }
+
+  @Test
+  void delayMillis_default() {
+    assertThat(engine.delayMillis(NODE_RANGE)).isEqualTo(50);
+  }
+
+  @Test
+  void delayMillis_p95() {
+    IntStream.rangeClosed(1, 128).forEach(i -> record("uri-a", Duration.ofMillis(i).toNanos()));
+    assertThat(engine.delayMillis(NODE_RANGE)).isEqualTo(122);
+  }
+
+  @Test
+  void delayMillis_minimum() {
+    IntStream.rangeClosed(1, 128).forEach(i -> record("uri-a", 1000));
+    assertThat(engine.delayMillis(NODE_RANGE)).isEqualTo(5);
+  }
+
+  @Test
+  void budget() {
+    assertThat(engine.tryHedge()).isFalse();
+    IntStream.range(0, 3).forEach(i -> engine.request());
+    assertThat(engine.tryHedge()).isFalse();
+    engine.request();
+    assertThat(engine.tryHedge()).isTrue();
+    assertThat(engine.tryHedge()).isFalse();
+  }
+
+  @Test
+  void budget_capped() {
+    IntStream.range(0, 10_000).forEach(i -> engine.request());
+    final long hedges = IntStream.range(0, 100).filter(i -> engine.tryHedge()).count();
+    assertThat(hedges).isEqualTo(10);
+  }
+}
@@ -0,0 +1,109 @@
+package org.svarm.proxy.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import com.codeheadsystems.metrics.test.BaseMetricTest;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.api.ImmutableTenantResource;
+import org.svarm.common.config.api.ImmutableTenantResourceRange;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.common.engine.RingEngine;
+import org.svarm.proxy.model.RoutingTable;
+import org.svarm.server.exception.NotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+class NodeRangeResolverEngineTest extends BaseMetricTest {
+
+  private static final String ENTRY = "entry";
+  private static final TenantResource TENANT_RESOURCE = ImmutableTenantResource.builder()
+      .tenant("tenant").resource("resource").build();
+
+  @Mock private CachingTenantResourceRangeEngine cachingTenantResourceRangeEngine;
+  @Mock private RingEngine ringEngine;
+  @Mock private NodeRange low;
+  @Mock private NodeRange middle;
+  @Mock private NodeRange high;
+
+  private RoutingTable routingTable;
+  private NodeRangeResolverEngine engine;
+
+  @BeforeEach
+  void setup() {
+    // low owns MIN_VALUE to -1, middle owns 0 to 999, high owns 1000 to MAX_VALUE.
+    routingTable = RoutingTable.of(ImmutableTenantResourceRange.builder()
+        .tenant("tenant")
+        .resource("resource")
+        .hashToNodeRange(Map.of(Integer.MIN_VALUE, low, 0, middle, 1000, high))
+        .build());
+    engine = new NodeRangeResolverEngine(ringEngine, metrics, cachingTenantResourceRangeEngine);
+  }
+
+  private void locations(final int... hashes) {
+    when(ringEngine.locationHashes(eq(ENTRY), eq(hashes.length), any())).thenAnswer(invocation -> {
+      System.arraycopy(hashes, 0, invocation.getArgument(2, int[].class), 0, hashes.length);
+      return hashes[0];
+    });
+  }
+
+  @Test
+  void resolve_rangeBoundaries() {
+    locations(-1, 0, 1000);
+    final int[] locations = new int[3];
+    final NodeRange[] nodeRanges = new NodeRange[3];
+
+    engine.resolve(routingTable, ENTRY, locations, nodeRanges);
+
+    assertThat(locations).containsExactly(-1, 0, 1000);
+    assertThat(nodeRanges).containsExactly(low, middle, high);
+  }
+
+  @Test
+  void resolve_wrapAround() {
+    // replicas spaced around the ring wrap from the top of the last range to the bottom of the first.
+    locations(Integer.MAX_VALUE, Integer.MIN_VALUE, 999);
+    final int[] locations = new int[3];
+    final NodeRange[] nodeRanges = new NodeRange[3];
+
+    engine.resolve(routingTable, ENTRY, locations, nodeRanges);
+
+    assertThat(nodeRanges).containsExactly(high, low, middle);
+  }
+
+  @Test
+  void nodeRangeToHash() {
+    locations(-5, 500, 5000);
+    when(cachingTenantResourceRangeEngine.readRoutingTable(TENANT_RESOURCE)).thenReturn(Optional.of(routingTable));
+
+    assertThat(engine.nodeRangeToHash(TENANT_RESOURCE, ENTRY))
+        .containsExactlyInAnyOrderEntriesOf(Map.of(low, -5, middle, 500, high, 5000));
+  }
+
+  @Test
+  void nodeRangeToHash_sameRangeKeepsFirst() {
+    locations(1000, Integer.MAX_VALUE, 0);
+    when(cachingTenantResourceRangeEngine.readRoutingTable(TENANT_RESOURCE)).thenReturn(Optional.of(routingTable));
+
+    assertThat(engine.nodeRangeToHash(TENANT_RESOURCE, ENTRY))
+        .containsExactlyInAnyOrderEntriesOf(Map.of(high, 1000, middle, 0));
+  }
+
+  @Test
+  void nodeRangeToHash_noRoutingTable() {
+    when(cachingTenantResourceRangeEngine.readRoutingTable(TENANT_RESOURCE)).thenReturn(Optional.empty());
+
+    assertThatExceptionOfType(NotFoundException.class)
+        .isThrownBy(() -> engine.nodeRangeToHash(TENANT_RESOURCE, ENTRY));
+  }
+
+}
@@ -0,0 +1,132 @@
+package org.svarm.proxy.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.svarm.common.config.api.ImmutableNodeRange;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.proxy.ProxyConfiguration;
+
+class NodeStatsEngineTest {
+
+  private static final NodeRange NODE_A = ImmutableNodeRange.builder().uuid("a").uri("uri-a").hash(1).build();
+  private static final NodeRange NODE_B = ImmutableNodeRange.builder().uuid("b").uri("uri-b").hash(2).build();
+  private static final NodeRange NODE_C = ImmutableNodeRange.builder().uuid("c").uri("uri-c").hash(3).build();
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ProxyConfiguration configuration = new ProxyConfiguration();
+  private final NodeStatsEngine engine = new NodeStatsEngine(configuration, meterRegistry);
+
+  private void record(final String uri, final long nanos, final boolean success) {
+    engine.begin(uri);
+    engine.end(uri, nanos, success);
+  }
+
+  @Test
+  void p95_notEnoughSamples() {
+    IntStream.range(0, 15).forEach(i -> record("uri", 1000, true));
+    assertThat(engine.p95("uri")).isEmpty();
+    assertThat(engine.p95("other")).isEmpty();
+  }
+
+  @Test
+  void p95_recentSamplesOnly() {
+    IntStream.range(0, 128).forEach(i -> record("uri", Duration.ofSeconds(1).toNanos(), true));
+    IntStream.range(0, 128).forEach(i -> record("uri", Duration.ofMillis(1).toNanos(), true));
+    assertThat(engine.p95("uri")).contains(Duration.ofMillis(1));
+  }
+
+  @Test
+  void score_unknownNode() {
+    assertThat(engine.score("uri")).isZero();
+  }
+
+  @Test
+  void score_ewma() {
+    record("uri", 1000, true);
+    assertThat(engine.score("uri")).isEqualTo(1000.0);
+    record("uri", 2000, true);
+    assertThat(engine.score("uri")).isCloseTo(1200.0, within(0.001));
+  }
+
+  @Test
+  void score_inFlight() {
+    record("uri", 1000, true);
+    engine.begin("uri");
+    assertThat(engine.score("uri")).isEqualTo(8000.0);
+  }
+
+  @Test
+  void cancel_noSample() {
+    record("uri", 1000, true);
+    engine.begin("uri");
+    engine.cancel("uri");
+    assertThat(engine.score("uri")).isEqualTo(1000.0);
+  }
+
+  @Test
+  void score_errors() {
+    record("uri", 1000, false);
+    assertThat(engine.score("uri")).isCloseTo(3000.0, within(0.001));
+  }
+
+  @Test
+  void order() {
+    record("uri-a", 3000, true);
+    record("uri-b", 1000, true);
+    assertThat(engine.order(List.of(NODE_A, NODE_B, NODE_C))).containsExactly(NODE_C, NODE_B, NODE_A);
+  }
+
+  @Test
+  void order_ties() {
+    assertThat(engine.order(List.of(NODE_B, NODE_A, NODE_C))).containsExactly(NODE_B, NODE_A, NODE_C);
+  }
+
+  @Test
+  void gauges() {
+    record("uri-a", 1000, true);
+    assertThat(meterRegistry.get("NodeStatsEngine.score").tag("node", "uri-a").gauge().value()).isEqualTo(1000.0);
+  }
+
+  @Test
+  void ejected_consecutiveFailures() {
+    IntStream.range(0, 4).forEach(i -> record("uri-a", 1000, false));
+    assertThat(engine.ejected("uri-a")).isFalse();
+    record("uri-a", 1000, false);
+    assertThat(engine.ejected("uri-a")).isTrue();
+    assertThat(engine.ejected("uri-b")).isFalse();
+    assertThat(meterRegistry.get("NodeStatsEngine.ejected").tag("node", "uri-a").gauge().value()).isEqualTo(1.0);
+  }
+
+  @Test
+  void ejected_successResets() {
+    IntStream.range(0, 4).forEach(i -> record("uri-a", 1000, false));
+    record("uri-a", 1000, true);
+    IntStream.range(0, 4).forEach(i -> record("uri-a", 1000, false));
+    assertThat(engine.ejected("uri-a")).isFalse();
+  }
+
+  @Test
+  void ejected_expires() {
+    configuration.setOutlierEjectionSeconds(0);
+    final NodeStatsEngine expiring = new NodeStatsEngine(configuration, new SimpleMeterRegistry());
+    IntStream.range(0, 5).forEach(i -> {
+      expiring.begin("uri-a");
+      expiring.end("uri-a", 1000, false);
+    });
+    assertThat(expiring.ejected("uri-a")).isFalse();
+  }
+
+  @Test
+  void order_ejectedLast() {
+    record("uri-a", 1000, true);
+    record("uri-b", 3000, true);
+    IntStream.range(0, 5).forEach(i -> record("uri-a", 1, false));
+    assertThat(engine.order(List.of(NODE_A, NODE_B, NODE_C))).containsExactly(NODE_C, NODE_B, NODE_A);
+  }
+}
@@ -0,0 +1,93 @@
+package org.svarm.proxy.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.node.api.ImmutableEntryInfo;
+import org.svarm.proxy.model.RawEntry;
+
+class RawEntryEngineTest {
+
+  private static final String DATA = "{\"a\":[1,{\"b\":\"café\"}],\"c\":null}";
+  private static final String BODY = "{\"id\":\"id\",\"locationHash\":2,\"data\":" + DATA + ",\"timestamp\":5}";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final RawEntryEngine engine = new RawEntryEngine(objectMapper);
+
+  private static String data(final RawEntry rawEntry) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    rawEntry.writeData(out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  private static Response response(final int status, final String body) {
+    final Request request = Request.create(Request.HttpMethod.GET, "http://node/entry", Map.of(), null,
+        Util.UTF_8, null);
+    return Response.builder().status(status).request(request).body(body, StandardCharsets.UTF_8).build();
+  }
+
+  @Test
+  void parse() throws IOException {
+    final RawEntry rawEntry = engine.parse(BODY.getBytes(StandardCharsets.UTF_8));
+
+    assertThat(rawEntry.timestamp()).isEqualTo(5L);
+    assertThat(data(rawEntry)).isEqualTo(DATA);
+  }
+
+  @Test
+  void parse_scalarData() throws IOException {
+    final RawEntry rawEntry = engine.parse("{\"timestamp\":7,\"data\":\"value\"}".getBytes(StandardCharsets.UTF_8));
+
+    assertThat(data(rawEntry)).isEqualTo("\"value\"");
+  }
+
+  @Test
+  void parse_missingData() {
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> engine.parse("{\"timestamp\":7}".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  void read() throws IOException {
+    final Optional<RawEntry> rawEntry = engine.read(response(200, BODY));
+
+    assertThat(rawEntry).isPresent();
+    assertThat(data(rawEntry.get())).isEqualTo(DATA);
+  }
+
+  @Test
+  void read_notFound() {
+    assertThat(engine.read(response(404, ""))).isEmpty();
+  }
+
+  @Test
+  void read_error() {
+    assertThatExceptionOfType(FeignException.class)
+        .isThrownBy(() -> engine.read(response(500, "")));
+  }
+
+  @Test
+  void of() throws IOException {
+    final JsonNode node = objectMapper.readTree(DATA);
+    final EntryInfo entryInfo = ImmutableEntryInfo.builder().id("id").locationHash(2).timestamp(5L).data(node).build();
+
+    final RawEntry rawEntry = engine.of(entryInfo);
+
+    assertThat(rawEntry.timestamp()).isEqualTo(5L);
+    assertThat(objectMapper.readTree(data(rawEntry))).isEqualTo(node);
+  }
+
+}
@@ -0,0 +1,206 @@
+package org.svarm.proxy.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.codeheadsystems.metrics.Metrics;
+import com.google.common.util.concurrent.MoreExecutors;
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import java.net.ConnectException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.api.ImmutableNodeRange;
+import org.svarm.common.config.api.ImmutableTenantResource;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.common.config.engine.LiveNodesEngine;
+import org.svarm.common.engine.JsonEngine;
+import org.svarm.common.factory.ObjectMapperFactory;
+import org.svarm.node.api.EntryInfo;
+import org.svarm.node.api.ImmutableEntryInfo;
+import org.svarm.node.api.NodeTenantTableEntryService;
+import org.svarm.proxy.ProxyConfiguration;
+import org.svarm.proxy.engine.CachingNodeTenantTableEntryServiceEngine;
+import org.svarm.proxy.exception.NodeDownException;
+import org.svarm.server.engine.ExecutorEngine;
+
+@ExtendWith(MockitoExtension.class)
+class HintManagerTest {
+
+  private static final TenantResource TENANT_RESOURCE = ImmutableTenantResource.builder()
+      .tenant("tenant").resource("resource").build();
+  private static final NodeRange NODE_RANGE = ImmutableNodeRange.builder().uuid("uuid").uri("uri").hash(1).build();
+
+  @TempDir private Path directory;
+  @Mock private CachingNodeTenantTableEntryServiceEngine cachingNodeTenantTableEntryServiceEngine;
+  @Mock private NodeTenantTableEntryService service;
+  @Mock private Clock clock;
+  @Mock private Metrics metrics;
+  @Mock private LiveNodesEngine liveNodesEngine;
+  @Mock private ExecutorEngine executorEngine;
+
+  private JsonEngine jsonEngine;
+  private HintManager manager;
+
+  @BeforeEach
+  void setup() {
+    jsonEngine = new JsonEngine(new ObjectMapperFactory().generate());
+    lenient().when(liveNodesEngine.isLive("uuid")).thenReturn(true);
+    lenient().when(executorEngine.single("hint-writer")).thenReturn(MoreExecutors.newDirectExecutorService());
+    manager = new HintManager(configuration(), jsonEngine, cachingNodeTenantTableEntryServiceEngine, clock, metrics,
+        liveNodesEngine, executorEngine);
+  }
+
+  private ProxyConfiguration configuration() {
+    final ProxyConfiguration configuration = new ProxyConfiguration();
+    configuration.setHintDirectory(directory.toString());
+    configuration.setHintExpiryMinutes(10);
+    return configuration;
+  }
+
+  private EntryInfo entryInfo(final String id) {
+    return ImmutableEntryInfo.builder().id(id).locationHash(1).timestamp(1000L)
+        .data(jsonEngine.createObjectNode().put("a", id)).build();
+  }
+
+  @Test
+  void unreachable() {
+    assertThat(HintManager.unreachable(mock(RetryableException.class))).isTrue();
+    assertThat(HintManager.unreachable(mock(FeignException.ServiceUnavailable.class))).isTrue();
+    assertThat(HintManager.unreachable(mock(FeignException.BadRequest.class))).isFalse();
+    assertThat(HintManager.unreachable(new IllegalStateException())).isFalse();
+    assertThat(HintManager.unreachable(new ConnectException())).isTrue();
+    assertThat(HintManager.unreachable(new NodeDownException("uuid"))).isTrue();
+    assertThat(HintManager.unreachable(mock(CallNotPermittedException.class))).isTrue();
+  }
+
+  @Test
+  void hintAndReplay() {
+    when(clock.millis()).thenReturn(1000L, 2000L, 3000L);
+    when(cachingNodeTenantTableEntryServiceEngine.get(NODE_RANGE)).thenReturn(service);
+    final EntryInfo first = entryInfo("first");
+    final EntryInfo second = entryInfo("second");
+
+    assertThat(manager.hint(NODE_RANGE, TENANT_RESOURCE, first)).isTrue();
+    assertThat(manager.hint(NODE_RANGE, TENANT_RESOURCE, second)).isTrue();
+
+    assertThat(manager.replayAll()).isEqualTo(2);
+    verify(service).createTenantTableEntry("tenant", "resource", "first", first);
+    verify(service).createTenantTableEntry("tenant", "resource", "second", second);
+    assertThat(manager.replayAll()).isZero();
+  }
+
+  @Test
+  void hint_storedOnWriter() {
+    final ExecutorService writer = mock(ExecutorService.class);
+    when(executorEngine.single("hint-writer")).thenReturn(writer);
+    manager = new HintManager(configuration(), jsonEngine, cachingNodeTenantTableEntryServiceEngine, clock, metrics,
+        liveNodesEngine, executorEngine);
+    when(clock.millis()).thenReturn(1000L);
+    final ArgumentCaptor<Runnable> runnableArgumentCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+    assertThat(manager.hint(NODE_RANGE, TENANT_RESOURCE, entryInfo("first"))).isTrue();
+    verify(writer).execute(runnableArgumentCaptor.capture());
+    assertThat(directory).isEmptyDirectory();
+
+    runnableArgumentCaptor.getValue().run();
+    assertThat(directory.resolve("uuid")).isNotEmptyDirectory();
+  }
+
+  @Test
+  void hint_writerStopped() {
+    final ExecutorService writer = mock(ExecutorService.class);
+    when(executorEngine.single("hint-writer")).thenReturn(writer);
+    manager = new HintManager(configuration(), jsonEngine, cachingNodeTenantTableEntryServiceEngine, clock, metrics,
+        liveNodesEngine, executorEngine);
+    doThrow(new RejectedExecutionException()).when(writer).execute(any());
+
+    assertThat(manager.hint(NODE_RANGE, TENANT_RESOURCE, entryInfo("first"))).isFalse();
+  }
+
+  @Test
+  void replay_stillUnreachable() {
+    when(clock.millis()).thenReturn(1000L, 2000L, 3000L, 4000L);
+    when(cachingNodeTenantTableEntryServiceEngine.get(NODE_RANGE)).thenReturn(service);
+    final EntryInfo first = entryInfo("first");
+    final EntryInfo second = entryInfo("second");
+    manager.hint(NODE_RANGE, TENANT_RESOURCE, first);
+    manager.hint(NODE_RANGE, TENANT_RESOURCE, second);
+    doThrow(mock(RetryableException.class))
+        .doNothing()
+        .when(service).createTenantTableEntry(eq("tenant"), eq("resource"), any(), any());
+
+    assertThat(manager.replayAll()).isZero(); // stops at the first, keeping both.
+    assertThat(manager.replayAll()).isEqualTo(2);
+  }
+
+  @Test
+  void replay_nodeDown() {
+    when(clock.millis()).thenReturn(1000L);
+    when(liveNodesEngine.isLive("uuid")).thenReturn(false);
+    manager.hint(NODE_RANGE, TENANT_RESOURCE, entryInfo("first"));
+
+    assertThat(manager.replayAll()).isZero();
+    verifyNoInteractions(cachingNodeTenantTableEntryServiceEngine);
+    assertThat(directory.resolve("uuid")).isNotEmptyDirectory();
+  }
+
+  @Test
+  void replay_expired() {
+    when(clock.millis()).thenReturn(1000L, 1000L + Duration.ofMinutes(11).toMillis());
+    manager.hint(NODE_RANGE, TENANT_RESOURCE, entryInfo("first"));
+
+    assertThat(manager.replayAll()).isZero();
+    assertThat(directory.resolve("uuid")).isEmptyDirectory();
+  }
+
+  @Test
+  void hint_disabled() {
+    final ProxyConfiguration configuration = new ProxyConfiguration();
+    configuration.setHintDirectory(directory.toString());
+    configuration.setHintedHandoffEnabled(false);
+    manager = new HintManager(configuration, jsonEngine, cachingNodeTenantTableEntryServiceEngine, clock, metrics,
+        liveNodesEngine, executorEngine);
+
+    assertThat(manager.hint(NODE_RANGE, TENANT_RESOURCE, entryInfo("first"))).isFalse();
+    assertThat(directory).isEmptyDirectory();
+  }
+
+  @Test
+  void constructor_noDirectory() {
+    final ProxyConfiguration configuration = new ProxyConfiguration();
+    assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> new HintManager(configuration,
+        jsonEngine, cachingNodeTenantTableEntryServiceEngine, clock, metrics, liveNodesEngine,
+        executorEngine));
+  }
+
+  @Test
+  void constructor_noDirectoryWhenDisabled() {
+    final ProxyConfiguration configuration = new ProxyConfiguration();
+    configuration.setHintedHandoffEnabled(false);
+    manager = new HintManager(configuration, jsonEngine, cachingNodeTenantTableEntryServiceEngine, clock, metrics,
+        liveNodesEngine, executorEngine);
+
+    assertThat(manager.hint(NODE_RANGE, TENANT_RESOURCE, entryInfo("first"))).isFalse();
+  }
+}
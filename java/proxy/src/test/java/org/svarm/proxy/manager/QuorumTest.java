@@ -0,0 +1,64 @@
+package org.svarm.proxy.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.Test;
+import org.svarm.common.config.api.ImmutableNodeRange;
+import org.svarm.common.config.api.NodeRange;
+
+class QuorumTest {
+
+  private static final NodeRange NODE_A = ImmutableNodeRange.builder().uuid("a").uri("uri-a").hash(1).build();
+  private static final NodeRange NODE_B = ImmutableNodeRange.builder().uuid("b").uri("uri-b").hash(2).build();
+  private static final NodeRange NODE_C = ImmutableNodeRange.builder().uuid("c").uri("uri-c").hash(3).build();
+
+  @Test
+  void completesWhenRequiredRespond() {
+    final Quorum<String> quorum = new Quorum<>(2, 3);
+    quorum.success(NODE_A, "a");
+    quorum.failure(NODE_B, new IllegalArgumentException());
+    quorum.success(NODE_C, "c");
+
+    assertThat(quorum.result()).isCompletedWithValue(Map.of(NODE_A, "a", NODE_C, "c"));
+    assertThat(quorum.all()).isCompletedWithValue(Map.of(NODE_A, "a", NODE_C, "c"));
+  }
+
+  @Test
+  void completesEarly() {
+    final Quorum<String> quorum = new Quorum<>(1, 3);
+    quorum.success(NODE_A, "a");
+
+    assertThat(quorum.result()).isCompletedWithValue(Map.of(NODE_A, "a"));
+    assertThat(quorum.all()).isNotDone();
+
+    quorum.success(NODE_B, "b");
+    quorum.success(NODE_C, "c");
+    assertThat(quorum.all()).isCompletedWithValue(Map.of(NODE_A, "a", NODE_B, "b", NODE_C, "c"));
+  }
+
+  @Test
+  void failsWhenRequiredCannotRespond() {
+    final Quorum<String> quorum = new Quorum<>(2, 3);
+    quorum.failure(NODE_A, new IllegalArgumentException());
+    quorum.failure(NODE_B, new IllegalArgumentException());
+
+    assertThat(quorum.result()).failsWithin(Duration.ZERO)
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void nothingRequired() {
+    assertThat(new Quorum<String>(0, 2).result()).isCompletedWithValue(Map.of());
+  }
+
+  @Test
+  void moreRequiredThanReplicas() {
+    assertThat(new Quorum<String>(2, 1).result()).failsWithin(Duration.ZERO)
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(IllegalStateException.class);
+  }
+}
@@ -1,51 +1,649 @@
 package org.svarm.proxy.manager;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 import com.codeheadsystems.metrics.Metrics;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.MoreExecutors;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import feign.Util;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
-import java.util.List;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.api.ImmutableNodeRange;
+import org.svarm.common.config.api.ImmutableTenantResource;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.common.config.api.TenantResource;
+import org.svarm.common.config.engine.LiveNodesEngine;
+import org.svarm.common.engine.HashingEngine;
+import org.svarm.common.engine.TraceUuidEngine;
+import org.svarm.node.api.EntryDigest;
 import org.svarm.node.api.EntryInfo;
+import org.svarm.node.api.ImmutableEntryDigest;
+import org.svarm.node.api.ImmutableEntryInfo;
+import org.svarm.node.api.NodeTenantTableEntryAsyncService;
+import org.svarm.node.api.NodeTenantTableEntryService;
+import org.svarm.node.codec.EncodedEntryInfo;
+import org.svarm.node.javaclient.api.NodeTenantTableEntryRawService;
+import org.svarm.proxy.ProxyConfiguration;
 import org.svarm.proxy.engine.CachingNodeTenantTableEntryServiceEngine;
+import org.svarm.proxy.engine.HedgingEngine;
 import org.svarm.proxy.engine.NodeRangeResolverEngine;
+import org.svarm.proxy.engine.NodeStatsEngine;
+import org.svarm.proxy.engine.RawEntryEngine;
+import org.svarm.proxy.model.Consistency;
+import org.svarm.proxy.model.RawEntry;
+import org.svarm.server.exception.NotFoundException;
 
 @ExtendWith(MockitoExtension.class)
 class TableEntryManagerTest {
+
+  private static final TenantResource TENANT_RESOURCE = ImmutableTenantResource.builder()
+      .tenant("tenant").resource("resource").build();
+  private static final String ENTRY = "entry";
+  private static final NodeRange NODE_A = ImmutableNodeRange.builder().uuid("a").uri("uri-a").hash(1).build();
+  private static final NodeRange NODE_B = ImmutableNodeRange.builder().uuid("b").uri("uri-b").hash(2).build();
+  private static final NodeRange NODE_C = ImmutableNodeRange.builder().uuid("c").uri("uri-c").hash(3).build();
+
   @Mock private CachingNodeTenantTableEntryServiceEngine cachingNodeTenantTableEntryServiceEngine;
   @Mock private NodeRangeResolverEngine nodeRangeResolverEngine;
   @Mock private Clock clock;
   @Mock private Metrics metrics;
-  @Mock private ExecutorService nodeServiceExecutor;
-
-  @InjectMocks private TableEntryManager manager;
-
-  @Test
-  void largestFirst() {
-    final JsonNode nodeRare = mock(JsonNode.class);
-    final JsonNode nodeCommon = mock(JsonNode.class);
-    final EntryInfo info1 = mock(EntryInfo.class);
-    final EntryInfo info2 = mock(EntryInfo.class);
-    final EntryInfo info3 = mock(EntryInfo.class);
-    final Map<JsonNode, List<EntryInfo>> map = Map.of(
-        nodeRare, List.of(info1),
-        nodeCommon, List.of(info2, info3)
-    );
-    final Optional<EntryInfo> result = map.entrySet().stream()
-        .sorted(manager::largestListFirst)
-        .map(Map.Entry::getValue)
-        .map(list -> list.get(0))
-        .findFirst();
-    assertThat(result).isPresent()
-        .contains(info2);
-  }
-}
\ No newline at end of file
+  @Mock private HintManager hintManager;
+  @Mock private LiveNodesEngine liveNodesEngine;
+  @Mock private NodeTenantTableEntryService serviceA;
+  @Mock private NodeTenantTableEntryService serviceB;
+  @Mock private NodeTenantTableEntryService serviceC;
+  @Mock private NodeTenantTableEntryAsyncService asyncServiceA;
+  @Mock private NodeTenantTableEntryAsyncService asyncServiceB;
+  @Mock private NodeTenantTableEntryAsyncService asyncServiceC;
+  @Mock private NodeTenantTableEntryRawService rawServiceA;
+
+  private final HashingEngine hashingEngine = new HashingEngine();
+  private final JsonNode data = new ObjectMapper().createObjectNode().put("a", "b");
+  private NodeStatsEngine nodeStatsEngine;
+  private TableEntryManager manager;
+
+  @BeforeEach
+  void setup() {
+    final ProxyConfiguration configuration = new ProxyConfiguration();
+    configuration.setReadRepairChance(1.0);
+    configuration.setAsyncProxy(false);
+    lenient().when(liveNodesEngine.isLive(anyString())).thenReturn(true);
+    manager = manager(configuration, MoreExecutors.newDirectExecutorService());
+  }
+
+  private TableEntryManager manager(final ProxyConfiguration configuration, final ExecutorService executorService) {
+    nodeStatsEngine = new NodeStatsEngine(configuration, new SimpleMeterRegistry());
+    return new TableEntryManager(cachingNodeTenantTableEntryServiceEngine, clock, metrics,
+        executorService, nodeRangeResolverEngine, hintManager, configuration, hashingEngine,
+        new HedgingEngine(configuration, nodeStatsEngine, metrics), nodeStatsEngine,
+        new RawEntryEngine(new ObjectMapper()), liveNodesEngine, new TraceUuidEngine());
+  }
+
+  private void setupNodes() {
+    final Map<NodeRange, Integer> rangeHashMap = new LinkedHashMap<>();
+    rangeHashMap.put(NODE_A, 1);
+    rangeHashMap.put(NODE_B, 2);
+    rangeHashMap.put(NODE_C, 3);
+    when(nodeRangeResolverEngine.nodeRangeToHash(TENANT_RESOURCE, ENTRY)).thenReturn(rangeHashMap);
+    when(cachingNodeTenantTableEntryServiceEngine.get(NODE_A)).thenReturn(serviceA);
+    when(cachingNodeTenantTableEntryServiceEngine.get(NODE_B)).thenReturn(serviceB);
+    when(cachingNodeTenantTableEntryServiceEngine.get(NODE_C)).thenReturn(serviceC);
+  }
+
+  private void setupAsyncNodes() {
+    final ProxyConfiguration configuration = new ProxyConfiguration();
+    configuration.setHedgedReadsEnabled(false);
+    manager = manager(configuration, MoreExecutors.newDirectExecutorService());
+    final Map<NodeRange, Integer> rangeHashMap = new LinkedHashMap<>();
+    rangeHashMap.put(NODE_A, 1);
+    rangeHashMap.put(NODE_B, 2);
+    rangeHashMap.put(NODE_C, 3);
+    when(nodeRangeResolverEngine.nodeRangeToHash(TENANT_RESOURCE, ENTRY)).thenReturn(rangeHashMap);
+    when(cachingNodeTenantTableEntryServiceEngine.getAsync(NODE_A)).thenReturn(asyncServiceA);
+    when(cachingNodeTenantTableEntryServiceEngine.getAsync(NODE_B)).thenReturn(asyncServiceB);
+    when(cachingNodeTenantTableEntryServiceEngine.getAsync(NODE_C)).thenReturn(asyncServiceC);
+  }
+
+  private EntryInfo entryInfo(final int hash, final long timestamp) {
+    return ImmutableEntryInfo.builder().id(ENTRY).locationHash(hash).timestamp(timestamp).data(data).build();
+  }
+
+  private EntryDigest digest(final long timestamp) {
+    return ImmutableEntryDigest.builder().id(ENTRY).timestamp(timestamp).digest(hashingEngine.digest(data)).build();
+  }
+
+  @Test
+  void getTenantTableEntry_highestTimestampWins() {
+    setupNodes();
+    final EntryInfo newest = entryInfo(2, 2000L);
+    when(serviceA.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(Optional.of(entryInfo(1, 1000L)));
+    when(serviceB.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(Optional.of(digest(2000L)));
+    when(serviceC.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(Optional.empty());
+    when(serviceB.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(Optional.of(newest));
+    when(serviceC.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(Optional.empty());
+
+    assertThat(manager.getTenantTableEntry(TENANT_RESOURCE, ENTRY, Consistency.QUORUM)).contains(newest);
+
+    verify(serviceA).createTenantTableEntryReplica("tenant", "resource", ENTRY, 1, EncodedEntryInfo.of(newest));
+    verify(serviceB, never()).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    verify(serviceC, never()).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    verify(metrics).increment("TableEntryManager.divergence", "tenant", "tenant", "resource", "resource");
+  }
+
+  @Test
+  void getTenantTableEntry_missingReplicaIsNotRepaired() {
+    setupNodes();
+    final EntryInfo info = entryInfo(1, 1000L);
+    when(serviceA.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(Optional.of(info));
+    when(serviceB.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(Optional.empty());
+    when(serviceC.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(Optional.of(digest(1000L)));
+    lenient().when(serviceB.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(Optional.empty());
+
+    assertThat(manager.getTenantTableEntry(TENANT_RESOURCE, ENTRY, Consistency.QUORUM)).contains(info);
+
+    // B may have a newer delete, writing the entry back would undo it.
+    verify(serviceB, never()).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    verify(metrics, never()).increment("TableEntryManager.divergence", "tenant", "tenant", "resource", "resource");
+  }
+
+  @Test
+  void getTenantTableEntry_digestsMatch() {
+    setupNodes();
+    final EntryInfo info = entryInfo(1, 1000L);
+    when(serviceA.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(Optional.of(info));
+    when(serviceB.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(Optional.of(digest(1000L)));
+    when(serviceC.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(Optional.of(digest(1000L)));
+
+    assertThat(manager.getTenantTableEntry(TENANT_RESOURCE, ENTRY, Consistency.QUORUM)).contains(info);
+
+    verify(serviceB, never()).readTenantTableEntry(any(), any(), any());
+    verify(serviceC, never()).readTenantTableEntry(any(), any(), any());
+    verify(serviceA, never()).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    verify(serviceB, never()).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    verify(serviceC, never()).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+  }
+
+  @Test
+  void getTenantTableEntry_sameTimestampDifferentData() {
+    setupNodes();
+    final EntryInfo info = entryInfo(1, 1000L);
+    when(serviceA.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(Optional.of(info));
+    when(serviceB.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(Optional.of(digest(1000L)));
+    when(serviceC.readTenantTableEntryDigest("tenant", "resource", ENTRY))
+        .thenReturn(Optional.of(ImmutableEntryDigest.copyOf(digest(1000L)).withDigest(5L)));
+    when(serviceC.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(Optional.of(entryInfo(3, 1000L)));
+
+    assertThat(manager.getTenantTableEntry(TENANT_RESOURCE, ENTRY, Consistency.QUORUM)).isPresent();
+
+    verify(serviceB, never()).readTenantTableEntry(any(), any(), any());
+    verify(metrics).increment("TableEntryManager.digestMismatch", "tenant", "tenant", "resource", "resource");
+  }
+
+  @Test
+  void getTenantTableEntry_dataNodeFails() {
+    setupNodes();
+    final EntryInfo info = entryInfo(2, 1000L);
+    when(serviceA.readTenantTableEntry("tenant", "resource", ENTRY)).thenThrow(mock(RetryableException.class));
+    when(serviceB.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(Optional.of(digest(1000L)));
+    when(serviceC.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(Optional.of(digest(1000L)));
+    when(serviceB.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(Optional.of(info));
+    when(serviceC.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(Optional.of(entryInfo(3, 1000L)));
+
+    assertThat(manager.getTenantTableEntry(TENANT_RESOURCE, ENTRY, Consistency.QUORUM)).contains(info);
+  }
+
+  @Test
+  void getTenantTableEntry_hedged() throws InterruptedException {
+    final ProxyConfiguration configuration = new ProxyConfiguration();
+    configuration.setHedgeDefaultDelayMillis(10);
+    configuration.setHedgeBudgetPercent(100);
+    configuration.setAsyncProxy(false);
+    final ExecutorService executorService = Executors.newFixedThreadPool(4);
+    manager = manager(configuration, executorService);
+    setupNodes();
+    final EntryInfo info = entryInfo(2, 1000L);
+    final CountDownLatch interrupted = new CountDownLatch(1);
+    when(serviceA.readTenantTableEntry("tenant", "resource", ENTRY)).thenAnswer(invocation -> {
+      try {
+        Thread.sleep(10_000);
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+      return Optional.empty();
+    });
+    when(serviceB.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(Optional.of(digest(1000L)));
+    when(serviceC.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(Optional.of(digest(1000L)));
+    when(serviceB.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(Optional.of(info));
+
+    try {
+      assertThat(manager.getTenantTableEntry(TENANT_RESOURCE, ENTRY, Consistency.QUORUM)).contains(info);
+      assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue(); // the slow read was cancelled.
+      assertThat(nodeStatsEngine.score(NODE_A.uri())).isZero(); // and is not a latency sample.
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  void getTenantTableEntry_notFound() {
+    setupNodes();
+    when(serviceA.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(Optional.empty());
+    when(serviceB.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(Optional.empty());
+    when(serviceC.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenThrow(mock(FeignException.NotFound.class));
+
+    assertThat(manager.getTenantTableEntry(TENANT_RESOURCE, ENTRY, Consistency.QUORUM)).isEmpty();
+  }
+
+  @Test
+  void putTenantTableEntry() {
+    setupNodes();
+    when(clock.millis()).thenReturn(1000L);
+
+    manager.putTenantTableEntry(TENANT_RESOURCE, ENTRY, data, Consistency.QUORUM);
+
+    verify(serviceA).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    verify(serviceB).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    verify(serviceC).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    verify(hintManager, never()).hint(any(), any(), any());
+  }
+
+  @Test
+  void putTenantTableEntry_oneBodyForAllReplicas() {
+    setupNodes();
+    when(clock.millis()).thenReturn(1000L);
+
+    manager.putTenantTableEntry(TENANT_RESOURCE, ENTRY, data, Consistency.QUORUM);
+
+    final ArgumentCaptor<EntryInfo> bodyA = ArgumentCaptor.forClass(EntryInfo.class);
+    final ArgumentCaptor<EntryInfo> bodyB = ArgumentCaptor.forClass(EntryInfo.class);
+    final ArgumentCaptor<EntryInfo> bodyC = ArgumentCaptor.forClass(EntryInfo.class);
+    verify(serviceA).createTenantTableEntryReplica(eq("tenant"), eq("resource"), eq(ENTRY), eq(1), bodyA.capture());
+    verify(serviceB).createTenantTableEntryReplica(eq("tenant"), eq("resource"), eq(ENTRY), eq(2), bodyB.capture());
+    verify(serviceC).createTenantTableEntryReplica(eq("tenant"), eq("resource"), eq(ENTRY), eq(3), bodyC.capture());
+    assertThat(bodyA.getValue()).isSameAs(bodyB.getValue()).isSameAs(bodyC.getValue());
+    assertThat(bodyA.getValue().data()).isEqualTo(data);
+    assertThat(bodyA.getValue().timestamp()).isEqualTo(1000L);
+  }
+
+  @Test
+  void putTenantTableEntry_hintHasReplicaLocationHash() {
+    setupNodes();
+    when(clock.millis()).thenReturn(1000L);
+    doThrow(mock(RetryableException.class)).when(serviceB)
+        .createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    when(hintManager.hint(any(), any(), any())).thenReturn(true);
+
+    manager.putTenantTableEntry(TENANT_RESOURCE, ENTRY, data, Consistency.QUORUM);
+
+    verify(hintManager).hint(NODE_B, TENANT_RESOURCE, entryInfo(2, 1000L));
+  }
+
+  @Test
+  void putTenantTableEntry_downNodeIsHinted() {
+    final Map<NodeRange, Integer> rangeHashMap = new LinkedHashMap<>();
+    rangeHashMap.put(NODE_A, 1);
+    rangeHashMap.put(NODE_B, 2);
+    rangeHashMap.put(NODE_C, 3);
+    when(nodeRangeResolverEngine.nodeRangeToHash(TENANT_RESOURCE, ENTRY)).thenReturn(rangeHashMap);
+    when(cachingNodeTenantTableEntryServiceEngine.get(NODE_A)).thenReturn(serviceA);
+    when(cachingNodeTenantTableEntryServiceEngine.get(NODE_C)).thenReturn(serviceC);
+    when(liveNodesEngine.isLive(NODE_B.uuid())).thenReturn(false);
+    when(clock.millis()).thenReturn(1000L);
+    when(hintManager.hint(any(), any(), any())).thenReturn(true);
+
+    manager.putTenantTableEntry(TENANT_RESOURCE, ENTRY, data, Consistency.QUORUM);
+
+    verify(cachingNodeTenantTableEntryServiceEngine, never()).get(NODE_B);
+    verify(hintManager).hint(NODE_B, TENANT_RESOURCE, entryInfo(2, 1000L));
+    verify(metrics).increment("TableEntryManager.nodeDown", "node", NODE_B.uuid());
+  }
+
+  @Test
+  void getTenantTableEntry_downNodeIsNotRead() {
+    final Map<NodeRange, Integer> rangeHashMap = new LinkedHashMap<>();
+    rangeHashMap.put(NODE_A, 1);
+    rangeHashMap.put(NODE_B, 2);
+    rangeHashMap.put(NODE_C, 3);
+    when(nodeRangeResolverEngine.nodeRangeToHash(TENANT_RESOURCE, ENTRY)).thenReturn(rangeHashMap);
+    when(cachingNodeTenantTableEntryServiceEngine.get(NODE_B)).thenReturn(serviceB);
+    when(cachingNodeTenantTableEntryServiceEngine.get(NODE_C)).thenReturn(serviceC);
+    when(liveNodesEngine.isLive(NODE_A.uuid())).thenReturn(false);
+    final EntryInfo info = entryInfo(2, 1000L);
+    when(serviceB.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(Optional.of(info));
+    when(serviceC.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(Optional.of(digest(1000L)));
+
+    assertThat(manager.getTenantTableEntry(TENANT_RESOURCE, ENTRY, Consistency.QUORUM)).contains(info);
+
+    verify(cachingNodeTenantTableEntryServiceEngine, never()).get(NODE_A);
+  }
+
+  @Test
+  void putTenantTableEntry_unreachableNodeIsHinted() {
+    setupNodes();
+    when(clock.millis()).thenReturn(1000L);
+    doThrow(mock(RetryableException.class)).when(serviceB).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    when(hintManager.hint(any(), any(), any())).thenReturn(true);
+
+    manager.putTenantTableEntry(TENANT_RESOURCE, ENTRY, data, Consistency.QUORUM);
+
+    verify(hintManager).hint(any(), any(), any());
+  }
+
+  @Test
+  void putTenantTableEntry_belowQuorum() {
+    setupNodes();
+    when(clock.millis()).thenReturn(1000L);
+    doThrow(mock(RetryableException.class)).when(serviceB).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    doThrow(mock(RetryableException.class)).when(serviceC).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    when(hintManager.hint(any(), any(), any())).thenReturn(true);
+
+    assertThatExceptionOfType(IllegalStateException.class)
+        .isThrownBy(() -> manager.putTenantTableEntry(TENANT_RESOURCE, ENTRY, data, Consistency.QUORUM));
+  }
+
+  @Test
+  void putTenantTableEntry_noReplicas() {
+    when(nodeRangeResolverEngine.nodeRangeToHash(TENANT_RESOURCE, ENTRY)).thenReturn(Map.of());
+
+    assertThatExceptionOfType(NotFoundException.class)
+        .isThrownBy(() -> manager.putTenantTableEntry(TENANT_RESOURCE, ENTRY, data, Consistency.ONE));
+    verifyNoInteractions(cachingNodeTenantTableEntryServiceEngine);
+  }
+
+  @Test
+  void deleteTenantTableEntry_noReplicas() {
+    when(nodeRangeResolverEngine.nodeRangeToHash(TENANT_RESOURCE, ENTRY)).thenReturn(Map.of());
+
+    assertThatExceptionOfType(NotFoundException.class)
+        .isThrownBy(() -> manager.deleteTenantTableEntry(TENANT_RESOURCE, ENTRY, Consistency.ONE));
+    verifyNoInteractions(cachingNodeTenantTableEntryServiceEngine);
+  }
+
+  @Test
+  void putTenantTableEntry_consistencyOne() {
+    setupNodes();
+    when(clock.millis()).thenReturn(1000L);
+    doThrow(mock(RetryableException.class)).when(serviceB).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    doThrow(mock(RetryableException.class)).when(serviceC).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    when(hintManager.hint(any(), any(), any())).thenReturn(true);
+
+    manager.putTenantTableEntry(TENANT_RESOURCE, ENTRY, data, Consistency.ONE);
+  }
+
+  @Test
+  void putTenantTableEntry_consistencyAll() {
+    setupNodes();
+    when(clock.millis()).thenReturn(1000L);
+    doThrow(mock(RetryableException.class)).when(serviceC).createTenantTableEntryReplica(any(), any(), any(), anyInt(), any());
+    when(hintManager.hint(any(), any(), any())).thenReturn(true);
+
+    assertThatExceptionOfType(IllegalStateException.class)
+        .isThrownBy(() -> manager.putTenantTableEntry(TENANT_RESOURCE, ENTRY, data, Consistency.ALL));
+  }
+
+  @Test
+  void deleteTenantTableEntry_notFoundCounts() {
+    setupNodes();
+    when(clock.millis()).thenReturn(1000L);
+    doThrow(mock(FeignException.NotFound.class)).when(serviceA).deleteTenantTableEntry(any(), any(), any(), any());
+    doThrow(mock(RetryableException.class)).when(serviceB).deleteTenantTableEntry(any(), any(), any(), any());
+
+    manager.deleteTenantTableEntry(TENANT_RESOURCE, ENTRY, Consistency.QUORUM);
+
+    verify(serviceC).deleteTenantTableEntry("tenant", "resource", ENTRY, 1000L);
+  }
+
+  @Test
+  void deleteTenantTableEntry_belowQuorum() {
+    setupNodes();
+    doThrow(mock(RetryableException.class)).when(serviceA).deleteTenantTableEntry(any(), any(), any(), any());
+    doThrow(mock(RetryableException.class)).when(serviceB).deleteTenantTableEntry(any(), any(), any(), any());
+
+    assertThatExceptionOfType(IllegalStateException.class)
+        .isThrownBy(() -> manager.deleteTenantTableEntry(TENANT_RESOURCE, ENTRY, Consistency.QUORUM));
+  }
+
+  @Test
+  void getTenantTableEntryAsync_digestsMatch() {
+    setupAsyncNodes();
+    final EntryInfo info = entryInfo(1, 1000L);
+    when(asyncServiceA.readTenantTableEntry("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.completedFuture(Optional.of(info)));
+    when(asyncServiceB.readTenantTableEntryDigest("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.completedFuture(Optional.of(digest(1000L))));
+    when(asyncServiceC.readTenantTableEntryDigest("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.completedFuture(Optional.of(digest(1000L))));
+
+    assertThat(manager.getTenantTableEntryAsync(TENANT_RESOURCE, ENTRY, Consistency.QUORUM).join()).contains(info);
+
+    verify(asyncServiceB, never()).readTenantTableEntry(any(), any(), any());
+    verify(asyncServiceC, never()).readTenantTableEntry(any(), any(), any());
+  }
+
+  @Test
+  void getTenantTableEntryAsync_consistencyOnOtherThreads() throws InterruptedException {
+    setupAsyncNodes();
+    final EntryInfo info = entryInfo(1, 1000L);
+    final CompletableFuture<Optional<EntryInfo>> readA = new CompletableFuture<>();
+    when(asyncServiceA.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(readA);
+    when(asyncServiceB.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(new CompletableFuture<>());
+    when(asyncServiceC.readTenantTableEntryDigest("tenant", "resource", ENTRY)).thenReturn(new CompletableFuture<>());
+
+    final CompletableFuture<Optional<EntryInfo>> result =
+        manager.getTenantTableEntryAsync(TENANT_RESOURCE, ENTRY, Consistency.ONE);
+    // the data node answers on another thread; the consistency of the call still applies there.
+    final Thread thread = new Thread(() -> readA.complete(Optional.of(info)));
+    thread.start();
+    thread.join();
+
+    assertThat(result).isCompletedWithValue(Optional.of(info));
+  }
+
+  @Test
+  void getTenantTableEntryAsync_notFound() {
+    setupAsyncNodes();
+    when(asyncServiceA.readTenantTableEntry("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.failedFuture(mock(FeignException.NotFound.class)));
+    when(asyncServiceB.readTenantTableEntryDigest("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+    when(asyncServiceC.readTenantTableEntryDigest("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.failedFuture(mock(FeignException.NotFound.class)));
+
+    assertThat(manager.getTenantTableEntryAsync(TENANT_RESOURCE, ENTRY, Consistency.QUORUM).join()).isEmpty();
+  }
+
+  @Test
+  void putTenantTableEntryAsync_completesOnQuorum() {
+    setupAsyncNodes();
+    when(clock.millis()).thenReturn(1000L);
+    final CompletableFuture<Void> writeA = new CompletableFuture<>();
+    final CompletableFuture<Void> writeB = new CompletableFuture<>();
+    when(asyncServiceA.createTenantTableEntryReplica(any(), any(), any(), anyInt(), any())).thenReturn(writeA);
+    when(asyncServiceB.createTenantTableEntryReplica(any(), any(), any(), anyInt(), any())).thenReturn(writeB);
+    when(asyncServiceC.createTenantTableEntryReplica(any(), any(), any(), anyInt(), any())).thenReturn(new CompletableFuture<>());
+
+    final CompletableFuture<Void> result =
+        manager.putTenantTableEntryAsync(TENANT_RESOURCE, ENTRY, data, Consistency.QUORUM);
+    assertThat(result).isNotDone();
+    writeA.complete(null);
+    assertThat(result).isNotDone();
+    writeB.complete(null);
+    assertThat(result).isCompleted();
+  }
+
+  @Test
+  void putTenantTableEntryAsync_unreachableNodeIsHinted() {
+    setupAsyncNodes();
+    when(clock.millis()).thenReturn(1000L);
+    when(asyncServiceA.createTenantTableEntryReplica(any(), any(), any(), anyInt(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    when(asyncServiceB.createTenantTableEntryReplica(any(), any(), any(), anyInt(), any()))
+        .thenReturn(CompletableFuture.failedFuture(new ConnectException()));
+    when(asyncServiceC.createTenantTableEntryReplica(any(), any(), any(), anyInt(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    when(hintManager.hint(any(), any(), any())).thenReturn(true);
+
+    manager.putTenantTableEntryAsync(TENANT_RESOURCE, ENTRY, data, Consistency.QUORUM).join();
+
+    verify(hintManager).hint(any(), any(), any());
+  }
+
+  @Test
+  void deleteTenantTableEntryAsync_belowQuorum() {
+    setupAsyncNodes();
+    when(asyncServiceA.deleteTenantTableEntry(any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.failedFuture(mock(RetryableException.class)));
+    when(asyncServiceB.deleteTenantTableEntry(any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.failedFuture(mock(RetryableException.class)));
+    when(asyncServiceC.deleteTenantTableEntry(any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+
+    assertThat(manager.deleteTenantTableEntryAsync(TENANT_RESOURCE, ENTRY, Consistency.QUORUM))
+        .failsWithin(Duration.ofSeconds(1))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(IllegalStateException.class);
+  }
+
+  private void setupRawNodes() {
+    final ProxyConfiguration configuration = new ProxyConfiguration();
+    configuration.setHedgedReadsEnabled(false);
+    configuration.setReadRepairChance(0.0);
+    manager = manager(configuration, MoreExecutors.newDirectExecutorService());
+    final Map<NodeRange, Integer> rangeHashMap = new LinkedHashMap<>();
+    rangeHashMap.put(NODE_A, 1);
+    rangeHashMap.put(NODE_B, 2);
+    rangeHashMap.put(NODE_C, 3);
+    when(nodeRangeResolverEngine.nodeRangeToHash(TENANT_RESOURCE, ENTRY)).thenReturn(rangeHashMap);
+    when(cachingNodeTenantTableEntryServiceEngine.getRaw(NODE_A)).thenReturn(rawServiceA);
+    when(cachingNodeTenantTableEntryServiceEngine.getAsync(NODE_B)).thenReturn(asyncServiceB);
+    when(cachingNodeTenantTableEntryServiceEngine.getAsync(NODE_C)).thenReturn(asyncServiceC);
+  }
+
+  private static Response rawResponse(final int status, final String body) {
+    final Request request = Request.create(Request.HttpMethod.GET, "uri-a", Map.of(), null, Util.UTF_8, null);
+    return Response.builder().status(status).request(request).body(body, StandardCharsets.UTF_8).build();
+  }
+
+  private static String rawData(final RawEntry rawEntry) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    rawEntry.writeData(out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void passThrough() {
+    final ProxyConfiguration configuration = new ProxyConfiguration();
+    manager = manager(configuration, MoreExecutors.newDirectExecutorService());
+    assertThat(manager.passThrough(Consistency.QUORUM)).isFalse();
+    assertThat(manager.passThrough(Consistency.ONE)).isTrue();
+    configuration.setPassThroughReads(false);
+    manager = manager(configuration, MoreExecutors.newDirectExecutorService());
+    assertThat(manager.passThrough(Consistency.ONE)).isFalse();
+  }
+
+  @Test
+  void getTenantTableEntryRawAsync_passesDataThrough() throws IOException {
+    setupRawNodes();
+    when(rawServiceA.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(CompletableFuture.completedFuture(
+        rawResponse(200, "{\"id\":\"entry\",\"locationHash\":1,\"timestamp\":1000,\"data\":{\"a\":\"b\"}}")));
+    when(asyncServiceB.readTenantTableEntryDigest("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.completedFuture(Optional.of(digest(1000L))));
+    when(asyncServiceC.readTenantTableEntryDigest("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.completedFuture(Optional.of(digest(1000L))));
+
+    final Optional<RawEntry> result = manager.getTenantTableEntryRawAsync(TENANT_RESOURCE, ENTRY).join();
+
+    assertThat(result).isPresent();
+    assertThat(rawData(result.get())).isEqualTo("{\"a\":\"b\"}");
+    verify(asyncServiceA, never()).readTenantTableEntry(any(), any(), any());
+    verify(nodeRangeResolverEngine).nodeRangeToHash(TENANT_RESOURCE, ENTRY); // no full read after.
+  }
+
+  @Test
+  void getTenantTableEntryRawAsync_notFound() {
+    setupRawNodes();
+    when(rawServiceA.readTenantTableEntry("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.completedFuture(rawResponse(404, "")));
+    when(asyncServiceB.readTenantTableEntryDigest("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+    when(asyncServiceC.readTenantTableEntryDigest("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+    assertThat(manager.getTenantTableEntryRawAsync(TENANT_RESOURCE, ENTRY).join()).isEmpty();
+  }
+
+  @Test
+  void getTenantTableEntryRawAsync_staleReplicaIsResolved() {
+    setupRawNodes();
+    when(rawServiceA.readTenantTableEntry("tenant", "resource", ENTRY)).thenReturn(CompletableFuture.completedFuture(
+        rawResponse(200, "{\"id\":\"entry\",\"locationHash\":1,\"timestamp\":1000,\"data\":{\"a\":\"b\"}}")));
+    // the node order for the background read depends on the latencies just recorded.
+    lenient().when(cachingNodeTenantTableEntryServiceEngine.getAsync(NODE_A)).thenReturn(asyncServiceA);
+    lenient().when(asyncServiceA.readTenantTableEntry("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.completedFuture(Optional.of(entryInfo(1, 1000L))));
+    when(asyncServiceB.readTenantTableEntryDigest("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.completedFuture(Optional.of(digest(1000L))));
+    when(asyncServiceC.readTenantTableEntryDigest("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+    assertThat(manager.getTenantTableEntryRawAsync(TENANT_RESOURCE, ENTRY).join()).isPresent();
+
+    verify(metrics).increment("TableEntryManager.passThroughMismatch", "tenant", "tenant", "resource", "resource");
+    verify(nodeRangeResolverEngine, times(2)).nodeRangeToHash(TENANT_RESOURCE, ENTRY); // the full read.
+  }
+
+  @Test
+  void getTenantTableEntryRawAsync_singleReplicaFails() {
+    final ProxyConfiguration configuration = new ProxyConfiguration();
+    configuration.setHedgedReadsEnabled(false);
+    manager = manager(configuration, MoreExecutors.newDirectExecutorService());
+    when(nodeRangeResolverEngine.nodeRangeToHash(TENANT_RESOURCE, ENTRY)).thenReturn(Map.of(NODE_A, 1));
+    when(cachingNodeTenantTableEntryServiceEngine.getRaw(NODE_A)).thenReturn(rawServiceA);
+    final RuntimeException failure = new RuntimeException("node failed");
+    when(rawServiceA.readTenantTableEntry("tenant", "resource", ENTRY))
+        .thenReturn(CompletableFuture.failedFuture(failure));
+
+    assertThatExceptionOfType(CompletionException.class)
+        .isThrownBy(() -> manager.getTenantTableEntryRawAsync(TENANT_RESOURCE, ENTRY).join())
+        .withCause(failure); // the node's error, not a quorum of zero replicas.
+  }
+}
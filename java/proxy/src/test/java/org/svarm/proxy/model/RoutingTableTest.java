@@ -0,0 +1,62 @@
+package org.svarm.proxy.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.svarm.common.config.api.ImmutableTenantResourceRange;
+import org.svarm.common.config.api.NodeRange;
+import org.svarm.common.config.api.TenantResourceRange;
+
+@ExtendWith(MockitoExtension.class)
+class RoutingTableTest {
+
+  @Mock private NodeRange low;
+  @Mock private NodeRange middle;
+  @Mock private NodeRange high;
+
+  private TenantResourceRange range() {
+    return ImmutableTenantResourceRange.builder()
+        .tenant("tenant")
+        .resource("resource")
+        .hashToNodeRange(Map.of(Integer.MIN_VALUE, low, 0, middle, 1000, high))
+        .build();
+  }
+
+  @Test
+  void nodeRangeForHash() {
+    final RoutingTable table = RoutingTable.of(range());
+
+    assertThat(table.size()).isEqualTo(3);
+    assertThat(table.nodeRangeForHash(Integer.MIN_VALUE)).isEqualTo(low);
+    assertThat(table.nodeRangeForHash(-1)).isEqualTo(low);
+    assertThat(table.nodeRangeForHash(0)).isEqualTo(middle);
+    assertThat(table.nodeRangeForHash(999)).isEqualTo(middle);
+    assertThat(table.nodeRangeForHash(1000)).isEqualTo(high);
+    assertThat(table.nodeRangeForHash(Integer.MAX_VALUE)).isEqualTo(high);
+  }
+
+  @Test
+  void nodeRangeForHash_belowLowest() {
+    final RoutingTable table = RoutingTable.of(ImmutableTenantResourceRange.builder()
+        .tenant("tenant")
+        .resource("resource")
+        .hashToNodeRange(Map.of(0, middle))
+        .build());
+
+    assertThatExceptionOfType(IllegalStateException.class)
+        .isThrownBy(() -> table.nodeRangeForHash(-1));
+  }
+
+  @Test
+  void tenantResourceRange() {
+    final TenantResourceRange range = range();
+
+    assertThat(RoutingTable.of(range).tenantResourceRange()).isEqualTo(range);
+  }
+
+}
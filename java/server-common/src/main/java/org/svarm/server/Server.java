@@ -17,6 +17,7 @@
 package org.svarm.server;
 
 import io.dropwizard.core.Application;
+import io.dropwizard.core.server.AbstractServerFactory;
 import io.dropwizard.core.setup.Environment;
 import java.util.UUID;
 import org.slf4j.Logger;
@@ -60,6 +61,11 @@ public abstract class Server<T extends ServerConfiguration> extends Application<
                   final Environment environment) throws Exception {
     LOGGER.info("run({},{})", configuration, environment);
     LOGGER.info("\n---\n--- Server Setup Starting ---\n---");
+    if (configuration.isVirtualThreads()
+        && configuration.getServerFactory() instanceof AbstractServerFactory serverFactory) {
+      LOGGER.info("Jetty will handle requests on virtual threads");
+      serverFactory.setEnableVirtualThreads(true);
+    }
     final TraceUuidEngine engine = new TraceUuidEngine();
     engine.set(getName() + ":init:" + UUID.randomUUID());
     final DropWizardModule module = new DropWizardModule(engine, environment, configuration);
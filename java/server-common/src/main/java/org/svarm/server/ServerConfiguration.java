@@ -26,6 +26,7 @@ public class ServerConfiguration extends Configuration {
   private EtcdConfiguration etcdConfiguration;
   private String stage = "dev"; // dev, test, alpha, beta, gamma, prod
   private boolean useTestJavaClient = false;
+  private boolean virtualThreads = false;
 
   /**
    * Instantiates a new Server configuration.
@@ -87,4 +88,22 @@ public class ServerConfiguration extends Configuration {
   public void setUseTestJavaClient(final boolean useTestJavaClient) {
     this.useTestJavaClient = useTestJavaClient;
   }
+
+  /**
+   * If requests and the internal executors run on virtual threads.
+   *
+   * @return the boolean
+   */
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * Sets if requests and the internal executors run on virtual threads.
+   *
+   * @param virtualThreads the value.
+   */
+  public void setVirtualThreads(final boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+  }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.server.engine;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks on the given executor, but only so many at a time. A task waits for a permit on its own thread, so
+ * with virtual threads waiting tasks are cheap and submitting never blocks the caller.
+ */
+class BoundedExecutorService extends AbstractExecutorService {
+
+  private final ExecutorService delegate;
+  private final Semaphore permits;
+
+  /**
+   * Constructor.
+   *
+   * @param delegate to run the tasks.
+   * @param limit    the number of tasks that can run at once.
+   */
+  BoundedExecutorService(final ExecutorService delegate, final int limit) {
+    this.delegate = delegate;
+    this.permits = new Semaphore(limit);
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    delegate.execute(() -> {
+      try {
+        permits.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      try {
+        command.run();
+      } finally {
+        permits.release();
+      }
+    });
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2023. Ned Wolpert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.svarm.server.engine;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.svarm.server.ServerConfiguration;
+
+/**
+ * Creates the executors for the server, on platform or virtual threads depending on the configuration. With
+ * virtual threads every task gets its own thread, but a pool still only runs its number of tasks at once so it
+ * keeps protecting what is behind it; single threaded executors stay single threaded.
+ */
+@Singleton
+public class ExecutorEngine {
+
+  private static final Logger LOGGER = getLogger(ExecutorEngine.class);
+
+  private final boolean virtualThreads;
+
+  /**
+   * Constructor.
+   *
+   * @param configuration to see if we use virtual threads.
+   */
+  @Inject
+  public ExecutorEngine(final ServerConfiguration configuration) {
+    this.virtualThreads = configuration.isVirtualThreads();
+    LOGGER.info("ExecutorEngine({})", virtualThreads);
+  }
+
+  private ThreadFactory threadFactory(final String name) {
+    return virtualThreads
+        ? Thread.ofVirtual().name(name + "-", 0).factory()
+        : Thread.ofPlatform().name(name + "-", 0).factory();
+  }
+
+  /**
+   * An executor that runs up to the given number of tasks at once, on a fixed set of platform threads or with each
+   * task on its own virtual thread.
+   *
+   * @param name    for the threads.
+   * @param threads the number of tasks to run at once.
+   * @return the executor.
+   */
+  public ExecutorService pool(final String name, final int threads) {
+    LOGGER.info("pool({},{})", name, threads);
+    return virtualThreads
+        ? new BoundedExecutorService(Executors.newThreadPerTaskExecutor(threadFactory(name)), threads)
+        : Executors.newFixedThreadPool(threads, threadFactory(name));
+  }
+
+  /**
+   * An executor that runs one task at a time.
+   *
+   * @param name for the thread.
+   * @return the executor.
+   */
+  public ExecutorService single(final String name) {
+    LOGGER.info("single({})", name);
+    return Executors.newSingleThreadExecutor(threadFactory(name));
+  }
+
+  /**
+   * A scheduler that runs one task at a time.
+   *
+   * @param name for the thread.
+   * @return the scheduler.
+   */
+  public ScheduledExecutorService scheduler(final String name) {
+    LOGGER.info("scheduler({})", name);
+    return Executors.newSingleThreadScheduledExecutor(threadFactory(name));
+  }
+
+}
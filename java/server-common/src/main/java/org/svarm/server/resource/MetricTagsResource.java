@@ -30,16 +30,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Used so that we can have set the default tags needed for metrics.
+ * Used so that we can have set the default tags needed for metrics. The metrics context is kept on the request
+ * instead of a thread local, so it is found again when an async response is filtered on a different thread.
  */
 @Singleton
 public class MetricTagsResource implements ContainerRequestFilter, ContainerResponseFilter, JerseyResource {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MetricTagsResource.class);
+  private static final String METRICS_CONTEXT = MetricTagsResource.class.getName() + ".metricsContext";
   private final MetricFactory metricFactory;
 
-  private final ThreadLocal<MetricFactory.MetricsContext> metricsContextThreadLocal = new ThreadLocal<>();
-
   /**
    * Default constructor.
    *
@@ -68,13 +68,8 @@ public class MetricTagsResource implements ContainerRequestFilter, ContainerResp
    */
   @Override
   public void filter(final ContainerRequestContext requestContext) throws IOException {
-    final MetricFactory.MetricsContext oldContext = metricsContextThreadLocal.get();
-    if (oldContext != null) {
-      LOGGER.warn("Metrics context already set. This is a bug. {}", oldContext);
-      metricFactory.disableMetricsContext(oldContext);
-    }
     final MetricFactory.MetricsContext context = metricFactory.enableMetricsContext();
-    metricsContextThreadLocal.set(context);
+    requestContext.setProperty(METRICS_CONTEXT, context);
     //TODO: this is bad when tenant/table or whatnot appears in the path. Figure it out. :/
     metricFactory.and("path", requestContext.getUriInfo().getPath());
   }
@@ -89,12 +84,11 @@ public class MetricTagsResource implements ContainerRequestFilter, ContainerResp
   @Override
   public void filter(final ContainerRequestContext requestContext,
                      final ContainerResponseContext responseContext) throws IOException {
-    final MetricFactory.MetricsContext context = metricsContextThreadLocal.get();
-    if (context == null) {
-      LOGGER.warn("Metrics context not set. This is a bug.");
-    } else {
+    if (requestContext.getProperty(METRICS_CONTEXT) instanceof MetricFactory.MetricsContext context) {
       metricFactory.disableMetricsContext(context);
-      metricsContextThreadLocal.remove();
+      requestContext.removeProperty(METRICS_CONTEXT);
+    } else {
+      LOGGER.warn("Metrics context not set. This is a bug.");
     }
   }
 }
@@ -32,7 +32,8 @@ import org.svarm.common.engine.TraceUuidEngine;
 
 /**
  * Used so that we can have request/responses use the traceUUID concept for request tracing. Ensures the UUID
- * is reset at the end of the request.
+ * is reset at the end of the request. The UUID is also kept on the request, since an async response is
+ * filtered on a different thread than the request was.
  */
 @Singleton
 public class TraceUuidResource implements ContainerRequestFilter, ContainerResponseFilter, JerseyResource {
@@ -68,6 +69,7 @@ public class TraceUuidResource implements ContainerRequestFilter, ContainerRespo
     final String uuid = getOrCreatedUuid(uuidFromHeader);
     LOGGER.trace("filter(client_set:{}):{}", fromClient, uuid);
     traceUuidEngine.set(uuid);
+    requestContext.setProperty(TRACE_UUID_HEADER, uuid);
   }
 
   /**
@@ -80,7 +82,8 @@ public class TraceUuidResource implements ContainerRequestFilter, ContainerRespo
   @Override
   public void filter(final ContainerRequestContext requestContext,
                      final ContainerResponseContext responseContext) throws IOException {
-    final String uuid = traceUuidEngine.get();
+    final Object property = requestContext.getProperty(TRACE_UUID_HEADER);
+    final String uuid = property instanceof String value ? value : traceUuidEngine.get();
     LOGGER.trace("filter(response):{}", uuid);
     responseContext.getHeaders().add(TRACE_UUID_HEADER, getOrCreatedUuid(uuid));
     traceUuidEngine.clear();
@@ -0,0 +1,76 @@
+package org.svarm.server.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.svarm.server.ServerConfiguration;
+
+class ExecutorEngineTest {
+
+  private ExecutorEngine engine(final boolean virtualThreads) {
+    final ServerConfiguration configuration = new ServerConfiguration();
+    configuration.setVirtualThreads(virtualThreads);
+    return new ExecutorEngine(configuration);
+  }
+
+  private Thread thread(final ExecutorService executorService) throws Exception {
+    try {
+      return executorService.submit(Thread::currentThread).get();
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  void pool_platform() throws Exception {
+    final Thread thread = thread(engine(false).pool("test", 2));
+    assertThat(thread.isVirtual()).isFalse();
+    assertThat(thread.getName()).startsWith("test-");
+  }
+
+  @Test
+  void pool_virtual() throws Exception {
+    final Thread thread = thread(engine(true).pool("test", 2));
+    assertThat(thread.isVirtual()).isTrue();
+    assertThat(thread.getName()).startsWith("test-");
+  }
+
+  @Test
+  void pool_virtual_boundedByThreads() throws Exception {
+    final ExecutorService pool = engine(true).pool("test", 2);
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger most = new AtomicInteger();
+    final CountDownLatch done = new CountDownLatch(10);
+    for (int i = 0; i < 10; i++) {
+      pool.execute(() -> {
+        most.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        done.countDown();
+      });
+    }
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    pool.shutdown();
+    assertThat(most.get()).isEqualTo(2);
+  }
+
+  @Test
+  void single_virtual() throws Exception {
+    assertThat(thread(engine(true).single("test")).isVirtual()).isTrue();
+  }
+
+  @Test
+  void scheduler_virtual() throws Exception {
+    final ScheduledExecutorService scheduler = engine(true).scheduler("test");
+    assertThat(thread(scheduler).isVirtual()).isTrue();
+  }
+}
@@ -86,4 +86,13 @@ class TraceUuidResourceTest {
     verify(multivaluedMap).add(TRACE_UUID_HEADER, uuid);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void response_asyncThread() throws IOException {
+    when(responseContext.getHeaders()).thenReturn(multivaluedMap);
+    when(requestContext.getProperty(TRACE_UUID_HEADER)).thenReturn(UUID);
+
+    traceUUIDResource.filter(requestContext, responseContext);
+    verify(multivaluedMap).add(TRACE_UUID_HEADER, UUID);
+  }
+
+}